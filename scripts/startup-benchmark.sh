@@ -0,0 +1,51 @@
+#!/usr/bin/env bash
+# Primerjava zagona osnovne in optimizirane (AppCDS + Spring AOT) slike.
+# Za vsako sliko izmeri čas do prvega uspešnega zahtevka (readiness), RSS vsebnika
+# ter trajanje Flyway migracije/validacije in Hibernate bootstrapa iz /actuator/startup.
+#
+# Predpogoj: dosegljiv Postgres (DB_URL) in zgrajeni sliki:
+#   make docker-build docker-build-optimized
+set -euo pipefail
+
+BASELINE_IMAGE=${BASELINE_IMAGE:-planify/booking-service:0.0.1}
+OPTIMIZED_IMAGE=${OPTIMIZED_IMAGE:-planify/booking-service:0.0.1-cds}
+DB_URL=${DB_URL:-jdbc:postgresql://host.docker.internal:5432/planify}
+RUNS=${RUNS:-5}
+PORT=${PORT:-18086}
+
+measure() {
+    local image=$1 name=booking-startup-bench
+    docker rm -f "$name" >/dev/null 2>&1 || true
+    local started=$(date +%s%N)
+    docker run -d --name "$name" -p "$PORT:8086" --add-host host.docker.internal:host-gateway \
+        -e DB_URL="$DB_URL" -e STARTUP_TRACE=true \
+        -e MANAGEMENT_ENDPOINTS_INCLUDE=health,startup \
+        -e BOOKING_INVALIDATION_ENABLED=false \
+        "$image" >/dev/null
+    until curl -sf "http://localhost:$PORT/actuator/health/readiness" >/dev/null; do
+        sleep 0.05
+    done
+    local ready_ms=$(( ($(date +%s%N) - started) / 1000000 ))
+    local rss=$(docker stats --no-stream --format '{{.MemUsage}}' "$name" | cut -d/ -f1)
+    local steps=$(curl -sf -X POST "http://localhost:$PORT/actuator/startup")
+    local flyway_ms=$(step_ms "$steps" flywayInitializer)
+    local hibernate_ms=$(step_ms "$steps" entityManagerFactory)
+    docker rm -f "$name" >/dev/null
+    printf '%-10s %8s %10s %10s %12s\n' "$2" "$ready_ms" "$rss" "$flyway_ms" "$hibernate_ms"
+}
+
+# Trajanje koraka spring.beans.instantiate za podan bean v ms
+step_ms() {
+    echo "$1" | jq -r --arg bean "$2" '
+        [.timeline.events[]
+         | select(.startupStep.name == "spring.beans.instantiate")
+         | select(any(.startupStep.tags[]; .key == "beanName" and .value == $bean))
+         | .duration] | first // "PT0S"
+        | sub("^PT"; "") | sub("S$"; "") | tonumber * 1000 | floor'
+}
+
+printf '%-10s %8s %10s %10s %12s\n' image ready_ms rss flyway_ms hibernate_ms
+for i in $(seq "$RUNS"); do
+    measure "$BASELINE_IMAGE" baseline
+    measure "$OPTIMIZED_IMAGE" optimized
+done
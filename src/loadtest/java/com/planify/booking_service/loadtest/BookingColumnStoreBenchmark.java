@@ -0,0 +1,224 @@
+package com.planify.booking_service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.planify.booking_service.domain.Booking;
+import com.planify.booking_service.domain.BookingStatus;
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.service.BookingColumnStore;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Pomnilnik in hitrost skeniranja BookingColumnStore proti seznamom entitet Booking.
+ *
+ * <pre>
+ * MAVEN_OPTS=-Xmx4g mvn -Pload-test test-compile exec:java \
+ *     -Dloadtest.main=com.planify.booking_service.loadtest.BookingColumnStoreBenchmark
+ * </pre>
+ *
+ * Rezervacije se ustvarijo po lokacijah v vrstnem redu začetka (1-4 h, presledki 0-4 h, 10 %
+ * preklicanih). Velikost v pomnilniku izmeri JOL (GraphLayout) za celotno shrambo in za vzorec
+ * entitet s skupnimi lokacijami; 10M entitet bi potrebovalo več GB kopice, zato se entitete
+ * merijo na vzorcu in primerjajo na rezervacijo. Meritve skeniranja:
+ * <ul>
+ *   <li>availability - anyOverlapping za naključna 2-urna okna na naključnih lokacijah</li>
+ *   <li>report - bookedSeconds za celotno obdobje vseh lokacij (polno skeniranje)</li>
+ *   <li>entity-report - enak izračun nad seznami entitet (vzorec)</li>
+ * </ul>
+ */
+@Slf4j
+public class BookingColumnStoreBenchmark {
+
+    private static final Set<BookingStatus> ACTIVE = EnumSet.of(BookingStatus.PENDING_PAYMENT, BookingStatus.CONFIRMED);
+    private static final int REPORT_ROUNDS = 5;
+
+    public record Memory(long bookings, long totalBytes, double bytesPerBooking) {
+    }
+
+    public record Scan(String name, long operations, long bookingsScanned, double seconds, double operationsPerSecond,
+                       double bookingsPerSecond) {
+    }
+
+    public record Result(int locations, long bookings, long loadMillis, Memory columns, Memory entities,
+                         long bookingInstanceBytes, List<Scan> scans) {
+    }
+
+    private record Window(LocalDateTime from, LocalDateTime to) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int bookings = Integer.getInteger("loadtest.columns.bookings", 10_000_000);
+        int locationCount = Integer.getInteger("loadtest.columns.locations", 1_000);
+        int entitySample = Integer.getInteger("loadtest.columns.entity-sample", 200_000);
+        int queries = Integer.getInteger("loadtest.columns.queries", 2_000_000);
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "target/load-test"));
+
+        LocalDateTime base = LocalDate.now(ZoneOffset.UTC).plusDays(1).atStartOfDay();
+        SplittableRandom random = new SplittableRandom(42);
+        List<Location> locations = new ArrayList<>(locationCount);
+        for (int i = 0; i < locationCount; i++) {
+            locations.add(Location.builder().id(new UUID(random.nextLong(), random.nextLong())).name("Location " + i)
+                .capacity(20).active(true).build());
+        }
+
+        int perLocation = bookings / locationCount;
+        long started = System.nanoTime();
+        BookingColumnStore store = new BookingColumnStore();
+        LocalDateTime horizon = base;
+        for (Location location : locations) {
+            LocalDateTime start = base;
+            for (int i = 0; i < perLocation; i++) {
+                start = start.plusMinutes(30L * random.nextInt(9));
+                LocalDateTime end = start.plusMinutes(30L * (2 + random.nextInt(7)));
+                store.add(location.getId(), new UUID(random.nextLong(), random.nextLong()), start, end, status(random));
+                start = end;
+            }
+            horizon = start.isAfter(horizon) ? start : horizon;
+        }
+        store.trimToSize();
+        long loadMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        long stored = store.size();
+        log.info("Loaded {} bookings into {} locations in {} ms", stored, locationCount, loadMillis);
+
+        Memory columns = memory(stored, GraphLayout.parseInstance(store).totalSize());
+
+        // Vzorec entitet z enako porazdelitvijo; lokacije so skupne, zato jih odštejemo
+        int entitiesPerLocation = Math.max(1, entitySample / locationCount);
+        List<List<Booking>> entities = new ArrayList<>(locationCount);
+        for (Location location : locations) {
+            List<Booking> locationBookings = new ArrayList<>(entitiesPerLocation);
+            LocalDateTime start = base;
+            for (int i = 0; i < entitiesPerLocation; i++) {
+                start = start.plusMinutes(30L * random.nextInt(9));
+                LocalDateTime end = start.plusMinutes(30L * (2 + random.nextInt(7)));
+                LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+                locationBookings.add(Booking.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .location(location)
+                    .organizationId(new UUID(random.nextLong(), random.nextLong()))
+                    .startTime(start)
+                    .endTime(end)
+                    .status(status(random))
+                    .headcount(1 + random.nextInt(4))
+                    .totalAmountCents(6000 * (2 + random.nextInt(7)))
+                    .currency("EUR")
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+                start = end;
+            }
+            entities.add(locationBookings);
+        }
+        long entityCount = (long) entitiesPerLocation * locationCount;
+        Memory entityMemory = memory(entityCount,
+            GraphLayout.parseInstance(entities).totalSize() - GraphLayout.parseInstance(locations).totalSize());
+        long bookingInstanceBytes = ClassLayout.parseClass(Booking.class).instanceSize();
+
+        List<Window> windows = new ArrayList<>(queries);
+        long horizonMinutes = Duration.between(base, horizon).toMinutes();
+        for (int i = 0; i < queries; i++) {
+            LocalDateTime from = base.plusMinutes(30 * random.nextLong(horizonMinutes / 30));
+            windows.add(new Window(from, from.plusHours(2)));
+        }
+        List<UUID> queryLocations = new ArrayList<>(queries);
+        for (int i = 0; i < queries; i++) {
+            queryLocations.add(locations.get(random.nextInt(locationCount)).getId());
+        }
+
+        List<Scan> scans = new ArrayList<>();
+        availability(store, queryLocations, windows);
+        scans.add(availability(store, queryLocations, windows));
+        report(store, locations, base, horizon);
+        scans.add(report(store, locations, base, horizon));
+        entityReport(entities, base, horizon);
+        scans.add(entityReport(entities, base, horizon));
+
+        Result result = new Result(locationCount, stored, loadMillis, columns, entityMemory, bookingInstanceBytes, scans);
+        Files.createDirectories(reportDir);
+        Path report = reportDir.resolve("booking-columns-" + LoadReport.FILE_TIMESTAMP.format(Instant.now()) + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), result);
+        log.info("Columns: {} MB, {} B/booking; entities: {} B/booking (Booking instance {} B)",
+            columns.totalBytes() / 1048576, "%.1f".formatted(columns.bytesPerBooking()),
+            "%.1f".formatted(entityMemory.bytesPerBooking()), bookingInstanceBytes);
+        scans.forEach(scan -> log.info("{}: {} ops/s{}", scan.name(), Math.round(scan.operationsPerSecond()),
+            scan.bookingsScanned() == 0 ? "" : ", %.1f M bookings/s scanned".formatted(scan.bookingsPerSecond() / 1e6)));
+        log.info("Report written to {}", report.toAbsolutePath());
+    }
+
+    private static BookingStatus status(SplittableRandom random) {
+        int roll = random.nextInt(10);
+        return roll == 0 ? BookingStatus.CANCELLED : roll < 4 ? BookingStatus.PENDING_PAYMENT : BookingStatus.CONFIRMED;
+    }
+
+    private static Memory memory(long bookings, long totalBytes) {
+        return new Memory(bookings, totalBytes, (double) totalBytes / bookings);
+    }
+
+    private static Scan availability(BookingColumnStore store, List<UUID> locations, List<Window> windows) {
+        long started = System.nanoTime();
+        long busy = 0;
+        for (int i = 0; i < windows.size(); i++) {
+            Window window = windows.get(i);
+            if (store.anyOverlapping(locations.get(i), window.from(), window.to(), ACTIVE)) {
+                busy++;
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        log.debug("{} of {} availability windows busy", busy, windows.size());
+        return new Scan("availability", windows.size(), 0, seconds, windows.size() / seconds, 0);
+    }
+
+    private static Scan report(BookingColumnStore store, List<Location> locations, LocalDateTime from, LocalDateTime to) {
+        long started = System.nanoTime();
+        long booked = 0;
+        for (int round = 0; round < REPORT_ROUNDS; round++) {
+            for (Location location : locations) {
+                booked += store.bookedSeconds(location.getId(), from, to, ACTIVE);
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long operations = (long) REPORT_ROUNDS * locations.size();
+        long scanned = REPORT_ROUNDS * store.size();
+        log.debug("Booked {} hours", booked / REPORT_ROUNDS / 3600);
+        return new Scan("report", operations, scanned, seconds, operations / seconds, scanned / seconds);
+    }
+
+    private static Scan entityReport(List<List<Booking>> entities, LocalDateTime from, LocalDateTime to) {
+        long started = System.nanoTime();
+        long booked = 0;
+        long scanned = 0;
+        for (int round = 0; round < REPORT_ROUNDS; round++) {
+            for (List<Booking> locationBookings : entities) {
+                for (Booking booking : locationBookings) {
+                    if (ACTIVE.contains(booking.getStatus()) && booking.getStartTime().isBefore(to)
+                            && booking.getEndTime().isAfter(from)) {
+                        LocalDateTime start = booking.getStartTime().isAfter(from) ? booking.getStartTime() : from;
+                        LocalDateTime end = booking.getEndTime().isBefore(to) ? booking.getEndTime() : to;
+                        booked += Duration.between(start, end).getSeconds();
+                    }
+                }
+                scanned += locationBookings.size();
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long operations = (long) REPORT_ROUNDS * entities.size();
+        log.debug("Booked {} hours in entity sample", booked / REPORT_ROUNDS / 3600);
+        return new Scan("entity-report", operations, scanned, seconds, operations / seconds, scanned / seconds);
+    }
+}
@@ -0,0 +1,150 @@
+package com.planify.booking_service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.planify.booking_service.service.BookingExportService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Izvoz loadtest.export.bookings rezervacij (privzeto 5M) iz vgrajenega Postgresa v CSV in NDJSON.
+ * BookingExportService se kliče neposredno, ker REST izvoz zahteva JWT z vlogo; izhod se samo prešteje.
+ *
+ * Poročilo vsebuje čas, vrstice in bajte na sekundo ter največjo porabo heapa med izvozom nad
+ * stanjem pred njim (vzorčeno vsakih 20 ms). Z majhnim -Xmx se preveri, da poraba ni odvisna
+ * od števila vrstic.
+ *
+ * <pre>
+ * MAVEN_OPTS=-Xmx512m mvn -Pload-test test-compile exec:java -Dloadtest.main=com.planify.booking_service.loadtest.BookingExportBenchmark
+ * </pre>
+ */
+@Slf4j
+public class BookingExportBenchmark {
+
+    private static final String DATABASE = "postgres";
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(90);
+
+    public record Result(String format, long rows, long bytes, double seconds, double rowsPerSecond,
+                         double megabytesPerSecond, long peakHeapIncreaseBytes, long maxHeapBytes) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int bookings = Integer.getInteger("loadtest.export.bookings", 5_000_000);
+        int locations = Integer.getInteger("loadtest.export.locations", 1_000);
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "target/load-test"));
+
+        List<Result> results = new ArrayList<>();
+        try (EmbeddedStack stack = EmbeddedStack.start(locations, false, List.of("--booking.warmup.enabled=false"))) {
+            seed(stack.jdbcUrl(), bookings);
+            BookingExportService exports = stack.bean(BookingExportService.class);
+            // Ogrevanje na ozkem obsegu, ne šteje v rezultat
+            for (BookingExportService.Format format : BookingExportService.Format.values()) {
+                exports.export(FROM, FROM.plusDays(1), format, OutputStream.nullOutputStream());
+            }
+            for (BookingExportService.Format format : BookingExportService.Format.values()) {
+                results.add(run(exports, format));
+            }
+        }
+
+        Files.createDirectories(reportDir);
+        Path report = reportDir.resolve("booking-export-" + LoadReport.FILE_TIMESTAMP.format(Instant.now()) + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), results);
+        results.forEach(result -> log.info("{}: {} rows in {} s ({} rows/s, {} MB/s), peak heap +{} MB of {} MB",
+            result.format(), result.rows(), "%.1f".formatted(result.seconds()), Math.round(result.rowsPerSecond()),
+            "%.1f".formatted(result.megabytesPerSecond()), result.peakHeapIncreaseBytes() / 1048576,
+            result.maxHeapBytes() / 1048576));
+        log.info("Report written to {}", report.toAbsolutePath());
+    }
+
+    /**
+     * Rezervacije enakomerno čez 90 dni na vseh lokacijah; vsaka deseta brez payment_intent_id,
+     * vsaka dvajseta preklicana.
+     */
+    private static void seed(String jdbcUrl, int bookings) throws SQLException {
+        long started = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, DATABASE, DATABASE);
+             Statement statement = connection.createStatement();
+             PreparedStatement insert = connection.prepareStatement("""
+                 INSERT INTO booking.bookings (location_id, event_id, organization_id, start_time, end_time, status,
+                                               total_amount_cents, currency, payment_intent_id, created_at,
+                                               updated_at, headcount)
+                 SELECT a.ids[1 + (n::bigint * 7919) % cardinality(a.ids)], gen_random_uuid(), gen_random_uuid(),
+                        s.start_time, s.start_time + interval '2 hours',
+                        CASE WHEN n % 20 = 0 THEN 'CANCELLED' ELSE 'CONFIRMED' END,
+                        10000 + (n % 50) * 500, 'EUR',
+                        CASE WHEN n % 10 = 0 THEN NULL ELSE 'pi_' || md5(n::text) END,
+                        s.start_time - interval '7 days', s.start_time - interval '7 days', 1 + n % 40
+                 FROM (SELECT array_agg(id) AS ids FROM booking.locations) a,
+                      generate_series(1, ?) AS n,
+                      LATERAL (SELECT ?::timestamp + ((n - 1)::bigint * 90 * 24 * 60 / ?) * interval '1 minute' AS start_time) s
+                 """)) {
+            insert.setInt(1, bookings);
+            insert.setObject(2, FROM);
+            insert.setInt(3, bookings);
+            insert.executeUpdate();
+            statement.execute("VACUUM ANALYZE booking.bookings");
+        }
+        log.info("Seeded {} bookings in {} ms", bookings, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private static Result run(BookingExportService exports, BookingExportService.Format format) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peakHeap = new AtomicLong(heapBefore);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (running.get()) {
+                peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "export-heap-sampler");
+        sampler.start();
+
+        CountingOutputStream out = new CountingOutputStream();
+        long started = System.nanoTime();
+        long rows = exports.export(FROM, TO, format, out);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        running.set(false);
+        sampler.join();
+        return new Result(format.extension(), rows, out.bytes, seconds, rows / seconds, out.bytes / 1048576.0 / seconds,
+            peakHeap.get() - heapBefore, memory.getHeapMemoryUsage().getMax());
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
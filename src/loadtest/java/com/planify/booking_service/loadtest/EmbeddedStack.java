@@ -0,0 +1,148 @@
+package com.planify.booking_service.loadtest;
+
+import com.planify.booking_service.BookingServiceApplication;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Storitev z vgrajenim Postgresom (prave binarke, z Flyway migracijami in LISTEN/NOTIFY)
+ * in vgrajenim Kafka brokerjem v istem procesu kot generator. Primerno za primerjavo
+ * med commiti na istem stroju, ne za absolutne številke produkcije.
+ */
+@Slf4j
+public class EmbeddedStack implements AutoCloseable {
+
+    private static final String DATABASE = "postgres";
+
+    private final EmbeddedPostgres postgres;
+    private final EmbeddedKafkaKraftBroker kafka;
+    private final ConfigurableApplicationContext application;
+    private final int httpPort;
+    private final int grpcPort;
+
+    private EmbeddedStack(EmbeddedPostgres postgres, EmbeddedKafkaKraftBroker kafka,
+                          ConfigurableApplicationContext application, int httpPort, int grpcPort) {
+        this.postgres = postgres;
+        this.kafka = kafka;
+        this.application = application;
+        this.httpPort = httpPort;
+        this.grpcPort = grpcPort;
+    }
+
+    /**
+     * @param standInReplica bralni bazen replike kaže na isto bazo - preizkusi usmerjanje in meritev
+     *                       zaostanka brez druge instance (zaostanek je vedno 0)
+     */
+    public static EmbeddedStack start(int seedLocations, boolean standInReplica) throws IOException, SQLException {
+        return start(seedLocations, standInReplica, List.of());
+    }
+
+    /**
+     * @param extraArgs dodatni argumenti aplikacije, npr. --booking.query-timeouts.enabled=false
+     */
+    public static EmbeddedStack start(int seedLocations, boolean standInReplica, List<String> extraArgs)
+            throws IOException, SQLException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, 1, "booking-created", "booking.events");
+        kafka.afterPropertiesSet();
+        int httpPort = freePort();
+        int grpcPort = freePort();
+        String jdbcUrl = postgres.getJdbcUrl(DATABASE, DATABASE);
+
+        // Argumenti ukazne vrstice imajo prednost pred ${ENV:privzeto} v application.yaml
+        List<String> args = new ArrayList<>(List.of(
+            "--spring.datasource.url=" + jdbcUrl,
+            "--spring.datasource.username=" + DATABASE,
+            "--spring.datasource.password=" + DATABASE,
+            "--spring.kafka.bootstrap-servers=" + kafka.getBrokersAsString(),
+            "--server.port=" + httpPort,
+            "--grpc.server.port=" + grpcPort));
+        if (standInReplica) {
+            args.addAll(List.of(
+                "--booking.datasource.replica.enabled=true",
+                "--booking.datasource.replica.url=" + jdbcUrl,
+                "--booking.datasource.replica.username=" + DATABASE,
+                "--booking.datasource.replica.password=" + DATABASE));
+        }
+        args.addAll(extraArgs);
+        ConfigurableApplicationContext application = new SpringApplicationBuilder(BookingServiceApplication.class)
+            .run(args.toArray(String[]::new));
+
+        seedLocations(jdbcUrl, seedLocations);
+        log.info("Embedded booking service listening on http {} and grpc {}", httpPort, grpcPort);
+        return new EmbeddedStack(postgres, kafka, application, httpPort, grpcPort);
+    }
+
+    public String grpcTarget() {
+        return "localhost:" + grpcPort;
+    }
+
+    public String httpBase() {
+        return "http://localhost:" + httpPort;
+    }
+
+    public String jdbcUrl() {
+        return postgres.getJdbcUrl(DATABASE, DATABASE);
+    }
+
+    public MeterRegistry meterRegistry() {
+        return application.getBean(MeterRegistry.class);
+    }
+
+    /**
+     * Za benchmarke, ki storitev kličejo mimo HTTP/gRPC (npr. izvoz, ki zahteva JWT z vlogo).
+     */
+    public <T> T bean(Class<T> type) {
+        return application.getBean(type);
+    }
+
+    /**
+     * Poleg lokacij iz V1 migracije doda še n lokacij, med katere se razporedi promet.
+     */
+    private static void seedLocations(String jdbcUrl, int count) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, DATABASE, DATABASE);
+             PreparedStatement insert = connection.prepareStatement("""
+                 INSERT INTO booking.locations (name, address, capacity, price_per_hour_cents, active)
+                 SELECT 'Load test hall ' || n, 'Load test street ' || n, 50, 8000 + (n % 5) * 1000, TRUE
+                 FROM generate_series(1, ?) AS n
+                 """)) {
+            insert.setInt(1, count);
+            insert.executeUpdate();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Counter routed : application.getBean(MeterRegistry.class).find("booking.datasource.routing").counters()) {
+            log.info("Reads routed to {} ({}): {}", routed.getId().getTag("target"), routed.getId().getTag("reason"),
+                Math.round(routed.count()));
+        }
+        for (Counter hedged : application.getBean(MeterRegistry.class).find("booking.hedging.requests").counters()) {
+            log.info("Hedged reads {} ({}): {}", hedged.getId().getTag("name"), hedged.getId().getTag("outcome"),
+                Math.round(hedged.count()));
+        }
+        application.close();
+        kafka.destroy();
+        postgres.close();
+    }
+}
@@ -0,0 +1,147 @@
+package com.planify.booking_service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Prepustnost producenta dogodkov proti vgrajenemu brokerju: privzete nastavitve odjemalca
+ * (linger 0, 16 KB paketi, brez stiskanja) proti nastavitvam iz application.yaml.
+ *
+ * <pre>
+ * mvn -Pload-test test-compile exec:java -Dloadtest.main=com.planify.booking_service.loadtest.KafkaProducerBenchmark
+ * </pre>
+ *
+ * Sporočila so enaka booking-created (Map z JsonSerializer) in imajo ključ locationId. Pošiljanje je
+ * zaprta zanka do polnega medpomnilnika producenta, zato rezultat meri največjo prepustnost, čas
+ * do potrditve pa pokaže ceno linger.ms. Poročilo se zapiše v mapo poročil generatorja.
+ */
+@Slf4j
+public class KafkaProducerBenchmark {
+
+    private static final int PARTITIONS = 12;
+    private static final Set<String> PRODUCER_METRICS = Set.of(
+        "batch-size-avg", "compression-rate-avg", "record-size-avg", "records-per-request-avg", "request-rate");
+
+    public record Result(String name, Map<String, Object> overrides, int messages, double seconds,
+                         double messagesPerSecond, LoadReport.Latency ackLatencyMicros, Map<String, Double> producerMetrics) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int messages = Integer.getInteger("loadtest.kafka.messages", 200_000);
+        int locations = Integer.getInteger("loadtest.kafka.locations", 500);
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "target/load-test"));
+
+        Map<String, Object> tuned = Map.of(
+            ProducerConfig.ACKS_CONFIG, "all",
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+            ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5,
+            ProducerConfig.LINGER_MS_CONFIG, 10,
+            ProducerConfig.BATCH_SIZE_CONFIG, 64 * 1024,
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, PARTITIONS, "bench-default", "bench-tuned");
+        kafka.afterPropertiesSet();
+        List<Result> results = new ArrayList<>();
+        try {
+            SplittableRandom ids = new SplittableRandom(42);
+            List<UUID> locationIds = Stream.generate(() -> new UUID(ids.nextLong(), ids.nextLong()))
+                .limit(locations)
+                .toList();
+            results.add(run("default", Map.of(), kafka.getBrokersAsString(), "bench-default", messages, locationIds));
+            results.add(run("tuned", tuned, kafka.getBrokersAsString(), "bench-tuned", messages, locationIds));
+        } finally {
+            kafka.destroy();
+        }
+
+        Files.createDirectories(reportDir);
+        Path report = reportDir.resolve("kafka-producer-" + LoadReport.FILE_TIMESTAMP.format(Instant.now()) + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), results);
+        results.forEach(result -> log.info("{}: {} msg/s, ack p50={}us p99={}us, batch avg {} B, compression {}",
+            result.name(), Math.round(result.messagesPerSecond()), result.ackLatencyMicros().p50(),
+            result.ackLatencyMicros().p99(), Math.round(result.producerMetrics().getOrDefault("batch-size-avg", 0.0)),
+            "%.2f".formatted(result.producerMetrics().getOrDefault("compression-rate-avg", 1.0))));
+        log.info("Report written to {}", report.toAbsolutePath());
+    }
+
+    private static Result run(String name, Map<String, Object> overrides, String brokers, String topic, int messages,
+                              List<UUID> locations) throws Exception {
+        Map<String, Object> config = new HashMap<>(overrides);
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, brokers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        config.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(config);
+        try {
+            KafkaTemplate<String, Object> template = new KafkaTemplate<>(factory);
+            SplittableRandom random = new SplittableRandom(7);
+            // Ogrevanje (JIT, metapodatki particij) se ne meri
+            send(template, topic, messages / 10, locations, random, new ConcurrentHistogram(3));
+
+            Histogram ackLatency = new ConcurrentHistogram(3);
+            long started = System.nanoTime();
+            send(template, topic, messages, locations, random, ackLatency);
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            Map<String, Double> metrics = new LinkedHashMap<>();
+            for (Map.Entry<MetricName, ? extends Metric> metric : template.metrics().entrySet()) {
+                MetricName metricName = metric.getKey();
+                if ("producer-metrics".equals(metricName.group()) && PRODUCER_METRICS.contains(metricName.name())
+                        && metric.getValue().metricValue() instanceof Double value) {
+                    metrics.put(metricName.name(), value);
+                }
+            }
+            return new Result(name, overrides, messages, seconds, messages / seconds, LoadReport.Latency.of(ackLatency), metrics);
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    private static void send(KafkaTemplate<String, Object> template, String topic, int count, List<UUID> locations,
+                             SplittableRandom random, Histogram ackLatency) {
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[count];
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < count; i++) {
+            UUID locationId = locations.get(random.nextInt(locations.size()));
+            Map<String, Object> payload = Map.of(
+                "bookingId", UUID.randomUUID(),
+                "status", "PENDING_PAYMENT",
+                "locationId", locationId,
+                "start", start.toString(),
+                "end", start.plusHours(2).toString(),
+                "headcount", 1,
+                "totalAmountCents", 24000,
+                "currency", "EUR");
+            long sentAt = System.nanoTime();
+            sends[i] = template.send(topic, locationId.toString(), payload)
+                .whenComplete((result, ex) -> ackLatency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sentAt)));
+        }
+        CompletableFuture.allOf(sends).join();
+    }
+}
@@ -0,0 +1,162 @@
+package com.planify.booking_service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Strojno berljivo poročilo ene meritve (JSON) in primerjava s prejšnjim poročilom.
+ *
+ * Poleg JSON-a se zapiše še .hlog s histogrami odzivnih časov po operacijah (HdrHistogram
+ * log format), ki ga lahko združujemo ali izrišemo z orodji HdrHistogram brez izgube natančnosti.
+ * Časi so v mikrosekundah.
+ */
+public record LoadReport(
+    String scenario,
+    String arrival,
+    String startedAt,
+    String target,
+    double targetRate,
+    long warmupSeconds,
+    long durationSeconds,
+    int maxInFlight,
+    double achievedRate,
+    Map<String, OperationReport> operations
+) {
+
+    public static final String ALL = "ALL";
+
+    // Operacije z manj zahtevami so za primerjavo percentilov preveč šumne
+    private static final long MIN_COMPARABLE_COUNT = 100;
+    private static final double MAX_ERROR_RATIO_INCREASE = 0.01;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+        .withZone(ZoneOffset.UTC);
+
+    public record OperationReport(long sent, long completed, long dropped, double errorRatio, Map<String, Long> outcomes,
+                                  Latency responseTimeMicros, Latency serviceTimeMicros) {
+    }
+
+    public record Latency(long p50, long p90, long p99, long p999, long max, double mean) {
+
+        static Latency of(Histogram histogram) {
+            return new Latency(
+                histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99),
+                histogram.getValueAtPercentile(99.9),
+                histogram.getMaxValue(),
+                histogram.getMean());
+        }
+    }
+
+    public static LoadReport of(LoadTestSettings settings, Instant startedAt, Map<Operation, OperationStats> stats) {
+        Map<String, OperationReport> operations = new LinkedHashMap<>();
+        Histogram allResponse = new Histogram(3);
+        Histogram allService = new Histogram(3);
+        long sent = 0;
+        long dropped = 0;
+        long errors = 0;
+        Map<String, Long> allOutcomes = new LinkedHashMap<>();
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats op = entry.getValue();
+            if (op.sentCount() == 0) {
+                continue;
+            }
+            operations.put(entry.getKey().name(), report(op.sentCount(), op.droppedCount(), op.errorCount(),
+                op.outcomes(), op.responseTime(), op.serviceTime()));
+            allResponse.add(op.responseTime());
+            allService.add(op.serviceTime());
+            sent += op.sentCount();
+            dropped += op.droppedCount();
+            errors += op.errorCount();
+            op.outcomes().forEach((code, count) -> allOutcomes.merge(code, count, Long::sum));
+        }
+        operations.put(ALL, report(sent, dropped, errors, allOutcomes, allResponse, allService));
+        long durationSeconds = settings.duration().toSeconds();
+        return new LoadReport(
+            settings.scenario().id(),
+            settings.arrival().name().toLowerCase(Locale.ROOT),
+            startedAt.toString(),
+            settings.embedded() ? "embedded" : settings.grpcTarget() + " " + settings.httpBase(),
+            settings.rate(),
+            settings.warmup().toSeconds(),
+            durationSeconds,
+            settings.maxInFlight(),
+            durationSeconds == 0 ? 0 : (double) allResponse.getTotalCount() / durationSeconds,
+            operations);
+    }
+
+    private static OperationReport report(long sent, long dropped, long errors, Map<String, Long> outcomes,
+                                          Histogram responseTime, Histogram serviceTime) {
+        return new OperationReport(sent, responseTime.getTotalCount(), dropped, sent == 0 ? 0 : (double) errors / sent,
+            outcomes, Latency.of(responseTime), Latency.of(serviceTime));
+    }
+
+    /**
+     * Zapiše {scenario}-{čas}.json in .hlog v mapo poročil in vrne pot do JSON-a.
+     */
+    public Path write(Path dir, Map<Operation, OperationStats> stats) throws IOException {
+        Files.createDirectories(dir);
+        String name = scenario + "-" + FILE_TIMESTAMP.format(Instant.parse(startedAt));
+        Path json = dir.resolve(name + ".json");
+        MAPPER.writeValue(json.toFile(), this);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(name + ".hlog")))) {
+            HistogramLogWriter writer = new HistogramLogWriter(out);
+            writer.outputLogFormatVersion();
+            writer.outputComment("scenario=" + scenario + " rate=" + targetRate + " arrival=" + arrival);
+            writer.outputLegend();
+            for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+                Histogram histogram = entry.getValue().responseTime();
+                if (histogram.getTotalCount() > 0) {
+                    histogram.setTag(entry.getKey().name());
+                    writer.outputIntervalHistogram(0, durationSeconds, histogram, 1.0);
+                }
+            }
+        }
+        return json;
+    }
+
+    public static LoadReport read(Path json) throws IOException {
+        return MAPPER.readValue(json.toFile(), LoadReport.class);
+    }
+
+    /**
+     * Operacije, pri katerih je p99 odzivnega časa zrasel za več kot maxRegression
+     * ali delež napak za več kot eno odstotno točko glede na osnovo.
+     */
+    public List<String> regressionsAgainst(LoadReport baseline, double maxRegression) {
+        List<String> regressions = new ArrayList<>();
+        operations.forEach((operation, current) -> {
+            OperationReport base = baseline.operations().get(operation);
+            if (base == null || base.completed() < MIN_COMPARABLE_COUNT || current.completed() < MIN_COMPARABLE_COUNT) {
+                return;
+            }
+            long baseP99 = base.responseTimeMicros().p99();
+            long currentP99 = current.responseTimeMicros().p99();
+            if (currentP99 > baseP99 * (1 + maxRegression)) {
+                regressions.add("%s p99 %d us -> %d us (+%.0f%%)".formatted(operation, baseP99, currentP99,
+                    100.0 * (currentP99 - baseP99) / Math.max(1, baseP99)));
+            }
+            if (current.errorRatio() > base.errorRatio() + MAX_ERROR_RATIO_INCREASE) {
+                regressions.add("%s error ratio %.4f -> %.4f".formatted(operation, base.errorRatio(), current.errorRatio()));
+            }
+        });
+        return regressions;
+    }
+}
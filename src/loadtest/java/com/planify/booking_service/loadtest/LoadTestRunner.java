@@ -0,0 +1,83 @@
+package com.planify.booking_service.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Vstopna točka generatorja obremenitve:
+ *
+ * <pre>
+ * mvn -Pload-test test-compile exec:java -Dloadtest.scenario=hot-location -Dloadtest.rate=500
+ * </pre>
+ *
+ * Zažene (ali uporabi obstoječo) storitev, požene scenarij, zapiše poročilo in ga, če je podana
+ * osnova (-Dloadtest.baseline=...json), primerja z njo. Ob regresiji se konča s kodo 1.
+ */
+@Slf4j
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        EmbeddedStack stack = settings.embedded() ? EmbeddedStack.start(settings.seedLocations(), settings.standInReplica()) : null;
+        int exitCode;
+        try (TrafficClient client = new TrafficClient(
+                stack != null ? stack.grpcTarget() : settings.grpcTarget(),
+                stack != null ? stack.httpBase() : settings.httpBase(),
+                settings.timeout())) {
+            exitCode = run(settings, client);
+        } finally {
+            if (stack != null) {
+                stack.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static int run(LoadTestSettings settings, TrafficClient client) throws Exception {
+        List<UUID> locations = client.activeLocations();
+        if (locations.isEmpty()) {
+            log.error("No active locations to send traffic to");
+            return 2;
+        }
+        // Organizacije so deterministične, da se omejevanje po organizacijah med meritvami ponovi
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        List<UUID> organizations = Stream.generate(() -> new UUID(random.nextLong(), random.nextLong()))
+            .limit(settings.organizations())
+            .toList();
+
+        Instant startedAt = Instant.now();
+        Map<Operation, OperationStats> stats = new OpenLoopDriver(client, settings, locations, organizations).run();
+        LoadReport report = LoadReport.of(settings, startedAt, stats);
+        Path json = report.write(settings.reportDir(), stats);
+
+        report.operations().forEach((operation, result) -> log.info(
+            "{}: sent={} completed={} errorRatio={} p50={}us p99={}us p99.9={}us max={}us",
+            operation, result.sent(), result.completed(), "%.4f".formatted(result.errorRatio()),
+            result.responseTimeMicros().p50(), result.responseTimeMicros().p99(),
+            result.responseTimeMicros().p999(), result.responseTimeMicros().max()));
+        log.info("Report written to {}", json.toAbsolutePath());
+
+        if (settings.baseline() == null) {
+            return 0;
+        }
+        LoadReport baseline = LoadReport.read(settings.baseline());
+        if (!baseline.scenario().equals(report.scenario()) || baseline.targetRate() != report.targetRate()) {
+            log.warn("Baseline {} was recorded with scenario {} at {} req/s, comparison may be meaningless",
+                settings.baseline(), baseline.scenario(), baseline.targetRate());
+        }
+        List<String> regressions = report.regressionsAgainst(baseline, settings.maxRegression());
+        if (regressions.isEmpty()) {
+            log.info("No regressions against {}", settings.baseline());
+            return 0;
+        }
+        regressions.forEach(regression -> log.error("Regression: {}", regression));
+        return 1;
+    }
+}
@@ -0,0 +1,76 @@
+package com.planify.booking_service.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Nastavitve generatorja iz sistemskih lastnosti (-Dloadtest.*), da jih lahko podamo
+ * neposredno ukazu mvn exec:java.
+ *
+ * @param target    embedded = zažene storitev z vgrajenim Postgresom in Kafko, remote = obstoječa storitev
+ * @param rate      ciljna hitrost prihodov na sekundo (pred množiteljem izbruha)
+ * @param baseline  prejšnje poročilo za primerjavo ali null
+ * @param replica   stand-in = vgrajena storitev bere "repliko" iz iste baze (preizkus usmerjanja branj)
+ */
+public record LoadTestSettings(
+    Scenario scenario,
+    String target,
+    String grpcTarget,
+    String httpBase,
+    double rate,
+    Arrival arrival,
+    Duration warmup,
+    Duration duration,
+    int maxInFlight,
+    Duration timeout,
+    int organizations,
+    int seedLocations,
+    long seed,
+    Path reportDir,
+    Path baseline,
+    double maxRegression,
+    String replica
+) {
+
+    /**
+     * constant = enakomerni razmiki, poisson = eksponentni razmiki z enako povprečno hitrostjo
+     */
+    public enum Arrival {
+        CONSTANT, POISSON
+    }
+
+    public boolean embedded() {
+        return "embedded".equals(target);
+    }
+
+    public boolean standInReplica() {
+        return "stand-in".equals(replica);
+    }
+
+    public static LoadTestSettings fromSystemProperties() {
+        String baseline = property("baseline", "");
+        return new LoadTestSettings(
+            Scenario.parse(property("scenario", "availability-heavy")),
+            property("target", "embedded"),
+            property("grpc-target", "localhost:9095"),
+            property("http-base", "http://localhost:8086"),
+            Double.parseDouble(property("rate", "200")),
+            Arrival.valueOf(property("arrival", "constant").toUpperCase(Locale.ROOT)),
+            Duration.parse(property("warmup", "PT15S")),
+            Duration.parse(property("duration", "PT60S")),
+            Integer.parseInt(property("max-in-flight", "1000")),
+            Duration.parse(property("timeout", "PT5S")),
+            Integer.parseInt(property("organizations", "50")),
+            Integer.parseInt(property("seed-locations", "50")),
+            Long.parseLong(property("seed", "42")),
+            Path.of(property("report-dir", "target/load-test")),
+            baseline.isBlank() ? null : Path.of(baseline),
+            Double.parseDouble(property("max-regression", "0.10")),
+            property("replica", "none"));
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+}
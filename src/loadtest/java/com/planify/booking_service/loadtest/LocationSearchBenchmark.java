@@ -0,0 +1,262 @@
+package com.planify.booking_service.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Iskanje lokacij (GET /api/locations/search) nad loadtest.search.locations lokacijami in
+ * loadtest.search.bookings rezervacijami v vgrajenem Postgresu, prek HTTP:
+ *
+ * <ul>
+ *   <li>client-side - prej: odjemalec prenese vse aktivne lokacije (GET /api/locations) in jih filtrira sam</li>
+ *   <li>text, text-selective, text-common, capacity-price - ena stran iskanja s posameznimi filtri</li>
+ *   <li>window - filtri in prosto okno (rezervacije in zadržitve)</li>
+ *   <li>deep-page - stran po loadtest.search.pages straneh s kurzorjem; keyset naj bo enako hiter kot prva stran</li>
+ * </ul>
+ *
+ * Za vsak scenarij poročilo vsebuje percentile latence, velikost odgovora in indekse lokacij, ki
+ * jih je Postgres uporabil (pg_stat_user_indexes).
+ *
+ * <pre>
+ * mvn -Pload-test test-compile exec:java -Dloadtest.main=com.planify.booking_service.loadtest.LocationSearchBenchmark
+ * </pre>
+ */
+@Slf4j
+public class LocationSearchBenchmark {
+
+    private static final String DATABASE = "postgres";
+    private static final ObjectMapper JSON = new ObjectMapper();
+    // Povezave v mirovanju objavijo statistiko (pg_stat_user_indexes) najkasneje po 10 s
+    private static final long STATS_FLUSH_MILLIS = 11_000;
+
+    public record Result(String scenario, int requests, int rows, long responseBytes,
+                         double p50Millis, double p95Millis, double p99Millis, Map<String, Long> indexScans) {
+    }
+
+    private record Scenario(String name, String query, Predicate<JsonNode> clientFilter) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int locations = Integer.getInteger("loadtest.search.locations", 100_000);
+        int bookings = Integer.getInteger("loadtest.search.bookings", 300_000);
+        int requests = Integer.getInteger("loadtest.search.requests", 200);
+        int pages = Integer.getInteger("loadtest.search.pages", 200);
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "target/load-test"));
+
+        // Okno sredi obdobja rezervacij, da je del lokacij zaseden
+        LocalDateTime windowStart = LocalDateTime.now(ZoneOffset.UTC).plusDays(15).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        long start = windowStart.toInstant(ZoneOffset.UTC).toEpochMilli();
+        long end = windowStart.plusHours(2).toInstant(ZoneOffset.UTC).toEpochMilli();
+
+        List<Result> results = new ArrayList<>();
+        try (EmbeddedStack stack = EmbeddedStack.start(0, false, List.of("--booking.warmup.enabled=false"));
+             HttpClient http = HttpClient.newHttpClient()) {
+            seed(stack.jdbcUrl(), locations, bookings);
+            String base = stack.httpBase() + "/api/locations";
+
+            // Odjemalec je prej iskal "river" med lokacijami s kapaciteto >= 100 in ceno <= 100 EUR
+            results.add(run(http, stack.jdbcUrl(), new Scenario("client-side", base,
+                location -> location.get("capacity").asInt() >= 100
+                    && location.get("pricePerHourCents").asInt() <= 10000
+                    && (contains(location, "name", "river") || contains(location, "address", "river"))),
+                Math.max(1, requests / 20)));
+            results.add(run(http, stack.jdbcUrl(), new Scenario("text",
+                base + "/search?q=river&minCapacity=100&maxPricePerHourCents=10000", null), requests));
+            results.add(run(http, stack.jdbcUrl(), new Scenario("text-selective",
+                base + "/search?q=4242", null), requests));
+            results.add(run(http, stack.jdbcUrl(), new Scenario("text-common",
+                base + "/search?q=" + encode("hall"), null), requests));
+            results.add(run(http, stack.jdbcUrl(), new Scenario("capacity-price",
+                base + "/search?minCapacity=300&maxPricePerHourCents=8000&sort=price", null), requests));
+            results.add(run(http, stack.jdbcUrl(), new Scenario("window",
+                base + "/search?minCapacity=100&maxPricePerHourCents=10000&start=" + start + "&end=" + end + "&headcount=20",
+                null), requests));
+            String deepCursor = walk(http, base + "/search?sort=capacity", pages);
+            results.add(run(http, stack.jdbcUrl(), new Scenario("deep-page",
+                base + "/search?sort=capacity&cursor=" + encode(deepCursor), null), requests));
+        }
+
+        Files.createDirectories(reportDir);
+        Path report = reportDir.resolve("location-search-" + LoadReport.FILE_TIMESTAMP.format(Instant.now()) + ".json");
+        JSON.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), results);
+        results.forEach(result -> log.info("{}: p50 {} ms, p95 {} ms, p99 {} ms, {} rows, {} KB, index scans {}",
+            result.scenario(), fmt(result.p50Millis()), fmt(result.p95Millis()), fmt(result.p99Millis()),
+            result.rows(), result.responseBytes() / 1024, result.indexScans()));
+        log.info("Report written to {}", report.toAbsolutePath());
+    }
+
+    /**
+     * Imena in naslovi iz kombinacij besed, da ima besedilo realno selektivnost; 5 % lokacij je
+     * neaktivnih, vsaka deseta ima deljeno kapaciteto. Rezervacije so razporejene čez 30 dni.
+     */
+    private static void seed(String jdbcUrl, int locations, int bookings) throws SQLException {
+        long started = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, DATABASE, DATABASE);
+             Statement statement = connection.createStatement();
+             PreparedStatement insertLocations = connection.prepareStatement("""
+                 INSERT INTO booking.locations (name, address, capacity, price_per_hour_cents, active, shared_capacity)
+                 SELECT (ARRAY['City', 'River', 'Tech', 'Garden', 'Harbor', 'Alpine', 'Central', 'Castle',
+                               'Lake', 'Forest', 'Old Town', 'Summit'])[1 + n % 12]
+                            || ' ' || (ARRAY['Hall', 'Venue', 'Loft', 'Studio', 'Auditorium', 'Hub', 'Pavilion',
+                                             'Gallery'])[1 + (n / 12) % 8]
+                            || ' ' || n,
+                        (ARRAY['Cankarjeva', 'Slovenska', 'Tržaška', 'Dunajska', 'Celovška', 'Riverside',
+                               'Prešernova', 'Gosposka', 'Partizanska'])[1 + (n / 7) % 9]
+                            || ' ' || (1 + n % 150) || ', '
+                            || (ARRAY['Ljubljana', 'Maribor', 'Celje', 'Kranj', 'Koper', 'Novo mesto',
+                                      'Ptuj', 'Velenje'])[1 + (n / 5) % 8],
+                        10 + (n * 37) % 490,
+                        3000 + ((n * 53) % 200) * 100,
+                        n % 20 <> 0,
+                        n % 10 = 0
+                 FROM generate_series(1, ?) AS n
+                 """);
+             PreparedStatement insertBookings = connection.prepareStatement("""
+                 INSERT INTO booking.bookings (location_id, organization_id, start_time, end_time, status,
+                                               total_amount_cents, currency, created_at, updated_at, headcount)
+                 SELECT a.ids[1 + (n::bigint * 7919) % cardinality(a.ids)], gen_random_uuid(), s.start_time,
+                        s.start_time + interval '2 hours',
+                        CASE WHEN random() < 0.8 THEN 'CONFIRMED' ELSE 'CANCELLED' END,
+                        10000, 'EUR', now(), now(), 1 + (random() * 40)::int
+                 FROM (SELECT array_agg(id) AS ids FROM booking.locations) a,
+                      generate_series(1, ?) AS n,
+                      LATERAL (SELECT date_trunc('hour', now() AT TIME ZONE 'UTC')
+                                          + (n % 720) * interval '1 hour' AS start_time) s
+                 """)) {
+            insertLocations.setInt(1, locations);
+            insertLocations.executeUpdate();
+            insertBookings.setInt(1, bookings);
+            insertBookings.executeUpdate();
+            // Vrstice v čakalnem seznamu GIN indeksa (fastupdate) planer šteje kot dražje; VACUUM jih prenese v indeks
+            statement.execute("VACUUM ANALYZE booking.locations");
+            statement.execute("VACUUM ANALYZE booking.bookings");
+        }
+        log.info("Seeded {} locations and {} bookings in {} ms", locations, bookings,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private static Result run(HttpClient http, String jdbcUrl, Scenario scenario, int requests) throws Exception {
+        // Ogrevanje JIT in predpomnilnika strani, ne šteje v rezultat
+        for (int i = 0; i < Math.min(20, requests); i++) {
+            get(http, scenario.query());
+        }
+        Thread.sleep(STATS_FLUSH_MILLIS);
+        Map<String, Long> before = indexScans(jdbcUrl);
+        long[] latencies = new long[requests];
+        int rows = 0;
+        long bytes = 0;
+        for (int i = 0; i < requests; i++) {
+            long started = System.nanoTime();
+            String body = get(http, scenario.query());
+            JsonNode json = JSON.readTree(body);
+            // Filtriranje na odjemalcu je del cene prejšnjega pristopa
+            rows = scenario.clientFilter() == null
+                ? json.get("locations").size()
+                : (int) countMatching(json, scenario.clientFilter());
+            latencies[i] = System.nanoTime() - started;
+            bytes = body.getBytes(StandardCharsets.UTF_8).length;
+        }
+        Thread.sleep(STATS_FLUSH_MILLIS);
+        Map<String, Long> after = indexScans(jdbcUrl);
+        Map<String, Long> used = new LinkedHashMap<>();
+        after.forEach((index, scans) -> {
+            long delta = scans - before.getOrDefault(index, 0L);
+            if (delta > 0) {
+                used.put(index, delta);
+            }
+        });
+        Arrays.sort(latencies);
+        return new Result(scenario.name(), requests, rows, bytes,
+            percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99), used);
+    }
+
+    private static String walk(HttpClient http, String query, int pages) throws Exception {
+        String cursor = null;
+        for (int page = 0; page < pages; page++) {
+            JsonNode json = JSON.readTree(get(http, cursor == null ? query : query + "&cursor=" + encode(cursor)));
+            if (json.get("nextCursor").isNull()) {
+                break;
+            }
+            cursor = json.get("nextCursor").asText();
+        }
+        return cursor;
+    }
+
+    private static String get(HttpClient http, String url) throws Exception {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(url + " returned " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static long countMatching(JsonNode locations, Predicate<JsonNode> filter) {
+        long count = 0;
+        for (JsonNode location : locations) {
+            if (filter.test(location)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean contains(JsonNode location, String field, String text) {
+        return location.get(field).asText().toLowerCase(Locale.ROOT).contains(text);
+    }
+
+    private static Map<String, Long> indexScans(String jdbcUrl) throws SQLException {
+        Map<String, Long> scans = new LinkedHashMap<>();
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, DATABASE, DATABASE);
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(
+                 "SELECT indexrelname, idx_scan FROM pg_stat_user_indexes WHERE schemaname = 'booking' "
+                     + "AND relname IN ('locations', 'bookings', 'slot_holds') ORDER BY indexrelname")) {
+            while (rows.next()) {
+                scans.put(rows.getString(1), rows.getLong(2));
+            }
+        }
+        return scans;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = Math.min(sorted.length - 1, Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1));
+        return sorted[index] / 1e6;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String fmt(double millis) {
+        return "%.1f".formatted(millis);
+    }
+}
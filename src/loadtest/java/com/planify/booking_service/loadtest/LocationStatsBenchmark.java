@@ -0,0 +1,179 @@
+package com.planify.booking_service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.planify.booking_service.repository.LocationDailyStatsRepository;
+import com.planify.booking_service.service.LocationStatsService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dnevno poročilo zasedenosti in prihodka iz agregatov (location_daily_stats) v primerjavi z
+ * agregacijo iz tabele rezervacij ob vsakem klicu, nad loadtest.stats.bookings rezervacijami čez eno leto:
+ *
+ * <ul>
+ *   <li>location-month - ena lokacija, 31 dni</li>
+ *   <li>all-month - vse lokacije, 31 dni</li>
+ *   <li>all-day - vse lokacije, en dan</li>
+ * </ul>
+ *
+ * Agregacija iz rezervacij je ista kot pri nočnem preverjanju (EXPECTED_STATS), omejena na
+ * rezervacije z začetkom v obdobju. Obe poti se merita prek JDBC; poročilo vsebuje percentile
+ * latence in število vrstic.
+ *
+ * <pre>
+ * mvn -Pload-test test-compile exec:java -Dloadtest.main=com.planify.booking_service.loadtest.LocationStatsBenchmark
+ * </pre>
+ */
+@Slf4j
+public class LocationStatsBenchmark {
+
+    private static final String DATABASE = "postgres";
+    private static final LocalDate FIRST_DAY = LocalDate.of(2026, 1, 1);
+    private static final String AGGREGATE = """
+        SELECT location_id, booking_date, currency, booking_count, booked_minutes, seat_minutes, revenue_cents
+        FROM booking.location_daily_stats
+        WHERE booking_date >= ? AND booking_date < ? AND (CAST(? AS uuid) IS NULL OR location_id = ?)
+        ORDER BY location_id, booking_date, currency
+        """;
+    private static final String ON_THE_FLY = LocationDailyStatsRepository.EXPECTED_STATS
+        .replace("{h-schema}", "booking.")
+        .replace("where b.status in", "where b.start_time >= ? and b.start_time < ? "
+            + "and (cast(? as uuid) is null or b.location_id = ?) and b.status in")
+        + " order by b.location_id, d.day, b.currency";
+
+    public record Result(String scenario, String source, int requests, int rows,
+                         double p50Millis, double p95Millis, double p99Millis) {
+    }
+
+    private record Scenario(String name, UUID locationId, LocalDate from, LocalDate to) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int locations = Integer.getInteger("loadtest.stats.locations", 1_000);
+        int bookings = Integer.getInteger("loadtest.stats.bookings", 2_000_000);
+        int requests = Integer.getInteger("loadtest.stats.requests", 50);
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "target/load-test"));
+
+        List<Result> results = new ArrayList<>();
+        try (EmbeddedStack stack = EmbeddedStack.start(locations, false, List.of("--booking.warmup.enabled=false"));
+             Connection connection = DriverManager.getConnection(stack.jdbcUrl(), DATABASE, DATABASE)) {
+            seed(connection, bookings);
+            stack.bean(LocationStatsService.class).rebuild();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("VACUUM ANALYZE booking.location_daily_stats");
+            }
+            UUID locationId = busiestLocation(connection);
+            LocalDate month = FIRST_DAY.plusMonths(5);
+            for (Scenario scenario : List.of(
+                    new Scenario("location-month", locationId, month, month.plusDays(31)),
+                    new Scenario("all-month", null, month, month.plusDays(31)),
+                    new Scenario("all-day", null, month.plusDays(14), month.plusDays(15)))) {
+                results.add(run(connection, scenario, "aggregate", AGGREGATE, requests));
+                results.add(run(connection, scenario, "bookings", ON_THE_FLY, requests));
+            }
+        }
+
+        Files.createDirectories(reportDir);
+        Path report = reportDir.resolve("location-stats-" + LoadReport.FILE_TIMESTAMP.format(Instant.now()) + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), results);
+        results.forEach(result -> log.info("{} from {}: p50 {} ms, p95 {} ms, p99 {} ms, {} rows",
+            result.scenario(), result.source(), fmt(result.p50Millis()), fmt(result.p95Millis()),
+            fmt(result.p99Millis()), result.rows()));
+        log.info("Report written to {}", report.toAbsolutePath());
+    }
+
+    /**
+     * Rezervacije po 2 uri enakomerno čez eno leto na vseh lokacijah; vsaka stota traja 30 ur
+     * (čez polnoč), vsaka dvajseta je preklicana.
+     */
+    private static void seed(Connection connection, int bookings) throws SQLException {
+        long started = System.nanoTime();
+        try (Statement statement = connection.createStatement();
+             PreparedStatement insert = connection.prepareStatement("""
+                 INSERT INTO booking.bookings (location_id, organization_id, start_time, end_time, status,
+                                               total_amount_cents, currency, created_at, updated_at, headcount)
+                 SELECT a.ids[1 + (n::bigint * 7919) % cardinality(a.ids)], gen_random_uuid(),
+                        s.start_time, s.start_time + CASE WHEN n % 100 = 0 THEN interval '30 hours' ELSE interval '2 hours' END,
+                        CASE WHEN n % 20 = 0 THEN 'CANCELLED' ELSE 'CONFIRMED' END,
+                        10000 + (n % 50) * 500, 'EUR', s.start_time, s.start_time, 1 + n % 40
+                 FROM (SELECT array_agg(id) AS ids FROM booking.locations) a,
+                      generate_series(1, ?) AS n,
+                      LATERAL (SELECT ?::timestamp + ((n - 1)::bigint * 365 * 24 * 60 / ?) * interval '1 minute' AS start_time) s
+                 """)) {
+            insert.setInt(1, bookings);
+            insert.setObject(2, FIRST_DAY.atStartOfDay());
+            insert.setInt(3, bookings);
+            insert.executeUpdate();
+            statement.execute("VACUUM ANALYZE booking.bookings");
+        }
+        log.info("Seeded {} bookings in {} ms", bookings, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private static UUID busiestLocation(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                 "SELECT location_id FROM booking.bookings GROUP BY location_id ORDER BY count(*) DESC LIMIT 1")) {
+            rs.next();
+            return rs.getObject(1, UUID.class);
+        }
+    }
+
+    private static Result run(Connection connection, Scenario scenario, String source, String sql, int requests)
+            throws SQLException {
+        long[] latencies = new long[requests];
+        int rows = 0;
+        try (PreparedStatement query = connection.prepareStatement(sql)) {
+            query.setObject(1, scenario.from().atStartOfDay());
+            query.setObject(2, scenario.to().atStartOfDay());
+            query.setObject(3, scenario.locationId());
+            query.setObject(4, scenario.locationId());
+            // Ogrevanje predpomnilnika strani in načrta, ne šteje v rezultat
+            for (int i = 0; i < Math.min(5, requests); i++) {
+                count(query);
+            }
+            for (int i = 0; i < requests; i++) {
+                long started = System.nanoTime();
+                rows = count(query);
+                latencies[i] = System.nanoTime() - started;
+            }
+        }
+        Arrays.sort(latencies);
+        return new Result(scenario.name(), source, requests, rows,
+            percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99));
+    }
+
+    private static int count(PreparedStatement query) throws SQLException {
+        int rows = 0;
+        try (ResultSet rs = query.executeQuery()) {
+            while (rs.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static String fmt(double millis) {
+        return "%.2f".formatted(millis);
+    }
+}
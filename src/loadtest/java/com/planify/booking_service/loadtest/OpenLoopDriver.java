@@ -0,0 +1,109 @@
+package com.planify.booking_service.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generator prometa z odprto zanko: trenutki pošiljanja so vnaprej določeni s hitrostjo
+ * prihodov in niso odvisni od odgovorov. Če generator zaostane (počasen park, GC), zamujene
+ * zahteve pošlje takoj, njihov odzivni čas pa se še vedno meri od načrtovanega trenutka.
+ *
+ * Meja hkratnih zahtev ščiti generator pred izčrpanjem pomnilnika, ko storitev obstane;
+ * zahteve nad mejo se štejejo kot DROPPED in ne pošljejo.
+ */
+@Slf4j
+public class OpenLoopDriver {
+
+    private final TrafficClient client;
+    private final LoadTestSettings settings;
+    private final List<UUID> locations;
+    private final List<UUID> organizations;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final Semaphore inFlight;
+
+    public OpenLoopDriver(TrafficClient client, LoadTestSettings settings, List<UUID> locations, List<UUID> organizations) {
+        this.client = client;
+        this.settings = settings;
+        this.locations = locations;
+        this.organizations = organizations;
+        this.inFlight = new Semaphore(settings.maxInFlight());
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    /**
+     * Ogrevanje in meritev; vrne meritve po operacijah (samo zahteve, načrtovane po ogrevanju).
+     */
+    public Map<Operation, OperationStats> run() throws InterruptedException {
+        Scenario scenario = settings.scenario();
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        LocalDate firstDay = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+        long warmupNanos = settings.warmup().toNanos();
+        long begin = System.nanoTime();
+        long measureFrom = begin + warmupNanos;
+        long end = measureFrom + settings.duration().toNanos();
+        Map<Operation, OperationStats> warmupStats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            warmupStats.put(operation, new OperationStats());
+        }
+
+        log.info("Running {} at {} req/s ({} arrivals) for {} after {} warm-up",
+            scenario.id(), settings.rate(), settings.arrival(), settings.duration(), settings.warmup());
+        long intended = begin;
+        while (intended < end) {
+            long now = System.nanoTime();
+            while (now < intended) {
+                LockSupport.parkNanos(intended - now);
+                now = System.nanoTime();
+            }
+            Scenario.Request request = scenario.next(random, locations, organizations, firstDay);
+            OperationStats target = (intended >= measureFrom ? stats : warmupStats).get(request.operation());
+            send(request, target, intended);
+            intended += nextInterval(random, scenario.rateMultiplier(intended - begin));
+        }
+
+        if (!inFlight.tryAcquire(settings.maxInFlight(), settings.timeout().toMillis() * 2, TimeUnit.MILLISECONDS)) {
+            log.warn("{} requests still in flight after the run", settings.maxInFlight() - inFlight.availablePermits());
+        }
+        return stats;
+    }
+
+    private void send(Scenario.Request request, OperationStats target, long intended) {
+        if (!inFlight.tryAcquire()) {
+            target.dropped();
+            return;
+        }
+        target.sent();
+        long sentAt = System.nanoTime();
+        try {
+            client.execute(request).whenComplete((outcome, error) -> {
+                long done = System.nanoTime();
+                inFlight.release();
+                target.completed(error == null ? outcome : new TrafficClient.Outcome(false, error.getClass().getSimpleName()),
+                    done - intended, done - sentAt);
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            target.completed(new TrafficClient.Outcome(false, e.getClass().getSimpleName()), System.nanoTime() - intended, 0);
+        }
+    }
+
+    private long nextInterval(SplittableRandom random, double multiplier) {
+        double meanNanos = TimeUnit.SECONDS.toNanos(1) / (settings.rate() * multiplier);
+        return switch (settings.arrival()) {
+            case CONSTANT -> Math.max(1L, Math.round(meanNanos));
+            case POISSON -> Math.max(1L, Math.round(-Math.log(1.0 - random.nextDouble()) * meanNanos));
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.planify.booking_service.loadtest;
+
+/**
+ * Klici, ki jih generator pošilja; vsak ima svoj histogram v poročilu.
+ */
+public enum Operation {
+    GRPC_CHECK_AVAILABILITY,
+    REST_CHECK_AVAILABILITY,
+    GRPC_CREATE_BOOKING,
+    GRPC_HOLD_SLOT,
+    GRPC_QUOTE_PRICE,
+    REST_QUOTE
+}
@@ -0,0 +1,76 @@
+package com.planify.booking_service.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Meritve ene operacije. Odzivni čas teče od načrtovanega trenutka pošiljanja (open-loop),
+ * zato vključuje tudi čakanje v generatorju in ni podvržen coordinated omission; čas
+ * storitve teče od dejanskega pošiljanja in pokaže, koliko zamude doda sam generator.
+ */
+public class OperationStats {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Histogram responseTime = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final Histogram serviceTime = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    public void sent() {
+        sent.increment();
+    }
+
+    /**
+     * Zahteva ni bila poslana, ker je bila dosežena meja hkratnih zahtev generatorja.
+     */
+    public void dropped() {
+        sent.increment();
+        dropped.increment();
+        errors.increment();
+        outcomes.computeIfAbsent("DROPPED", code -> new LongAdder()).increment();
+    }
+
+    public void completed(TrafficClient.Outcome outcome, long responseNanos, long serviceNanos) {
+        responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(responseNanos));
+        serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(serviceNanos));
+        if (!outcome.success()) {
+            errors.increment();
+        }
+        outcomes.computeIfAbsent(outcome.code(), code -> new LongAdder()).increment();
+    }
+
+    public Histogram responseTime() {
+        return responseTime;
+    }
+
+    public Histogram serviceTime() {
+        return serviceTime;
+    }
+
+    public long sentCount() {
+        return sent.sum();
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public long errorCount() {
+        return errors.sum();
+    }
+
+    public Map<String, Long> outcomes() {
+        Map<String, Long> counts = new TreeMap<>();
+        outcomes.forEach((code, count) -> counts.put(code, count.sum()));
+        return counts;
+    }
+}
@@ -0,0 +1,206 @@
+package com.planify.booking_service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.planify.booking_service.grpc.BookingServiceGrpc;
+import com.planify.booking_service.grpc.GetBookingRequest;
+import com.planify.booking_service.grpc.GetBookingResponse;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Zasičenje bazena povezav ob počasnih poizvedbah in čas okrevanja, z in brez časovnih omejitev
+ * poizvedb (booking.query-timeouts).
+ *
+ * Generator pošilja gRPC GetBooking (naključen ključ, vsak klic je poizvedba v bazo) z rokom
+ * loadtest.saturation.deadline. Po loadtest.saturation.baseline druga povezava za
+ * loadtest.saturation.stall zaklene tabelo bookings (ACCESS EXCLUSIVE), zato vse poizvedbe
+ * čakajo na zaklep - kot ob dolgi migraciji ali VACUUM FULL. Poročilo za vsako različico:
+ *
+ * <ul>
+ *   <li>največje število aktivnih in čakajočih povezav (hikaricp.connections.*) med zastojem</li>
+ *   <li>pool recovery - od sprostitve zaklepa do trenutka, ko ni več čakajočih in je aktivnih
+ *       povezav toliko kot pred zastojem</li>
+ *   <li>request recovery - od sprostitve zaklepa do zadnjega neuspešnega klica</li>
+ *   <li>booking.query.abandoned - poizvedbe, ki se po izteku roka niso začele</li>
+ * </ul>
+ *
+ * <pre>
+ * mvn -Pload-test test-compile exec:java -Dloadtest.main=com.planify.booking_service.loadtest.PoolSaturationBenchmark
+ * </pre>
+ */
+@Slf4j
+public class PoolSaturationBenchmark {
+
+    private static final Duration SAMPLE_INTERVAL = Duration.ofMillis(50);
+    // Po sprostitvi mora stanje bazena ostati normalno toliko časa, da šteje za okrevanje
+    private static final Duration STABLE_FOR = Duration.ofMillis(500);
+
+    public record Result(String variant, double rate, long deadlineMillis, long stallMillis,
+                         int sent, int failedDuringStall, int failedAfterStall,
+                         double baselineActive, double peakActive, double peakPending,
+                         long poolRecoveryMillis, long requestRecoveryMillis, long abandonedQueries) {
+    }
+
+    private record Sample(long atNanos, double active, double pending) {
+    }
+
+    private record Call(long sentNanos, boolean ok) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        double rate = Double.parseDouble(System.getProperty("loadtest.saturation.rate", "100"));
+        Duration deadline = Duration.parse(System.getProperty("loadtest.saturation.deadline", "PT0.25S"));
+        Duration baseline = Duration.parse(System.getProperty("loadtest.saturation.baseline", "PT5S"));
+        Duration stall = Duration.parse(System.getProperty("loadtest.saturation.stall", "PT5S"));
+        Duration after = Duration.parse(System.getProperty("loadtest.saturation.after", "PT10S"));
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "target/load-test"));
+
+        List<Result> results = new ArrayList<>();
+        for (boolean timeouts : new boolean[]{false, true}) {
+            results.add(run(timeouts ? "query-timeouts" : "no-timeouts", timeouts, rate, deadline, baseline, stall, after));
+        }
+
+        Files.createDirectories(reportDir);
+        Path report = reportDir.resolve("pool-saturation-" + LoadReport.FILE_TIMESTAMP.format(Instant.now()) + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), results);
+        results.forEach(result -> log.info(
+            "{}: peak active {} pending {}, pool recovered in {} ms, requests recovered in {} ms, "
+                + "failed {} during / {} after the stall, {} queries not started after their deadline",
+            result.variant(), Math.round(result.peakActive()), Math.round(result.peakPending()),
+            result.poolRecoveryMillis(), result.requestRecoveryMillis(),
+            result.failedDuringStall(), result.failedAfterStall(), result.abandonedQueries()));
+        log.info("Report written to {}", report.toAbsolutePath());
+    }
+
+    private static Result run(String variant, boolean timeouts, double rate, Duration deadline,
+                              Duration baseline, Duration stall, Duration after) throws Exception {
+        List<String> appArgs = List.of(
+            "--booking.query-timeouts.enabled=" + timeouts,
+            "--booking.warmup.enabled=false");
+        try (EmbeddedStack stack = EmbeddedStack.start(10, false, appArgs)) {
+            MeterRegistry meters = stack.meterRegistry();
+            ManagedChannel channel = ManagedChannelBuilder.forTarget(stack.grpcTarget()).usePlaintext().build();
+            BookingServiceGrpc.BookingServiceStub stub = BookingServiceGrpc.newStub(channel);
+            Queue<Call> calls = new ConcurrentLinkedQueue<>();
+            Queue<Sample> samples = new ConcurrentLinkedQueue<>();
+            ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+
+            long intervalNanos = (long) (1e9 / rate);
+            scheduler.scheduleAtFixedRate(() -> {
+                long sent = System.nanoTime();
+                GetBookingRequest request = GetBookingRequest.newBuilder().setBookingId(UUID.randomUUID().toString()).build();
+                stub.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS)
+                    .getBooking(request, new StreamObserver<>() {
+                        @Override
+                        public void onNext(GetBookingResponse value) {
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            // Neznan ključ vrne UNKNOWN - poizvedba je bila izvedena
+                            calls.add(new Call(sent, Status.fromThrowable(t).getCode() == Status.Code.UNKNOWN));
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                            calls.add(new Call(sent, true));
+                        }
+                    });
+            }, 0, intervalNanos, TimeUnit.NANOSECONDS);
+            scheduler.scheduleAtFixedRate(() -> samples.add(new Sample(System.nanoTime(),
+                    sum(meters, "hikaricp.connections.active"), sum(meters, "hikaricp.connections.pending"))),
+                0, SAMPLE_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+
+            Thread.sleep(baseline.toMillis());
+            long stallStart;
+            long stallEnd;
+            try (Connection locker = DriverManager.getConnection(stack.jdbcUrl(), "postgres", "postgres");
+                 Statement lock = locker.createStatement()) {
+                locker.setAutoCommit(false);
+                lock.execute("LOCK TABLE booking.bookings IN ACCESS EXCLUSIVE MODE");
+                stallStart = System.nanoTime();
+                log.info("{}: bookings locked for {} ms", variant, stall.toMillis());
+                Thread.sleep(stall.toMillis());
+                locker.rollback();
+                stallEnd = System.nanoTime();
+            }
+            Thread.sleep(after.toMillis());
+            scheduler.shutdownNow();
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            channel.shutdownNow();
+
+            return summarize(variant, rate, deadline, stall, List.copyOf(calls), List.copyOf(samples),
+                stallStart, stallEnd, counted(meters, "booking.query.abandoned"));
+        }
+    }
+
+    private static Result summarize(String variant, double rate, Duration deadline, Duration stall,
+                                    List<Call> calls, List<Sample> samples, long stallStart, long stallEnd,
+                                    long abandoned) {
+        double baselineActive = samples.stream().filter(s -> s.atNanos() < stallStart)
+            .mapToDouble(Sample::active).max().orElse(0);
+        double peakActive = samples.stream().mapToDouble(Sample::active).max().orElse(0);
+        double peakPending = samples.stream().mapToDouble(Sample::pending).max().orElse(0);
+
+        // Prvi vzorec po sprostitvi, od katerega je bazen vsaj STABLE_FOR v normalnem stanju
+        List<Sample> afterStall = samples.stream().filter(s -> s.atNanos() >= stallEnd).toList();
+        long poolRecovered = -1;
+        long healthySince = -1;
+        for (Sample sample : afterStall) {
+            boolean healthy = sample.pending() == 0 && sample.active() <= Math.max(1, baselineActive);
+            if (!healthy) {
+                healthySince = -1;
+                continue;
+            }
+            if (healthySince < 0) {
+                healthySince = sample.atNanos();
+            }
+            if (sample.atNanos() - healthySince >= STABLE_FOR.toNanos()) {
+                poolRecovered = healthySince;
+                break;
+            }
+        }
+
+        long lastFailure = calls.stream().filter(call -> !call.ok() && call.sentNanos() >= stallEnd)
+            .mapToLong(Call::sentNanos).max().orElse(stallEnd);
+        int failedDuring = (int) calls.stream()
+            .filter(call -> !call.ok() && call.sentNanos() >= stallStart && call.sentNanos() < stallEnd).count();
+        int failedAfter = (int) calls.stream().filter(call -> !call.ok() && call.sentNanos() >= stallEnd).count();
+
+        return new Result(variant, rate, deadline.toMillis(), stall.toMillis(), calls.size(), failedDuring, failedAfter,
+            baselineActive, peakActive, peakPending,
+            poolRecovered < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(poolRecovered - stallEnd),
+            TimeUnit.NANOSECONDS.toMillis(lastFailure - stallEnd), abandoned);
+    }
+
+    private static double sum(MeterRegistry meters, String gauge) {
+        return meters.find(gauge).gauges().stream().mapToDouble(Gauge::value).sum();
+    }
+
+    private static long counted(MeterRegistry meters, String counter) {
+        return Math.round(meters.find(counter).counters().stream().mapToDouble(Counter::count).sum());
+    }
+}
@@ -0,0 +1,181 @@
+package com.planify.booking_service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.planify.booking_service.domain.PricingRule;
+import com.planify.booking_service.domain.PricingRuleType;
+import com.planify.booking_service.pricing.CompiledPricing;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Prepustnost izračuna cen (CompiledPricing.priceCents) v več nitih:
+ *
+ * <ul>
+ *   <li>flat - lokacija brez pravil (cena na uro * začete ure)</li>
+ *   <li>compiled - vikend in večerni pas ter dva popusta za trajanje, prevedeno v tabelo minut</li>
+ *   <li>interpreted - ista pravila, ovrednotena ob vsaki ceni minuto za minuto (kar prevajanje nadomesti)</li>
+ * </ul>
+ *
+ * Okna so naključna (začetek v tednu, 1-10 h). Poročilo vsebuje cene na sekundo in alocirane bajte na ceno
+ * (ThreadMXBean); ogrevanje se ne meri.
+ *
+ * <pre>
+ * mvn -Pload-test test-compile exec:java -Dloadtest.main=com.planify.booking_service.loadtest.PricingQuoteBenchmark
+ * </pre>
+ */
+@Slf4j
+public class PricingQuoteBenchmark {
+
+    private static final int PRICE_PER_HOUR_CENTS = 10_000;
+    private static final int WINDOWS = 1 << 16;
+    private static final int WEEKDAYS = 0b0011111;
+    private static final int WEEKEND = 0b1100000;
+
+    public record Result(String name, int threads, long quotes, double seconds, double quotesPerSecond,
+                         double bytesPerQuote, long checksum) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = Integer.getInteger("loadtest.pricing.threads", Runtime.getRuntime().availableProcessors());
+        Duration warmup = Duration.parse(System.getProperty("loadtest.pricing.warmup", "PT3S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.pricing.duration", "PT10S"));
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "target/load-test"));
+
+        List<PricingRule> rules = List.of(
+            band(WEEKEND, 0, CompiledPricing.MINUTES_PER_DAY, 150),
+            band(WEEKDAYS, 18 * 60, 23 * 60, 120),
+            discount(240, 10),
+            discount(480, 15));
+        CompiledPricing flat = CompiledPricing.compile(PRICE_PER_HOUR_CENTS, List.of());
+        CompiledPricing compiled = CompiledPricing.compile(PRICE_PER_HOUR_CENTS, rules);
+
+        // Začetki in trajanja vnaprej, da naključnost ni del meritve
+        SplittableRandom random = new SplittableRandom(42);
+        int[] starts = new int[WINDOWS];
+        int[] minutes = new int[WINDOWS];
+        for (int i = 0; i < WINDOWS; i++) {
+            starts[i] = random.nextInt(CompiledPricing.MINUTES_PER_WEEK);
+            minutes[i] = (int) CompiledPricing.billableMinutes(60 + random.nextInt(9 * 60));
+        }
+        for (int i = 0; i < WINDOWS; i++) {
+            if (interpreted(rules, starts[i], minutes[i]) != compiled.priceCents(starts[i], minutes[i])) {
+                throw new IllegalStateException("Interpreted price differs at window " + i);
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        results.add(run("flat", flat::priceCents, starts, minutes, threads, warmup, duration));
+        results.add(run("compiled", compiled::priceCents, starts, minutes, threads, warmup, duration));
+        results.add(run("interpreted", (start, billable) -> interpreted(rules, start, billable),
+            starts, minutes, threads, warmup, duration));
+
+        Files.createDirectories(reportDir);
+        Path report = reportDir.resolve("pricing-quote-" + LoadReport.FILE_TIMESTAMP.format(Instant.now()) + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), results);
+        results.forEach(result -> log.info("{}: {} quotes/s on {} threads ({} ns/quote per thread), {} B/quote",
+            result.name(), Math.round(result.quotesPerSecond()), result.threads(),
+            "%.1f".formatted(result.threads() * 1e9 / result.quotesPerSecond()), "%.2f".formatted(result.bytesPerQuote())));
+        log.info("Report written to {}", report.toAbsolutePath());
+    }
+
+    private static Result run(String name, IntBinaryOperator price, int[] starts, int[] minutes, int threads,
+                              Duration warmup, Duration duration) throws InterruptedException {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        AtomicBoolean measuring = new AtomicBoolean();
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicLong quotes = new AtomicLong();
+        AtomicLong allocated = new AtomicLong();
+        AtomicLong checksum = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int offset = t * (WINDOWS / threads);
+            Thread worker = new Thread(() -> {
+                long threadId = Thread.currentThread().threadId();
+                long sum = 0;
+                long count = 0;
+                long allocatedBefore = 0;
+                boolean counting = false;
+                int i = offset;
+                while (!stopped.get()) {
+                    if (!counting && measuring.get()) {
+                        counting = true;
+                        count = 0;
+                        allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+                    }
+                    // Paket brez preverjanja zastavic, da je zanka meritve čim tanjša
+                    for (int k = 0; k < 1024; k++) {
+                        int index = i++ & (WINDOWS - 1);
+                        sum += price.applyAsInt(starts[index], minutes[index]);
+                    }
+                    count += 1024;
+                }
+                quotes.addAndGet(count);
+                allocated.addAndGet(threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore);
+                checksum.addAndGet(sum);
+                done.countDown();
+            }, "pricing-" + name + "-" + t);
+            worker.start();
+        }
+        Thread.sleep(warmup.toMillis());
+        measuring.set(true);
+        long started = System.nanoTime();
+        Thread.sleep(duration.toMillis());
+        stopped.set(true);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        done.await();
+        return new Result(name, threads, quotes.get(), seconds, quotes.get() / seconds,
+            (double) allocated.get() / quotes.get(), checksum.get());
+    }
+
+    /**
+     * Pravila brez prevajanja: faktor vsake minute okna iz pasov, nato najboljši doseženi popust.
+     * Zaokroževanje je enako kot v CompiledPricing, zato se cene ujemajo.
+     */
+    private static int interpreted(List<PricingRule> rules, int startMinuteOfWeek, int billableMinutes) {
+        long percentMinutes = 0;
+        for (int m = 0; m < billableMinutes; m++) {
+            int minuteOfWeek = (startMinuteOfWeek + m) % CompiledPricing.MINUTES_PER_WEEK;
+            int day = minuteOfWeek / CompiledPricing.MINUTES_PER_DAY;
+            int minuteOfDay = minuteOfWeek % CompiledPricing.MINUTES_PER_DAY;
+            double factor = 1.0;
+            for (PricingRule rule : rules) {
+                if (rule.getRuleType() == PricingRuleType.TIME_BAND && (rule.getDaysOfWeek() & (1 << day)) != 0
+                        && minuteOfDay >= rule.getStartMinute() && minuteOfDay < rule.getEndMinute()) {
+                    factor *= rule.getRatePercent() / 100.0;
+                }
+            }
+            percentMinutes += Math.round(factor * 100);
+        }
+        int base = (int) ((PRICE_PER_HOUR_CENTS * percentMinutes + 3000) / 6000);
+        int best = 0;
+        for (PricingRule rule : rules) {
+            if (rule.getRuleType() == PricingRuleType.DURATION_DISCOUNT && billableMinutes >= rule.getMinMinutes()) {
+                best = Math.max(best, rule.getDiscountPercent());
+            }
+        }
+        return best == 0 ? base : (int) (((long) base * (100 - best) + 50) / 100);
+    }
+
+    private static PricingRule band(int days, int startMinute, int endMinute, int ratePercent) {
+        return PricingRule.builder().ruleType(PricingRuleType.TIME_BAND).daysOfWeek(days)
+            .startMinute(startMinute).endMinute(endMinute).ratePercent(ratePercent).build();
+    }
+
+    private static PricingRule discount(int minMinutes, int percent) {
+        return PricingRule.builder().ruleType(PricingRuleType.DURATION_DISCOUNT)
+            .minMinutes(minMinutes).discountPercent(percent).build();
+    }
+}
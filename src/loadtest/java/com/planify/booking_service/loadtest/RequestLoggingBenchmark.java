@@ -0,0 +1,204 @@
+package com.planify.booking_service.loadtest;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.planify.booking_service.logging.RequestLogSampler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Cena INFO logov po zahtevku (CheckAvailability) v več nitih:
+ *
+ * <ul>
+ *   <li>off - INFO izklopljen, osnova brez logiranja</li>
+ *   <li>sync-all - prej: dve formatirani vrstici na zahtevek, sinhroni appender</li>
+ *   <li>async-all - ena vrstica s %kvp na zahtevek, AsyncAppender kot v logback-spring.xml, brez vzorčenja</li>
+ *   <li>async-sampled - zdaj: kot async-all, vrstice gredo skozi RequestLogSampler</li>
+ * </ul>
+ *
+ * Vrstice se pišejo v datoteko v report-dir (kot konzola: flush ob vsaki vrstici). Poročilo vsebuje
+ * zahtevke na sekundo, alocirane bajte na zahtevek (vse niti, tudi pisalna nit appenderja) in število
+ * zapisanih vrstic; ogrevanje se ne meri.
+ *
+ * <pre>
+ * mvn -Pload-test test-compile exec:java -Dloadtest.main=com.planify.booking_service.loadtest.RequestLoggingBenchmark
+ * </pre>
+ */
+@Slf4j
+public class RequestLoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%15.15t] %-40.40logger{39} : %m %kvp%n";
+    private static final int LOCATIONS = 1024;
+
+    public record Result(String name, int threads, long requests, double seconds, double requestsPerSecond,
+                         double bytesPerRequest, long linesWritten) {
+    }
+
+    private interface Request {
+        void log(Logger logger, UUID locationId, Instant start, Instant end, boolean available);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = Integer.getInteger("loadtest.logging.threads", 4);
+        int samplesPerSecond = Integer.getInteger("loadtest.logging.samples-per-second", 20);
+        int queueSize = Integer.getInteger("loadtest.logging.async-queue-size", 8192);
+        Duration warmup = Duration.parse(System.getProperty("loadtest.logging.warmup", "PT3S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.logging.duration", "PT10S"));
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "target/load-test"));
+        Files.createDirectories(reportDir);
+
+        RequestLogSampler sampler = new RequestLogSampler(samplesPerSecond, new SimpleMeterRegistry());
+        Request previous = (logger, locationId, start, end, available) -> {
+            if (available) {
+                logger.info("Location {} is available between {} and {}", locationId, start, end);
+            } else {
+                logger.info("Location {} is not available between {} and {}", locationId, start, end);
+            }
+            logger.info("Availability check completed");
+        };
+        Request structured = (logger, locationId, start, end, available) -> logger.atInfo()
+            .addKeyValue("locationId", locationId)
+            .addKeyValue("start", start)
+            .addKeyValue("end", end)
+            .addKeyValue("available", available)
+            .addKeyValue("conflicts", available ? 0 : 1)
+            .log("Availability check completed");
+        Request sampled = (logger, locationId, start, end, available) -> {
+            if (sampler.sample(logger, "checkAvailability")) {
+                structured.log(logger, locationId, start, end, available);
+            }
+        };
+
+        List<Result> results = new ArrayList<>();
+        results.add(run("off", Level.WARN, false, 0, previous, reportDir, threads, warmup, duration));
+        results.add(run("sync-all", Level.INFO, false, 0, previous, reportDir, threads, warmup, duration));
+        results.add(run("async-all", Level.INFO, true, queueSize, structured, reportDir, threads, warmup, duration));
+        results.add(run("async-sampled", Level.INFO, true, queueSize, sampled, reportDir, threads, warmup, duration));
+
+        Path report = reportDir.resolve("request-logging-" + LoadReport.FILE_TIMESTAMP.format(Instant.now()) + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), results);
+        results.forEach(result -> log.info("{}: {} requests/s on {} threads, {} B/request, {} lines written",
+            result.name(), Math.round(result.requestsPerSecond()), result.threads(),
+            "%.1f".formatted(result.bytesPerRequest()), result.linesWritten()));
+        log.info("Report written to {}", report.toAbsolutePath());
+    }
+
+    private static Result run(String name, Level level, boolean async, int queueSize, Request request, Path reportDir,
+                              int threads, Duration warmup, Duration duration) throws Exception {
+        // Ločen kontekst, da izpisi benchmarka ne gredo skozi merjene appenderje
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        context.start();
+        Path file = reportDir.resolve("request-logging-" + name + ".log");
+        Files.deleteIfExists(file);
+        Logger logger = context.getLogger("com.planify.booking_service.grpc.BookingGrpcService");
+        logger.setLevel(level);
+        logger.setAdditive(false);
+        logger.addAppender(appender(context, file, async, queueSize));
+
+        UUID[] locations = new UUID[LOCATIONS];
+        for (int i = 0; i < LOCATIONS; i++) {
+            locations[i] = UUID.randomUUID();
+        }
+        Instant start = Instant.parse("2026-06-01T10:00:00Z");
+        Instant end = start.plus(Duration.ofHours(2));
+
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        AtomicBoolean measuring = new AtomicBoolean();
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicLong requests = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                long count = 0;
+                boolean counting = false;
+                int i = 0;
+                while (!stopped.get()) {
+                    if (!counting && measuring.get()) {
+                        counting = true;
+                        count = 0;
+                    }
+                    request.log(logger, locations[i & (LOCATIONS - 1)], start, end, (i & 7) != 0);
+                    i++;
+                    count++;
+                }
+                requests.addAndGet(count);
+                done.countDown();
+            }, "logging-" + name + "-" + t);
+            worker.start();
+        }
+        Thread.sleep(warmup.toMillis());
+        // Vse niti JVM, tudi pisalna nit AsyncAppenderja
+        long allocatedBefore = threadBean.getTotalThreadAllocatedBytes();
+        long linesBefore = lines(file);
+        measuring.set(true);
+        long started = System.nanoTime();
+        Thread.sleep(duration.toMillis());
+        stopped.set(true);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long allocated = threadBean.getTotalThreadAllocatedBytes() - allocatedBefore;
+        done.await();
+        context.stop();
+        long written = lines(file) - linesBefore;
+        Files.deleteIfExists(file);
+        return new Result(name, threads, requests.get(), seconds, requests.get() / seconds,
+            (double) allocated / requests.get(), written);
+    }
+
+    private static Appender<ILoggingEvent> appender(LoggerContext context, Path file, boolean async, int queueSize) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setName("FILE");
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+        if (!async) {
+            return fileAppender;
+        }
+        AsyncAppender asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(context);
+        asyncAppender.setName("ASYNC_FILE");
+        asyncAppender.setQueueSize(queueSize);
+        asyncAppender.setNeverBlock(false);
+        asyncAppender.setIncludeCallerData(false);
+        asyncAppender.addAppender(fileAppender);
+        asyncAppender.start();
+        return asyncAppender;
+    }
+
+    private static long lines(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.count();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.planify.booking_service.loadtest;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mešanica klicev in oblika prometa.
+ *
+ * Okna se začnejo najprej jutri (UTC), zato nobena zahteva ne zadene preteklosti. Razpršenost
+ * oken (lokacije, dnevi, začetne ure) določa delež konfliktov: availability-heavy in create-burst
+ * sta razpršena po vseh lokacijah, hot-location pa vse zahteve usmeri na eno lokacijo in nekaj
+ * začetnih ur, da se ustvarjanja in zadržitve prerivajo za iste vrstice.
+ */
+public enum Scenario {
+
+    AVAILABILITY_HEAVY(weights(
+            Operation.GRPC_CHECK_AVAILABILITY, 60,
+            Operation.REST_CHECK_AVAILABILITY, 25,
+            Operation.GRPC_QUOTE_PRICE, 5,
+            Operation.REST_QUOTE, 5,
+            Operation.GRPC_CREATE_BOOKING, 5),
+        0, 30, 12, 60, 1, 0),
+
+    CREATE_BURST(weights(
+            Operation.GRPC_CREATE_BOOKING, 85,
+            Operation.GRPC_CHECK_AVAILABILITY, 10,
+            Operation.GRPC_HOLD_SLOT, 5),
+        0, 90, 24, 30, 5, 2),
+
+    HOT_LOCATION(weights(
+            Operation.GRPC_CREATE_BOOKING, 45,
+            Operation.GRPC_HOLD_SLOT, 25,
+            Operation.GRPC_CHECK_AVAILABILITY, 20,
+            Operation.REST_CHECK_AVAILABILITY, 10),
+        1, 1, 8, 60, 1, 0);
+
+    // Prvi začetek okna (08:00 UTC) in dolžina cikla izbruha
+    private static final int FIRST_START_MINUTE = 8 * 60;
+    private static final long BURST_PERIOD_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final int hotLocations;
+    private final int horizonDays;
+    private final int startsPerDay;
+    private final int startStepMinutes;
+    private final double burstFactor;
+    private final long burstNanos;
+
+    /**
+     * @param hotLocations     0 = vse lokacije, sicer samo prvih n
+     * @param startsPerDay     število možnih začetkov na dan
+     * @param startStepMinutes razmik med začetki
+     * @param burstFactor      množitelj hitrosti med izbruhom (1 = brez izbruhov)
+     * @param burstSeconds     trajanje izbruha v vsakem 10-sekundnem ciklu
+     */
+    Scenario(Map<Operation, Integer> weights, int hotLocations, int horizonDays, int startsPerDay,
+             int startStepMinutes, double burstFactor, int burstSeconds) {
+        this.operations = weights.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += weights.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+        this.hotLocations = hotLocations;
+        this.horizonDays = horizonDays;
+        this.startsPerDay = startsPerDay;
+        this.startStepMinutes = startStepMinutes;
+        this.burstFactor = burstFactor;
+        this.burstNanos = TimeUnit.SECONDS.toNanos(burstSeconds);
+    }
+
+    public record Request(Operation operation, UUID locationId, UUID organizationId, long startEpochMillis,
+                          long endEpochMillis, int headcount) {
+    }
+
+    public static Scenario parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    public String id() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    public Request next(SplittableRandom random, List<UUID> locations, List<UUID> organizations, LocalDate firstDay) {
+        int locationCount = hotLocations == 0 ? locations.size() : Math.min(hotLocations, locations.size());
+        UUID locationId = locations.get(random.nextInt(locationCount));
+        UUID organizationId = organizations.get(random.nextInt(organizations.size()));
+        long dayStart = firstDay.plusDays(random.nextInt(horizonDays)).atStartOfDay().toEpochSecond(ZoneOffset.UTC) * 1000L;
+        long start = dayStart + TimeUnit.MINUTES.toMillis(FIRST_START_MINUTE
+            + (long) random.nextInt(startsPerDay) * startStepMinutes);
+        long end = start + TimeUnit.HOURS.toMillis(1 + random.nextInt(2));
+        return new Request(pick(random), locationId, organizationId, start, end, 1);
+    }
+
+    /**
+     * Množitelj ciljne hitrosti ob danem času od začetka meritve.
+     */
+    public double rateMultiplier(long elapsedNanos) {
+        return burstNanos > 0 && elapsedNanos % BURST_PERIOD_NANOS < burstNanos ? burstFactor : 1.0;
+    }
+
+    private Operation pick(SplittableRandom random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private static Map<Operation, Integer> weights(Object... operationWeightPairs) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (int i = 0; i < operationWeightPairs.length; i += 2) {
+            weights.put((Operation) operationWeightPairs[i], (Integer) operationWeightPairs[i + 1]);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,173 @@
+package com.planify.booking_service.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.planify.booking_service.grpc.BookingServiceGrpc;
+import com.planify.booking_service.grpc.CheckAvailabilityRequest;
+import com.planify.booking_service.grpc.CreateBookingRequest;
+import com.planify.booking_service.grpc.HoldSlotRequest;
+import com.planify.booking_service.grpc.QuotePriceRequest;
+import com.planify.booking_service.grpc.TimeWindow;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Asinhroni odjemalec za gRPC storitev in REST končne točke; noben klic ne blokira
+ * niti generatorja, zato počasni odgovori ne zamaknejo naslednjih pošiljanj.
+ */
+public class TrafficClient implements AutoCloseable {
+
+    private static final String CURRENCY = "EUR";
+
+    /**
+     * @param code OK, SLOT_TAKEN (okno zasedeno - pričakovano pri tekmovanju), FALLBACK, gRPC status ali HTTP_xxx
+     */
+    public record Outcome(boolean success, String code) {
+        static final Outcome OK = new Outcome(true, "OK");
+        static final Outcome SLOT_TAKEN = new Outcome(true, "SLOT_TAKEN");
+        // Nedosegljivo brez konfliktov pri headcount 1: odgovor iz fallbacka (circuit breaker, omejevalnik)
+        static final Outcome FALLBACK = new Outcome(false, "FALLBACK");
+    }
+
+    private final ManagedChannel channel;
+    private final BookingServiceGrpc.BookingServiceFutureStub stub;
+    private final HttpClient http;
+    private final String httpBase;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public TrafficClient(String grpcTarget, String httpBase, Duration timeout) {
+        this.channel = ManagedChannelBuilder.forTarget(grpcTarget).usePlaintext().build();
+        this.stub = BookingServiceGrpc.newFutureStub(channel);
+        this.http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(timeout)
+            .build();
+        this.httpBase = httpBase;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Aktivne lokacije, med katere generator razporeja zahteve.
+     */
+    public List<UUID> activeLocations() throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(httpBase + "/api/locations"))
+            .header("Accept", "application/json")
+            .timeout(timeout)
+            .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("GET /api/locations returned " + response.statusCode());
+        }
+        List<UUID> locations = new ArrayList<>();
+        for (JsonNode location : objectMapper.readTree(response.body())) {
+            locations.add(UUID.fromString(location.get("id").asText()));
+        }
+        return locations;
+    }
+
+    public CompletableFuture<Outcome> execute(Scenario.Request request) {
+        return switch (request.operation()) {
+            case GRPC_CHECK_AVAILABILITY -> grpc(deadline().checkAvailability(CheckAvailabilityRequest.newBuilder()
+                    .setLocationId(request.locationId().toString())
+                    .setOrganizationId(request.organizationId().toString())
+                    .setStartEpochMillis(request.startEpochMillis())
+                    .setEndEpochMillis(request.endEpochMillis())
+                    .setHeadcount(request.headcount())
+                    .build()),
+                response -> Outcome.OK);
+            case GRPC_CREATE_BOOKING -> grpc(deadline().createBooking(CreateBookingRequest.newBuilder()
+                    .setLocationId(request.locationId().toString())
+                    .setEventId(UUID.randomUUID().toString())
+                    .setOrganizationId(request.organizationId().toString())
+                    .setStartEpochMillis(request.startEpochMillis())
+                    .setEndEpochMillis(request.endEpochMillis())
+                    .setHeadcount(request.headcount())
+                    .setCurrency(CURRENCY)
+                    .build()),
+                response -> response.getAvailable() ? Outcome.OK
+                    : response.getConflictsCount() > 0 ? Outcome.SLOT_TAKEN : Outcome.FALLBACK);
+            case GRPC_HOLD_SLOT -> grpc(deadline().holdSlot(HoldSlotRequest.newBuilder()
+                    .setLocationId(request.locationId().toString())
+                    .setOrganizationId(request.organizationId().toString())
+                    .setStartEpochMillis(request.startEpochMillis())
+                    .setEndEpochMillis(request.endEpochMillis())
+                    .setHeadcount(request.headcount())
+                    .build()),
+                response -> response.getAvailable() ? Outcome.OK
+                    : response.getConflictsCount() > 0 ? Outcome.SLOT_TAKEN : Outcome.FALLBACK);
+            case GRPC_QUOTE_PRICE -> grpc(deadline().quotePrice(QuotePriceRequest.newBuilder()
+                    .setLocationId(request.locationId().toString())
+                    .addWindows(TimeWindow.newBuilder()
+                        .setStartEpochMillis(request.startEpochMillis())
+                        .setEndEpochMillis(request.endEpochMillis()))
+                    .build()),
+                response -> Outcome.OK);
+            case REST_CHECK_AVAILABILITY -> rest(request, "/availability?start=%d&end=%d&headcount=%d".formatted(
+                request.startEpochMillis(), request.endEpochMillis(), request.headcount()));
+            case REST_QUOTE -> rest(request, "/quote?start=%d&end=%d".formatted(
+                request.startEpochMillis(), request.endEpochMillis()));
+        };
+    }
+
+    private BookingServiceGrpc.BookingServiceFutureStub deadline() {
+        return stub.withDeadlineAfter(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static <T> CompletableFuture<Outcome> grpc(ListenableFuture<T> call, Function<T, Outcome> outcome) {
+        CompletableFuture<Outcome> result = new CompletableFuture<>();
+        Futures.addCallback(call, new FutureCallback<>() {
+            @Override
+            public void onSuccess(T response) {
+                result.complete(outcome.apply(response));
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                result.complete(new Outcome(false, Status.fromThrowable(t).getCode().name()));
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    private CompletableFuture<Outcome> rest(Scenario.Request request, String pathAndQuery) {
+        HttpRequest httpRequest = HttpRequest.newBuilder(URI.create(
+                httpBase + "/api/booking/" + request.locationId() + pathAndQuery))
+            .header("Accept", "application/json")
+            .header("X-Organization-Id", request.organizationId().toString())
+            .timeout(timeout)
+            .build();
+        return http.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding())
+            .handle((response, error) -> {
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    return new Outcome(false, cause.getClass().getSimpleName());
+                }
+                return response.statusCode() == 200 ? Outcome.OK : new Outcome(false, "HTTP_" + response.statusCode());
+            });
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+        http.close();
+    }
+}
@@ -0,0 +1,148 @@
+package com.planify.booking_service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.planify.booking_service.domain.UuidV7Generator;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Vstavljanje vrstic oblike bookings v vgrajeni Postgres z enakim SQL-om, kot ga izda Hibernate:
+ *
+ * <ul>
+ *   <li>identity-random - prej: ključ gen_random_uuid() v bazi, vsak save je svoj INSERT ... RETURNING</li>
+ *   <li>batched-random - ključ UUID.randomUUID() v aplikaciji, JDBC paketi</li>
+ *   <li>batched-v7 - zdaj: ključ UuidV7Generator, JDBC paketi</li>
+ * </ul>
+ *
+ * Vse različice potrdijo transakcijo vsakih batch vrstic. Poročilo vsebuje vrstice na sekundo ter
+ * velikost tabele in indeksa primarnega ključa po vstavljanju.
+ *
+ * <pre>
+ * mvn -Pload-test test-compile exec:java -Dloadtest.main=com.planify.booking_service.loadtest.UuidInsertBenchmark
+ * </pre>
+ */
+@Slf4j
+public class UuidInsertBenchmark {
+
+    private static final String DATABASE = "postgres";
+
+    public record Result(String name, int rows, double seconds, double rowsPerSecond, long tableBytes, long primaryKeyBytes) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = Integer.getInteger("loadtest.uuid.rows", 500_000);
+        int batch = Integer.getInteger("loadtest.uuid.batch", 50);
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "target/load-test"));
+
+        List<Result> results = new ArrayList<>();
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             Connection connection = DriverManager.getConnection(
+                 postgres.getJdbcUrl(DATABASE, DATABASE) + "&reWriteBatchedInserts=true", DATABASE, DATABASE)) {
+            connection.setAutoCommit(false);
+            results.add(run(connection, "identity-random", rows, batch, null));
+            results.add(run(connection, "batched-random", rows, batch, UUID::randomUUID));
+            results.add(run(connection, "batched-v7", rows, batch, UuidV7Generator::next));
+        }
+
+        Files.createDirectories(reportDir);
+        Path report = reportDir.resolve("uuid-insert-" + LoadReport.FILE_TIMESTAMP.format(Instant.now()) + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), results);
+        results.forEach(result -> log.info("{}: {} rows/s, table {} MB, primary key {} MB",
+            result.name(), Math.round(result.rowsPerSecond()), "%.1f".formatted(result.tableBytes() / 1048576.0),
+            "%.1f".formatted(result.primaryKeyBytes() / 1048576.0)));
+        log.info("Report written to {}", report.toAbsolutePath());
+    }
+
+    /**
+     * @param ids null = ključ ustvari baza (IDENTITY), sicer ključ iz aplikacije in paketno vstavljanje
+     */
+    private static Result run(Connection connection, String name, int rows, int batch, Supplier<UUID> ids) throws SQLException {
+        String table = "bench_" + name.replace('-', '_');
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("""
+                CREATE TABLE %s (
+                    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+                    location_id UUID NOT NULL,
+                    organization_id UUID NOT NULL,
+                    start_time TIMESTAMP NOT NULL,
+                    end_time TIMESTAMP NOT NULL,
+                    status TEXT NOT NULL,
+                    total_amount_cents INT NOT NULL,
+                    currency VARCHAR(3) NOT NULL,
+                    created_at TIMESTAMP NOT NULL,
+                    updated_at TIMESTAMP NOT NULL
+                )""".formatted(table));
+        }
+        connection.commit();
+
+        String columns = "location_id, organization_id, start_time, end_time, status, total_amount_cents, currency, created_at, updated_at";
+        String sql = ids == null
+            ? "INSERT INTO %s (%s) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) RETURNING id".formatted(table, columns)
+            : "INSERT INTO %s (id, %s) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)".formatted(table, columns);
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        long started = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int i = 1; i <= rows; i++) {
+                int parameter = 1;
+                if (ids != null) {
+                    insert.setObject(parameter++, ids.get());
+                }
+                LocalDateTime start = base.plusMinutes(30L * random.nextInt(10_000));
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                insert.setObject(parameter++, new UUID(random.nextLong(), random.nextLong()));
+                insert.setObject(parameter++, new UUID(random.nextLong(), random.nextLong()));
+                insert.setTimestamp(parameter++, Timestamp.valueOf(start));
+                insert.setTimestamp(parameter++, Timestamp.valueOf(start.plusHours(2)));
+                insert.setString(parameter++, "PENDING_PAYMENT");
+                insert.setInt(parameter++, 24000);
+                insert.setString(parameter++, "EUR");
+                insert.setTimestamp(parameter++, now);
+                insert.setTimestamp(parameter, now);
+                if (ids == null) {
+                    try (ResultSet generated = insert.executeQuery()) {
+                        generated.next();
+                    }
+                } else {
+                    insert.addBatch();
+                    if (i % batch == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                if (i % batch == 0) {
+                    connection.commit();
+                }
+            }
+            if (ids != null) {
+                insert.executeBatch();
+            }
+            connection.commit();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        try (Statement sizes = connection.createStatement();
+             ResultSet result = sizes.executeQuery("SELECT pg_relation_size('%s'), pg_relation_size('%s_pkey')"
+                 .formatted(table, table))) {
+            result.next();
+            return new Result(name, rows, seconds, rows / seconds, result.getLong(1), result.getLong(2));
+        }
+    }
+}
@@ -2,10 +2,16 @@ package com.planify.booking_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class BookingServiceApplication {
     public static void main(String[] args) {
-        SpringApplication.run(BookingServiceApplication.class, args);
+        SpringApplication application = new SpringApplication(BookingServiceApplication.class);
+        // Koraki zagona (npr. Flyway, Hibernate) so na voljo na /actuator/startup za primerjavo slik
+        if (Boolean.parseBoolean(System.getenv("STARTUP_TRACE"))) {
+            application.setApplicationStartup(new BufferingApplicationStartup(8192));
+        }
+        application.run(args);
     }
 }
@@ -0,0 +1,28 @@
+package com.planify.booking_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "booking.adaptive-limit")
+public class AdaptiveLimitProperties {
+
+    private Map<String, Instance> instances = new LinkedHashMap<>();
+
+    @Data
+    public static class Instance {
+        private int initialLimit = 10;
+        private int minLimit = 1;
+        private int maxLimit = 100;
+        // Vzorec, počasnejši od tolerance * min RTT, pomeni preobremenjeno bazo
+        private double tolerance = 2.0;
+        private double backoffRatio = 0.9;
+        // Po toliko vzorcih se min RTT ponovno izmeri, da sledi spremembam baze
+        private int rttWindow = 500;
+    }
+}
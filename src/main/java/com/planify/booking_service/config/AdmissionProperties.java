@@ -0,0 +1,35 @@
+package com.planify.booking_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "booking.admission")
+public class AdmissionProperties {
+
+    private String defaultTier = "standard";
+    // Zahtevek JWT z organizacijo klicatelja (REST)
+    private String organizationClaim = "organization_id";
+    // Koliko časa zahtevek čaka v pravični vrsti, ko je omejitev sočasnosti polna
+    private Duration maxQueueWait = Duration.ofMillis(50);
+    private int maxQueueSize = 1000;
+    // Število trakov za žetone in virtualne čase; organizacije se nanje preslikajo z zgoščevanjem,
+    // organizacije na istem traku si delijo token bucket
+    private int stripes = 4096;
+    private Map<String, Tier> tiers = new LinkedHashMap<>();
+    // organizationId -> ime nivoja
+    private Map<String, String> organizations = new LinkedHashMap<>();
+
+    @Data
+    public static class Tier {
+        private double ratePerSecond = 20;
+        private int burst = 40;
+        private double weight = 1.0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.planify.booking_service.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+public class FlywayConfig {
+
+    /**
+     * Učni zagon za CDS arhiv (Dockerfile) teče brez baze. Z AOT so pogoji ovrednoteni ob
+     * gradnji, zato spring.flyway.enabled=false ne bi pomagal - preskočimo samo migracijo.
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${booking.startup.training-run:false}") boolean trainingRun) {
+        return flyway -> {
+            if (trainingRun) {
+                log.info("Training run, skipping Flyway migrations");
+                return;
+            }
+            flyway.migrate();
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.planify.booking_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "booking.hedging")
+public class HedgingProperties {
+
+    private boolean enabled = false;
+    // Zamik drugega poskusa je ta percentil latence zadnjih poizvedb, omejen na [min-delay, max-delay]
+    private double percentile = 0.95;
+    private Duration minDelay = Duration.ofMillis(5);
+    // Uporabi se tudi, dokler ni dovolj vzorcev
+    private Duration maxDelay = Duration.ofMillis(200);
+    private int window = 1000;
+    // Vsak klic doda budget-ratio žetona, drugi poskus porabi enega; največ budget-burst žetonov
+    private double budgetRatio = 0.05;
+    private int budgetBurst = 10;
+    private int maxThreads = 64;
+}
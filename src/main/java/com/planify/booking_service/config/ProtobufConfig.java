@@ -0,0 +1,20 @@
+package com.planify.booking_service.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.protobuf.ProtobufHttpMessageConverter;
+
+/**
+ * Binarni protobuf na REST poteh za notranje odjemalce (Accept: application/x-protobuf).
+ * Spring Boot doda converter pred privzete; uporabi se samo za vrnjene protobuf sporočila.
+ */
+@Configuration
+public class ProtobufConfig {
+
+    public static final String PROTOBUF_VALUE = "application/x-protobuf";
+
+    @Bean
+    public ProtobufHttpMessageConverter protobufHttpMessageConverter() {
+        return new ProtobufHttpMessageConverter();
+    }
+}
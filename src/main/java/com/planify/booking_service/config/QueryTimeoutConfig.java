@@ -0,0 +1,34 @@
+package com.planify.booking_service.config;
+
+import com.planify.booking_service.datasource.TimeoutDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Glavni DataSource (Spring Boot ali usmerjevalni iz ReplicaDataSourceConfig) ovije
+ * s TimeoutDataSource, da časovne omejitve in roki zahtevkov veljajo za JPA in JdbcTemplate.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "booking.query-timeouts", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryTimeoutConfig {
+
+    @Bean
+    public static BeanPostProcessor timeoutDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof TimeoutDataSource)) {
+                    return new TimeoutDataSource(dataSource, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
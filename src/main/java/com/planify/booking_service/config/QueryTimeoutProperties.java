@@ -0,0 +1,21 @@
+package com.planify.booking_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "booking.query-timeouts")
+public class QueryTimeoutProperties {
+
+    private boolean enabled = true;
+    // Rok REST zahtevka; gRPC klici uporabijo rok odjemalca
+    private Duration httpRequest = Duration.ofSeconds(10);
+    // Ključ je Repozitorij.metoda, npr. BookingRepository.findConflictingBookings
+    private Map<String, Duration> methods = new HashMap<>();
+}
@@ -0,0 +1,56 @@
+package com.planify.booking_service.config;
+
+import com.planify.booking_service.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Z nastavljeno repliko (booking.datasource.replica.enabled) ima aplikacija dva bazena povezav:
+ * primarni iz spring.datasource in bralnega iz booking.datasource.replica. JPA, Flyway in vse
+ * ostalo uporabljajo usmerjevalni DataSource, ki brez @ReadFromReplica vedno izbere primarno bazo.
+ * Brez replike ta konfiguracija ni aktivna in DataSource ustvari Spring Boot.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "booking.datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("booking.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties dataSourceProperties, ReplicaProperties replica) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .driverClassName(dataSourceProperties.determineDriverClassName())
+            .url(replica.getUrl())
+            .username(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername())
+            .password(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword())
+            .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource));
+    }
+}
@@ -0,0 +1,23 @@
+package com.planify.booking_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "booking.datasource.replica")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+    private String url;
+    private String username;
+    private String password;
+    // Večji zaostanek preusmeri branja na primarno bazo
+    private Duration maxLag = Duration.ofSeconds(2);
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+    // Brez uspešnega preverjanja toliko časa je replika nedosegljiva
+    private Duration lagStaleAfter = Duration.ofSeconds(5);
+}
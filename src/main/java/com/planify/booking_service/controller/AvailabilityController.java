@@ -1,6 +1,11 @@
 package com.planify.booking_service.controller;
 
+import com.planify.booking_service.config.ProtobufConfig;
+import com.planify.booking_service.datasource.ReplicaContext;
+import com.planify.booking_service.grpc.CheckAvailabilityResponse;
+import com.planify.booking_service.resilience.OrganizationAdmission;
 import com.planify.booking_service.service.AvailabilityService;
+import com.planify.booking_service.service.ResourceVersions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,13 +17,26 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/booking")
@@ -28,33 +46,129 @@ import java.util.UUID;
 public class AvailabilityController {
 
     private final AvailabilityService availabilityService;
+    private final ResourceVersions resourceVersions;
+    private final OrganizationAdmission organizationAdmission;
 
     @Operation(
         summary = "Check location availability",
-        description = "Checks if a location is available for booking in the given time window. Returns availability status and conflicting booking IDs. Times are in UTC epoch milliseconds."
+        description = "Checks if a location is available for booking in the given time window. Returns availability status and conflicting booking IDs. Times are in UTC epoch milliseconds. Send Accept: application/x-protobuf for a binary CheckAvailabilityResponse (booking.proto)."
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Availability checked successfully"),
+        @ApiResponse(responseCode = "304", description = "No bookings changed at this location since the ETag in If-None-Match", content = @Content),
         @ApiResponse(responseCode = "400", description = "Invalid parameters", content = @Content),
         @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+        @ApiResponse(responseCode = "429", description = "Organization exceeded its request rate", content = @Content),
     })
-    @GetMapping("/{locationId}/availability")
+    @GetMapping(value = "/{locationId}/availability", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<CheckAvailabilityResponseDto> checkAvailability(
             @Parameter(required = true)
             @PathVariable("locationId") UUID locationId,
             @Parameter(required = true, example = "1735036800000")
             @RequestParam("start") long startEpochMillis,
             @Parameter(required = true, example = "1735040400000")
-            @RequestParam("end") long endEpochMillis
+            @RequestParam("end") long endEpochMillis,
+            @Parameter(description = "Number of attendees, only relevant for shared-capacity locations", example = "1")
+            @RequestParam(value = "headcount", defaultValue = "1") int headcount,
+            WebRequest request
     ) {
+        return conditional(request, locationId, query(startEpochMillis, endEpochMillis, headcount), "json",
+                () -> check(locationId, startEpochMillis, endEpochMillis, headcount),
+                conflicts -> new CheckAvailabilityResponseDto(conflicts.isEmpty(), conflicts));
+    }
+
+    @Operation(hidden = true)
+    @GetMapping(value = "/{locationId}/availability", produces = ProtobufConfig.PROTOBUF_VALUE)
+    public ResponseEntity<CheckAvailabilityResponse> checkAvailabilityProtobuf(
+            @PathVariable("locationId") UUID locationId,
+            @RequestParam("start") long startEpochMillis,
+            @RequestParam("end") long endEpochMillis,
+            @RequestParam(value = "headcount", defaultValue = "1") int headcount,
+            WebRequest request
+    ) {
+        return conditional(request, locationId, query(startEpochMillis, endEpochMillis, headcount), "pb",
+                () -> check(locationId, startEpochMillis, endEpochMillis, headcount),
+                conflicts -> CheckAvailabilityResponse.newBuilder()
+                        .setAvailable(conflicts.isEmpty())
+                        .addAllConflictingBookingIds(conflicts.stream().map(UUID::toString).toList())
+                        .build());
+    }
+
+    private List<UUID> check(UUID locationId, long startEpochMillis, long endEpochMillis, int headcount) {
         // Iz ui-a dobimo čase v milisekundah -> pretvorimo jih v LocalDateTime
         long startSeconds = startEpochMillis / 1000L;
         long endSeconds = endEpochMillis / 1000L;
         LocalDateTime start = LocalDateTime.ofEpochSecond(startSeconds, 0, ZoneOffset.UTC);
         LocalDateTime end = LocalDateTime.ofEpochSecond(endSeconds, 0, ZoneOffset.UTC);
-        List<UUID> conflicts = availabilityService.findConflicts(locationId, start, end);
-        boolean available = conflicts.isEmpty();
-        return ResponseEntity.ok(new CheckAvailabilityResponseDto(available, conflicts));
+        return organizationAdmission.callAs("availabilityService", callerOrganization(),
+                () -> availabilityService.checkConflicts(locationId, start, end, Math.max(1, headcount)));
+    }
+
+    /**
+     * Organizacija prijavljenega klicatelja; neprijavljeni klici si delijo skupno omejitev.
+     * Glave, ki jo lahko pošlje kdorkoli, ne upoštevamo - sicer bi odjemalec porabljal tuj delež.
+     */
+    private UUID callerOrganization() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication instanceof JwtAuthenticationToken token
+                ? organizationAdmission.organizationOf(token.getToken())
+                : null;
+    }
+
+    /**
+     * Parametri, kot jih uporabi check (sekunde, najmanj ena oseba) - različna zapisa iste
+     * poizvedbe imata isti ETag, različni okni pa nikoli.
+     */
+    private static String query(long startEpochMillis, long endEpochMillis, int headcount) {
+        return startEpochMillis / 1000L + "-" + endEpochMillis / 1000L + "-" + Math.max(1, headcount);
+    }
+
+    /**
+     * Odgovor je odvisen samo od poizvedbe in rezervacij lokacije (in lokacije same) - 304 brez poizvedbe.
+     * Z replike se bere samo, če je že predvajala spremembo, ki ji pripada ETag.
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest request, UUID locationId, String query, String representation,
+                                              Supplier<List<UUID>> conflicts, Function<List<UUID>, T> body) {
+        String etag = resourceVersions.availabilityEtag(locationId, query, representation);
+        Instant changedAt = resourceVersions.availabilityChangedAt(locationId);
+        CacheControl cacheControl = CacheControl.noCache().cachePublic();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body.apply(ReplicaContext.freshAsOf(changedAt, conflicts)));
+    }
+
+    @Operation(
+        summary = "Get free slots for a day",
+        description = "Returns free time ranges for a location that is booked in fixed slots (15/30 minutes). Times are in UTC epoch milliseconds."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Free slots retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "Location is not booked in fixed slots", content = @Content),
+    })
+    @GetMapping("/{locationId}/free-slots")
+    public ResponseEntity<List<FreeSlotDto>> getFreeSlots(
+            @Parameter(required = true)
+            @PathVariable("locationId") UUID locationId,
+            @Parameter(required = true, example = "2025-01-10")
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return availabilityService.findFreeSlots(locationId, date)
+                .map(slots -> slots.stream()
+                        .map(slot -> new FreeSlotDto(
+                                slot.start().toInstant(ZoneOffset.UTC).toEpochMilli(),
+                                slot.end().toInstant(ZoneOffset.UTC).toEpochMilli()))
+                        .toList())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @Schema(description = "Response containing availability status and conflicting booking IDs")
@@ -67,4 +181,15 @@ public class AvailabilityController {
         @Schema(description = "List of conflicting booking IDs", example = "[]")
         private List<UUID> conflictingBookingIds;
     }
+
+    @Schema(description = "Free time range in UTC epoch milliseconds")
+    @Data
+    @AllArgsConstructor
+    public static class FreeSlotDto {
+        @Schema(description = "Start of the free range", example = "1735804800000")
+        private long start;
+
+        @Schema(description = "End of the free range", example = "1735812000000")
+        private long end;
+    }
 }
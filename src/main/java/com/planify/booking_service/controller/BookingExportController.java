@@ -0,0 +1,74 @@
+package com.planify.booking_service.controller;
+
+import com.planify.booking_service.service.BookingExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.Arrays;
+
+@RestController
+@RequestMapping("/api/booking")
+@RequiredArgsConstructor
+@Tag(name = "Export", description = "Bulk booking export endpoints")
+@SecurityRequirement(name = "bearer-jwt")
+public class BookingExportController {
+
+    private final BookingExportService bookingExportService;
+
+    @Value("${booking.export.max-range:P92D}")
+    private Period maxRange;
+
+    @Operation(
+        summary = "Export bookings",
+        description = "Streams all bookings starting in [from, to) as CSV or NDJSON, ordered by start time. Requires the admin or finance role (booking.export.roles); the range may span at most booking.export.max-range. Times are ISO-8601 UTC instants. The response is written while rows are read from the database, so memory use does not depend on the number of rows."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid range or format", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+        @ApiResponse(responseCode = "403", description = "Missing export role", content = @Content),
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(required = true, example = "2025-01-01")
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Exclusive end date", required = true, example = "2025-02-01")
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "csv or ndjson", example = "csv")
+            @RequestParam(value = "format", defaultValue = "csv") String formatName
+    ) {
+        BookingExportService.Format format = Arrays.stream(BookingExportService.Format.values())
+                .filter(f -> f.extension().equalsIgnoreCase(formatName))
+                .findFirst()
+                .orElse(null);
+        if (format == null || !from.isBefore(to) || from.plus(maxRange).isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Telo se piše na async niti; transakcija s kurzorjem se odpre šele tam
+        StreamingResponseBody body = out -> bookingExportService.export(from.atStartOfDay(), to.atStartOfDay(), format, out);
+        String filename = "bookings-" + from + "-" + to + "." + format.extension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.mediaType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
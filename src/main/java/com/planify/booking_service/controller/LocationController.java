@@ -1,7 +1,16 @@
 package com.planify.booking_service.controller;
 
+import com.planify.booking_service.config.ProtobufConfig;
+import com.planify.booking_service.datasource.ReplicaContext;
+import com.planify.booking_service.datasource.ReplicaReads;
 import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.grpc.LocationInfo;
+import com.planify.booking_service.grpc.LocationList;
 import com.planify.booking_service.repository.LocationRepository;
+import com.planify.booking_service.repository.LocationSearchCriteria;
+import com.planify.booking_service.service.LocationCalendarFeed;
+import com.planify.booking_service.service.LocationSearchService;
+import com.planify.booking_service.service.ResourceVersions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,12 +19,25 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/locations")
@@ -25,37 +47,205 @@ import java.util.UUID;
 public class LocationController {
 
     private final LocationRepository locationRepository;
+    private final ResourceVersions resourceVersions;
+    private final LocationCalendarFeed locationCalendarFeed;
+    private final ReplicaReads replicaReads;
+    private final LocationSearchService locationSearchService;
+
+    @Value("${booking.http-cache.locations-max-age:PT30S}")
+    private Duration locationsMaxAge;
+
+    @Value("${booking.calendar.max-age:PT5M}")
+    private Duration calendarMaxAge;
 
     @Operation(
         summary = "Get all active locations",
-        description = "Returns a list of all active locations available for booking. Locations are sorted by name in ascending order."
+        description = "Returns a list of all active locations available for booking. Locations are sorted by name in ascending order. Send Accept: application/x-protobuf for a binary LocationList (booking.proto)."
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved list of locations",
                 content = @Content(mediaType = "application/json", schema = @Schema(implementation = Location.class))),
+        @ApiResponse(responseCode = "304", description = "Locations did not change since the ETag in If-None-Match", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing JWT token", content = @Content),
+    })
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<Location>> getAllActive(WebRequest request) {
+        return conditional(request, "json", locationRepository::findByActiveTrueOrderByNameAsc);
+    }
+
+    @Operation(hidden = true)
+    @GetMapping(produces = ProtobufConfig.PROTOBUF_VALUE)
+    public ResponseEntity<LocationList> getAllActiveProtobuf(WebRequest request) {
+        return conditional(request, "pb", () -> LocationList.newBuilder()
+                .addAllLocations(locationRepository.findByActiveTrueOrderByNameAsc().stream()
+                        .map(LocationController::toProto)
+                        .toList())
+                .build());
+    }
+
+    @Operation(
+        summary = "Search active locations",
+        description = "Returns one page of active locations matching all given filters, in a single database query. The text matches any part of the name or address, case-insensitively (at least 3 characters to use the trigram index). With start and end (UTC epoch milliseconds) only locations free for headcount attendees in that window are returned, by the same rule as the availability check. Pass nextCursor from the response as cursor, with the same filters and sort, to get the next page; nextCursor is null on the last page."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page of matching locations"),
+        @ApiResponse(responseCode = "400", description = "Invalid window, sort or cursor", content = @Content),
         @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing JWT token", content = @Content),
     })
-    @GetMapping
-    public ResponseEntity<List<Location>> getAllActive() {
-        return ResponseEntity.ok(locationRepository.findByActiveTrueOrderByNameAsc());
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<LocationSearchResponseDto> search(
+            @Parameter(description = "Minimum capacity", example = "50")
+            @RequestParam(value = "minCapacity", required = false) Integer minCapacity,
+            @Parameter(description = "Maximum price per hour in cents", example = "10000")
+            @RequestParam(value = "maxPricePerHourCents", required = false) Integer maxPricePerHourCents,
+            @Parameter(description = "Part of the name or address", example = "ljubljana")
+            @RequestParam(value = "q", required = false) String text,
+            @Parameter(description = "Start of the window the location must be free in", example = "1735036800000")
+            @RequestParam(value = "start", required = false) Long startEpochMillis,
+            @Parameter(description = "End of the window the location must be free in", example = "1735040400000")
+            @RequestParam(value = "end", required = false) Long endEpochMillis,
+            @Parameter(description = "Number of attendees, only relevant with a window and for shared-capacity locations", example = "1")
+            @RequestParam(value = "headcount", defaultValue = "1") int headcount,
+            @Parameter(description = "name, price (ascending) or capacity (descending)", example = "name")
+            @RequestParam(value = "sort", defaultValue = "name") String sortName,
+            @Parameter(description = "nextCursor of the previous page")
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Page size, at most 100", example = "20")
+            @RequestParam(value = "limit", defaultValue = "20") int limit
+    ) {
+        LocationSearchCriteria.Sort sort = LocationSearchCriteria.Sort.parse(sortName);
+        LocationSearchService.Cursor after = sort == null || cursor == null ? null : LocationSearchService.Cursor.decode(cursor, sort);
+        if (sort == null || (cursor != null && after == null) || limit < 1
+                || (startEpochMillis == null) != (endEpochMillis == null)
+                || (startEpochMillis != null && startEpochMillis >= endEpochMillis)) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocationSearchCriteria criteria = new LocationSearchCriteria(minCapacity, maxPricePerHourCents, text,
+                toDateTime(startEpochMillis), toDateTime(endEpochMillis), Math.max(1, headcount),
+                sort, after == null ? null : after.key(), after == null ? null : after.id(), limit);
+        LocationSearchService.Page page = ReplicaContext.freshAsOf(resourceVersions.locationsChangedAt(),
+                () -> locationSearchService.search(criteria));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(new LocationSearchResponseDto(page.locations(), page.nextCursor()));
+    }
+
+    private static LocalDateTime toDateTime(Long epochMillis) {
+        return epochMillis == null ? null : LocalDateTime.ofEpochSecond(epochMillis / 1000L, 0, ZoneOffset.UTC);
     }
 
     @Operation(
         summary = "Get location by ID",
-        description = "Returns detailed information about a specific location identified by its UUID."
+        description = "Returns detailed information about a specific location identified by its UUID. Send Accept: application/x-protobuf for a binary LocationInfo (booking.proto)."
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved location",
                 content = @Content(mediaType = "application/json", schema = @Schema(implementation = Location.class))),
+        @ApiResponse(responseCode = "304", description = "Location did not change since the ETag in If-None-Match", content = @Content),
         @ApiResponse(responseCode = "404", description = "Location not found", content = @Content),
         @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing JWT token", content = @Content),
     })
-    @GetMapping("/{id}")
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Location> getById(
             @Parameter(required = true)
-            @PathVariable UUID id) {
-        return locationRepository.findById(id)
-                .map(ResponseEntity::ok)
+            @PathVariable UUID id,
+            WebRequest request) {
+        return conditional(request, "json", () -> locationRepository.findById(id).orElse(null));
+    }
+
+    @Operation(hidden = true)
+    @GetMapping(value = "/{id}", produces = ProtobufConfig.PROTOBUF_VALUE)
+    public ResponseEntity<LocationInfo> getByIdProtobuf(@PathVariable UUID id, WebRequest request) {
+        return conditional(request, "pb", () -> locationRepository.findById(id).map(LocationController::toProto).orElse(null));
+    }
+
+    @Operation(
+        summary = "Get location booking calendar",
+        description = "Returns an iCalendar (RFC 5545) feed with active bookings of the location, from 30 days ago onwards. Calendar clients can subscribe to it; send If-None-Match or If-Modified-Since to get 304 when nothing changed."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Calendar feed",
+                content = @Content(mediaType = "text/calendar")),
+        @ApiResponse(responseCode = "304", description = "Calendar did not change since the ETag in If-None-Match", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Location not found", content = @Content),
+    })
+    @GetMapping(value = "/{id}/calendar.ics", produces = "text/calendar")
+    public ResponseEntity<byte[]> getCalendar(
+            @Parameter(required = true)
+            @PathVariable UUID id,
+            WebRequest request) {
+        return locationCalendarFeed.render(id)
+                .map(feed -> {
+                    CacheControl cacheControl = CacheControl.maxAge(calendarMaxAge).cachePublic();
+                    if (request.checkNotModified(feed.etag(), feed.lastModified().toEpochMilli())) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(feed.etag())
+                                .lastModified(feed.lastModified())
+                                .cacheControl(cacheControl)
+                                .<byte[]>build();
+                    }
+                    return ResponseEntity.ok()
+                            .eTag(feed.etag())
+                            .lastModified(feed.lastModified())
+                            .cacheControl(cacheControl)
+                            .contentType(MediaType.parseMediaType("text/calendar;charset=UTF-8"))
+                            .body(feed.body());
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    /**
+     * Verzijo preberemo pred poizvedbo, da odgovor ni označen z novejšo verzijo od podatkov.
+     * Supplier vrne null, če vira ni (404). Poizvedba gre na repliko, če je ta že predvajala
+     * zadnjo spremembo lokacij.
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest request, String representation, Supplier<T> body) {
+        String etag = resourceVersions.locationsEtag(representation);
+        Instant changedAt = resourceVersions.locationsChangedAt();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        T value = ReplicaContext.freshAsOf(changedAt, () -> replicaReads.read(body));
+        if (value == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(value);
+    }
+
+    // Lokacije niso vezane na uporabnika, zato jih sme hraniti tudi robni predpomnilnik
+    private CacheControl cacheControl() {
+        return CacheControl.maxAge(locationsMaxAge).cachePublic().mustRevalidate();
+    }
+
+    static LocationInfo toProto(Location location) {
+        return LocationInfo.newBuilder()
+                .setId(location.getId().toString())
+                .setName(location.getName())
+                .setAddress(location.getAddress())
+                .setCapacity(location.getCapacity())
+                .setPricePerHourCents(location.getPricePerHourCents())
+                .setActive(Boolean.TRUE.equals(location.getActive()))
+                .setSharedCapacity(Boolean.TRUE.equals(location.getSharedCapacity()))
+                .setSlotMinutes(location.getSlotMinutes() == null ? 0 : location.getSlotMinutes())
+                .build();
+    }
+
+    @Schema(description = "One page of location search results")
+    @Data
+    @AllArgsConstructor
+    public static class LocationSearchResponseDto {
+        @Schema(description = "Matching locations in the requested order")
+        private List<Location> locations;
+
+        @Schema(description = "Cursor of the next page, null on the last page")
+        private String nextCursor;
+    }
 }
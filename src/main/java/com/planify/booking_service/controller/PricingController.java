@@ -0,0 +1,136 @@
+package com.planify.booking_service.controller;
+
+import com.planify.booking_service.pricing.PricingEngine;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.function.Function;
+
+@RestController
+@RequestMapping("/api/booking")
+@RequiredArgsConstructor
+@Tag(name = "Pricing", description = "Price quote endpoints")
+@SecurityRequirement(name = "bearer-jwt")
+public class PricingController {
+
+    private final PricingEngine pricingEngine;
+
+    @Operation(
+        summary = "Quote price for a time window",
+        description = "Returns the price a booking of this window would cost, including time-of-day rates and duration discounts. Times are in UTC epoch milliseconds."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Price quoted"),
+        @ApiResponse(responseCode = "400", description = "Invalid window", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Location not found", content = @Content),
+    })
+    @GetMapping("/{locationId}/quote")
+    public ResponseEntity<PriceQuoteDto> quote(
+            @Parameter(required = true)
+            @PathVariable("locationId") UUID locationId,
+            @Parameter(required = true, example = "1735036800000")
+            @RequestParam("start") long startEpochMillis,
+            @Parameter(required = true, example = "1735040400000")
+            @RequestParam("end") long endEpochMillis
+    ) {
+        return quotes(locationId, List.of(new TimeWindowDto(startEpochMillis, endEpochMillis)), quotes -> quotes.get(0));
+    }
+
+    @Operation(
+        summary = "Quote prices for many time windows",
+        description = "Batch variant of the quote endpoint for up to 500 windows of the same location. Quotes are returned in request order."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Prices quoted"),
+        @ApiResponse(responseCode = "400", description = "Invalid window or too many windows", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Location not found", content = @Content),
+    })
+    @PostMapping("/{locationId}/quotes")
+    public ResponseEntity<List<PriceQuoteDto>> quoteBatch(
+            @Parameter(required = true)
+            @PathVariable("locationId") UUID locationId,
+            @RequestBody List<TimeWindowDto> windows
+    ) {
+        return quotes(locationId, windows, Function.identity());
+    }
+
+    private <T> ResponseEntity<T> quotes(UUID locationId, List<TimeWindowDto> windows, Function<List<PriceQuoteDto>, T> body) {
+        try {
+            List<PricingEngine.Quote> quotes = pricingEngine.quote(locationId, windows.stream()
+                    .map(window -> new PricingEngine.Window(toLocalDateTime(window.getStart()), toLocalDateTime(window.getEnd())))
+                    .toList());
+            return ResponseEntity.ok(body.apply(quotes.stream().map(PricingController::toDto).toList()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private static PriceQuoteDto toDto(PricingEngine.Quote quote) {
+        return new PriceQuoteDto(
+                quote.start().toInstant(ZoneOffset.UTC).toEpochMilli(),
+                quote.end().toInstant(ZoneOffset.UTC).toEpochMilli(),
+                quote.billableMinutes(),
+                quote.baseAmountCents(),
+                quote.discountPercent(),
+                quote.totalAmountCents());
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    @Schema(description = "Time window in UTC epoch milliseconds")
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TimeWindowDto {
+        @Schema(example = "1735036800000")
+        private long start;
+
+        @Schema(example = "1735040400000")
+        private long end;
+    }
+
+    @Schema(description = "Price of a booking in the given window")
+    @Data
+    @AllArgsConstructor
+    public static class PriceQuoteDto {
+        @Schema(example = "1735036800000")
+        private long start;
+
+        @Schema(example = "1735040400000")
+        private long end;
+
+        @Schema(description = "Billed minutes, started hours rounded up", example = "60")
+        private long billableMinutes;
+
+        @Schema(description = "Price before duration discount", example = "12000")
+        private int baseAmountCents;
+
+        @Schema(example = "0")
+        private int discountPercent;
+
+        @Schema(example = "12000")
+        private int totalAmountCents;
+    }
+}
@@ -0,0 +1,92 @@
+package com.planify.booking_service.controller;
+
+import com.planify.booking_service.service.LocationStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+@Tag(name = "Reports", description = "Occupancy and revenue reporting endpoints")
+@SecurityRequirement(name = "bearer-jwt")
+public class ReportController {
+
+    private static final long MAX_RANGE_DAYS = 366;
+
+    private final LocationStatsService locationStatsService;
+
+    @Operation(
+        summary = "Daily occupancy and revenue per location",
+        description = "Returns one row per location, day and currency in [from, to), read from incrementally maintained aggregates. Counts active bookings (pending payment and confirmed). Bookings and revenue count on the day the booking starts; booked minutes are split across days (UTC). Utilization is the booked share of the day, or of seat capacity for shared-capacity locations."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Report rows"),
+        @ApiResponse(responseCode = "400", description = "Invalid or too long range (max 366 days)", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+    })
+    @GetMapping("/location-daily")
+    public ResponseEntity<List<LocationDayDto>> getLocationDaily(
+            @Parameter(required = true, example = "2025-01-01")
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Exclusive end date", required = true, example = "2025-02-01")
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Limit the report to one location")
+            @RequestParam(value = "locationId", required = false) UUID locationId
+    ) {
+        if (!from.isBefore(to) || ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(locationStatsService.dailyReport(locationId, from, to).stream()
+                .map(row -> new LocationDayDto(row.locationId(), row.locationName(), row.date(), row.currency(),
+                        row.bookings(), row.bookedMinutes(), row.utilizationPercent(), row.revenueCents()))
+                .toList());
+    }
+
+    @Schema(description = "Occupancy and revenue of a location on one day")
+    @Data
+    @AllArgsConstructor
+    public static class LocationDayDto {
+        private UUID locationId;
+
+        @Schema(example = "City Conference Hall")
+        private String locationName;
+
+        @Schema(example = "2025-01-10")
+        private LocalDate date;
+
+        @Schema(example = "EUR")
+        private String currency;
+
+        @Schema(description = "Active bookings starting on this day", example = "3")
+        private int bookings;
+
+        @Schema(description = "Booked minutes on this day", example = "360")
+        private long bookedMinutes;
+
+        @Schema(description = "Booked share of the day (or of seat capacity) in percent", example = "25.0")
+        private double utilizationPercent;
+
+        @Schema(description = "Revenue of bookings starting on this day", example = "72000")
+        private long revenueCents;
+    }
+}
@@ -0,0 +1,39 @@
+package com.planify.booking_service.controller;
+
+import com.planify.booking_service.config.QueryTimeoutProperties;
+import com.planify.booking_service.datasource.QueryDeadline;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * REST zahtevki pod /api imajo rok booking.query-timeouts.http-request; poizvedbe po izteku
+ * roka se prekličejo. Pretočni izvoz teče asinhrono zunaj tega roka.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "booking.query-timeouts", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    private final QueryTimeoutProperties properties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (QueryDeadline.Entered entered = QueryDeadline.enter(QueryDeadline.Scope.after(properties.getHttpRequest()))) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
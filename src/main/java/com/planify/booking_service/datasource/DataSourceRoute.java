@@ -0,0 +1,6 @@
+package com.planify.booking_service.datasource;
+
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,269 @@
+package com.planify.booking_service.datasource;
+
+import com.planify.booking_service.config.HedgingProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Zakasnjeno podvajanje bralnih poizvedb (hedging) za krajši rep latence.
+ *
+ * Poizvedba teče v svoji bralni transakciji na delovni niti. Če se ne konča v zamiku
+ * (percentil zadnjih latenc), se ista poizvedba izvede še enkrat na primarni bazi - to je
+ * druga povezava ali, kadar je prvi poskus bral z replike, drug strežnik. Vrne se prvi uspešen
+ * rezultat, poizvedba drugega poskusa se prekliče prek Session.cancelQuery().
+ *
+ * Drugi poskus porabi žeton; vsak klic doda budget-ratio žetona, zato podvajanje poveča
+ * obremenitev baze za največ budget-ratio (plus budget-burst ob konicah). Znotraj obstoječe
+ * transakcije (npr. createBooking) se poizvedba vedno izvede neposredno.
+ */
+@Slf4j
+@Component
+public class HedgedReads {
+
+    private static final long TOKEN = 1000;
+
+    private final HedgingProperties properties;
+    private final TransactionTemplate transactions;
+    private final EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong budget = new AtomicLong();
+    private final long budgetDeposit;
+    private final long budgetLimit;
+
+    // Dostop do spodnjih polj je sinhroniziran na latencies
+    private final long[] latencies;
+    private int latencyCount;
+    private int latencyNext;
+    private volatile long delayNanos;
+
+    public HedgedReads(HedgingProperties properties, PlatformTransactionManager transactionManager,
+                       EntityManager entityManager, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setReadOnly(true);
+        this.entityManager = entityManager;
+        this.meterRegistry = meterRegistry;
+        this.budgetDeposit = Math.round(properties.getBudgetRatio() * TOKEN);
+        this.budgetLimit = properties.getBudgetBurst() * TOKEN;
+        this.latencies = new long[Math.max(1, properties.getWindow())];
+        this.delayNanos = properties.getMaxDelay().toNanos();
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, properties.getMaxThreads(), 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "hedged-read-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+        Gauge.builder("booking.hedging.delay", this, reads -> reads.hedgeDelay().toNanos() / 1e6)
+            .description("Delay before a second attempt of a slow read is issued")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Izvede poizvedbo, po potrebi v dveh poskusih. Poizvedba mora biti samo bralna, ker se
+     * lahko izvede dvakrat.
+     */
+    public <T> T call(String name, Supplier<T> query) {
+        if (!properties.isEnabled() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return query.get();
+        }
+        budget.accumulateAndGet(budgetDeposit, (current, deposit) -> Math.min(budgetLimit, current + deposit));
+
+        Attempt<T> first;
+        try {
+            first = submit(query, ReplicaContext.route());
+        } catch (RejectedExecutionException e) {
+            count(name, "rejected");
+            return query.get();
+        }
+        try {
+            T result = first.result.get(delayNanos, TimeUnit.NANOSECONDS);
+            count(name, "not-needed");
+            return result;
+        } catch (TimeoutException e) {
+            return hedge(name, query, first);
+        } catch (ExecutionException e) {
+            throw rethrow(e);
+        } catch (InterruptedException e) {
+            first.cancel();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + name, e);
+        }
+    }
+
+    private <T> T hedge(String name, Supplier<T> query, Attempt<T> first) {
+        if (!tryWithdraw()) {
+            count(name, "budget-exhausted");
+            return await(name, List.of(first));
+        }
+        Attempt<T> second;
+        try {
+            second = submit(query, DataSourceRoute.PRIMARY);
+        } catch (RejectedExecutionException e) {
+            budget.addAndGet(TOKEN);
+            count(name, "rejected");
+            return await(name, List.of(first));
+        }
+        Attempt<T> winner = firstSuccessful(name, List.of(first, second));
+        (winner == first ? second : first).cancel();
+        count(name, winner == first ? "first-won" : "hedge-won");
+        return winner.result.join();
+    }
+
+    private <T> T await(String name, List<Attempt<T>> attempts) {
+        return firstSuccessful(name, attempts).result.join();
+    }
+
+    /**
+     * Počaka na prvi uspešen poskus; če padejo vsi, vrže napako zadnjega.
+     */
+    private <T> Attempt<T> firstSuccessful(String name, List<Attempt<T>> attempts) {
+        CompletableFuture<Attempt<T>> winner = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(attempts.size());
+        for (Attempt<T> attempt : attempts) {
+            attempt.result.whenComplete((result, error) -> {
+                if (error == null) {
+                    winner.complete(attempt);
+                } else if (remaining.decrementAndGet() == 0) {
+                    winner.completeExceptionally(error);
+                }
+            });
+        }
+        try {
+            return winner.get();
+        } catch (ExecutionException e) {
+            throw rethrow(e);
+        } catch (InterruptedException e) {
+            attempts.forEach(Attempt::cancel);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + name, e);
+        }
+    }
+
+    private <T> Attempt<T> submit(Supplier<T> query, DataSourceRoute route) {
+        Attempt<T> attempt = new Attempt<>();
+        QueryDeadline.Scope deadline = QueryDeadline.current();
+        executor.execute(() -> {
+            long started = System.nanoTime();
+            ReplicaContext.route(route);
+            try (QueryDeadline.Entered entered = QueryDeadline.enter(deadline)) {
+                T result = transactions.execute(status -> {
+                    attempt.session = entityManager.unwrap(Session.class);
+                    return query.get();
+                });
+                recordLatency(System.nanoTime() - started);
+                attempt.result.complete(result);
+            } catch (Throwable t) {
+                attempt.result.completeExceptionally(t);
+            } finally {
+                attempt.session = null;
+                ReplicaContext.route(null);
+            }
+        });
+        return attempt;
+    }
+
+    private boolean tryWithdraw() {
+        while (true) {
+            long current = budget.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (budget.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    void recordLatency(long nanos) {
+        synchronized (latencies) {
+            latencies[latencyNext] = nanos;
+            latencyNext = (latencyNext + 1) % latencies.length;
+            latencyCount = Math.min(latencies.length, latencyCount + 1);
+            // Percentil preračunamo na desetino okna; do takrat ostane max-delay
+            int step = Math.max(1, latencies.length / 10);
+            if (latencyCount >= step && latencyNext % step == 0) {
+                long[] sorted = Arrays.copyOf(latencies, latencyCount);
+                Arrays.sort(sorted);
+                int index = Math.min(sorted.length - 1, (int) Math.ceil(properties.getPercentile() * sorted.length) - 1);
+                long percentile = sorted[Math.max(0, index)];
+                delayNanos = Math.max(properties.getMinDelay().toNanos(),
+                    Math.min(properties.getMaxDelay().toNanos(), percentile));
+            }
+        }
+    }
+
+    Duration hedgeDelay() {
+        return Duration.ofNanos(delayNanos);
+    }
+
+    private void count(String name, String outcome) {
+        meterRegistry.counter("booking.hedging.requests", "name", name, "outcome", outcome).increment();
+    }
+
+    private static RuntimeException rethrow(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static class Attempt<T> {
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        // Seja transakcije poskusa, dokler poizvedba teče
+        private volatile Session session;
+
+        /**
+         * Session.cancelQuery je edina metoda seje, ki jo je varno klicati iz druge niti;
+         * JDBC gonilnik prekliče le stavek, ki se še izvaja.
+         */
+        void cancel() {
+            Session current = session;
+            if (current == null || result.isDone()) {
+                return;
+            }
+            try {
+                current.cancelQuery();
+            } catch (RuntimeException e) {
+                log.debug("Could not cancel hedged read: {}", e.getMessage());
+            }
+        }
+    }
+}
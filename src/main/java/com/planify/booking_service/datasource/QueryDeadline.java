@@ -0,0 +1,135 @@
+package com.planify.booking_service.datasource;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rok trenutnega zahtevka in časovna omejitev trenutne operacije repozitorija.
+ *
+ * Vstopne točke (gRPC rok klica, REST http-request) odprejo Scope; TimeoutDataSource vsakemu
+ * stavku v njem nastavi časovno omejitev do roka in ga zabeleži, da ga lahko Scope.cancel
+ * prekliče, ko odjemalec odneha. QueryTimeoutAspect za čas klica repozitorija nastavi
+ * omejitev iz booking.query-timeouts.methods; velja krajša od obeh.
+ */
+public final class QueryDeadline {
+
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+    private static final ThreadLocal<Duration> OPERATION = new ThreadLocal<>();
+
+    private QueryDeadline() {
+    }
+
+    public static final class Scope {
+
+        private final long deadlineNanos;
+        private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+        private volatile boolean cancelled;
+
+        private Scope(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public static Scope after(Duration timeout) {
+            return new Scope(System.nanoTime() + timeout.toNanos());
+        }
+
+        /**
+         * Brez roka, stavke je mogoče le preklicati (npr. gRPC klic brez roka).
+         */
+        public static Scope unbounded() {
+            return new Scope(Long.MAX_VALUE);
+        }
+
+        /**
+         * Prekliče stavke, ki se še izvajajo; novi stavki v tem zahtevku se ne začnejo več.
+         */
+        public void cancel() {
+            cancelled = true;
+            for (Statement statement : statements) {
+                try {
+                    // JDBC gonilnik prekliče stavek samo, če se še izvaja
+                    statement.cancel();
+                } catch (SQLException e) {
+                    // Stavek je že zaprt
+                }
+            }
+            statements.clear();
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        boolean isBounded() {
+            return deadlineNanos != Long.MAX_VALUE;
+        }
+
+        long remainingMillis() {
+            if (!isBounded()) {
+                return Long.MAX_VALUE;
+            }
+            return TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        }
+
+        void register(Statement statement) {
+            statements.add(statement);
+        }
+    }
+
+    /**
+     * Obnovi prejšnji Scope niti; zato se vstop lahko gnezdi.
+     */
+    public static final class Entered implements AutoCloseable {
+
+        private final Scope previous;
+
+        private Entered(Scope previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            current(previous);
+        }
+    }
+
+    /**
+     * Scope velja za trenutno nit do zaprtja vrnjenega Entered; null pomeni brez roka.
+     */
+    public static Entered enter(Scope scope) {
+        Scope previous = SCOPE.get();
+        current(scope);
+        return new Entered(previous);
+    }
+
+    static Scope current() {
+        return SCOPE.get();
+    }
+
+    private static void current(Scope scope) {
+        if (scope == null) {
+            SCOPE.remove();
+        } else {
+            SCOPE.set(scope);
+        }
+    }
+
+    /**
+     * null, če trenutna operacija nima nastavljene omejitve.
+     */
+    static Duration operationTimeout() {
+        return OPERATION.get();
+    }
+
+    static void operationTimeout(Duration timeout) {
+        if (timeout == null) {
+            OPERATION.remove();
+        } else {
+            OPERATION.set(timeout);
+        }
+    }
+}
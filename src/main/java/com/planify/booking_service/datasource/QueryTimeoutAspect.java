@@ -0,0 +1,132 @@
+package com.planify.booking_service.datasource;
+
+import com.planify.booking_service.config.QueryTimeoutProperties;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Za čas klica repozitorija nastavi časovno omejitev stavkov iz booking.query-timeouts.methods.
+ * Ključ je ime vmesnika in metode, npr. BookingRepository.findConflictingBookings; podedovane
+ * metode (save, findById) se ključijo po repozitoriju, na katerem so klicane.
+ *
+ * save in delete v transakciji le zabeležita spremembo, INSERT/UPDATE/DELETE se izvedejo ob
+ * commitu. Flush ob commitu ne sledi roku zahtevka: zahtevek, ki je prišel do commita, se
+ * zaključi tudi, če je odjemalec medtem odnehal, sicer bi se sprememba po izteku roka razveljavila.
+ * Omeji ga le omejitev save/delete (največja v transakciji) in velja samo za sam commit;
+ * delo po commitu (indeks, Kafka, čakalna vrsta) ima spet rok zahtevka in svoje omejitve.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "booking.query-timeouts", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryTimeoutAspect {
+
+    private final QueryTimeoutProperties properties;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        Duration timeout = null;
+        if (!properties.getMethods().isEmpty()) {
+            String repository = repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(), QueryTimeoutAspect::repositoryName);
+            timeout = properties.getMethods().get(repository + "." + method);
+        }
+        if ((method.startsWith("save") || method.startsWith("delete"))
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            flushTimeout(timeout);
+        }
+        if (timeout == null) {
+            return joinPoint.proceed();
+        }
+        Duration previous = QueryDeadline.operationTimeout();
+        QueryDeadline.operationTimeout(timeout);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            QueryDeadline.operationTimeout(previous);
+        }
+    }
+
+    private static void flushTimeout(Duration timeout) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof FlushTimeout flush) {
+                flush.extend(timeout);
+                return;
+            }
+        }
+        FlushTimeout flush = new FlushTimeout();
+        flush.extend(timeout);
+        TransactionSynchronizationManager.registerSynchronization(flush);
+    }
+
+    /**
+     * Velja od beforeCompletion (po beforeCommit drugih sinhronizacij) do prvega afterCommit,
+     * torej samo za flush v commitu. Prednost ima pred drugimi sinhronizacijami, da se rok
+     * zahtevka obnovi, preden se začne njihovo delo po commitu.
+     */
+    static final class FlushTimeout implements TransactionSynchronization {
+
+        private Duration timeout;
+        private Duration previous;
+        private QueryDeadline.Entered detached;
+
+        void extend(Duration candidate) {
+            if (candidate != null && (timeout == null || candidate.compareTo(timeout) > 0)) {
+                timeout = candidate;
+            }
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public void beforeCompletion() {
+            previous = QueryDeadline.operationTimeout();
+            QueryDeadline.operationTimeout(timeout);
+            detached = QueryDeadline.enter(null);
+        }
+
+        @Override
+        public void afterCommit() {
+            restore();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            restore();
+        }
+
+        private void restore() {
+            if (detached != null) {
+                detached.close();
+                detached = null;
+                QueryDeadline.operationTimeout(previous);
+            }
+        }
+    }
+
+    static String repositoryName(Class<?> proxyClass) {
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(proxyClass)) {
+            if (Repository.class.isAssignableFrom(type) && !type.getName().startsWith("org.springframework.")) {
+                return type.getSimpleName();
+            }
+        }
+        return proxyClass.getSimpleName();
+    }
+}
@@ -0,0 +1,15 @@
+package com.planify.booking_service.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Branje metode sme iti na repliko (booking.datasource.replica), če zaostanek replike ne presega
+ * max-lag in metoda ne teče v transakciji zapisa. Brez nastavljene replike nima učinka.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadFromReplica {
+}
@@ -0,0 +1,54 @@
+package com.planify.booking_service.datasource;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Usmeritev branja trenutne niti. Nastavi jo ReplicaRoutingAspect za klic z @ReadFromReplica,
+ * ReplicaRoutingDataSource pa jo prebere ob pridobivanju povezave.
+ *
+ * Vstopne točke s pogojnimi odgovori (ETag) s freshAsOf povedo, kdaj se je vir nazadnje
+ * spremenil - replika se uporabi samo, če je do takrat že vse predvajala, sicer bi odgovor
+ * z novo verzijo vseboval stare podatke.
+ */
+public final class ReplicaContext {
+
+    private static final ThreadLocal<DataSourceRoute> ROUTE = new ThreadLocal<>();
+    private static final ThreadLocal<Instant> CHANGED_AT = new ThreadLocal<>();
+
+    private ReplicaContext() {
+    }
+
+    public static <T> T freshAsOf(Instant changedAt, Supplier<T> call) {
+        Instant previous = CHANGED_AT.get();
+        CHANGED_AT.set(changedAt);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CHANGED_AT.remove();
+            } else {
+                CHANGED_AT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * null, če usmeritev v tej niti še ni določena.
+     */
+    static DataSourceRoute route() {
+        return ROUTE.get();
+    }
+
+    static void route(DataSourceRoute route) {
+        if (route == null) {
+            ROUTE.remove();
+        } else {
+            ROUTE.set(route);
+        }
+    }
+
+    static Instant changedAt() {
+        return CHANGED_AT.get();
+    }
+}
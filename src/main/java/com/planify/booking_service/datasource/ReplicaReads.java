@@ -0,0 +1,18 @@
+package com.planify.booking_service.datasource;
+
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Za branja, ki kličejo repozitorij neposredno (npr. kontrolerji) in nimajo svoje storitve z
+ * @ReadFromReplica.
+ */
+@Component
+public class ReplicaReads {
+
+    @ReadFromReplica
+    public <T> T read(Supplier<T> query) {
+        return query.get();
+    }
+}
@@ -0,0 +1,76 @@
+package com.planify.booking_service.datasource;
+
+import com.planify.booking_service.config.ReplicaProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Določi usmeritev za klic z @ReadFromReplica. Je zunaj prilagodljive omejitve in Resilience4j
+ * aspektov, zato vsi ponovni poskusi klica berejo iz istega vira. Gnezden klic obdrži
+ * odločitev zunanjega.
+ *
+ * Replika se ne uporabi v transakciji zapisa (npr. preverjanje konfliktov v createBooking),
+ * kadar zaostanka ni bilo mogoče izmeriti, kadar presega max-lag ali kadar replika še ni
+ * predvajala spremembe iz ReplicaContext.freshAsOf.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 6)
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "booking.datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaRoutingAspect {
+
+    private final ReplicationLagMonitor lagMonitor;
+    private final ReplicaProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    record Decision(DataSourceRoute route, String reason) {
+    }
+
+    @Around("@annotation(com.planify.booking_service.datasource.ReadFromReplica)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ReplicaContext.route() != null) {
+            return joinPoint.proceed();
+        }
+        Decision decision = decide();
+        meterRegistry.counter("booking.datasource.routing",
+            "target", decision.route().name().toLowerCase(), "reason", decision.reason()).increment();
+        ReplicaContext.route(decision.route());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaContext.route(null);
+        }
+    }
+
+    Decision decide() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return new Decision(DataSourceRoute.PRIMARY, "write-transaction");
+        }
+        Optional<Duration> lag = lagMonitor.lag();
+        if (lag.isEmpty()) {
+            return new Decision(DataSourceRoute.PRIMARY, "replica-unavailable");
+        }
+        if (lag.get().compareTo(properties.getMaxLag()) > 0) {
+            return new Decision(DataSourceRoute.PRIMARY, "replica-lagging");
+        }
+        Instant changedAt = ReplicaContext.changedAt();
+        if (changedAt != null && lagMonitor.replayedUpTo().map(changedAt::isAfter).orElse(true)) {
+            return new Decision(DataSourceRoute.PRIMARY, "recent-change");
+        }
+        return new Decision(DataSourceRoute.REPLICA, "replica");
+    }
+}
@@ -0,0 +1,25 @@
+package com.planify.booking_service.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Izbere primarno bazo ali repliko ob pridobivanju povezave. Ovit mora biti v
+ * LazyConnectionDataSourceProxy, da se povezava pridobi ob prvem stavku (ko je usmeritev že
+ * nastavljena) in ne že ob začetku transakcije.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ReplicaContext.route() == DataSourceRoute.REPLICA ? DataSourceRoute.REPLICA : DataSourceRoute.PRIMARY;
+    }
+}
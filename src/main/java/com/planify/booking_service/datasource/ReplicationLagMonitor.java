@@ -0,0 +1,110 @@
+package com.planify.booking_service.datasource;
+
+import com.planify.booking_service.config.ReplicaProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Periodično izmeri zaostanek replike za primarno bazo.
+ *
+ * Če je replika predvajala WAL do pozicije, ki jo je primarna imela ob začetku preverjanja,
+ * je zaostanek 0 (tudi ko na primarni ni prometa in je zadnja predvajana transakcija stara).
+ * Sicer je zaostanek čas od zadnje predvajane transakcije. Baza, ki ni v načinu obnove
+ * (npr. druga samostojna instanca za lokalno testiranje), ima zaostanek 0.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "booking.datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicationLagMonitor {
+
+    private static final String REPLICA_STATUS = """
+        SELECT pg_is_in_recovery(),
+               pg_wal_lsn_diff(?::pg_lsn, pg_last_wal_replay_lsn()),
+               EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+        """;
+
+    private record Measurement(Duration lag, Instant checkedAt) {
+    }
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final ReplicaProperties properties;
+
+    private volatile Measurement last;
+
+    public ReplicationLagMonitor(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.properties = properties;
+        Gauge.builder("booking.datasource.replica.lag", this,
+                monitor -> monitor.lag().map(lag -> lag.toNanos() / 1e9).orElse(Double.NaN))
+            .description("Replication lag of the read replica; NaN when it could not be measured recently")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.datasource.replica.lag-check-interval:PT1S}")
+    public void check() {
+        Instant started = Instant.now();
+        try {
+            String primaryLsn = primary.queryForObject("SELECT pg_current_wal_lsn()::text", String.class);
+            Duration lag = replica.queryForObject(REPLICA_STATUS, (rs, row) -> {
+                if (!rs.getBoolean(1)) {
+                    return Duration.ZERO;
+                }
+                long bytesBehind = rs.getLong(2);
+                if (!rs.wasNull() && bytesBehind <= 0) {
+                    return Duration.ZERO;
+                }
+                double seconds = rs.getDouble(3);
+                return rs.wasNull() ? null : Duration.ofNanos(Math.max(0, (long) (seconds * 1e9)));
+            }, primaryLsn);
+            if (lag == null) {
+                log.warn("Replica has not replayed any transaction yet, routing reads to primary");
+                return;
+            }
+            if (lag.compareTo(properties.getMaxLag()) > 0) {
+                log.warn("Replica is {} ms behind primary, over the {} ms limit", lag.toMillis(), properties.getMaxLag().toMillis());
+            }
+            last = new Measurement(lag, started);
+        } catch (RuntimeException e) {
+            log.warn("Could not measure replication lag: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Zadnji izmerjeni zaostanek; prazno, če meritve ni ali je starejša od lag-stale-after.
+     */
+    public Optional<Duration> lag() {
+        return current().map(Measurement::lag);
+    }
+
+    /**
+     * Čas, do katerega je replika gotovo predvajala vse potrjene transakcije.
+     */
+    public Optional<Instant> replayedUpTo() {
+        return current().map(measurement -> measurement.checkedAt().minus(measurement.lag()));
+    }
+
+    private Optional<Measurement> current() {
+        Measurement measurement = last;
+        if (measurement == null
+                || measurement.checkedAt().isBefore(Instant.now().minus(properties.getLagStaleAfter()))) {
+            return Optional.empty();
+        }
+        return Optional.of(measurement);
+    }
+}
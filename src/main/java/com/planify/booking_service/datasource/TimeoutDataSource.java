@@ -0,0 +1,123 @@
+package com.planify.booking_service.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.jdbc.PgStatement;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Stavkom nastavi časovno omejitev iz QueryDeadline: omejitev operacije repozitorija, omejeno
+ * s preostankom roka zahtevka. Ob izteku JDBC gonilnik stavek prekliče, zato povezava ne ostane
+ * zasedena, ko je odjemalec že odnehal. Po izteku roka ali preklicu se stavki ne začnejo več.
+ *
+ * Stavki zunaj zahtevkov in zunaj omejenih metod (Flyway, izvozi, razporejena opravila)
+ * ostanejo brez omejitve.
+ */
+public class TimeoutDataSource extends DelegatingDataSource {
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    private final MeterRegistry meterRegistry;
+
+    public TimeoutDataSource(DataSource targetDataSource, MeterRegistry meterRegistry) {
+        super(targetDataSource);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        checkDeadline();
+        return proxy(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        checkDeadline();
+        return proxy(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection proxy(Connection target) {
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+            new Class<?>[]{ConnectionProxy.class}, (proxy, method, args) -> invoke(proxy, target, method, args));
+    }
+
+    private Object invoke(Object proxy, Connection target, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "getTargetConnection":
+                return target;
+            default:
+                break;
+        }
+        Object result;
+        try {
+            result = method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+        if (result instanceof Statement statement && STATEMENT_FACTORIES.contains(method.getName())) {
+            applyTimeout(statement);
+        }
+        return result;
+    }
+
+    private void applyTimeout(Statement statement) throws SQLException {
+        Duration operation = QueryDeadline.operationTimeout();
+        QueryDeadline.Scope scope = QueryDeadline.current();
+        long timeoutMillis = operation == null ? 0 : operation.toMillis();
+        if (scope != null) {
+            try {
+                checkDeadline();
+            } catch (SQLException e) {
+                statement.close();
+                throw e;
+            }
+            if (scope.isBounded()) {
+                long remaining = Math.max(1, scope.remainingMillis());
+                timeoutMillis = timeoutMillis == 0 ? remaining : Math.min(timeoutMillis, remaining);
+            }
+            scope.register(statement);
+        }
+        if (timeoutMillis <= 0) {
+            return;
+        }
+        if (statement.isWrapperFor(PgStatement.class)) {
+            statement.unwrap(PgStatement.class).setQueryTimeoutMs(timeoutMillis);
+        } else {
+            statement.setQueryTimeout((int) Math.max(1, (timeoutMillis + 999) / 1000));
+        }
+    }
+
+    private void checkDeadline() throws SQLException {
+        QueryDeadline.Scope scope = QueryDeadline.current();
+        if (scope == null) {
+            return;
+        }
+        if (scope.isCancelled()) {
+            abandoned("cancelled");
+            throw new SQLTimeoutException("Request was cancelled before the query started");
+        }
+        if (scope.remainingMillis() <= 0) {
+            abandoned("deadline-passed");
+            throw new SQLTimeoutException("Request deadline passed before the query started");
+        }
+    }
+
+    private void abandoned(String reason) {
+        meterRegistry.counter("booking.query.abandoned", "reason", reason).increment();
+    }
+}
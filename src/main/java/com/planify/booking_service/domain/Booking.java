@@ -2,6 +2,7 @@ package com.planify.booking_service.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -14,7 +15,7 @@ import java.util.UUID;
 @Builder
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     @ManyToOne(optional = false)
@@ -37,6 +38,10 @@ public class Booking {
     @Column(nullable = false)
     private BookingStatus status;
 
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer headcount = 1;
+
     @Column(name = "total_amount_cents", nullable = false)
     private Integer totalAmountCents;
 
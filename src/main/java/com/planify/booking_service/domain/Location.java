@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.util.UUID;
 
@@ -16,7 +17,7 @@ import java.util.UUID;
 @Builder
 public class Location {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     @Column(nullable = false)
@@ -33,4 +34,11 @@ public class Location {
 
     @Column(nullable = false)
     private Boolean active;
+
+    @Column(name = "shared_capacity", nullable = false)
+    @Builder.Default
+    private Boolean sharedCapacity = false;
+
+    @Column(name = "slot_minutes")
+    private Integer slotMinutes;
 }
@@ -0,0 +1,57 @@
+package com.planify.booking_service.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Dnevni agregat aktivnih rezervacij lokacije v eni valuti.
+ * Vrstice posodablja LocationStatsService v isti transakciji kot rezervacijo.
+ */
+@Entity
+@Table(name = "location_daily_stats")
+@IdClass(LocationDailyStats.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LocationDailyStats {
+    @Id
+    @Column(name = "location_id")
+    private UUID locationId;
+
+    @Id
+    @Column(name = "booking_date")
+    private LocalDate bookingDate;
+
+    @Id
+    @Column(name = "currency", length = 3)
+    private String currency;
+
+    @Column(name = "booking_count", nullable = false)
+    private Integer bookingCount;
+
+    @Column(name = "booked_minutes", nullable = false)
+    private Long bookedMinutes;
+
+    @Column(name = "seat_minutes", nullable = false)
+    private Long seatMinutes;
+
+    @Column(name = "revenue_cents", nullable = false)
+    private Long revenueCents;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID locationId;
+        private LocalDate bookingDate;
+        private String currency;
+    }
+}
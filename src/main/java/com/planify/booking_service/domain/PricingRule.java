@@ -0,0 +1,53 @@
+package com.planify.booking_service.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.util.UUID;
+
+@Entity
+@Table(name = "pricing_rules")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PricingRule {
+    @Id
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    private UUID id;
+
+    // null = pravilo velja za vse lokacije
+    @Column(name = "location_id")
+    private UUID locationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rule_type", nullable = false)
+    private PricingRuleType ruleType;
+
+    // Bitna maska dni, bit 0 = ponedeljek
+    @Column(name = "days_of_week")
+    private Integer daysOfWeek;
+
+    @Column(name = "start_minute")
+    private Integer startMinute;
+
+    @Column(name = "end_minute")
+    private Integer endMinute;
+
+    @Column(name = "rate_percent")
+    private Integer ratePercent;
+
+    @Column(name = "min_minutes")
+    private Integer minMinutes;
+
+    @Column(name = "discount_percent")
+    private Integer discountPercent;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean active = true;
+}
@@ -0,0 +1,6 @@
+package com.planify.booking_service.domain;
+
+public enum PricingRuleType {
+    TIME_BAND,
+    DURATION_DISCOUNT
+}
@@ -0,0 +1,42 @@
+package com.planify.booking_service.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "slot_holds")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlotHold {
+    @Id
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    private UUID id;
+
+    @Column(name = "location_id", nullable = false)
+    private UUID locationId;
+
+    @Column(name = "organization_id", nullable = false)
+    private UUID organizationId;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer headcount = 1;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,8 @@
+package com.planify.booking_service.domain;
+
+public enum WaitlistStatus {
+    WAITING,
+    PROMOTED,
+    LEFT,
+    EXPIRED
+}
@@ -0,0 +1,12 @@
+package com.planify.booking_service.exception;
+
+/**
+ * Zahtevek je zavrnjen, ker je prilagodljiva omejitev sočasnosti dosežena.
+ * REST jo preslika v 503, gRPC v RESOURCE_EXHAUSTED.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(String limiterName, int limit) {
+        super("Too many concurrent requests for " + limiterName + " (limit " + limit + "). Please retry later.");
+    }
+}
@@ -0,0 +1,12 @@
+package com.planify.booking_service.exception;
+
+/**
+ * Organizacija je porabila svoj delež zahtevkov (token bucket nivoja).
+ * REST jo preslika v 429, gRPC v RESOURCE_EXHAUSTED.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    public RateLimitExceededException(String operation, String tier) {
+        super("Rate limit exceeded for " + operation + " (tier " + tier + "). Please retry later.");
+    }
+}
@@ -1,18 +1,30 @@
 package com.planify.booking_service.grpc;
 
 import com.planify.booking_service.domain.Booking;
+import com.planify.booking_service.domain.WaitlistEntry;
+import com.planify.booking_service.exception.ConcurrencyLimitExceededException;
+import com.planify.booking_service.exception.RateLimitExceededException;
+import com.planify.booking_service.logging.RequestLogSampler;
+import com.planify.booking_service.pricing.PricingEngine;
 import com.planify.booking_service.repository.BookingRepository;
+import com.planify.booking_service.resilience.OrganizationAdmission;
 import com.planify.booking_service.service.AvailabilityService;
 import com.planify.booking_service.service.BookingDomainService;
+import com.planify.booking_service.service.SlotHoldService;
+import com.planify.booking_service.service.WaitlistService;
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.server.service.GrpcService;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.HashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.UUID;
 
 @GrpcService
@@ -23,17 +35,25 @@ public class BookingGrpcService extends BookingServiceGrpc.BookingServiceImplBas
     private final BookingDomainService bookingService;
     private final AvailabilityService availabilityService;
     private final BookingRepository bookingRepository;
+    private final RequestLogSampler requestLogs;
+    private final PricingEngine pricingEngine;
+    private final WaitlistService waitlistService;
+    private final SlotHoldService slotHoldService;
+    private final OrganizationAdmission organizationAdmission;
 
     @Override
     public void checkAvailability(CheckAvailabilityRequest request, StreamObserver<CheckAvailabilityResponse> responseObserver) {
         LocalDateTime start = LocalDateTime.ofInstant(Instant.ofEpochMilli(request.getStartEpochMillis()), ZoneOffset.UTC);
         LocalDateTime end = LocalDateTime.ofInstant(Instant.ofEpochMilli(request.getEndEpochMillis()), ZoneOffset.UTC);
         var locationId = UUID.fromString(request.getLocationId());
-        var conflicts = availabilityService.findConflicts(locationId, start, end);
-        if (conflicts.isEmpty()) {
-            log.info("Location {} is available between {} and {}", locationId, start, end);
-        } else {
-            log.info("Location {} is not available between {} and {}", locationId, start, end);
+        List<UUID> conflicts;
+        try {
+            UUID organizationId = request.getOrganizationId().isEmpty() ? null : UUID.fromString(request.getOrganizationId());
+            conflicts = organizationAdmission.callAs("availabilityService", organizationId,
+                    () -> availabilityService.checkConflicts(locationId, start, end, headcountOrDefault(request.getHeadcount())));
+        } catch (ConcurrencyLimitExceededException | RateLimitExceededException e) {
+            responseObserver.onError(Status.RESOURCE_EXHAUSTED.withDescription(e.getMessage()).asRuntimeException());
+            return;
         }
         var resp = CheckAvailabilityResponse.newBuilder()
                 .setAvailable(conflicts.isEmpty())
@@ -41,7 +61,15 @@ public class BookingGrpcService extends BookingServiceGrpc.BookingServiceImplBas
                 .build();
         responseObserver.onNext(resp);
         responseObserver.onCompleted();
-        log.info("Availability check completed");
+        if (requestLogs.sample(log, "checkAvailability")) {
+            log.atInfo()
+                .addKeyValue("locationId", locationId)
+                .addKeyValue("start", start)
+                .addKeyValue("end", end)
+                .addKeyValue("available", conflicts.isEmpty())
+                .addKeyValue("conflicts", conflicts.size())
+                .log("Availability check completed");
+        }
     }
 
     @Override
@@ -49,14 +77,19 @@ public class BookingGrpcService extends BookingServiceGrpc.BookingServiceImplBas
         try {
             LocalDateTime start = LocalDateTime.ofInstant(Instant.ofEpochMilli(request.getStartEpochMillis()), ZoneOffset.UTC);
             LocalDateTime end = LocalDateTime.ofInstant(Instant.ofEpochMilli(request.getEndEpochMillis()), ZoneOffset.UTC);
-            var result = bookingService.createBooking(BookingDomainService.CreateBookingCommand.builder()
+            var command = BookingDomainService.CreateBookingCommand.builder()
                     .locationId(UUID.fromString(request.getLocationId()))
                     .eventId(UUID.fromString(request.getEventId()))
                     .organizationId(UUID.fromString(request.getOrganizationId()))
                     .start(start)
                     .end(end)
                     .currency(request.getCurrency())
-                    .build());
+                    .headcount(headcountOrDefault(request.getHeadcount()))
+                    .joinWaitlist(request.getJoinWaitlist())
+                    .holdId(request.getHoldId().isEmpty() ? null : UUID.fromString(request.getHoldId()))
+                    .build();
+            var result = organizationAdmission.callAs("bookingCreation", command.getOrganizationId(),
+                    () -> bookingService.createBooking(command));
 
             var resp = CreateBookingResponse.newBuilder()
                     .setBookingId(result.getBookingId() == null ? "" : result.getBookingId().toString())
@@ -64,10 +97,19 @@ public class BookingGrpcService extends BookingServiceGrpc.BookingServiceImplBas
                     .setAvailable(result.isAvailable())
                     .addAllConflicts(result.getConflicts().stream().map(UUID::toString).toList())
                     .setTotalAmountCents(result.getTotalAmountCents())
+                    .setWaitlistEntryId(result.getWaitlistEntryId() == null ? "" : result.getWaitlistEntryId().toString())
                     .build();
             responseObserver.onNext(resp);
             responseObserver.onCompleted();
-            log.info("Booking created");
+            if (requestLogs.sample(log, "createBooking")) {
+                log.atInfo()
+                    .addKeyValue("bookingId", resp.getBookingId())
+                    .addKeyValue("locationId", command.getLocationId())
+                    .addKeyValue("status", resp.getStatus())
+                    .log("Booking created");
+            }
+        } catch (ConcurrencyLimitExceededException | RateLimitExceededException e) {
+            responseObserver.onError(Status.RESOURCE_EXHAUSTED.withDescription(e.getMessage()).asRuntimeException());
         } catch (Exception e) {
             log.error("Error creating booking", e);
             responseObserver.onError(e);
@@ -82,7 +124,74 @@ public class BookingGrpcService extends BookingServiceGrpc.BookingServiceImplBas
                 .build();
         responseObserver.onNext(resp);
         responseObserver.onCompleted();
-        log.info("Booking cancelled");
+        if (requestLogs.sample(log, "cancelBooking")) {
+            log.atInfo()
+                .addKeyValue("bookingId", booking.getId())
+                .log("Booking cancelled");
+        }
+    }
+
+    @Override
+    public void holdSlot(HoldSlotRequest request, StreamObserver<HoldSlotResponse> responseObserver) {
+        SlotHoldService.HoldResult result;
+        try {
+            UUID locationId = UUID.fromString(request.getLocationId());
+            UUID organizationId = UUID.fromString(request.getOrganizationId());
+            result = organizationAdmission.callAs("availabilityService", organizationId, () -> slotHoldService.hold(locationId, organizationId,
+                    toLocalDateTime(request.getStartEpochMillis()), toLocalDateTime(request.getEndEpochMillis()),
+                    headcountOrDefault(request.getHeadcount()), Duration.ofSeconds(request.getTtlSeconds())));
+        } catch (ConcurrencyLimitExceededException | RateLimitExceededException e) {
+            responseObserver.onError(Status.RESOURCE_EXHAUSTED.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        } catch (NoSuchElementException e) {
+            responseObserver.onError(Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        }
+        var resp = HoldSlotResponse.newBuilder()
+                .setAvailable(result.hold() != null)
+                .addAllConflicts(result.conflicts().stream().map(UUID::toString).toList());
+        if (result.hold() != null) {
+            resp.setHoldId(result.hold().getId().toString())
+                    .setExpiresAtEpochMillis(result.hold().getExpiresAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+        responseObserver.onNext(resp.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void releaseHold(ReleaseHoldRequest request, StreamObserver<ReleaseHoldResponse> responseObserver) {
+        boolean released;
+        try {
+            released = bookingService.releaseHold(UUID.fromString(request.getHoldId()),
+                    UUID.fromString(request.getOrganizationId()));
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(ReleaseHoldResponse.newBuilder().setReleased(released).build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void leaveWaitlist(LeaveWaitlistRequest request, StreamObserver<LeaveWaitlistResponse> responseObserver) {
+        WaitlistEntry entry;
+        try {
+            entry = waitlistService.leave(UUID.fromString(request.getWaitlistEntryId()),
+                    UUID.fromString(request.getOrganizationId()));
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        } catch (NoSuchElementException e) {
+            responseObserver.onError(Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(LeaveWaitlistResponse.newBuilder()
+                .setStatus(entry.getStatus().name())
+                .build());
+        responseObserver.onCompleted();
     }
 
     @Override
@@ -107,4 +216,43 @@ public class BookingGrpcService extends BookingServiceGrpc.BookingServiceImplBas
             responseObserver.onError(e);
         }
     }
+
+    @Override
+    public void quotePrice(QuotePriceRequest request, StreamObserver<QuotePriceResponse> responseObserver) {
+        List<PricingEngine.Quote> quotes;
+        try {
+            List<PricingEngine.Window> windows = request.getWindowsList().stream()
+                    .map(window -> new PricingEngine.Window(toLocalDateTime(window.getStartEpochMillis()),
+                            toLocalDateTime(window.getEndEpochMillis())))
+                    .toList();
+            quotes = pricingEngine.quote(UUID.fromString(request.getLocationId()), windows);
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        } catch (NoSuchElementException e) {
+            responseObserver.onError(Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        }
+        var resp = QuotePriceResponse.newBuilder();
+        for (PricingEngine.Quote quote : quotes) {
+            resp.addQuotes(PriceQuote.newBuilder()
+                    .setStartEpochMillis(quote.start().toInstant(ZoneOffset.UTC).toEpochMilli())
+                    .setEndEpochMillis(quote.end().toInstant(ZoneOffset.UTC).toEpochMilli())
+                    .setBillableMinutes(quote.billableMinutes())
+                    .setBaseAmountCents(quote.baseAmountCents())
+                    .setDiscountPercent(quote.discountPercent())
+                    .setTotalAmountCents(quote.totalAmountCents()));
+        }
+        responseObserver.onNext(resp.build());
+        responseObserver.onCompleted();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    private static int headcountOrDefault(int headcount) {
+        // proto3 nima prisotnosti polj - 0 pomeni, da odjemalec ni podal števila oseb
+        return headcount > 0 ? headcount : 1;
+    }
 }
@@ -0,0 +1,51 @@
+package com.planify.booking_service.grpc;
+
+import com.planify.booking_service.datasource.QueryDeadline;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rok gRPC klica prenese na poizvedbe v bazo (QueryDeadline). Ko odjemalec klic prekliče ali
+ * rok poteče, se stavki, ki se še izvajajo, prekličejo, da ne zasedajo povezav za odgovor,
+ * ki ga nihče ne čaka.
+ */
+@GrpcGlobalServerInterceptor
+@ConditionalOnProperty(prefix = "booking.query-timeouts", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryDeadlineInterceptor implements ServerInterceptor {
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        Context context = Context.current();
+        Deadline deadline = context.getDeadline();
+        QueryDeadline.Scope scope = deadline == null
+            ? QueryDeadline.Scope.unbounded()
+            : QueryDeadline.Scope.after(Duration.ofNanos(deadline.timeRemaining(TimeUnit.NANOSECONDS)));
+        // Kontekst se prekliče tudi ob uspešnem zaključku klica, takrat brez vzroka
+        context.addListener(cancelled -> {
+            if (cancelled.cancellationCause() != null) {
+                scope.cancel();
+            }
+        }, Runnable::run);
+
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(call, headers)) {
+            @Override
+            public void onHalfClose() {
+                // Unarni klici izvedejo metodo storitve v onHalfClose
+                try (QueryDeadline.Entered entered = QueryDeadline.enter(scope)) {
+                    super.onHalfClose();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.planify.booking_service.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Omejevanje INFO logov po zahtevku: za vsako operacijo se izpiše največ N vrstic na
+ * sekundo, ostale se zavržejo še preden se zgradi dogodek. Napake in fallbacki se
+ * logirajo neposredno in niso omejeni.
+ */
+@Component
+public class RequestLogSampler {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final int perSecond;
+    private final Counter suppressed;
+    private final LongSupplier clock;
+    // Za vsako operacijo: (sekunda << 20) | število izpisanih v tej sekundi
+    private final Map<String, AtomicLong> windows = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RequestLogSampler(@Value("${booking.logging.request-samples-per-second:20}") int perSecond,
+                             MeterRegistry meterRegistry) {
+        this(perSecond, meterRegistry, () -> System.nanoTime() / 1_000_000_000L);
+    }
+
+    RequestLogSampler(int perSecond, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.perSecond = (int) Math.min(perSecond, COUNT_MASK);
+        this.clock = clock;
+        this.suppressed = Counter.builder("booking.logging.suppressed")
+            .description("Per-request INFO log lines dropped by sampling")
+            .register(meterRegistry);
+    }
+
+    public boolean sample(Logger log, String operation) {
+        if (!log.isInfoEnabled()) {
+            return false;
+        }
+        long second = clock.getAsLong();
+        AtomicLong window = windows.computeIfAbsent(operation, key -> new AtomicLong());
+        while (true) {
+            long current = window.get();
+            boolean sameSecond = current >>> COUNT_BITS == second;
+            if (sameSecond && (current & COUNT_MASK) >= perSecond) {
+                suppressed.increment();
+                return false;
+            }
+            long next = sameSecond ? current + 1 : (second << COUNT_BITS) | 1;
+            if (window.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.planify.booking_service.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Poslušalec pg_notify obvestil o spremembah rezervacij drugih replik.
+ * Uporablja lastno povezavo mimo Hikari poola, saj LISTEN zahteva trajno sejo.
+ * Ob vsaki (ponovni) vzpostavitvi povezave objavi BookingResyncEvent, ker so
+ * obvestila med prekinitvijo izgubljena.
+ *
+ * LISTEN se začne pred OccupancySnapshotService.warmUp (@Order(0)), da so spremembe drugih
+ * replik, potrjene med ogrevanjem, bodisi že v bazi, ko jo warmUp prebere, bodisi prispejo
+ * kot obvestilo. Če prva povezava ne uspe pred ogrevanjem, prva poznejša povezava resinhronizira.
+ */
+@Slf4j
+@Component
+public class BookingChangeListener {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration STARTUP_LISTEN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Getter
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean connected = new AtomicBoolean();
+    private final AtomicBoolean beforeWarmup = new AtomicBoolean(true);
+    private final CountDownLatch firstListen = new CountDownLatch(1);
+
+    private final Timer latency;
+    private final Counter applied;
+    private final Counter ignored;
+    private final Counter resyncs;
+
+    @Value("${booking.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${booking.invalidation.channel:booking_changes}")
+    private String channel;
+
+    private Thread worker;
+
+    public BookingChangeListener(DataSourceProperties dataSourceProperties, ApplicationEventPublisher eventPublisher,
+                                 MeterRegistry meterRegistry) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.eventPublisher = eventPublisher;
+        this.latency = Timer.builder("booking.invalidation.latency")
+            .description("Time from pg_notify on the writing replica to local invalidation")
+            .register(meterRegistry);
+        this.applied = meterRegistry.counter("booking.invalidation.notifications", "outcome", "applied");
+        this.ignored = meterRegistry.counter("booking.invalidation.notifications", "outcome", "ignored");
+        this.resyncs = Counter.builder("booking.invalidation.resyncs")
+            .description("Full resyncs after the listener connection was (re)established")
+            .register(meterRegistry);
+        meterRegistry.gauge("booking.invalidation.connected", connected, c -> c.get() ? 1 : 0);
+    }
+
+    @Order(-10)
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled && running.compareAndSet(false, true)) {
+            worker = Thread.ofPlatform().daemon().name("booking-change-listener").start(this::listenLoop);
+            try {
+                if (!firstListen.await(STARTUP_LISTEN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    log.warn("Booking change listener not connected after {} s, continuing startup", STARTUP_LISTEN_TIMEOUT.toSeconds());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Od tu naprej warmUp bere bazo - povezava, vzpostavljena pozneje, mora resinhronizirati
+        beforeWarmup.set(false);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running.set(false);
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void listenLoop() {
+        Duration backoff = Duration.ofSeconds(1);
+        while (running.get()) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                connected.set(true);
+                backoff = Duration.ofSeconds(1);
+                log.info("Listening for booking changes on channel {}", channel);
+                onListening();
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running.get()) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) POLL_TIMEOUT.toMillis());
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                // Tudi napaka pri resinhronizaciji ne sme ustaviti niti - ponovna povezava resinhronizira znova
+                connected.set(false);
+                if (!running.get()) {
+                    return;
+                }
+                log.warn("Booking change listener disconnected, reconnecting in {} s: {}", backoff.toSeconds(), e.toString());
+                try {
+                    Thread.sleep(backoff.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+            }
+        }
+        connected.set(false);
+    }
+
+    /**
+     * Obvestila, prispela pred začetkom ogrevanja, warmUp prebere iz baze; sicer so lahko
+     * spremembe med prekinitvijo (ali pred prvo povezavo) izgubljene.
+     */
+    void onListening() {
+        firstListen.countDown();
+        if (!beforeWarmup.get()) {
+            resyncs.increment();
+            eventPublisher.publishEvent(new BookingResyncEvent());
+        }
+    }
+
+    /**
+     * Napaka pri uveljavitvi enega obvestila pomeni, da lokalni indeks morda ni več usklajen.
+     */
+    void dispatch(String payload) {
+        try {
+            handleNotification(payload);
+        } catch (RuntimeException e) {
+            log.warn("Applying booking change notification failed, resyncing: {}", e.toString());
+            resyncs.increment();
+            eventPublisher.publishEvent(new BookingResyncEvent());
+        }
+    }
+
+    void handleNotification(String payload) {
+        BookingChangedEvent event;
+        try {
+            event = BookingChangedEvent.fromPayload(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed booking change notification: {}", payload);
+            ignored.increment();
+            return;
+        }
+        // Lastne spremembe so že uveljavljene lokalno po commitu
+        if (instanceId.equals(event.origin())) {
+            ignored.increment();
+            return;
+        }
+        eventPublisher.publishEvent(event);
+        applied.increment();
+        latency.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - event.sentAtEpochMillis())));
+    }
+}
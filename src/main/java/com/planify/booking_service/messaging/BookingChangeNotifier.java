@@ -0,0 +1,44 @@
+package com.planify.booking_service.messaging;
+
+import com.planify.booking_service.domain.Booking;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Pošlje obvestilo o spremembi rezervacije ostalim replikam.
+ * pg_notify je transakcijski - Postgres obvestilo dostavi šele ob commitu,
+ * ob rollbacku pa ga zavrže, zato se kliče znotraj transakcije zapisa.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingChangeNotifier {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingChangeListener listener;
+
+    @Value("${booking.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${booking.invalidation.channel:booking_changes}")
+    private String channel;
+
+    public void notifyChange(Booking booking) {
+        notifyChange(booking.getLocation().getId(), booking.getStartTime(), booking.getEndTime());
+    }
+
+    /**
+     * Sprememba zasedenosti okna brez rezervacije (npr. zadržitev okna).
+     */
+    public void notifyChange(UUID locationId, LocalDateTime start, LocalDateTime end) {
+        if (!enabled) {
+            return;
+        }
+        var event = new BookingChangedEvent(locationId, start, end, listener.getInstanceId(), System.currentTimeMillis());
+        jdbcTemplate.query("select pg_notify(?, ?)", rs -> { }, channel, event.toPayload());
+    }
+}
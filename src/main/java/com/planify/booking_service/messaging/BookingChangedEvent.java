@@ -0,0 +1,41 @@
+package com.planify.booking_service.messaging;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Sprememba rezervacij na lokaciji v danem oknu, prejeta od druge replike prek pg_notify.
+ * Poslušalci (npr. indeks zasedenosti) invalidirajo samo vnose te lokacije.
+ *
+ * @param sentAtEpochMillis čas pošiljanja, za merjenje zakasnitve invalidacije
+ */
+public record BookingChangedEvent(UUID locationId, LocalDateTime start, LocalDateTime end,
+                                  String origin, long sentAtEpochMillis) {
+
+    String toPayload() {
+        return locationId + "," + toEpochMillis(start) + "," + toEpochMillis(end) + "," + origin + "," + sentAtEpochMillis;
+    }
+
+    static BookingChangedEvent fromPayload(String payload) {
+        String[] parts = payload.split(",");
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("Invalid booking change payload: " + payload);
+        }
+        return new BookingChangedEvent(
+            UUID.fromString(parts[0]),
+            toLocalDateTime(Long.parseLong(parts[1])),
+            toLocalDateTime(Long.parseLong(parts[2])),
+            parts[3],
+            Long.parseLong(parts[4]));
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+}
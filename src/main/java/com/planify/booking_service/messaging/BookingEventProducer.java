@@ -1,17 +1,28 @@
 package com.planify.booking_service.messaging;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
-
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Objava dogodkov rezervacij.
+ *
+ * Ključ sporočila je locationId iz vsebine, zato vsi dogodki iste lokacije pristanejo na isti
+ * particiji in jih potrošniki prejmejo v vrstnem redu objave (producent je idempotenten, zato
+ * ponovni poskusi vrstnega reda ne pokvarijo). Pošiljanje je asinhrono; izid in čas do potrditve
+ * brokerja se beležita v booking.kafka.publish, neuspeh pa se tudi zapiše v dnevnik.
+ */
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class BookingEventProducer {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
 
     @Value("${kafka.topics.booking-created}")
     private String bookingCreatedTopic;
@@ -19,11 +30,30 @@ public class BookingEventProducer {
     @Value("${kafka.topics.booking-events}")
     private String bookingEventsTopic;
 
+    public BookingEventProducer(KafkaTemplate<String, Object> kafkaTemplate, MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
     public void publishBookingCreated(Map<String, Object> payload) {
-        kafkaTemplate.send(bookingCreatedTopic, payload);
+        send(bookingCreatedTopic, payload);
     }
 
     public void publishBookingEvent(Map<String, Object> payload) {
-        kafkaTemplate.send(bookingEventsTopic, payload);
+        send(bookingEventsTopic, payload);
+    }
+
+    private void send(String topic, Map<String, Object> payload) {
+        Object locationId = payload.get("locationId");
+        String key = locationId == null ? null : locationId.toString();
+        long started = System.nanoTime();
+        kafkaTemplate.send(topic, key, payload).whenComplete((result, ex) -> {
+            long elapsed = System.nanoTime() - started;
+            meterRegistry.timer("booking.kafka.publish", "topic", topic, "outcome", ex == null ? "success" : "failure")
+                .record(elapsed, TimeUnit.NANOSECONDS);
+            if (ex != null) {
+                log.error("Failed to publish event to {} for location {}. Error: {}", topic, key, ex.getMessage());
+            }
+        });
     }
 }
@@ -0,0 +1,8 @@
+package com.planify.booking_service.messaging;
+
+/**
+ * Objavi se po ponovni vzpostavitvi povezave za LISTEN - obvestila med prekinitvijo
+ * so izgubljena, zato morajo lokalni predpomnilniki narediti polno sinhronizacijo.
+ */
+public record BookingResyncEvent() {
+}
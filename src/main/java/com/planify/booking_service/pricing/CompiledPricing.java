@@ -0,0 +1,138 @@
+package com.planify.booking_service.pricing;
+
+import com.planify.booking_service.domain.PricingRule;
+import com.planify.booking_service.domain.PricingRuleType;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Prevedena cenovna pravila ene lokacije. Nespremenljiva in brez alokacij ob izračunu.
+ *
+ * Časovni pasovi se prevedejo v predponske vsote odstotkov osnovne cene za vsako minuto
+ * v tednu (ponedeljek 00:00 = 0), zato je cena poljubno dolgega okna dve branji iz polja.
+ * Popusti za trajanje so urejeni po pragu z že izračunanim najboljšim popustom do praga.
+ */
+public final class CompiledPricing {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+    private static final int BASE_PERCENT = 100;
+    private static final int[] NO_THRESHOLDS = new int[0];
+
+    private final int pricePerHourCents;
+    // null = brez časovnih pasov, vsaka minuta stane 100 %
+    private final long[] weekPrefix;
+    private final int[] discountMinMinutes;
+    private final int[] discountPercent;
+
+    private CompiledPricing(int pricePerHourCents, long[] weekPrefix, int[] discountMinMinutes, int[] discountPercent) {
+        this.pricePerHourCents = pricePerHourCents;
+        this.weekPrefix = weekPrefix;
+        this.discountMinMinutes = discountMinMinutes;
+        this.discountPercent = discountPercent;
+    }
+
+    public static CompiledPricing compile(int pricePerHourCents, List<PricingRule> rules) {
+        double[] factors = null;
+        for (PricingRule rule : rules) {
+            if (rule.getRuleType() != PricingRuleType.TIME_BAND) {
+                continue;
+            }
+            if (factors == null) {
+                factors = new double[MINUTES_PER_WEEK];
+                Arrays.fill(factors, 1.0);
+            }
+            int start = rule.getStartMinute();
+            int end = rule.getEndMinute() > start ? rule.getEndMinute() : rule.getEndMinute() + MINUTES_PER_DAY;
+            double factor = rule.getRatePercent() / (double) BASE_PERCENT;
+            for (int day = 0; day < 7; day++) {
+                if ((rule.getDaysOfWeek() & (1 << day)) == 0) {
+                    continue;
+                }
+                for (int minute = start; minute < end; minute++) {
+                    factors[(day * MINUTES_PER_DAY + minute) % MINUTES_PER_WEEK] *= factor;
+                }
+            }
+        }
+        long[] prefix = null;
+        if (factors != null) {
+            prefix = new long[MINUTES_PER_WEEK + 1];
+            for (int i = 0; i < MINUTES_PER_WEEK; i++) {
+                prefix[i + 1] = prefix[i] + Math.round(factors[i] * BASE_PERCENT);
+            }
+        }
+
+        List<PricingRule> discounts = rules.stream()
+            .filter(rule -> rule.getRuleType() == PricingRuleType.DURATION_DISCOUNT)
+            .sorted(Comparator.comparing(PricingRule::getMinMinutes))
+            .toList();
+        int[] thresholds = new int[discounts.size()];
+        int[] percents = new int[discounts.size()];
+        int count = 0;
+        int best = 0;
+        for (PricingRule discount : discounts) {
+            best = Math.max(best, discount.getDiscountPercent());
+            // Enak prag samo enkrat, sicer bi binarno iskanje lahko zadelo slabši popust
+            if (count == 0 || thresholds[count - 1] != discount.getMinMinutes()) {
+                count++;
+            }
+            thresholds[count - 1] = discount.getMinMinutes();
+            percents[count - 1] = best;
+        }
+        return new CompiledPricing(pricePerHourCents, prefix,
+            count == 0 ? NO_THRESHOLDS : Arrays.copyOf(thresholds, count),
+            count == 0 ? NO_THRESHOLDS : Arrays.copyOf(percents, count));
+    }
+
+    /**
+     * Obračunamo začete ure, najmanj eno - enako kot pred uvedbo pravil.
+     */
+    public static long billableMinutes(long durationMinutes) {
+        long hours = Math.max(1, (durationMinutes + 59) / 60);
+        return hours * 60;
+    }
+
+    public boolean usesTimeBands() {
+        return weekPrefix != null;
+    }
+
+    public int getPricePerHourCents() {
+        return pricePerHourCents;
+    }
+
+    /**
+     * Cena pred popustom; startMinuteOfWeek se upošteva samo pri časovnih pasovih.
+     */
+    public int baseCents(int startMinuteOfWeek, long billableMinutes) {
+        long percentMinutes = weekPrefix == null
+            ? billableMinutes * BASE_PERCENT
+            : percentMinutes(startMinuteOfWeek, billableMinutes);
+        // cent/uro * (odstotek * minuta) / (60 min * 100 %), zaokroženo navzgor od polovice
+        return Math.toIntExact((pricePerHourCents * percentMinutes + 3000) / 6000);
+    }
+
+    public int discountPercent(long billableMinutes) {
+        int index = Arrays.binarySearch(discountMinMinutes, (int) Math.min(Integer.MAX_VALUE, billableMinutes));
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return index < 0 ? 0 : discountPercent[index];
+    }
+
+    public int priceCents(int startMinuteOfWeek, long billableMinutes) {
+        int base = baseCents(startMinuteOfWeek, billableMinutes);
+        int discount = discountPercent(billableMinutes);
+        return discount == 0 ? base : (int) (((long) base * (BASE_PERCENT - discount) + 50) / BASE_PERCENT);
+    }
+
+    private long percentMinutes(int startMinuteOfWeek, long minutes) {
+        long sum = minutes / MINUTES_PER_WEEK * weekPrefix[MINUTES_PER_WEEK];
+        int end = startMinuteOfWeek + (int) (minutes % MINUTES_PER_WEEK);
+        if (end <= MINUTES_PER_WEEK) {
+            return sum + weekPrefix[end] - weekPrefix[startMinuteOfWeek];
+        }
+        return sum + weekPrefix[MINUTES_PER_WEEK] - weekPrefix[startMinuteOfWeek] + weekPrefix[end - MINUTES_PER_WEEK];
+    }
+}
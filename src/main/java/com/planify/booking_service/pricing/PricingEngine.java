@@ -0,0 +1,145 @@
+package com.planify.booking_service.pricing;
+
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.repository.LocationRepository;
+import com.planify.booking_service.repository.PricingRuleRepository;
+import com.planify.booking_service.service.ResourceVersions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Izračun cen rezervacij po prevedenih pravilih lokacije.
+ *
+ * Prevedena pravila so v pomnilniku po lokaciji in se prevedejo znova, ko se spremenijo
+ * lokacije (verzija iz ResourceVersions) ali pravila (zgoščena vrednost tabele, preverjena periodično).
+ * Brez pravil je cena enaka kot prej: cena na uro * začete ure.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PricingEngine {
+
+    public static final int MAX_BATCH = 500;
+
+    private final PricingRuleRepository pricingRuleRepository;
+    private final LocationRepository locationRepository;
+    private final ResourceVersions resourceVersions;
+
+    private final Map<UUID, Entry> compiled = new ConcurrentHashMap<>();
+    private final AtomicLong rulesVersion = new AtomicLong();
+    private volatile String rulesFingerprint;
+
+    // Časovni pasovi so v lokalnem času prizorišč; rezervacije so v UTC
+    @Value("${booking.pricing.zone:Europe/Ljubljana}")
+    private ZoneId zone;
+
+    public record Window(LocalDateTime start, LocalDateTime end) {
+    }
+
+    public record Quote(LocalDateTime start, LocalDateTime end, long billableMinutes, int baseAmountCents,
+                        int discountPercent, int totalAmountCents) {
+    }
+
+    private record Entry(CompiledPricing pricing, long locationsVersion, long rulesVersion) {
+    }
+
+    /**
+     * Cena za rezervacijo - uporabi podano (sveže prebrano) ceno lokacije.
+     */
+    public Quote quote(Location location, LocalDateTime start, LocalDateTime end) {
+        CompiledPricing pricing = pricingFor(location);
+        return quote(pricing, start, end);
+    }
+
+    /**
+     * Cene za več oken iste lokacije; lokacija se prebere samo, če pravila še niso prevedena.
+     */
+    public List<Quote> quote(UUID locationId, List<Window> windows) {
+        if (windows.isEmpty() || windows.size() > MAX_BATCH) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_BATCH + " windows are allowed per quote");
+        }
+        for (Window window : windows) {
+            if (!window.start().isBefore(window.end())) {
+                throw new IllegalArgumentException("Quote window must end after it starts");
+            }
+        }
+        CompiledPricing pricing = pricingFor(locationId);
+        return windows.stream()
+            .map(window -> quote(pricing, window.start(), window.end()))
+            .toList();
+    }
+
+    private Quote quote(CompiledPricing pricing, LocalDateTime start, LocalDateTime end) {
+        long billable = CompiledPricing.billableMinutes(Duration.between(start, end).toMinutes());
+        int startMinute = pricing.usesTimeBands() ? minuteOfWeek(start) : 0;
+        int base = pricing.baseCents(startMinute, billable);
+        int discount = pricing.discountPercent(billable);
+        return new Quote(start, end, billable, base, discount, pricing.priceCents(startMinute, billable));
+    }
+
+    private int minuteOfWeek(LocalDateTime utc) {
+        LocalDateTime local = utc.atOffset(ZoneOffset.UTC).atZoneSameInstant(zone).toLocalDateTime();
+        return (local.getDayOfWeek().getValue() - 1) * CompiledPricing.MINUTES_PER_DAY
+            + local.getHour() * 60 + local.getMinute();
+    }
+
+    private CompiledPricing pricingFor(UUID locationId) {
+        Entry entry = compiled.get(locationId);
+        if (entry != null && isCurrent(entry)) {
+            return entry.pricing();
+        }
+        Location location = locationRepository.findById(locationId)
+            .orElseThrow(() -> new NoSuchElementException("Lokacija ne obstaja"));
+        return compile(location);
+    }
+
+    private CompiledPricing pricingFor(Location location) {
+        Entry entry = compiled.get(location.getId());
+        if (entry != null && isCurrent(entry)
+                && entry.pricing().getPricePerHourCents() == location.getPricePerHourCents()) {
+            return entry.pricing();
+        }
+        return compile(location);
+    }
+
+    private boolean isCurrent(Entry entry) {
+        return entry.locationsVersion() == resourceVersions.locationsVersion() && entry.rulesVersion() == rulesVersion.get();
+    }
+
+    private CompiledPricing compile(Location location) {
+        // Verziji preberemo pred branjem pravil - sprememba med prevajanjem sproži ponovno prevajanje
+        long locationsSeen = resourceVersions.locationsVersion();
+        long rulesSeen = rulesVersion.get();
+        CompiledPricing pricing = CompiledPricing.compile(location.getPricePerHourCents(),
+            pricingRuleRepository.findActiveFor(location.getId()));
+        compiled.put(location.getId(), new Entry(pricing, locationsSeen, rulesSeen));
+        return pricing;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.pricing.rules-poll-interval:PT30S}")
+    public void pollRules() {
+        String fingerprint = pricingRuleRepository.fingerprint();
+        if (!Objects.equals(fingerprint, rulesFingerprint)) {
+            long version = rulesVersion.incrementAndGet();
+            if (rulesFingerprint != null) {
+                log.info("Pricing rules changed, recompiling on next quote (version {})", version);
+            }
+            rulesFingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.planify.booking_service.repository;
+
+import com.planify.booking_service.domain.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projekcija rezervacije za iCalendar feed lokacije
+ */
+public record BookingCalendarRow(UUID id, LocalDateTime startTime, LocalDateTime endTime, BookingStatus status,
+                                 Integer headcount, LocalDateTime updatedAt) {
+}
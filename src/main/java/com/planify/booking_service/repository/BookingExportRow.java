@@ -0,0 +1,15 @@
+package com.planify.booking_service.repository;
+
+import com.planify.booking_service.domain.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projekcija rezervacije za izvoz - brez entitete in lokacije, zato se ne kopiči v persistence contextu
+ */
+public record BookingExportRow(UUID id, UUID locationId, UUID eventId, UUID organizationId,
+                               LocalDateTime startTime, LocalDateTime endTime, BookingStatus status,
+                               Integer headcount, Integer totalAmountCents, String currency,
+                               String paymentIntentId, LocalDateTime createdAt) {
+}
@@ -0,0 +1,11 @@
+package com.planify.booking_service.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Ozka projekcija rezervacije za izračun zasedenosti lokacije
+ * (brez nalaganja entitete in njene lokacije)
+ */
+public record BookingOccupancy(UUID id, LocalDateTime startTime, LocalDateTime endTime, int headcount) {
+}
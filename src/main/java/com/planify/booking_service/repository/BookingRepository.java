@@ -2,14 +2,19 @@ package com.planify.booking_service.repository;
 
 import com.planify.booking_service.domain.Booking;
 import com.planify.booking_service.domain.BookingStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, UUID> {
 
@@ -20,4 +25,55 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
                                        @Param("start") LocalDateTime start,
                                        @Param("end") LocalDateTime end,
                                        @Param("statuses") Collection<BookingStatus> statuses);
+
+    @Query("select new com.planify.booking_service.repository.BookingOccupancy(b.id, b.startTime, b.endTime, b.headcount) " +
+            "from Booking b where b.location.id = :locationId " +
+            "and b.status in :statuses " +
+            "and b.startTime < :end and b.endTime > :start")
+    List<BookingOccupancy> findOverlappingOccupancy(@Param("locationId") UUID locationId,
+                                                    @Param("start") LocalDateTime start,
+                                                    @Param("end") LocalDateTime end,
+                                                    @Param("statuses") Collection<BookingStatus> statuses);
+
+    @Query("select new com.planify.booking_service.repository.BookingOccupancy(b.id, b.startTime, b.endTime, b.headcount) " +
+            "from Booking b where b.location.id = :locationId " +
+            "and b.status in :statuses " +
+            "and b.endTime > :from")
+    List<BookingOccupancy> findOccupancyEndingAfter(@Param("locationId") UUID locationId,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("statuses") Collection<BookingStatus> statuses);
+
+    @Query("select max(b.updatedAt) from Booking b")
+    Optional<LocalDateTime> findMaxUpdatedAt();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("select new com.planify.booking_service.repository.BookingSnapshotRow(b.id, b.location.id, b.startTime, b.endTime, b.status) " +
+            "from Booking b where b.status in :statuses and b.endTime > :from")
+    Stream<BookingSnapshotRow> streamActiveEndingAfter(@Param("from") LocalDateTime from,
+                                                       @Param("statuses") Collection<BookingStatus> statuses);
+
+    @Query("select new com.planify.booking_service.repository.BookingSnapshotRow(b.id, b.location.id, b.startTime, b.endTime, b.status) " +
+            "from Booking b where b.updatedAt > :since")
+    List<BookingSnapshotRow> findChangedSince(@Param("since") LocalDateTime since);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.planify.booking_service.repository.BookingExportRow(b.id, b.location.id, b.eventId, " +
+            "b.organizationId, b.startTime, b.endTime, b.status, b.headcount, b.totalAmountCents, b.currency, " +
+            "b.paymentIntentId, b.createdAt) " +
+            "from Booking b where b.startTime >= :from and b.startTime < :to order by b.startTime, b.id")
+    Stream<BookingExportRow> streamForExport(@Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
+
+    @Query("select new com.planify.booking_service.repository.BookingCalendarRow(b.id, b.startTime, b.endTime, b.status, " +
+            "b.headcount, b.updatedAt) " +
+            "from Booking b where b.location.id = :locationId " +
+            "and b.status in :statuses " +
+            "and b.startTime < :end and b.endTime > :start")
+    List<BookingCalendarRow> findCalendarRows(@Param("locationId") UUID locationId,
+                                              @Param("start") LocalDateTime start,
+                                              @Param("end") LocalDateTime end,
+                                              @Param("statuses") Collection<BookingStatus> statuses);
 }
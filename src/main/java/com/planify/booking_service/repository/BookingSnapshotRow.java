@@ -0,0 +1,13 @@
+package com.planify.booking_service.repository;
+
+import com.planify.booking_service.domain.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projekcija rezervacije za posnetek indeksa zasedenosti in dohitevanje sprememb
+ */
+public record BookingSnapshotRow(UUID id, UUID locationId, LocalDateTime startTime, LocalDateTime endTime,
+                                 BookingStatus status) {
+}
@@ -0,0 +1,84 @@
+package com.planify.booking_service.repository;
+
+import com.planify.booking_service.domain.LocationDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface LocationDailyStatsRepository extends JpaRepository<LocationDailyStats, LocationDailyStats.Key> {
+
+    // Agregacija iz tabele rezervacij - enaka kot v V6 migraciji; osnova za rebuild in preverjanje
+    String EXPECTED_STATS = "select b.location_id, cast(d.day as date) as booking_date, b.currency, " +
+            "sum(case when d.day = date_trunc('day', b.start_time) then 1 else 0 end) as booking_count, " +
+            "sum(m.minutes) as booked_minutes, " +
+            "sum(m.minutes * b.headcount) as seat_minutes, " +
+            "sum(case when d.day = date_trunc('day', b.start_time) then b.total_amount_cents else 0 end) as revenue_cents " +
+            "from {h-schema}bookings b " +
+            "cross join lateral generate_series(date_trunc('day', b.start_time), b.end_time - interval '1 microsecond', interval '1 day') as d(day) " +
+            "cross join lateral (select cast(floor(extract(epoch from least(b.end_time, d.day + interval '1 day') " +
+            "- greatest(b.start_time, d.day)) / 60) as bigint) as minutes) m " +
+            "where b.status in ('PENDING_PAYMENT', 'CONFIRMED') " +
+            "group by b.location_id, d.day, b.currency";
+
+    @Modifying
+    @Query(value = "insert into {h-schema}location_daily_stats as s " +
+            "(location_id, booking_date, currency, booking_count, booked_minutes, seat_minutes, revenue_cents) " +
+            "values (:locationId, :bookingDate, :currency, :bookings, :minutes, :seatMinutes, :revenueCents) " +
+            "on conflict (location_id, booking_date, currency) do update set " +
+            "booking_count = s.booking_count + excluded.booking_count, " +
+            "booked_minutes = s.booked_minutes + excluded.booked_minutes, " +
+            "seat_minutes = s.seat_minutes + excluded.seat_minutes, " +
+            "revenue_cents = s.revenue_cents + excluded.revenue_cents",
+            nativeQuery = true)
+    void increment(@Param("locationId") UUID locationId,
+                   @Param("bookingDate") LocalDate bookingDate,
+                   @Param("currency") String currency,
+                   @Param("bookings") int bookings,
+                   @Param("minutes") long minutes,
+                   @Param("seatMinutes") long seatMinutes,
+                   @Param("revenueCents") long revenueCents);
+
+    @Query("select s from LocationDailyStats s where s.bookingDate >= :from and s.bookingDate < :to " +
+            "order by s.locationId, s.bookingDate, s.currency")
+    List<LocationDailyStats> findBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select s from LocationDailyStats s where s.locationId = :locationId " +
+            "and s.bookingDate >= :from and s.bookingDate < :to " +
+            "order by s.bookingDate, s.currency")
+    List<LocationDailyStats> findBetween(@Param("locationId") UUID locationId,
+                                         @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Sočasni zapisi rezervacij počakajo do konca rebuilda, zato se nobena sprememba ne izgubi ali podvoji.
+     */
+    @Modifying
+    @Query(value = "lock table {h-schema}location_daily_stats in exclusive mode", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "delete from {h-schema}location_daily_stats", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = "insert into {h-schema}location_daily_stats " +
+            "(location_id, booking_date, currency, booking_count, booked_minutes, seat_minutes, revenue_cents) " +
+            EXPECTED_STATS, nativeQuery = true)
+    int insertExpected();
+
+    // En stavek = en posnetek; rezervacija in njen agregat se potrdita v isti transakciji
+    @Query(value = "with expected as (" + EXPECTED_STATS + ") " +
+            "select count(*) from {h-schema}location_daily_stats s " +
+            "full outer join expected e on e.location_id = s.location_id " +
+            "and e.booking_date = s.booking_date and e.currency = s.currency " +
+            "where coalesce(s.booking_count, 0) <> coalesce(e.booking_count, 0) " +
+            "or coalesce(s.booked_minutes, 0) <> coalesce(e.booked_minutes, 0) " +
+            "or coalesce(s.seat_minutes, 0) <> coalesce(e.seat_minutes, 0) " +
+            "or coalesce(s.revenue_cents, 0) <> coalesce(e.revenue_cents, 0)",
+            nativeQuery = true)
+    long countMismatches();
+}
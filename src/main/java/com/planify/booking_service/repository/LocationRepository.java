@@ -1,10 +1,31 @@
 package com.planify.booking_service.repository;
 
 import com.planify.booking_service.domain.Location;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface LocationRepository extends JpaRepository<Location, UUID> {
+public interface LocationRepository extends JpaRepository<Location, UUID>, LocationSearchRepository {
     List<Location> findByActiveTrueOrderByNameAsc();
+
+    List<Location> findBySlotMinutesNotNullAndSharedCapacityFalse();
+
+    /**
+     * Zaklene lokacijo do konca transakcije. Rezervacije in zadržitve iste lokacije se tako
+     * preverijo in vstavijo ena za drugo, sicer bi dve hkratni preverjanji videli isto prosto
+     * kapaciteto in obe vstavili.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from Location l where l.id = :id")
+    Optional<Location> findByIdForUpdate(@Param("id") UUID id);
+
+    // Lokacije se urejajo mimo tega servisa, zato nimamo dogodka ob spremembi - števec poveča sprožilec (V11)
+    @Query(value = "select cast(v.version as text) from {h-schema}locations_version v", nativeQuery = true)
+    String fingerprint();
 }
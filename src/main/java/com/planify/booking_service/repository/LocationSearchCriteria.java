@@ -0,0 +1,64 @@
+package com.planify.booking_service.repository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Filtri iskanja lokacij. Vrednost null pomeni, da filter ni nastavljen.
+ *
+ * @param text          del imena ali naslova, brez razlikovanja velikih in malih črk
+ * @param availableFrom skupaj z availableTo: lokacija mora biti v oknu prosta za headcount oseb
+ * @param afterKey      ključ razvrščanja zadnje vrstice prejšnje strani (null za prvo stran)
+ * @param afterId       id zadnje vrstice prejšnje strani
+ */
+public record LocationSearchCriteria(Integer minCapacity,
+                                     Integer maxPricePerHourCents,
+                                     String text,
+                                     LocalDateTime availableFrom,
+                                     LocalDateTime availableTo,
+                                     int headcount,
+                                     Sort sort,
+                                     Object afterKey,
+                                     UUID afterId,
+                                     int limit) {
+
+    public boolean hasWindow() {
+        return availableFrom != null && availableTo != null;
+    }
+
+    /**
+     * Vrstni red strani; id je vedno drugi ključ, zato je vrstni red enoličen tudi pri enakih vrednostih.
+     */
+    public enum Sort {
+        NAME("l.name", false),
+        PRICE("l.price_per_hour_cents", false),
+        CAPACITY("l.capacity", true);
+
+        private final String column;
+        private final boolean descending;
+
+        Sort(String column, boolean descending) {
+            this.column = column;
+            this.descending = descending;
+        }
+
+        public String column() {
+            return column;
+        }
+
+        public boolean descending() {
+            return descending;
+        }
+
+        /**
+         * @return null, če razvrščanje ne obstaja
+         */
+        public static Sort parse(String name) {
+            return Arrays.stream(values())
+                .filter(sort -> sort.name().equalsIgnoreCase(name))
+                .findFirst()
+                .orElse(null);
+        }
+    }
+}
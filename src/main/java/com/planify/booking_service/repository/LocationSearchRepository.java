@@ -0,0 +1,16 @@
+package com.planify.booking_service.repository;
+
+import com.planify.booking_service.domain.Location;
+
+import java.util.List;
+
+/**
+ * Dodatek k LocationRepository - poizvedba je sestavljena iz nastavljenih filtrov.
+ */
+public interface LocationSearchRepository {
+
+    /**
+     * Aktivne lokacije, ki ustrezajo filtrom, v vrstnem redu criteria.sort, največ criteria.limit.
+     */
+    List<Location> search(LocationSearchCriteria criteria);
+}
@@ -0,0 +1,107 @@
+package com.planify.booking_service.repository;
+
+import com.planify.booking_service.domain.BookingStatus;
+import com.planify.booking_service.domain.Location;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ena poizvedba z le tistimi pogoji, ki so nastavljeni - pogoji oblike (:p is null or ...) bi
+ * planerju pri generičnem načrtu pripravljenega stavka onemogočili uporabo indeksov.
+ *
+ * Stran se bere po indeksu razvrščanja (idx_locations_active_*) od ključa zadnje vrstice naprej
+ * in se ustavi po limit vrsticah. Besedilo uporabi trigramska indeksa, kadar je dovolj
+ * selektivno. Dostopnost v oknu se preveri samo za kandidate, z enakim pravilom kot
+ * AvailabilityService.findConflicts: lokacija brez deljene kapacitete ne sme imeti prekrivanja,
+ * pri deljeni kapaciteti največja sočasna zasedenost skupaj s headcount ne sme preseči capacity.
+ */
+@RequiredArgsConstructor
+public class LocationSearchRepositoryImpl implements LocationSearchRepository {
+
+    // Stanja niso vnos odjemalca, zato so v stavku kot literali
+    private static final String ACTIVE_STATUSES =
+        "'" + BookingStatus.PENDING_PAYMENT.name() + "', '" + BookingStatus.CONFIRMED.name() + "'";
+
+    /*
+     * Največja sočasna zasedenost lokacije v oknu - največja je ob začetku okna ali ob začetku ene od
+     * prekrivajočih se rezervacij. Lokacija brez deljene kapacitete je prosta le pri zasedenosti 0
+     * (headcount je vedno vsaj 1). Koreliran skalarni podizraz se izračuna samo za kandidate po
+     * idx_bookings_location_time; NOT EXISTS bi planer lahko izvedel kot zgoščen podnačrt, ki
+     * prebere vse rezervacije v oknu, tudi ko stran potrebuje le nekaj lokacij.
+     */
+    private static final String PEAK_OCCUPANCY = """
+        (with o as (select b.start_time, b.end_time, b.headcount from {h-schema}bookings b
+                    where b.location_id = l.id and b.status in (%s)
+                      and b.start_time < :end and b.end_time > :start
+                    union all
+                    select h.start_time, h.end_time, h.headcount from {h-schema}slot_holds h
+                    where h.location_id = l.id and h.expires_at > :now
+                      and h.start_time < :end and h.end_time > :start)
+         select coalesce(max((select sum(x.headcount) from o x
+                              where x.start_time <= greatest(s.start_time, :start)
+                                and x.end_time > greatest(s.start_time, :start))), 0)
+         from o s)
+        """.formatted(ACTIVE_STATUSES);
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Location> search(LocationSearchCriteria criteria) {
+        StringBuilder sql = new StringBuilder("select l.* from {h-schema}locations l where l.active");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        if (criteria.minCapacity() != null) {
+            sql.append(" and l.capacity >= :minCapacity");
+            parameters.put("minCapacity", criteria.minCapacity());
+        }
+        if (criteria.maxPricePerHourCents() != null) {
+            sql.append(" and l.price_per_hour_cents <= :maxPrice");
+            parameters.put("maxPrice", criteria.maxPricePerHourCents());
+        }
+        if (criteria.text() != null && !criteria.text().isBlank()) {
+            sql.append(" and (l.name ilike :pattern or l.address ilike :pattern)");
+            parameters.put("pattern", "%" + escapeLike(criteria.text().strip()) + "%");
+        }
+        if (criteria.hasWindow()) {
+            sql.append(" and ").append(PEAK_OCCUPANCY)
+                .append(" <= case when l.shared_capacity then l.capacity - :headcount else 0 end");
+            parameters.put("start", criteria.availableFrom());
+            parameters.put("end", criteria.availableTo());
+            parameters.put("now", LocalDateTime.now(ZoneOffset.UTC));
+            parameters.put("headcount", criteria.headcount());
+        }
+
+        LocationSearchCriteria.Sort sort = criteria.sort();
+        String direction = sort.descending() ? "desc" : "asc";
+        if (criteria.afterId() != null) {
+            sql.append(" and (").append(sort.column()).append(", l.id) ")
+                .append(sort.descending() ? "<" : ">").append(" (:afterKey, :afterId)");
+            parameters.put("afterKey", criteria.afterKey());
+            parameters.put("afterId", criteria.afterId());
+        }
+        sql.append(" order by ").append(sort.column()).append(' ').append(direction)
+            .append(", l.id ").append(direction)
+            .append(" limit :limit");
+        parameters.put("limit", criteria.limit());
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Location.class)
+            .setHint(HibernateHints.HINT_READ_ONLY, true);
+        parameters.forEach(query::setParameter);
+        @SuppressWarnings("unchecked")
+        List<Location> locations = query.getResultList();
+        return locations;
+    }
+
+    // Znaki % in _ iz vnosa iščemo dobesedno; \ je privzeti ubežni znak za LIKE v Postgresu
+    static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
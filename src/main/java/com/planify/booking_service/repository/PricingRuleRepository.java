@@ -0,0 +1,20 @@
+package com.planify.booking_service.repository;
+
+import com.planify.booking_service.domain.PricingRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface PricingRuleRepository extends JpaRepository<PricingRule, UUID> {
+
+    @Query("select r from PricingRule r where r.active = true and (r.locationId is null or r.locationId = :locationId)")
+    List<PricingRule> findActiveFor(@Param("locationId") UUID locationId);
+
+    // Pravila se urejajo neposredno v bazi, zato spremembe zaznamo s primerjavo zgoščene vrednosti
+    @Query(value = "select md5(coalesce(string_agg(r::text, ',' order by r.id), '')) from {h-schema}pricing_rules r",
+            nativeQuery = true)
+    String fingerprint();
+}
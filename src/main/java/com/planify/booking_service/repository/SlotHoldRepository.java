@@ -0,0 +1,59 @@
+package com.planify.booking_service.repository;
+
+import com.planify.booking_service.domain.SlotHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface SlotHoldRepository extends JpaRepository<SlotHold, UUID> {
+
+    // Nadomestna vrednost za ignoredHoldId, ko se nobena zadržitev ne pretvarja
+    UUID NO_HOLD = new UUID(0L, 0L);
+
+    // ignoredHoldId: zadržitev, ki se pravkar pretvarja v rezervacijo
+    @Query("select h.id from SlotHold h where h.locationId = :locationId " +
+            "and h.expiresAt > :now and h.id <> :ignoredHoldId " +
+            "and h.startTime < :end and h.endTime > :start")
+    List<UUID> findConflictingHolds(@Param("locationId") UUID locationId,
+                                    @Param("start") LocalDateTime start,
+                                    @Param("end") LocalDateTime end,
+                                    @Param("now") LocalDateTime now,
+                                    @Param("ignoredHoldId") UUID ignoredHoldId);
+
+    @Query("select new com.planify.booking_service.repository.BookingOccupancy(h.id, h.startTime, h.endTime, h.headcount) " +
+            "from SlotHold h where h.locationId = :locationId " +
+            "and h.expiresAt > :now and h.id <> :ignoredHoldId " +
+            "and h.startTime < :end and h.endTime > :start")
+    List<BookingOccupancy> findOverlappingOccupancy(@Param("locationId") UUID locationId,
+                                                    @Param("start") LocalDateTime start,
+                                                    @Param("end") LocalDateTime end,
+                                                    @Param("now") LocalDateTime now,
+                                                    @Param("ignoredHoldId") UUID ignoredHoldId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from SlotHold h where h.id = :id")
+    Optional<SlotHold> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("select new com.planify.booking_service.repository.BookingOccupancy(h.id, h.startTime, h.endTime, h.headcount) " +
+            "from SlotHold h where h.locationId = :locationId and h.expiresAt > :now")
+    List<BookingOccupancy> findActiveOccupancy(@Param("locationId") UUID locationId,
+                                               @Param("now") LocalDateTime now);
+
+    List<SlotHold> findByExpiresAtAfter(LocalDateTime now);
+
+    /**
+     * Izbriše do batch poteklih zadržitev in jih vrne. Vrstice, ki jih hkrati briše druga replika, se preskočijo.
+     */
+    @Query(value = "delete from {h-schema}slot_holds where id in (" +
+            "select id from {h-schema}slot_holds where expires_at <= :now " +
+            "order by expires_at limit :batch for update skip locked) returning *",
+            nativeQuery = true)
+    List<SlotHold> deleteExpired(@Param("now") LocalDateTime now, @Param("batch") int batch);
+}
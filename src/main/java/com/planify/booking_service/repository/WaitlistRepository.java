@@ -0,0 +1,67 @@
+package com.planify.booking_service.repository;
+
+import com.planify.booking_service.domain.WaitlistEntry;
+import com.planify.booking_service.domain.WaitlistStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, UUID> {
+
+    /**
+     * Čakajoči, katerih okno se prekriva s [start, end). Spodnja meja začetka (start - največje okno)
+     * omeji poizvedbo na razpon indeksa idx_waitlist_waiting_location_start.
+     * Vrstice, ki jih hkrati promovira drug preklic, se preskočijo (SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select w from WaitlistEntry w where w.locationId = :locationId " +
+            "and w.status = com.planify.booking_service.domain.WaitlistStatus.WAITING " +
+            "and w.startTime > :earliestStart and w.startTime < :end and w.endTime > :start " +
+            "order by w.createdAt, w.id")
+    List<WaitlistEntry> lockOverlappingWaiting(@Param("locationId") UUID locationId,
+                                               @Param("earliestStart") LocalDateTime earliestStart,
+                                               @Param("start") LocalDateTime start,
+                                               @Param("end") LocalDateTime end,
+                                               Limit limit);
+
+    /**
+     * Prijava, če še čaka, zaklenjena do konca transakcije promocije. Prijavo, ki jo hkrati
+     * promovira druga replika, preskoči (SKIP LOCKED); izstopljena ali potekla prijava se ne vrne.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select w from WaitlistEntry w where w.id = :id " +
+            "and w.status = com.planify.booking_service.domain.WaitlistStatus.WAITING")
+    Optional<WaitlistEntry> lockWaiting(@Param("id") UUID id);
+
+    /**
+     * Za izstop: počaka na hkratno promocijo, da LEFT ne prepiše PROMOTED.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from WaitlistEntry w where w.id = :id")
+    Optional<WaitlistEntry> findByIdForUpdate(@Param("id") UUID id);
+
+    Optional<WaitlistEntry> findByLocationIdAndOrganizationIdAndStartTimeAndEndTimeAndStatus(UUID locationId,
+                                                                                           UUID organizationId,
+                                                                                           LocalDateTime startTime,
+                                                                                           LocalDateTime endTime,
+                                                                                           WaitlistStatus status);
+
+    @Modifying
+    @Query("update WaitlistEntry w set w.status = com.planify.booking_service.domain.WaitlistStatus.EXPIRED, " +
+            "w.updatedAt = :now " +
+            "where w.status = com.planify.booking_service.domain.WaitlistStatus.WAITING and w.startTime <= :now")
+    int expireStarted(@Param("now") LocalDateTime now);
+}
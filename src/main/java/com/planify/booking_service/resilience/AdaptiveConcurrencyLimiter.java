@@ -0,0 +1,106 @@
+package com.planify.booking_service.resilience;
+
+import com.planify.booking_service.config.AdaptiveLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD omejitev sočasnosti, ki se prilagaja opazovani latenci.
+ *
+ * Dokler je latenca blizu najmanjše izmerjene (min RTT * tolerance) in je omejitev
+ * dejansko izkoriščena, se omejitev počasi povečuje (+1 na približno "limit" vzorcev).
+ * Ko latenca preseže toleranco ali klic pade, se omejitev zmanjša multiplikativno.
+ * Nad omejitvijo klici kratko čakajo v pravični vrsti (FairAdmissionQueue), nato so zavrnjeni.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final int rttWindow;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // Dostop do spodnjih polj je sinhroniziran na this
+    private long minRttNanos = Long.MAX_VALUE;
+    private long windowMinRttNanos = Long.MAX_VALUE;
+    private int windowSamples;
+
+    public AdaptiveConcurrencyLimiter(String name, AdaptiveLimitProperties.Instance config) {
+        this.name = name;
+        this.minLimit = config.getMinLimit();
+        this.maxLimit = config.getMaxLimit();
+        this.tolerance = config.getTolerance();
+        this.backoffRatio = config.getBackoffRatio();
+        this.rttWindow = config.getRttWindow();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, config.getInitialLimit()));
+    }
+
+    /**
+     * Vrne število sočasnih klicev ob začetku (za onSuccess) ali -1, če je omejitev dosežena.
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    public void onSuccess(long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+            if (++windowSamples >= rttWindow) {
+                minRttNanos = windowMinRttNanos;
+                windowMinRttNanos = Long.MAX_VALUE;
+                windowSamples = 0;
+            }
+            minRttNanos = Math.min(minRttNanos, rttNanos);
+
+            if (rttNanos > minRttNanos * tolerance) {
+                decrease();
+            } else if (inFlightAtStart * 2 >= limit) {
+                // Povečujemo samo, če je omejitev dejansko izkoriščena
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        }
+    }
+
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            decrease();
+        }
+    }
+
+    /**
+     * Klic se je končal z napako, ki ni povezana z obremenitvijo (npr. neveljaven vhod).
+     */
+    public void onIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
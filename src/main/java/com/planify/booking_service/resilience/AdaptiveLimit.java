@@ -0,0 +1,16 @@
+package com.planify.booking_service.resilience;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Omeji sočasne klice metode s prilagodljivo omejitvijo (booking.adaptive-limit.instances.{name}).
+ * Ko je omejitev dosežena, se klic takoj zavrne s ConcurrencyLimitExceededException.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdaptiveLimit {
+    String name();
+}
@@ -0,0 +1,57 @@
+package com.planify.booking_service.resilience;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Zunanji ovoj okoli Resilience4j aspektov (Retry ima LOWEST_PRECEDENCE - 4):
+ * zavrnitev tako ne sproži ponovnih poskusov ali fallbacka, ampak takoj vrne 503.
+ * Sprejem (token bucket organizacije in pravična vrsta) opravi OrganizationAdmission.
+ *
+ * Gnezdeni omejeni klic (npr. iz createBooking) se ne sprejema znova: zunanji klic že drži
+ * permit in morda transakcijo, čakanje v vrsti ali zavrnitev znotraj njegovega CircuitBreakerja
+ * pa bi se spremenila v splošno napako in štela kot okvara.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 5)
+@RequiredArgsConstructor
+public class AdaptiveLimitAspect {
+
+    private final AdaptiveLimiterRegistry registry;
+    private final OrganizationAdmission admission;
+
+    private static final ThreadLocal<Boolean> ADMITTED = new ThreadLocal<>();
+
+    @Around("@annotation(adaptiveLimit)")
+    public Object limit(ProceedingJoinPoint joinPoint, AdaptiveLimit adaptiveLimit) throws Throwable {
+        if (ADMITTED.get() != null) {
+            return joinPoint.proceed();
+        }
+        AdaptiveConcurrencyLimiter limiter = registry.limiter(adaptiveLimit.name());
+        int inFlight = admission.admit(adaptiveLimit.name());
+        long started = System.nanoTime();
+        ADMITTED.set(Boolean.TRUE);
+        try {
+            Object result = joinPoint.proceed();
+            limiter.onSuccess(System.nanoTime() - started, inFlight);
+            return result;
+        } catch (IllegalArgumentException | NoSuchElementException e) {
+            limiter.onIgnored();
+            throw e;
+        } catch (Throwable t) {
+            limiter.onDropped();
+            throw t;
+        } finally {
+            ADMITTED.remove();
+            admission.release(adaptiveLimit.name());
+        }
+    }
+}
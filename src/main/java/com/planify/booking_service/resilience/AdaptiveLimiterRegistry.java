@@ -0,0 +1,43 @@
+package com.planify.booking_service.resilience;
+
+import com.planify.booking_service.config.AdaptiveLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequiredArgsConstructor
+public class AdaptiveLimiterRegistry {
+
+    private final AdaptiveLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimiter limiter(String name) {
+        return limiters.computeIfAbsent(name, this::create);
+    }
+
+    public Counter rejections(String name) {
+        return meterRegistry.counter("booking.limiter.rejected", "name", name);
+    }
+
+    private AdaptiveConcurrencyLimiter create(String name) {
+        var config = properties.getInstances().getOrDefault(name, new AdaptiveLimitProperties.Instance());
+        var limiter = new AdaptiveConcurrencyLimiter(name, config);
+        Gauge.builder("booking.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+            .description("Current adaptive concurrency limit")
+            .tag("name", name)
+            .register(meterRegistry);
+        Gauge.builder("booking.limiter.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+            .description("Calls currently holding a permit")
+            .tag("name", name)
+            .register(meterRegistry);
+        return limiter;
+    }
+}
@@ -0,0 +1,140 @@
+package com.planify.booking_service.resilience;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Uteženo pravično vrstenje (WFQ) pred adaptivno omejitvijo sočasnosti.
+ *
+ * Ko je omejitev polna, zahtevek dobi virtualni čas zaključka
+ * max(virtualTime, lastFinish[trak]) + 1 / utež in čaka v prioritetni vrsti.
+ * Sproščeni permit se preda čakajočemu z najmanjšim časom zaključka, zato
+ * organizacija z veliko zahtevki ne more izriniti organizacije z enim samim.
+ */
+class FairAdmissionQueue {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> waiting = new PriorityQueue<>(
+        Comparator.comparingDouble((Waiter w) -> w.finishTag).thenComparingLong(w -> w.sequence));
+    private final double[] lastFinish;
+    private final int maxQueueSize;
+
+    // Dostop do spodnjih polj je zaščiten z lock
+    private double virtualTime;
+    private long sequence;
+
+    static final class Waiter {
+        final double finishTag;
+        final long sequence;
+        final CompletableFuture<Integer> permit = new CompletableFuture<>();
+
+        Waiter(double finishTag, long sequence) {
+            this.finishTag = finishTag;
+            this.sequence = sequence;
+        }
+    }
+
+    FairAdmissionQueue(int stripes, int maxQueueSize) {
+        this.lastFinish = new double[stripes];
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    /**
+     * Vrne število sočasnih klicev ob začetku ali -1, če permit ni bil dodeljen v maxWait.
+     */
+    int acquire(AdaptiveConcurrencyLimiter limiter, int stripe, double weight, Duration maxWait) {
+        Waiter waiter;
+        lock.lock();
+        try {
+            // Mimo vrste samo, če nihče ne čaka - sicer bi novi zahtevki prehiteli čakajoče
+            if (waiting.isEmpty()) {
+                int inFlight = limiter.tryAcquire();
+                if (inFlight > 0) {
+                    return inFlight;
+                }
+            }
+            if (waiting.size() >= maxQueueSize || maxWait.isZero()) {
+                return -1;
+            }
+            waiter = enqueue(stripe, weight);
+            dispatchLocked(limiter);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            return waiter.permit.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return abandon(waiter);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return abandon(waiter);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Po sprostitvi permita ga preda čakajočim v vrstnem redu virtualnega časa zaključka.
+     */
+    void dispatch(AdaptiveConcurrencyLimiter limiter) {
+        lock.lock();
+        try {
+            dispatchLocked(limiter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return waiting.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Waiter enqueue(int stripe, double weight) {
+        lock.lock();
+        try {
+            double finishTag = Math.max(virtualTime, lastFinish[stripe]) + 1.0 / weight;
+            lastFinish[stripe] = finishTag;
+            Waiter waiter = new Waiter(finishTag, sequence++);
+            waiting.add(waiter);
+            return waiter;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatchLocked(AdaptiveConcurrencyLimiter limiter) {
+        while (!waiting.isEmpty()) {
+            int inFlight = limiter.tryAcquire();
+            if (inFlight < 0) {
+                return;
+            }
+            Waiter next = waiting.poll();
+            virtualTime = next.finishTag;
+            next.permit.complete(inFlight);
+        }
+    }
+
+    private int abandon(Waiter waiter) {
+        lock.lock();
+        try {
+            if (waiting.remove(waiter)) {
+                return -1;
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Permit je bil dodeljen hkrati s potekom časa - uporabimo ga
+        return waiter.permit.join();
+    }
+}
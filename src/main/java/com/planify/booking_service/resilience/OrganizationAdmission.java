@@ -0,0 +1,156 @@
+package com.planify.booking_service.resilience;
+
+import com.planify.booking_service.config.AdmissionProperties;
+import com.planify.booking_service.exception.ConcurrencyLimitExceededException;
+import com.planify.booking_service.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Sprejem zahtevkov po organizacijah: token bucket nivoja organizacije in pravična vrsta
+ * pred adaptivno omejitvijo sočasnosti.
+ * Žeton porabi vstopna točka (callAs v kontrolerju ali gRPC storitvi) enkrat na zunanji
+ * zahtevek - še preden se odpre transakcija -, pravično vrsto pa vsak omejen klic (admit).
+ * Zahtevki brez organizacije si delijo en token bucket privzetega nivoja in čakajo z njegovo utežjo.
+ *
+ * Organizacije istega nivoja se na trakove preslikajo z zgoščevanjem: organizacije na istem
+ * traku si delijo token bucket in se med seboj omejujejo (pri 4096 trakovih in nekaj sto
+ * organizacijah nivoja je takih parov malo). Organizacija s posebnimi zahtevami naj ima svoj nivo.
+ */
+@Component
+public class OrganizationAdmission {
+
+    private final AdmissionProperties properties;
+    private final AdaptiveLimiterRegistry registry;
+    private final MeterRegistry meterRegistry;
+
+    private final int stripeMask;
+    private final Map<UUID, String> organizationTiers = new HashMap<>();
+    private final Map<String, StripedTokenBuckets> buckets = new ConcurrentHashMap<>();
+    private final StripedTokenBuckets anonymous;
+    private final Map<String, FairAdmissionQueue> queues = new ConcurrentHashMap<>();
+
+    public OrganizationAdmission(AdmissionProperties properties, AdaptiveLimiterRegistry registry,
+                                 MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.registry = registry;
+        this.meterRegistry = meterRegistry;
+        // Zaokrožimo navzgor na potenco 2, da je trak samo maska zgoščene vrednosti
+        this.stripeMask = Integer.highestOneBit(Math.max(1, properties.getStripes() * 2 - 1)) - 1;
+        properties.getOrganizations().forEach((organizationId, tier) ->
+            organizationTiers.put(UUID.fromString(organizationId), tier));
+        AdmissionProperties.Tier defaultTier = tier(properties.getDefaultTier());
+        this.anonymous = new StripedTokenBuckets(1, defaultTier.getRatePerSecond(), defaultTier.getBurst());
+    }
+
+    /**
+     * Organizacija iz preverjenega žetona (zahtevek booking.admission.organization-claim);
+     * null, če klicatelj ni prijavljen ali žeton organizacije nima.
+     */
+    public UUID organizationOf(Jwt jwt) {
+        if (jwt == null) {
+            return null;
+        }
+        String organizationId = jwt.getClaimAsString(properties.getOrganizationClaim());
+        if (organizationId == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(organizationId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Porabi žeton organizacije (brez organizacije skupni žeton anonimnih klicev) in izvede
+     * zunanji zahtevek v njenem kontekstu.
+     *
+     * @param name ime omejitve za metriko in sporočilo zavrnitve
+     * @throws RateLimitExceededException ko organizacija nima žetona
+     */
+    public <T> T callAs(String name, UUID organizationId, Supplier<T> call) {
+        String tierName = tierOf(organizationId);
+        boolean acquired = organizationId == null
+            ? anonymous.tryAcquire(0)
+            : buckets(tierName, tier(tierName)).tryAcquire(stripe(organizationId));
+        if (!acquired) {
+            meterRegistry.counter("booking.admission.throttled", "name", name, "tier", tierName).increment();
+            throw new RateLimitExceededException(name, tierName);
+        }
+        return OrganizationContext.callAs(organizationId, call);
+    }
+
+    /**
+     * Vrne število sočasnih klicev ob začetku; permit je treba vrniti z release.
+     */
+    public int admit(String name) {
+        AdaptiveConcurrencyLimiter limiter = registry.limiter(name);
+        UUID organizationId = OrganizationContext.currentOrganization();
+        String tierName = tierOf(organizationId);
+        AdmissionProperties.Tier tier = tier(tierName);
+        int stripe = stripe(organizationId);
+
+        long started = System.nanoTime();
+        int inFlight = queue(name).acquire(limiter, stripe, tier.getWeight(), properties.getMaxQueueWait());
+        Timer.builder("booking.admission.wait")
+            .description("Time spent waiting for a concurrency permit in the fair queue")
+            .tags("name", name, "tier", tierName)
+            .register(meterRegistry)
+            .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (inFlight < 0) {
+            registry.rejections(name).increment();
+            meterRegistry.counter("booking.admission.rejected", "name", name, "tier", tierName).increment();
+            throw new ConcurrencyLimitExceededException(name, limiter.getLimit());
+        }
+        meterRegistry.counter("booking.admission.admitted", "name", name, "tier", tierName).increment();
+        return inFlight;
+    }
+
+    /**
+     * Klic se po vrnitvi permita v omejevalnik, da se prosto mesto preda čakajočim.
+     */
+    public void release(String name) {
+        queue(name).dispatch(registry.limiter(name));
+    }
+
+    String tierOf(UUID organizationId) {
+        if (organizationId == null) {
+            return properties.getDefaultTier();
+        }
+        return organizationTiers.getOrDefault(organizationId, properties.getDefaultTier());
+    }
+
+    private AdmissionProperties.Tier tier(String tierName) {
+        return properties.getTiers().getOrDefault(tierName, new AdmissionProperties.Tier());
+    }
+
+    private StripedTokenBuckets buckets(String tierName, AdmissionProperties.Tier tier) {
+        return buckets.computeIfAbsent(tierName,
+            key -> new StripedTokenBuckets(stripeMask + 1, tier.getRatePerSecond(), tier.getBurst()));
+    }
+
+    private FairAdmissionQueue queue(String name) {
+        return queues.computeIfAbsent(name, key -> new FairAdmissionQueue(stripeMask + 1, properties.getMaxQueueSize()));
+    }
+
+    private int stripe(UUID organizationId) {
+        if (organizationId == null) {
+            return 0;
+        }
+        long h = organizationId.getMostSignificantBits() ^ organizationId.getLeastSignificantBits();
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & stripeMask;
+    }
+}
@@ -0,0 +1,35 @@
+package com.planify.booking_service.resilience;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Organizacija trenutnega zahtevka za pravično vrstenje.
+ * Nastavi jo OrganizationAdmission.callAs na vstopnih točkah (gRPC, REST), ki hkrati porabi
+ * žeton organizacije; brez nje zahtevek ni omejen po organizaciji.
+ */
+public final class OrganizationContext {
+
+    private static final ThreadLocal<UUID> CURRENT = new ThreadLocal<>();
+
+    private OrganizationContext() {
+    }
+
+    static <T> T callAs(UUID organizationId, Supplier<T> call) {
+        UUID previous = CURRENT.get();
+        CURRENT.set(organizationId);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    static UUID currentOrganization() {
+        return CURRENT.get();
+    }
+}
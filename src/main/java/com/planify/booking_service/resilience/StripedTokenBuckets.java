@@ -0,0 +1,40 @@
+package com.planify.booking_service.resilience;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token bucket po organizacijah brez zaklepanja (GCRA): za vsak trak hrani
+ * teoretični čas prihoda naslednjega zahtevka in ga posodobi z enim CAS.
+ * Organizacije se preslikajo na fiksno število trakov, zato poraba pomnilnika ni
+ * odvisna od števila organizacij.
+ */
+class StripedTokenBuckets {
+
+    private final AtomicLongArray theoreticalArrival;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final long baseNanos = System.nanoTime();
+
+    StripedTokenBuckets(int stripes, double ratePerSecond, int burst) {
+        this.theoreticalArrival = new AtomicLongArray(stripes);
+        this.emissionIntervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(1, burst);
+    }
+
+    boolean tryAcquire(int stripe) {
+        return tryAcquire(stripe, System.nanoTime() - baseNanos);
+    }
+
+    boolean tryAcquire(int stripe, long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get(stripe);
+            long next = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            if (next - nowNanos > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(stripe, tat, next)) {
+                return true;
+            }
+        }
+    }
+}
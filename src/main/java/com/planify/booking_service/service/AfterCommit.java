@@ -0,0 +1,27 @@
+package com.planify.booking_service.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Odloži akcijo na uspešen commit trenutne transakcije; brez transakcije se izvede takoj.
+ * V akciji je transakcija že potrjena - dostop do baze mora zato teči v novi (REQUIRES_NEW).
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
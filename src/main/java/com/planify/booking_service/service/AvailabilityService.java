@@ -1,17 +1,31 @@
 package com.planify.booking_service.service;
 
+import com.planify.booking_service.domain.Booking;
 import com.planify.booking_service.domain.BookingStatus;
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.datasource.HedgedReads;
+import com.planify.booking_service.datasource.ReadFromReplica;
+import com.planify.booking_service.domain.SlotHold;
+import com.planify.booking_service.messaging.BookingChangeNotifier;
+import com.planify.booking_service.repository.BookingOccupancy;
 import com.planify.booking_service.repository.BookingRepository;
+import com.planify.booking_service.repository.LocationRepository;
+import com.planify.booking_service.repository.SlotHoldRepository;
+import com.planify.booking_service.resilience.AdaptiveLimit;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
@@ -20,12 +34,35 @@ import java.util.UUID;
 public class AvailabilityService {
 
     private final BookingRepository bookingRepository;
+    private final LocationRepository locationRepository;
+    private final SlotOccupancyIndex slotOccupancyIndex;
+    private final BookingChangeNotifier bookingChangeNotifier;
+    private final ResourceVersions resourceVersions;
+    private final LocationCalendarFeed locationCalendarFeed;
+    private final SlotHoldRepository slotHoldRepository;
+    private final HedgedReads hedgedReads;
 
+    @ReadFromReplica
     @Retry(name = "availabilityService")
     @CircuitBreaker(name = "availabilityService", fallbackMethod = "findConflictsFallback")
     public List<UUID> findConflicts(UUID locationId, LocalDateTime start, LocalDateTime end) {
+        return exclusiveConflicts(locationId, start, end, SlotHoldRepository.NO_HOLD);
+    }
+
+    /**
+     * Konflikti so aktivne rezervacije in veljavne zadržitve okna (razen zadržitve, ki se pretvarja).
+     */
+    private List<UUID> exclusiveConflicts(UUID locationId, LocalDateTime start, LocalDateTime end, UUID ignoredHoldId) {
         var statuses = EnumSet.of(BookingStatus.PENDING_PAYMENT, BookingStatus.CONFIRMED);
-        return bookingRepository.findConflictingBookings(locationId, start, end, statuses);
+        List<UUID> conflicts = bookingRepository.findConflictingBookings(locationId, start, end, statuses);
+        List<UUID> holds = slotHoldRepository.findConflictingHolds(locationId, start, end,
+            LocalDateTime.now(ZoneOffset.UTC), ignoredHoldId);
+        if (holds.isEmpty()) {
+            return conflicts;
+        }
+        List<UUID> all = new ArrayList<>(conflicts);
+        all.addAll(holds);
+        return all;
     }
 
     private List<UUID> findConflictsFallback(UUID locationId, LocalDateTime start, LocalDateTime end, Exception ex) {
@@ -36,6 +73,127 @@ public class AvailabilityService {
         throw new RuntimeException("Booking system temporarily unavailable. Please try again later.", ex);
     }
 
+    /**
+     * Preverjanje dostopnosti z upoštevanjem števila oseb.
+     * Za lokacije z deljeno kapaciteto je okno prosto, dokler največja sočasna
+     * zasedenost v oknu skupaj z novo rezervacijo ne preseže capacity; headcount nad capacity
+     * ni nikoli prost in kot konflikt vrne ID lokacije.
+     * Za ostale lokacije je vsako prekrivanje konflikt.
+     */
+    @ReadFromReplica
+    @Retry(name = "availabilityService")
+    @CircuitBreaker(name = "availabilityService", fallbackMethod = "findCapacityConflictsFallback")
+    public List<UUID> findConflicts(UUID locationId, LocalDateTime start, LocalDateTime end, int headcount) {
+        return findConflicts(locationId, start, end, headcount, null);
+    }
+
+    /**
+     * Kot findConflicts s številom oseb, le da se zadržitev ignoredHoldId ne šteje -
+     * uporablja se ob pretvorbi zadržitve v rezervacijo.
+     */
+    @ReadFromReplica
+    @Retry(name = "availabilityService")
+    @CircuitBreaker(name = "availabilityService", fallbackMethod = "findHoldConflictsFallback")
+    public List<UUID> findConflicts(UUID locationId, LocalDateTime start, LocalDateTime end, int headcount,
+                                    UUID ignoredHoldId) {
+        UUID ignored = ignoredHoldId == null ? SlotHoldRepository.NO_HOLD : ignoredHoldId;
+        Location location = locationRepository.findById(locationId).orElse(null);
+        if (location == null || !Boolean.TRUE.equals(location.getSharedCapacity())) {
+            return exclusiveConflicts(locationId, start, end, ignored);
+        }
+        if (headcount > location.getCapacity()) {
+            // Ne prilega se v nobeno okno, tudi prazno; konflikt je lokacija sama
+            return List.of(locationId);
+        }
+        var statuses = EnumSet.of(BookingStatus.PENDING_PAYMENT, BookingStatus.CONFIRMED);
+        List<BookingOccupancy> overlapping = new ArrayList<>(
+            bookingRepository.findOverlappingOccupancy(locationId, start, end, statuses));
+        overlapping.addAll(slotHoldRepository.findOverlappingOccupancy(locationId, start, end,
+            LocalDateTime.now(ZoneOffset.UTC), ignored));
+        int peak = CapacitySweep.peakOccupancy(overlapping, start, end);
+        if ((long) peak + headcount <= location.getCapacity()) {
+            return Collections.emptyList();
+        }
+        return overlapping.stream().map(BookingOccupancy::id).toList();
+    }
+
+    private List<UUID> findCapacityConflictsFallback(UUID locationId, LocalDateTime start, LocalDateTime end,
+                                                     int headcount, Exception ex) {
+        return findConflictsFallback(locationId, start, end, ex);
+    }
+
+    private List<UUID> findHoldConflictsFallback(UUID locationId, LocalDateTime start, LocalDateTime end,
+                                                 int headcount, UUID ignoredHoldId, Exception ex) {
+        return findConflictsFallback(locationId, start, end, ex);
+    }
+
+    /**
+     * Preverjanje dostopnosti za bralne poti (REST, gRPC CheckAvailability).
+     * Za lokacije z bitnim indeksom zasedenosti je prosto okno potrjeno brez poizvedbe;
+     * odločitev ob ustvarjanju rezervacije vedno gre skozi findConflicts.
+     * Poizvedbe gredo lahko na repliko; v transakciji zapisa (createBooking, zadržitve)
+     * ReplicaRoutingAspect vedno izbere primarno bazo.
+     * Počasno poizvedbo HedgedReads (če je vključen) ponovi na primarni bazi, preden ukrepa Retry.
+     * Omejitev sočasnosti je samo na vstopnih točkah; findConflicts kličejo createBooking in
+     * zadržitve, ki so sprejeti pod svojo omejitvijo in že držijo transakcijo.
+     */
+    @ReadFromReplica
+    @AdaptiveLimit(name = "availabilityService")
+    @Retry(name = "availabilityService")
+    @CircuitBreaker(name = "availabilityService", fallbackMethod = "findCapacityConflictsFallback")
+    public List<UUID> checkConflicts(UUID locationId, LocalDateTime start, LocalDateTime end, int headcount) {
+        if (slotOccupancyIndex.isFree(locationId, start, end)) {
+            return Collections.emptyList();
+        }
+        return hedgedReads.call("checkAvailability", () -> findConflicts(locationId, start, end, headcount));
+    }
+
+    public Optional<List<SlotOccupancyIndex.SlotRange>> findFreeSlots(UUID locationId, LocalDate day) {
+        return slotOccupancyIndex.findFreeSlots(locationId, day);
+    }
+
+    /**
+     * Klic znotraj transakcije zapisa: obvesti ostale replike (dostavljeno ob commitu)
+     * in po commitu posodobi lokalni indeks.
+     */
+    public void onBookingCreated(Booking booking) {
+        bookingChangeNotifier.notifyChange(booking);
+        AfterCommit.run(() -> {
+            slotOccupancyIndex.markOccupied(booking.getLocation().getId(), booking.getStartTime(), booking.getEndTime());
+            resourceVersions.bookingsChanged(booking.getLocation().getId());
+            locationCalendarFeed.bookingsChanged(booking.getLocation().getId(), booking.getStartTime(), booking.getEndTime());
+        });
+    }
+
+    public void onBookingCancelled(Booking booking) {
+        bookingChangeNotifier.notifyChange(booking);
+        AfterCommit.run(() -> {
+            slotOccupancyIndex.refresh(booking.getLocation().getId(), booking.getStartTime(), booking.getEndTime());
+            resourceVersions.bookingsChanged(booking.getLocation().getId());
+            locationCalendarFeed.bookingsChanged(booking.getLocation().getId(), booking.getStartTime(), booking.getEndTime());
+        });
+    }
+
+    /**
+     * Zadržitev okna zasede indeks enako kot rezervacija; koledarja ne spremeni.
+     */
+    public void onHoldCreated(SlotHold hold) {
+        bookingChangeNotifier.notifyChange(hold.getLocationId(), hold.getStartTime(), hold.getEndTime());
+        AfterCommit.run(() -> {
+            slotOccupancyIndex.markOccupied(hold.getLocationId(), hold.getStartTime(), hold.getEndTime());
+            resourceVersions.bookingsChanged(hold.getLocationId());
+        });
+    }
+
+    public void onHoldReleased(SlotHold hold) {
+        bookingChangeNotifier.notifyChange(hold.getLocationId(), hold.getStartTime(), hold.getEndTime());
+        AfterCommit.run(() -> {
+            slotOccupancyIndex.refresh(hold.getLocationId(), hold.getStartTime(), hold.getEndTime());
+            resourceVersions.bookingsChanged(hold.getLocationId());
+        });
+    }
+
+    @ReadFromReplica
     @Retry(name = "availabilityService")
     @CircuitBreaker(name = "availabilityService", fallbackMethod = "isAvailableFallback")
     public boolean isAvailable(UUID locationId, LocalDateTime start, LocalDateTime end) {
@@ -0,0 +1,334 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.domain.BookingStatus;
+import com.planify.booking_service.repository.BookingSnapshotRow;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Stolpčna predstavitev rezervacij v pomnilniku za skeniranje razpoložljivosti in poročila.
+ *
+ * Za vsako lokacijo hrani vzporedna polja: začetek in konec v epoch sekundah (UTC), obe
+ * polovici ID-ja rezervacije in status kot byte - 33 B na rezervacijo namesto entitete Booking
+ * z LocalDateTime, Integer, String in Location. Polja so urejena po začetku, zato poizvedba
+ * za okno z bisekcijo poišče prvega kandidata in skenira samo rezervacije, ki se začnejo
+ * najdlje maxDuration pred oknom.
+ *
+ * Čas se zaokroži na sekunde navzven (začetek navzdol, konec navzgor), kar je konzervativno
+ * za preverjanje prekrivanja. Dodajanje v vrstnem redu začetka (npr. ORDER BY start_time)
+ * ne premika elementov; vstavljanje vmes premakne rep polj.
+ */
+public class BookingColumnStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+    private final Map<UUID, LocationColumns> locations = new ConcurrentHashMap<>();
+
+    /**
+     * Sprejme primitivne vrednosti rezervacije, ki se prekriva z oknom.
+     */
+    @FunctionalInterface
+    public interface BookingVisitor {
+        void visit(long idHigh, long idLow, long startEpochSecond, long endEpochSecond, BookingStatus status);
+    }
+
+    public void add(UUID locationId, UUID bookingId, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Booking start must be before end");
+        }
+        locations.computeIfAbsent(locationId, id -> new LocationColumns())
+            .insert(floorSeconds(start), ceilSeconds(end), bookingId.getMostSignificantBits(),
+                bookingId.getLeastSignificantBits(), (byte) status.ordinal());
+    }
+
+    public void add(BookingSnapshotRow row) {
+        add(row.locationId(), row.id(), row.startTime(), row.endTime(), row.status());
+    }
+
+    /**
+     * Vrne false, če rezervacije ni v shrambi.
+     */
+    public boolean updateStatus(UUID locationId, UUID bookingId, BookingStatus status) {
+        LocationColumns columns = locations.get(locationId);
+        return columns != null
+            && columns.updateStatus(bookingId.getMostSignificantBits(), bookingId.getLeastSignificantBits(), (byte) status.ordinal());
+    }
+
+    public boolean remove(UUID locationId, UUID bookingId) {
+        LocationColumns columns = locations.get(locationId);
+        return columns != null && columns.remove(bookingId.getMostSignificantBits(), bookingId.getLeastSignificantBits());
+    }
+
+    public boolean anyOverlapping(UUID locationId, LocalDateTime from, LocalDateTime to, Set<BookingStatus> statuses) {
+        LocationColumns columns = locations.get(locationId);
+        return columns != null && columns.anyOverlapping(floorSeconds(from), ceilSeconds(to), mask(statuses));
+    }
+
+    public int countOverlapping(UUID locationId, LocalDateTime from, LocalDateTime to, Set<BookingStatus> statuses) {
+        LocationColumns columns = locations.get(locationId);
+        return columns == null ? 0 : columns.countOverlapping(floorSeconds(from), ceilSeconds(to), mask(statuses));
+    }
+
+    /**
+     * Vsota zasedenih sekund rezervacij, obrezanih na okno (prekrivanja se seštejejo).
+     */
+    public long bookedSeconds(UUID locationId, LocalDateTime from, LocalDateTime to, Set<BookingStatus> statuses) {
+        LocationColumns columns = locations.get(locationId);
+        return columns == null ? 0 : columns.bookedSeconds(floorSeconds(from), ceilSeconds(to), mask(statuses));
+    }
+
+    public void forEachOverlapping(UUID locationId, LocalDateTime from, LocalDateTime to, Set<BookingStatus> statuses,
+                                   BookingVisitor visitor) {
+        LocationColumns columns = locations.get(locationId);
+        if (columns != null) {
+            columns.forEachOverlapping(floorSeconds(from), ceilSeconds(to), mask(statuses), visitor);
+        }
+    }
+
+    public Set<UUID> locationIds() {
+        return locations.keySet();
+    }
+
+    public int size(UUID locationId) {
+        LocationColumns columns = locations.get(locationId);
+        return columns == null ? 0 : columns.size();
+    }
+
+    public long size() {
+        long total = 0;
+        for (LocationColumns columns : locations.values()) {
+            total += columns.size();
+        }
+        return total;
+    }
+
+    /**
+     * Skrči polja na dejansko število rezervacij (npr. po začetnem nalaganju).
+     */
+    public void trimToSize() {
+        locations.values().forEach(LocationColumns::trimToSize);
+    }
+
+    private static long floorSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long ceilSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) + (time.getNano() > 0 ? 1 : 0);
+    }
+
+    private static int mask(Set<BookingStatus> statuses) {
+        int mask = 0;
+        for (BookingStatus status : statuses) {
+            mask |= 1 << status.ordinal();
+        }
+        return mask;
+    }
+
+    private static final class LocationColumns {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private long[] starts = new long[INITIAL_CAPACITY];
+        private long[] ends = new long[INITIAL_CAPACITY];
+        private long[] idHigh = new long[INITIAL_CAPACITY];
+        private long[] idLow = new long[INITIAL_CAPACITY];
+        private byte[] statuses = new byte[INITIAL_CAPACITY];
+        private int size;
+        // Najdaljša rezervacija doslej; ob brisanju se ne zmanjša, kar le razširi skenirano območje
+        private long maxDuration;
+
+        void insert(long start, long end, long high, long low, byte status) {
+            lock.writeLock().lock();
+            try {
+                if (size == starts.length) {
+                    resize(size + (size >> 1));
+                }
+                // Za vse z enakim začetkom, da ostane vrstni red dodajanja
+                int index = firstStartAfter(start);
+                if (index < size) {
+                    int tail = size - index;
+                    System.arraycopy(starts, index, starts, index + 1, tail);
+                    System.arraycopy(ends, index, ends, index + 1, tail);
+                    System.arraycopy(idHigh, index, idHigh, index + 1, tail);
+                    System.arraycopy(idLow, index, idLow, index + 1, tail);
+                    System.arraycopy(statuses, index, statuses, index + 1, tail);
+                }
+                starts[index] = start;
+                ends[index] = end;
+                idHigh[index] = high;
+                idLow[index] = low;
+                statuses[index] = status;
+                size++;
+                maxDuration = Math.max(maxDuration, end - start);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        boolean updateStatus(long high, long low, byte status) {
+            lock.writeLock().lock();
+            try {
+                int index = indexOf(high, low);
+                if (index < 0) {
+                    return false;
+                }
+                statuses[index] = status;
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        boolean remove(long high, long low) {
+            lock.writeLock().lock();
+            try {
+                int index = indexOf(high, low);
+                if (index < 0) {
+                    return false;
+                }
+                int tail = size - index - 1;
+                System.arraycopy(starts, index + 1, starts, index, tail);
+                System.arraycopy(ends, index + 1, ends, index, tail);
+                System.arraycopy(idHigh, index + 1, idHigh, index, tail);
+                System.arraycopy(idLow, index + 1, idLow, index, tail);
+                System.arraycopy(statuses, index + 1, statuses, index, tail);
+                size--;
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        boolean anyOverlapping(long from, long to, int mask) {
+            lock.readLock().lock();
+            try {
+                for (int i = firstCandidate(from), last = firstStartAtOrAfter(to); i < last; i++) {
+                    if (ends[i] > from && (mask >>> statuses[i] & 1) != 0) {
+                        return true;
+                    }
+                }
+                return false;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int countOverlapping(long from, long to, int mask) {
+            lock.readLock().lock();
+            try {
+                int count = 0;
+                for (int i = firstCandidate(from), last = firstStartAtOrAfter(to); i < last; i++) {
+                    if (ends[i] > from && (mask >>> statuses[i] & 1) != 0) {
+                        count++;
+                    }
+                }
+                return count;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        long bookedSeconds(long from, long to, int mask) {
+            lock.readLock().lock();
+            try {
+                long total = 0;
+                for (int i = firstCandidate(from), last = firstStartAtOrAfter(to); i < last; i++) {
+                    if (ends[i] > from && (mask >>> statuses[i] & 1) != 0) {
+                        total += Math.min(ends[i], to) - Math.max(starts[i], from);
+                    }
+                }
+                return total;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void forEachOverlapping(long from, long to, int mask, BookingVisitor visitor) {
+            lock.readLock().lock();
+            try {
+                for (int i = firstCandidate(from), last = firstStartAtOrAfter(to); i < last; i++) {
+                    if (ends[i] > from && (mask >>> statuses[i] & 1) != 0) {
+                        visitor.visit(idHigh[i], idLow[i], starts[i], ends[i], STATUSES[statuses[i]]);
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return size;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void trimToSize() {
+            lock.writeLock().lock();
+            try {
+                resize(Math.max(size, 1));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void resize(int capacity) {
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            idHigh = Arrays.copyOf(idHigh, capacity);
+            idLow = Arrays.copyOf(idLow, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+        }
+
+        // Rezervacija, ki se začne pred from - maxDuration, se konča najkasneje ob from
+        private int firstCandidate(long from) {
+            return firstStartAfter(from - maxDuration);
+        }
+
+        private int firstStartAfter(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int firstStartAtOrAfter(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int indexOf(long high, long low) {
+            for (int i = 0; i < size; i++) {
+                if (idLow[i] == low && idHigh[i] == high) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
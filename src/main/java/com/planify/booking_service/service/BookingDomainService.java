@@ -1,21 +1,27 @@
 package com.planify.booking_service.service;
 
 import com.planify.booking_service.domain.*;
+import com.planify.booking_service.logging.RequestLogSampler;
 import com.planify.booking_service.messaging.BookingEventProducer;
+import com.planify.booking_service.pricing.PricingEngine;
 import com.planify.booking_service.repository.BookingRepository;
 import com.planify.booking_service.repository.LocationRepository;
+import com.planify.booking_service.resilience.AdaptiveLimit;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
-import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import lombok.Builder;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 
 @Service
@@ -27,6 +33,14 @@ public class BookingDomainService {
     private final BookingRepository bookingRepository;
     private final AvailabilityService availabilityService;
     private final BookingEventProducer eventProducer;
+    private final RequestLogSampler requestLogs;
+    private final LocationStatsService locationStats;
+    private final PricingEngine pricingEngine;
+    private final WaitlistService waitlistService;
+    private final SlotHoldService slotHoldService;
+    private final PlatformTransactionManager transactionManager;
+
+    private static final Set<BookingStatus> ACTIVE_STATUSES = EnumSet.of(BookingStatus.PENDING_PAYMENT, BookingStatus.CONFIRMED);
 
     @Value
     @Builder
@@ -37,6 +51,12 @@ public class BookingDomainService {
         LocalDateTime start;
         LocalDateTime end;
         String currency;
+        @Builder.Default
+        int headcount = 1;
+        // Ob konfliktu se prijavi na čakalno vrsto za isto okno
+        boolean joinWaitlist;
+        // Zadržitev okna, ki se pretvori v rezervacijo
+        UUID holdId;
     }
 
     @Value
@@ -47,13 +67,21 @@ public class BookingDomainService {
         boolean available;
         List<UUID> conflicts;
         int totalAmountCents;
+        UUID waitlistEntryId;
     }
 
     @Transactional(readOnly = true)
     @Retry(name = "availabilityService")
+    @AdaptiveLimit(name = "availabilityService")
     @CircuitBreaker(name = "availabilityService", fallbackMethod = "isAvailableFallback")
     public boolean isAvailable(UUID locationId, LocalDateTime start, LocalDateTime end) {
-        log.info("Checking availability for location {} between {} and {}", locationId, start, end);
+        if (requestLogs.sample(log, "isAvailable")) {
+            log.atInfo()
+                .addKeyValue("locationId", locationId)
+                .addKeyValue("start", start)
+                .addKeyValue("end", end)
+                .log("Checking availability");
+        }
         return availabilityService.isAvailable(locationId, start, end);
     }
 
@@ -64,64 +92,115 @@ public class BookingDomainService {
 
     @Transactional
     @Retry(name = "bookingCreation")
-    @Bulkhead(name = "bookingCreation")
+    @AdaptiveLimit(name = "bookingCreation")
     @CircuitBreaker(name = "bookingCreation", fallbackMethod = "createBookingFallback")
     public CreateBookingResult createBooking(CreateBookingCommand cmd) {
-        log.info("Creating booking for location {} between {} and {}", cmd.getLocationId(), cmd.getStart(), cmd.getEnd());
-        var conflicts = availabilityService.findConflicts(cmd.getLocationId(), cmd.getStart(), cmd.getEnd());
+        SlotHold hold = cmd.getHoldId() == null ? null : slotHoldService.claim(cmd.getHoldId(), cmd.getLocationId(),
+            cmd.getOrganizationId(), cmd.getStart(), cmd.getEnd(), cmd.getHeadcount()).orElse(null);
+        // Zaklep lokacije pred iskanjem konfliktov: hkratna rezervacija ali zadržitev počaka na commit
+        Location location = locationRepository.findByIdForUpdate(cmd.getLocationId())
+            .orElseThrow(() -> {
+                log.error("Location {} not found", cmd.getLocationId());
+                return new NoSuchElementException("Lokacija ne obstaja");
+            });
+
+        // Pred iskanjem konfliktov, da se zahtevek, ki ne more nikoli uspeti, ne prijavi na čakalno vrsto
+        if (Boolean.TRUE.equals(location.getSharedCapacity()) && cmd.getHeadcount() > location.getCapacity()) {
+            if (requestLogs.sample(log, "createBooking")) {
+                log.atInfo()
+                    .addKeyValue("locationId", location.getId())
+                    .addKeyValue("headcount", cmd.getHeadcount())
+                    .addKeyValue("capacity", location.getCapacity())
+                    .log("Headcount exceeds location capacity");
+            }
+            return CreateBookingResult.builder()
+                .bookingId(null)
+                .status(BookingStatus.FAILED)
+                .available(false)
+                .conflicts(List.of())
+                .totalAmountCents(0)
+                .build();
+        }
+
+        var conflicts = hold == null
+            ? availabilityService.findConflicts(cmd.getLocationId(), cmd.getStart(), cmd.getEnd(), cmd.getHeadcount())
+            : availabilityService.findConflicts(cmd.getLocationId(), cmd.getStart(), cmd.getEnd(), cmd.getHeadcount(), hold.getId());
         if (!conflicts.isEmpty()) {
-            log.info("Booking conflicts with existing bookings: {}", conflicts);
+            if (requestLogs.sample(log, "createBooking")) {
+                log.atInfo()
+                    .addKeyValue("locationId", cmd.getLocationId())
+                    .addKeyValue("start", cmd.getStart())
+                    .addKeyValue("end", cmd.getEnd())
+                    .addKeyValue("conflicts", conflicts.size())
+                    .log("Booking conflicts with existing bookings");
+            }
+            UUID waitlistEntryId = null;
+            if (cmd.isJoinWaitlist()) {
+                waitlistEntryId = waitlistService.join(cmd.getLocationId(), cmd.getEventId(), cmd.getOrganizationId(),
+                        cmd.getStart(), cmd.getEnd(), cmd.getHeadcount(), cmd.getCurrency())
+                    .map(WaitlistEntry::getId)
+                    .orElse(null);
+            }
             return CreateBookingResult.builder()
                 .bookingId(null)
                 .status(BookingStatus.FAILED)
                 .available(false)
                 .conflicts(conflicts)
                 .totalAmountCents(0)
+                .waitlistEntryId(waitlistEntryId)
                 .build();
         }
 
-        Location location = locationRepository.findById(cmd.getLocationId())
-            .orElseThrow(() -> {
-                log.error("Location {} not found", cmd.getLocationId());
-                return new NoSuchElementException("Lokacija ne obstaja");
-            });
+        Booking booking = book(location, cmd.getEventId(), cmd.getOrganizationId(), cmd.getStart(), cmd.getEnd(),
+            cmd.getHeadcount(), cmd.getCurrency());
+        if (hold != null) {
+            slotHoldService.converted(hold);
+        }
+
+        return CreateBookingResult.builder()
+            .bookingId(booking.getId())
+            .status(booking.getStatus())
+            .available(true)
+            .conflicts(List.of())
+            .totalAmountCents(booking.getTotalAmountCents())
+            .build();
+    }
 
-        int hours = (int) Math.max(1, Math.ceil((double) Duration.between(cmd.getStart(), cmd.getEnd()).toMinutes() / 60.0));
-        int price = location.getPricePerHourCents() * hours;
+    private Booking book(Location location, UUID eventId, UUID organizationId, LocalDateTime start, LocalDateTime end,
+                         int headcount, String currency) {
+        int price = pricingEngine.quote(location, start, end).totalAmountCents();
 
         var now = LocalDateTime.now();
         Booking booking = Booking.builder()
             .location(location)
-            .eventId(cmd.getEventId())
-            .organizationId(cmd.getOrganizationId())
-            .startTime(cmd.getStart())
-            .endTime(cmd.getEnd())
+            .eventId(eventId)
+            .organizationId(organizationId)
+            .startTime(start)
+            .endTime(end)
+            .headcount(headcount)
             .status(BookingStatus.PENDING_PAYMENT)
             .totalAmountCents(price)
-            .currency(cmd.getCurrency())
+            .currency(currency)
             .createdAt(now)
             .updatedAt(now)
             .build();
         booking = bookingRepository.save(booking);
+        availabilityService.onBookingCreated(booking);
+        locationStats.bookingCreated(booking);
 
-        // Kafka dogodki
-        eventProducer.publishBookingCreated(Map.of(
+        // Kafka dogodki - šele po commitu, ko vrstica obstaja (INSERT se ob paketnem pisanju izvede ob flushu)
+        Map<String, Object> payload = Map.of(
             "bookingId", booking.getId(),
             "status", booking.getStatus().name(),
-            "locationId", booking.getLocation(),
+            "locationId", booking.getLocation().getId(),
             "start", booking.getStartTime().toString(),
             "end", booking.getEndTime().toString(),
+            "headcount", booking.getHeadcount(),
             "totalAmountCents", booking.getTotalAmountCents(),
             "currency", booking.getCurrency()
-        ));
-
-        return CreateBookingResult.builder()
-            .bookingId(booking.getId())
-            .status(booking.getStatus())
-            .available(true)
-            .conflicts(List.of())
-            .totalAmountCents(price)
-            .build();
+        );
+        AfterCommit.run(() -> eventProducer.publishBookingCreated(payload));
+        return booking;
     }
 
     private CreateBookingResult createBookingFallback(CreateBookingCommand cmd, Exception ex) {
@@ -144,16 +223,126 @@ public class BookingDomainService {
                 log.error("Booking {} not found", bookingId);
                 return new NoSuchElementException("Rezervacija ne obstaja");
             });
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(BookingStatus.CANCELLED);
         booking.setUpdatedAt(LocalDateTime.now());
         bookingRepository.save(booking);
-        eventProducer.publishBookingEvent(Map.of(
+        availabilityService.onBookingCancelled(booking);
+        locationStats.bookingCancelled(booking, previousStatus);
+        Map<String, Object> payload = Map.of(
             "bookingId", booking.getId(),
+            "locationId", booking.getLocation().getId(),
             "status", booking.getStatus().name(),
             "type", "booking_cancelled"
-        ));
+        );
+        AfterCommit.run(() -> eventProducer.publishBookingEvent(payload));
+        if (ACTIVE_STATUSES.contains(previousStatus)) {
+            promoteWaitlist(booking.getLocation().getId(), booking.getStartTime(), booking.getEndTime(), booking.getId());
+        }
         return booking;
     }
+
+    /**
+     * Predčasna sprostitev zadržitve; sproščeno okno lahko prevzame čakalna vrsta.
+     */
+    @Transactional
+    public boolean releaseHold(UUID holdId, UUID organizationId) {
+        Optional<SlotHold> released = slotHoldService.release(holdId, organizationId);
+        released.ifPresent(hold -> promoteWaitlist(hold.getLocationId(), hold.getStartTime(), hold.getEndTime(), hold.getId()));
+        return released.isPresent();
+    }
+
+    /**
+     * Paketno brisanje poteklih zadržitev, vsak paket v svoji transakciji, dokler paket ni manjši
+     * od največjega - zaostanek po konici se počisti v enem teku, ne po en paket na interval.
+     * Okna, ki jih sprostijo, lahko po commitu paketa prevzame čakalna vrsta.
+     */
+    @Scheduled(fixedDelayString = "${booking.holds.sweep-interval:PT15S}")
+    public void releaseExpiredHolds() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int batch = slotHoldService.getSweepBatch();
+        int deleted;
+        do {
+            deleted = transaction.execute(status -> {
+                List<SlotHold> expired = slotHoldService.deleteExpired();
+                for (SlotHold hold : expired) {
+                    promoteWaitlist(hold.getLocationId(), hold.getStartTime(), hold.getEndTime(), hold.getId());
+                }
+                return expired.size();
+            });
+        } while (deleted > 0 && deleted >= batch);
+    }
+
+    /**
+     * Klic znotraj transakcije, ki je sprostila okno rezervacije. Po njenem commitu čakajoče s
+     * prekrivajočim se oknom v vrstnem redu prijave preveri proti trenutni zasedenosti in vsakega,
+     * ki se prilega, promovira v rezervacijo - vsakega v svoji transakciji, ki prijavo znova zaklene
+     * in jo preskoči, če ne čaka več. Napaka promocije se
+     * samo zabeleži: sprostitev je že potrjena, čakajoči pa ostane v vrsti za naslednjo sprostitev.
+     */
+    private void promoteWaitlist(UUID locationId, LocalDateTime start, LocalDateTime end, UUID releasedId) {
+        AfterCommit.run(() -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            List<WaitlistEntry> candidates;
+            try {
+                candidates = transaction.execute(status -> waitlistService.candidates(locationId, start, end));
+            } catch (RuntimeException e) {
+                log.warn("Loading waitlist candidates for released {} failed: {}", releasedId, e.getMessage());
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+            for (WaitlistEntry entry : candidates) {
+                if (!entry.getStartTime().isAfter(now)) {
+                    continue;
+                }
+                try {
+                    transaction.executeWithoutResult(status -> promote(entry, releasedId));
+                } catch (RuntimeException e) {
+                    log.atWarn()
+                        .addKeyValue("waitlistEntryId", entry.getId())
+                        .addKeyValue("releasedId", releasedId)
+                        .log("Waitlist promotion failed: {}", e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void promote(WaitlistEntry candidate, UUID releasedId) {
+        // Kandidat je bil prebran v že potrjeni transakciji; vmes je lahko izstopil, potekel ali
+        // ga je promovirala druga replika
+        Optional<WaitlistEntry> locked = waitlistService.lockWaiting(candidate.getId());
+        if (locked.isEmpty()) {
+            return;
+        }
+        WaitlistEntry entry = locked.get();
+        Location location = locationRepository.findByIdForUpdate(entry.getLocationId()).orElseThrow();
+        var conflicts = availabilityService.findConflicts(entry.getLocationId(), entry.getStartTime(),
+            entry.getEndTime(), entry.getHeadcount());
+        if (!conflicts.isEmpty()) {
+            return;
+        }
+        Booking booking = book(location, entry.getEventId(), entry.getOrganizationId(),
+            entry.getStartTime(), entry.getEndTime(), entry.getHeadcount(), entry.getCurrency());
+        waitlistService.promoted(entry, booking);
+        Map<String, Object> payload = Map.of(
+            "bookingId", booking.getId(),
+            "waitlistEntryId", entry.getId(),
+            "organizationId", entry.getOrganizationId(),
+            "locationId", entry.getLocationId(),
+            "start", entry.getStartTime().toString(),
+            "end", entry.getEndTime().toString(),
+            "status", booking.getStatus().name(),
+            "totalAmountCents", booking.getTotalAmountCents(),
+            "type", "waitlist_promoted"
+        );
+        AfterCommit.run(() -> eventProducer.publishBookingEvent(payload));
+        log.atInfo()
+            .addKeyValue("waitlistEntryId", entry.getId())
+            .addKeyValue("bookingId", booking.getId())
+            .addKeyValue("releasedId", releasedId)
+            .log("Waitlist entry promoted to booking");
+    }
     
     private Booking cancelBookingFallback(UUID bookingId, Exception ex) {
         log.error("Failed to cancel booking {}. Error: {}", bookingId, ex.getMessage());
@@ -0,0 +1,188 @@
+package com.planify.booking_service.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.planify.booking_service.repository.BookingExportRow;
+import com.planify.booking_service.repository.BookingRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Pretočni izvoz rezervacij v CSV ali NDJSON.
+ *
+ * Vrstice prihajajo iz kurzorja (fetch size 1000, samo branje) kot projekcije in se
+ * takoj zapišejo v izhodni tok, zato je poraba pomnilnika neodvisna od števila vrstic.
+ * Kurzor v PostgreSQL deluje samo znotraj transakcije (autocommit off).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingExportService {
+
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+    private static final String[] CSV_HEADER = {
+        "id", "location_id", "event_id", "organization_id", "start_time", "end_time", "status",
+        "headcount", "total_amount_cents", "currency", "payment_intent_id", "created_at"
+    };
+
+    private final BookingRepository bookingRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Zapiše vse rezervacije z začetkom v [from, to) in vrne število zapisanih vrstic.
+     * Izhodnega toka ne zapre.
+     */
+    @Transactional(readOnly = true)
+    public long export(LocalDateTime from, LocalDateTime to, Format format, OutputStream out) throws IOException {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Export range must end after it starts");
+        }
+        long started = System.nanoTime();
+        long rows;
+        try (Stream<BookingExportRow> stream = bookingRepository.streamForExport(from, to)) {
+            Iterator<BookingExportRow> iterator = stream.iterator();
+            rows = switch (format) {
+                case CSV -> writeCsv(iterator, out);
+                case NDJSON -> writeNdjson(iterator, out);
+            };
+        }
+        long elapsed = System.nanoTime() - started;
+        String formatTag = format.extension();
+        meterRegistry.counter("booking.export.rows", "format", formatTag).increment(rows);
+        Timer.builder("booking.export.duration")
+            .description("Time to stream a booking export to the client")
+            .tag("format", formatTag)
+            .register(meterRegistry)
+            .record(Duration.ofNanos(elapsed));
+        log.info("Exported {} bookings from {} to {} as {} in {} ms",
+            rows, from, to, formatTag, Duration.ofNanos(elapsed).toMillis());
+        return rows;
+    }
+
+    private long writeCsv(Iterator<BookingExportRow> rows, OutputStream out) throws IOException {
+        // Writerja ne zapremo, ker bi zaprl tudi odgovor - samo izpraznimo ga
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+        writer.write(String.join(",", CSV_HEADER));
+        writer.write('\n');
+        long count = 0;
+        while (rows.hasNext()) {
+            BookingExportRow row = rows.next();
+            writer.write(toString(row.id()));
+            writer.write(',');
+            writer.write(toString(row.locationId()));
+            writer.write(',');
+            writer.write(toString(row.eventId()));
+            writer.write(',');
+            writer.write(toString(row.organizationId()));
+            writer.write(',');
+            writer.write(toIsoInstant(row.startTime()));
+            writer.write(',');
+            writer.write(toIsoInstant(row.endTime()));
+            writer.write(',');
+            writer.write(row.status().name());
+            writer.write(',');
+            writer.write(toString(row.headcount()));
+            writer.write(',');
+            writer.write(toString(row.totalAmountCents()));
+            writer.write(',');
+            writer.write(csvField(row.currency()));
+            writer.write(',');
+            writer.write(csvField(row.paymentIntentId()));
+            writer.write(',');
+            writer.write(toIsoInstant(row.createdAt()));
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long writeNdjson(Iterator<BookingExportRow> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Privzeto ločilo med korenskimi vrednostmi je presledek; NDJSON zahteva novo vrstico za vsakim zapisom
+            generator.setRootValueSeparator(null);
+            while (rows.hasNext()) {
+                BookingExportRow row = rows.next();
+                generator.writeStartObject();
+                generator.writeStringField("id", toString(row.id()));
+                generator.writeStringField("locationId", toString(row.locationId()));
+                generator.writeStringField("eventId", row.eventId() == null ? null : row.eventId().toString());
+                generator.writeStringField("organizationId", toString(row.organizationId()));
+                generator.writeStringField("startTime", toIsoInstant(row.startTime()));
+                generator.writeStringField("endTime", toIsoInstant(row.endTime()));
+                generator.writeStringField("status", row.status().name());
+                generator.writeNumberField("headcount", row.headcount());
+                generator.writeNumberField("totalAmountCents", row.totalAmountCents());
+                generator.writeStringField("currency", row.currency());
+                generator.writeStringField("paymentIntentId", row.paymentIntentId());
+                generator.writeStringField("createdAt", toIsoInstant(row.createdAt()));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String toString(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String toIsoInstant(LocalDateTime time) {
+        return time == null ? "" : time.toInstant(ZoneOffset.UTC).toString();
+    }
+
+    // RFC 4180: polje z ločilom, narekovajem ali novo vrstico je v narekovajih, narekovaji so podvojeni
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+}
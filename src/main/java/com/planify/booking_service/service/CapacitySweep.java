@@ -0,0 +1,87 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.repository.BookingOccupancy;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sweep-line izračun največje sočasne zasedenosti lokacije v časovnem oknu.
+ * Začetki in konci rezervacij so zapakirani v primitivne long ključe
+ * (odmik od začetka okna v ms v zgornjih bitih, število oseb v spodnjih),
+ * zato sortiranje ne alocira objektov in ostane O(n log n) tudi pri
+ * tisočih prekrivajočih se rezervacij.
+ */
+final class CapacitySweep {
+
+    static final int HEADCOUNT_BITS = 20;
+    static final int MAX_HEADCOUNT = (1 << HEADCOUNT_BITS) - 1;
+    static final long MAX_WINDOW_MILLIS = (1L << (63 - HEADCOUNT_BITS)) - 1;
+
+    private CapacitySweep() {
+    }
+
+    static int peakOccupancy(List<BookingOccupancy> bookings, LocalDateTime from, LocalDateTime to) {
+        int n = bookings.size();
+        long[] starts = new long[n];
+        long[] ends = new long[n];
+        int[] headcounts = new int[n];
+        for (int i = 0; i < n; i++) {
+            BookingOccupancy b = bookings.get(i);
+            starts[i] = toEpochMillis(b.startTime());
+            ends[i] = toEpochMillis(b.endTime());
+            headcounts[i] = b.headcount();
+        }
+        return peakOccupancy(starts, ends, headcounts, n, toEpochMillis(from), toEpochMillis(to));
+    }
+
+    /**
+     * Intervali so polodprti [start, end): rezervacija, ki se konča ob t,
+     * se ne prekriva z rezervacijo, ki se začne ob t.
+     */
+    static int peakOccupancy(long[] starts, long[] ends, int[] headcounts, int n, long from, long to) {
+        if (to - from > MAX_WINDOW_MILLIS) {
+            throw new IllegalArgumentException("Time window too long for capacity check");
+        }
+        long[] opens = new long[n];
+        long[] closes = new long[n];
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            long start = Math.max(starts[i], from);
+            long end = Math.min(ends[i], to);
+            int headcount = headcounts[i];
+            if (start >= end || headcount <= 0) {
+                continue;
+            }
+            if (headcount > MAX_HEADCOUNT) {
+                throw new IllegalArgumentException("Headcount exceeds " + MAX_HEADCOUNT);
+            }
+            opens[m] = ((start - from) << HEADCOUNT_BITS) | headcount;
+            closes[m] = ((end - from) << HEADCOUNT_BITS) | headcount;
+            m++;
+        }
+        Arrays.sort(opens, 0, m);
+        Arrays.sort(closes, 0, m);
+
+        long current = 0;
+        long peak = 0;
+        int i = 0;
+        int j = 0;
+        while (i < m) {
+            // Konec ob istem času kot začetek se obdela prej (polodprti intervali)
+            if ((closes[j] >>> HEADCOUNT_BITS) <= (opens[i] >>> HEADCOUNT_BITS)) {
+                current -= closes[j++] & MAX_HEADCOUNT;
+            } else {
+                current += opens[i++] & MAX_HEADCOUNT;
+                peak = Math.max(peak, current);
+            }
+        }
+        return (int) Math.min(peak, Integer.MAX_VALUE);
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
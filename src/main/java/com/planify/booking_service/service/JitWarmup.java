@@ -0,0 +1,233 @@
+package com.planify.booking_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.planify.booking_service.controller.AvailabilityController;
+import com.planify.booking_service.domain.Booking;
+import com.planify.booking_service.domain.BookingStatus;
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.grpc.BookingServiceGrpc;
+import com.planify.booking_service.grpc.CheckAvailabilityRequest;
+import com.planify.booking_service.grpc.CheckAvailabilityResponse;
+import com.planify.booking_service.grpc.CreateBookingRequest;
+import com.planify.booking_service.grpc.CreateBookingResponse;
+import com.planify.booking_service.repository.BookingRepository;
+import com.planify.booking_service.repository.LocationRepository;
+import io.grpc.MethodDescriptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ogrevanje JIT pred prehodom readiness v ACCEPTING_TRAFFIC.
+ *
+ * Sintetični promet gre skozi iste proxyje kot pravi zahtevki (AvailabilityService,
+ * vstavljanje rezervacije prek JPA), gRPC marshallerje in Jackson. Vse teče v
+ * transakciji, ki se vedno razveljavi; createBooking se ne kliče, ker bi poslal
+ * Kafka dogodek.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JitWarmup {
+
+    // Ogrevamo v oknu daleč v preteklosti, da se ne prekriva s pravimi rezervacijami
+    private static final LocalDateTime WARMUP_DAY = LocalDateTime.of(2000, 1, 3, 0, 0);
+
+    private final AvailabilityService availabilityService;
+    private final LocationRepository locationRepository;
+    private final BookingRepository bookingRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${booking.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${booking.warmup.iterations:2000}")
+    private int iterations;
+
+    @Value("${booking.warmup.max-duration:PT30S}")
+    private Duration maxDuration;
+
+    /**
+     * Teče za OccupancySnapshotService.warmUp, da indeks že obstaja, in pred readiness.
+     */
+    @Order(10)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled || iterations <= 0) {
+            return;
+        }
+        long started = System.nanoTime();
+        long deadline = started + maxDuration.toNanos();
+        List<Location> locations = locationRepository.findAll(PageRequest.of(0, 8)).getContent();
+        long[] first = new long[Operation.values().length];
+        long[] last = new long[Operation.values().length];
+
+        int completed = 0;
+        try {
+            while (completed < iterations && System.nanoTime() < deadline) {
+                Location location = locations.isEmpty() ? null : locations.get(completed % locations.size());
+                runIteration(location, completed, completed == 0 ? first : last);
+                completed++;
+            }
+        } catch (RuntimeException e) {
+            // Ogrevanje ne sme preprečiti zagona - pod je le počasnejši pri prvih zahtevkih
+            log.warn("JIT warmup stopped after {} iterations: {}", completed, e.getMessage());
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        Timer.builder("booking.warmup.duration")
+            .description("Time spent on synthetic warmup traffic before readiness")
+            .register(meterRegistry)
+            .record(elapsed);
+        for (Operation operation : Operation.values()) {
+            record(operation, "cold", first[operation.ordinal()]);
+            record(operation, "warm", last[operation.ordinal()]);
+        }
+        log.info("JIT warmup finished: {} iterations in {} ms, checkAvailability {} us -> {} us, createBooking {} us -> {} us",
+            completed, elapsed.toMillis(),
+            first[Operation.CHECK_AVAILABILITY.ordinal()] / 1000, last[Operation.CHECK_AVAILABILITY.ordinal()] / 1000,
+            first[Operation.CREATE_BOOKING.ordinal()] / 1000, last[Operation.CREATE_BOOKING.ordinal()] / 1000);
+    }
+
+    private void runIteration(Location location, int iteration, long[] latencies) {
+        UUID locationId = location == null ? UUID.randomUUID() : location.getId();
+        LocalDateTime start = WARMUP_DAY.plusMinutes(30L * (iteration % 40));
+        LocalDateTime end = start.plusHours(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        long t0 = System.nanoTime();
+        transaction.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            CheckAvailabilityRequest request = roundTrip(BookingServiceGrpc.getCheckAvailabilityMethod(),
+                CheckAvailabilityRequest.newBuilder()
+                    .setLocationId(locationId.toString())
+                    .setStartEpochMillis(start.toInstant(ZoneOffset.UTC).toEpochMilli())
+                    .setEndEpochMillis(end.toInstant(ZoneOffset.UTC).toEpochMilli())
+                    .setHeadcount(1)
+                    .build(), true);
+            List<UUID> conflicts = availabilityService.checkConflicts(UUID.fromString(request.getLocationId()), start, end,
+                request.getHeadcount());
+            roundTrip(BookingServiceGrpc.getCheckAvailabilityMethod(), CheckAvailabilityResponse.newBuilder()
+                .setAvailable(conflicts.isEmpty())
+                .addAllConflictingBookingIds(conflicts.stream().map(UUID::toString).toList())
+                .build(), false);
+            json(new AvailabilityController.CheckAvailabilityResponseDto(conflicts.isEmpty(), conflicts));
+        });
+        long t1 = System.nanoTime();
+        latencies[Operation.CHECK_AVAILABILITY.ordinal()] = t1 - t0;
+
+        transaction.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            UUID organizationId = UUID.randomUUID();
+            CreateBookingRequest request = roundTrip(BookingServiceGrpc.getCreateBookingMethod(),
+                CreateBookingRequest.newBuilder()
+                    .setLocationId(locationId.toString())
+                    .setEventId(UUID.randomUUID().toString())
+                    .setOrganizationId(organizationId.toString())
+                    .setStartEpochMillis(start.toInstant(ZoneOffset.UTC).toEpochMilli())
+                    .setEndEpochMillis(end.toInstant(ZoneOffset.UTC).toEpochMilli())
+                    .setCurrency("EUR")
+                    .setHeadcount(1)
+                    .build(), true);
+            List<UUID> conflicts = availabilityService.findConflicts(locationId, start, end, request.getHeadcount());
+            UUID bookingId = null;
+            if (location != null) {
+                // CANCELLED, da vrstica ne sodeluje pri preverjanju konfliktov znotraj transakcije
+                Booking booking = bookingRepository.saveAndFlush(Booking.builder()
+                    .location(location)
+                    .eventId(UUID.fromString(request.getEventId()))
+                    .organizationId(organizationId)
+                    .startTime(start)
+                    .endTime(end)
+                    .status(BookingStatus.CANCELLED)
+                    .totalAmountCents(0)
+                    .currency(request.getCurrency())
+                    .createdAt(start)
+                    .updatedAt(start)
+                    .build());
+                bookingId = booking.getId();
+            }
+            json(Map.of(
+                "bookingId", String.valueOf(bookingId),
+                "status", BookingStatus.PENDING_PAYMENT.name(),
+                "locationId", locationId,
+                "start", start.toString(),
+                "end", end.toString(),
+                "headcount", request.getHeadcount(),
+                "totalAmountCents", 0,
+                "currency", request.getCurrency()
+            ));
+            roundTrip(BookingServiceGrpc.getCreateBookingMethod(), CreateBookingResponse.newBuilder()
+                .setBookingId(bookingId == null ? "" : bookingId.toString())
+                .setStatus(BookingStatus.PENDING_PAYMENT.name())
+                .setAvailable(conflicts.isEmpty())
+                .addAllConflicts(conflicts.stream().map(UUID::toString).toList())
+                .build(), false);
+        });
+        latencies[Operation.CREATE_BOOKING.ordinal()] = System.nanoTime() - t1;
+    }
+
+    // Serializacija in parsanje prek istih marshallerjev, kot jih uporablja gRPC strežnik
+    @SuppressWarnings("unchecked")
+    private static <Q, R, T> T roundTrip(MethodDescriptor<Q, R> method, T message, boolean request) {
+        MethodDescriptor.Marshaller<T> marshaller = (MethodDescriptor.Marshaller<T>) (request
+            ? method.getRequestMarshaller()
+            : method.getResponseMarshaller());
+        try (InputStream stream = marshaller.stream(message)) {
+            return marshaller.parse(stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void json(Object value) {
+        try {
+            objectMapper.readTree(objectMapper.writeValueAsBytes(value));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void record(Operation operation, String phase, long nanos) {
+        if (nanos == 0) {
+            return;
+        }
+        Timer.builder("booking.warmup.latency")
+            .description("Latency of the first (cold) and last (warm) synthetic warmup call")
+            .tags("operation", operation.tag, "phase", phase)
+            .register(meterRegistry)
+            .record(Duration.ofNanos(nanos));
+    }
+
+    private enum Operation {
+        CHECK_AVAILABILITY("checkAvailability"),
+        CREATE_BOOKING("createBooking");
+
+        private final String tag;
+
+        Operation(String tag) {
+            this.tag = tag;
+        }
+    }
+}
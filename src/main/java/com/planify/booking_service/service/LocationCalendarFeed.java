@@ -0,0 +1,304 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.domain.BookingStatus;
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.messaging.BookingChangedEvent;
+import com.planify.booking_service.messaging.BookingResyncEvent;
+import com.planify.booking_service.repository.BookingCalendarRow;
+import com.planify.booking_service.repository.BookingRepository;
+import com.planify.booking_service.repository.LocationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * iCalendar feed rezervacij po lokaciji, ki se gradi inkrementalno.
+ *
+ * Za vsako lokacijo hranimo že izrisane VEVENT bloke in zadnji izrisan feed. Sprememba
+ * rezervacije (lokalna po commitu ali obvestilo druge replike) doda samo časovno okno v
+ * vrsto; ob naslednjem zahtevku se ponovno naložijo le rezervacije v teh oknih. Dokler
+ * ni sprememb, zahtevek ne povzroči nobene poizvedbe.
+ *
+ * ETag je zgoščena vsebina feeda, zato je veljaven na vseh replikah.
+ */
+@Service
+@RequiredArgsConstructor
+public class LocationCalendarFeed {
+
+    private static final Set<BookingStatus> ACTIVE_STATUSES = EnumSet.of(BookingStatus.PENDING_PAYMENT, BookingStatus.CONFIRMED);
+    private static final LocalDateTime FAR_FUTURE = LocalDateTime.of(9999, 1, 1, 0, 0);
+    private static final DateTimeFormatter ICAL_UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final int MAX_LINE_OCTETS = 75;
+    // UUID.compareTo primerja predznačeno, zato je to najmanjši možen ID
+    private static final UUID FIRST_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private final LocationRepository locationRepository;
+    private final BookingRepository bookingRepository;
+    private final ResourceVersions resourceVersions;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<UUID, Feed> feeds = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+
+    @Value("${booking.calendar.past-days:30}")
+    private int pastDays;
+
+    @Value("${booking.calendar.refresh-interval:PT15M}")
+    private Duration refreshInterval;
+
+    public record Rendered(byte[] body, String etag, Instant lastModified) {
+    }
+
+    /**
+     * Vrne feed lokacije ali prazno, če lokacija ne obstaja.
+     */
+    public Optional<Rendered> render(UUID locationId) {
+        Feed feed = feeds.get(locationId);
+        if (feed == null) {
+            Optional<Location> location = locationRepository.findById(locationId);
+            if (location.isEmpty()) {
+                return Optional.empty();
+            }
+            feed = feeds.computeIfAbsent(locationId, id -> new Feed(location.get()));
+        }
+        return Optional.ofNullable(feed.current());
+    }
+
+    public void bookingsChanged(UUID locationId, LocalDateTime start, LocalDateTime end) {
+        Feed feed = feeds.get(locationId);
+        if (feed != null) {
+            feed.changed(new Window(start, end));
+        }
+    }
+
+    @EventListener
+    public void onRemoteChange(BookingChangedEvent event) {
+        bookingsChanged(event.locationId(), event.start(), event.end());
+    }
+
+    @EventListener
+    public void onResync(BookingResyncEvent event) {
+        // Obvestila med prekinitvijo so izgubljena - ob naslednjem zahtevku vsak feed naložimo v celoti
+        epoch.incrementAndGet();
+    }
+
+    private record Window(LocalDateTime start, LocalDateTime end) {
+    }
+
+    private record EventKey(LocalDateTime start, UUID id) implements Comparable<EventKey> {
+        private static final Comparator<EventKey> ORDER = Comparator.comparing(EventKey::start).thenComparing(EventKey::id);
+
+        @Override
+        public int compareTo(EventKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private record VEvent(LocalDateTime end, LocalDateTime updatedAt, byte[] text) {
+    }
+
+    private record Snapshot(long changes, long epoch, long locationsVersion, LocalDate day, Rendered rendered) {
+    }
+
+    private final class Feed {
+        private final UUID locationId;
+        private final Queue<Window> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicLong changes = new AtomicLong();
+        // Dostop do spodnjih polj je sinhroniziran na this
+        private final TreeMap<EventKey, VEvent> events = new TreeMap<>();
+        private String name;
+        private long loadedEpoch = -1;
+        private volatile Snapshot snapshot;
+
+        Feed(Location location) {
+            this.locationId = location.getId();
+            this.name = location.getName();
+        }
+
+        void changed(Window window) {
+            // Najprej okno, nato števec - kdor vidi nov števec, v vrsti najde tudi okno
+            pending.add(window);
+            changes.incrementAndGet();
+        }
+
+        Rendered current() {
+            Snapshot current = snapshot;
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            if (current != null && current.changes() == changes.get() && current.epoch() == epoch.get()
+                    && current.locationsVersion() == resourceVersions.locationsVersion() && current.day().equals(today)) {
+                return current.rendered();
+            }
+            synchronized (this) {
+                return refresh(today);
+            }
+        }
+
+        private Rendered refresh(LocalDate today) {
+            long changesSeen = changes.get();
+            long epochSeen = epoch.get();
+            long locationsSeen = resourceVersions.locationsVersion();
+            Snapshot previous = snapshot;
+            if (previous != null && previous.changes() == changesSeen && previous.epoch() == epochSeen
+                    && previous.locationsVersion() == locationsSeen && previous.day().equals(today)) {
+                return previous.rendered();
+            }
+
+            if (previous != null && previous.locationsVersion() != locationsSeen) {
+                Optional<Location> location = locationRepository.findById(locationId);
+                if (location.isEmpty()) {
+                    feeds.remove(locationId, this);
+                    return null;
+                }
+                name = location.get().getName();
+            }
+
+            LocalDateTime horizon = today.minusDays(pastDays).atStartOfDay();
+            if (loadedEpoch != epochSeen) {
+                pending.clear();
+                events.clear();
+                load(new Window(horizon, FAR_FUTURE), horizon);
+                loadedEpoch = epochSeen;
+                meterRegistry.counter("booking.calendar.refreshes", "type", "full").increment();
+            } else {
+                Window window;
+                while ((window = pending.poll()) != null) {
+                    removeOverlapping(window);
+                    load(window, horizon);
+                    meterRegistry.counter("booking.calendar.refreshes", "type", "incremental").increment();
+                }
+            }
+            events.values().removeIf(event -> !event.end().isAfter(horizon));
+
+            byte[] body = assemble();
+            String etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            Instant lastModified;
+            if (previous != null && previous.rendered().etag().equals(etag)) {
+                lastModified = previous.rendered().lastModified();
+            } else if (previous == null) {
+                lastModified = events.values().stream()
+                    .map(event -> event.updatedAt().toInstant(ZoneOffset.UTC))
+                    .max(Comparator.naturalOrder())
+                    .orElse(Instant.now());
+            } else {
+                lastModified = Instant.now();
+            }
+            Rendered rendered = new Rendered(body, etag, lastModified);
+            snapshot = new Snapshot(changesSeen, epochSeen, locationsSeen, today, rendered);
+            return rendered;
+        }
+
+        private void removeOverlapping(Window window) {
+            Iterator<Map.Entry<EventKey, VEvent>> it = events.headMap(new EventKey(window.end(), FIRST_ID))
+                .entrySet().iterator();
+            while (it.hasNext()) {
+                if (it.next().getValue().end().isAfter(window.start())) {
+                    it.remove();
+                }
+            }
+        }
+
+        private void load(Window window, LocalDateTime horizon) {
+            List<BookingCalendarRow> rows = bookingRepository.findCalendarRows(locationId, window.start(), window.end(),
+                ACTIVE_STATUSES);
+            for (BookingCalendarRow row : rows) {
+                if (row.endTime().isAfter(horizon)) {
+                    events.put(new EventKey(row.startTime(), row.id()),
+                        new VEvent(row.endTime(), row.updatedAt(), vevent(row)));
+                }
+            }
+        }
+
+        private byte[] assemble() {
+            StringBuilder header = new StringBuilder(256);
+            line(header, "BEGIN:VCALENDAR");
+            line(header, "VERSION:2.0");
+            line(header, "PRODID:-//Planify//Booking Service//EN");
+            line(header, "CALSCALE:GREGORIAN");
+            line(header, "METHOD:PUBLISH");
+            line(header, "X-WR-CALNAME:" + escape(name));
+            line(header, "REFRESH-INTERVAL;VALUE=DURATION:" + refreshInterval);
+            line(header, "X-PUBLISHED-TTL:" + refreshInterval);
+            byte[] head = header.toString().getBytes(StandardCharsets.UTF_8);
+            byte[] tail = "END:VCALENDAR\r\n".getBytes(StandardCharsets.UTF_8);
+
+            int size = head.length + tail.length;
+            for (VEvent event : events.values()) {
+                size += event.text().length;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+            out.writeBytes(head);
+            for (VEvent event : events.values()) {
+                out.writeBytes(event.text());
+            }
+            out.writeBytes(tail);
+            return out.toByteArray();
+        }
+    }
+
+    private static byte[] vevent(BookingCalendarRow row) {
+        StringBuilder text = new StringBuilder(256);
+        boolean confirmed = row.status() == BookingStatus.CONFIRMED;
+        int headcount = row.headcount() == null ? 1 : row.headcount();
+        line(text, "BEGIN:VEVENT");
+        line(text, "UID:" + row.id() + "@booking.planify");
+        line(text, "DTSTAMP:" + ICAL_UTC.format(row.updatedAt()));
+        line(text, "DTSTART:" + ICAL_UTC.format(row.startTime()));
+        line(text, "DTEND:" + ICAL_UTC.format(row.endTime()));
+        line(text, "SUMMARY:" + escape((confirmed ? "Booked" : "Reserved, awaiting payment")
+            + " (" + headcount + (headcount == 1 ? " attendee)" : " attendees)")));
+        line(text, "STATUS:" + (confirmed ? "CONFIRMED" : "TENTATIVE"));
+        line(text, "TRANSP:OPAQUE");
+        line(text, "END:VEVENT");
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // RFC 5545: vrstice končajo s CRLF, daljše od 75 oktetov se prelomijo s CRLF + presledek
+    static void line(StringBuilder out, String content) {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int length = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + length > MAX_LINE_OCTETS) {
+                out.append("\r\n ");
+                octets = 1;
+            }
+            out.appendCodePoint(codePoint);
+            octets += length;
+            i += Character.charCount(codePoint);
+        }
+        out.append("\r\n");
+    }
+
+    static String escape(String text) {
+        return text.replace("\\", "\\\\")
+            .replace(";", "\\;")
+            .replace(",", "\\,")
+            .replace("\r\n", "\\n")
+            .replace("\n", "\\n");
+    }
+}
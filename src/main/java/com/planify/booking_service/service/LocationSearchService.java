@@ -0,0 +1,85 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.datasource.ReadFromReplica;
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.repository.LocationRepository;
+import com.planify.booking_service.repository.LocationSearchCriteria;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Iskanje lokacij po straneh. Naslednja stran se nadaljuje za zadnjo vrstico prejšnje (keyset),
+ * zato je cena strani neodvisna od tega, koliko strani je odjemalec že prebral, in vrstice
+ * ne manjkajo ali se ne ponovijo, ko se vmes doda ali odstrani lokacija.
+ */
+@Service
+@RequiredArgsConstructor
+public class LocationSearchService {
+
+    public static final int MAX_LIMIT = 100;
+
+    private final LocationRepository locationRepository;
+
+    /**
+     * @param nextCursor null, ko je to zadnja stran
+     */
+    public record Page(List<Location> locations, String nextCursor) {
+    }
+
+    @ReadFromReplica
+    public Page search(LocationSearchCriteria criteria) {
+        int limit = Math.min(Math.max(1, criteria.limit()), MAX_LIMIT);
+        // Vrstica več pove, ali obstaja naslednja stran, brez dodatnega štetja
+        List<Location> rows = locationRepository.search(new LocationSearchCriteria(
+            criteria.minCapacity(), criteria.maxPricePerHourCents(), criteria.text(),
+            criteria.availableFrom(), criteria.availableTo(), criteria.headcount(),
+            criteria.sort(), criteria.afterKey(), criteria.afterId(), limit + 1));
+        if (rows.size() <= limit) {
+            return new Page(rows, null);
+        }
+        List<Location> page = rows.subList(0, limit);
+        return new Page(List.copyOf(page), Cursor.of(criteria.sort(), page.get(limit - 1)).encode());
+    }
+
+    /**
+     * Neprozoren žeton strani: razvrščanje, id in ključ zadnje vrstice. Velja samo za isto razvrščanje.
+     */
+    public record Cursor(LocationSearchCriteria.Sort sort, Object key, UUID id) {
+
+        static Cursor of(LocationSearchCriteria.Sort sort, Location last) {
+            Object key = switch (sort) {
+                case NAME -> last.getName();
+                case PRICE -> last.getPricePerHourCents();
+                case CAPACITY -> last.getCapacity();
+            };
+            return new Cursor(sort, key, last.getId());
+        }
+
+        public String encode() {
+            // Ključ je zadnji, ker ime lahko vsebuje ločilo
+            String value = sort.name() + "\n" + id + "\n" + key;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @return null, če žeton ni veljaven ali je bil izdan za drugo razvrščanje
+         */
+        public static Cursor decode(String token, LocationSearchCriteria.Sort sort) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\n", 3);
+                if (parts.length != 3 || !parts[0].equals(sort.name())) {
+                    return null;
+                }
+                Object key = sort == LocationSearchCriteria.Sort.NAME ? parts[2] : Integer.valueOf(parts[2]);
+                return new Cursor(sort, key, UUID.fromString(parts[1]));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
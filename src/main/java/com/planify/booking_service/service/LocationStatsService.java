@@ -0,0 +1,163 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.domain.Booking;
+import com.planify.booking_service.domain.BookingStatus;
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.domain.LocationDailyStats;
+import com.planify.booking_service.repository.LocationDailyStatsRepository;
+import com.planify.booking_service.repository.LocationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sprotno vzdrževani dnevni agregati zasedenosti in prihodka po lokaciji (location_daily_stats).
+ *
+ * Agregat se posodobi v isti transakciji kot rezervacija, zato poročila preberejo nekaj
+ * vrstic namesto celotne tabele rezervacij. Šteje aktivne rezervacije (PENDING_PAYMENT,
+ * CONFIRMED) - potrditev plačila agregata ne spremeni, preklic ga zmanjša.
+ * Periodično preverjanje primerja agregate z agregacijo iz rezervacij in jih po potrebi zgradi znova.
+ */
+@Slf4j
+@Service
+public class LocationStatsService {
+
+    private static final Set<BookingStatus> ACTIVE_STATUSES = EnumSet.of(BookingStatus.PENDING_PAYMENT, BookingStatus.CONFIRMED);
+    private static final double MINUTES_PER_DAY = 24 * 60;
+
+    private final LocationDailyStatsRepository statsRepository;
+    private final LocationRepository locationRepository;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong lastMismatches = new AtomicLong();
+
+    @Value("${booking.stats.auto-repair:true}")
+    private boolean autoRepair;
+
+    public LocationStatsService(LocationDailyStatsRepository statsRepository, LocationRepository locationRepository,
+                                MeterRegistry meterRegistry) {
+        this.statsRepository = statsRepository;
+        this.locationRepository = locationRepository;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("booking.stats.mismatches", lastMismatches);
+    }
+
+    public record DailyReport(UUID locationId, String locationName, LocalDate date, String currency, int bookings,
+                              long bookedMinutes, double utilizationPercent, long revenueCents) {
+    }
+
+    /**
+     * Klic znotraj transakcije zapisa rezervacije.
+     */
+    public void bookingCreated(Booking booking) {
+        apply(booking, 1);
+    }
+
+    public void bookingCancelled(Booking booking, BookingStatus previousStatus) {
+        // Ponoven preklic ali preklic neaktivne rezervacije agregata ne sme zmanjšati
+        if (ACTIVE_STATUSES.contains(previousStatus)) {
+            apply(booking, -1);
+        }
+    }
+
+    private void apply(Booking booking, int sign) {
+        LocalDateTime start = booking.getStartTime();
+        LocalDateTime end = booking.getEndTime();
+        int headcount = booking.getHeadcount() == null ? 1 : booking.getHeadcount();
+        for (LocalDate day = start.toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+            LocalDateTime dayStart = day.atStartOfDay();
+            long minutes = Duration.between(max(start, dayStart), min(end, dayStart.plusDays(1))).toMinutes();
+            // Rezervacija in prihodek štejeta na dan začetka, minute na vsak dan posebej
+            boolean firstDay = day.equals(start.toLocalDate());
+            statsRepository.increment(booking.getLocation().getId(), day, booking.getCurrency(),
+                firstDay ? sign : 0,
+                sign * minutes,
+                sign * minutes * headcount,
+                firstDay ? (long) sign * booking.getTotalAmountCents() : 0L);
+        }
+    }
+
+    /**
+     * Dnevna poročila za [from, to), za eno lokacijo ali za vse (locationId == null).
+     */
+    @Transactional(readOnly = true)
+    public List<DailyReport> dailyReport(UUID locationId, LocalDate from, LocalDate to) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<LocationDailyStats> rows = locationId == null
+            ? statsRepository.findBetween(from, to)
+            : statsRepository.findBetween(locationId, from, to);
+        Map<UUID, Location> locations = locationRepository.findAllById(
+                rows.stream().map(LocationDailyStats::getLocationId).distinct().toList()).stream()
+            .collect(Collectors.toMap(Location::getId, Function.identity()));
+        List<DailyReport> report = rows.stream()
+            .map(row -> toReport(row, locations.get(row.getLocationId())))
+            .toList();
+        sample.stop(meterRegistry.timer("booking.stats.query", "source", "aggregate"));
+        return report;
+    }
+
+    private static DailyReport toReport(LocationDailyStats row, Location location) {
+        // Deljena kapaciteta: zasedenost sedežev, sicer zasedenost prostora v dnevu
+        double utilization;
+        if (location != null && Boolean.TRUE.equals(location.getSharedCapacity()) && location.getCapacity() > 0) {
+            utilization = row.getSeatMinutes() / (MINUTES_PER_DAY * location.getCapacity());
+        } else {
+            utilization = row.getBookedMinutes() / MINUTES_PER_DAY;
+        }
+        return new DailyReport(row.getLocationId(), location == null ? null : location.getName(), row.getBookingDate(),
+            row.getCurrency(), row.getBookingCount(), row.getBookedMinutes(),
+            Math.round(utilization * 10000) / 100.0, row.getRevenueCents());
+    }
+
+    @Scheduled(cron = "${booking.stats.check-cron:0 30 3 * * *}")
+    @Transactional
+    public void checkConsistency() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long mismatches = statsRepository.countMismatches();
+        sample.stop(meterRegistry.timer("booking.stats.query", "source", "bookings"));
+        lastMismatches.set(mismatches);
+        if (mismatches == 0) {
+            log.info("Location daily stats are consistent with bookings");
+            return;
+        }
+        log.warn("Location daily stats differ from bookings in {} rows{}", mismatches, autoRepair ? ", rebuilding" : "");
+        if (autoRepair) {
+            rebuild();
+            lastMismatches.set(0);
+        }
+    }
+
+    @Transactional
+    public void rebuild() {
+        long started = System.nanoTime();
+        statsRepository.lockForRebuild();
+        statsRepository.deleteAllRows();
+        int rows = statsRepository.insertExpected();
+        meterRegistry.counter("booking.stats.rebuilds").increment();
+        log.info("Location daily stats rebuilt with {} rows in {} ms",
+            rows, Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
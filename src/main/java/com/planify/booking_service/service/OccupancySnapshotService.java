@@ -0,0 +1,229 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.domain.BookingStatus;
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.repository.BookingRepository;
+import com.planify.booking_service.repository.BookingSnapshotRow;
+import com.planify.booking_service.repository.LocationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Binarni posnetek aktivnih rezervacij za hiter zagon indeksa zasedenosti.
+ *
+ * Format (big-endian): glava 32 B (magic, verzija, high-water mark updated_at v epoch ms,
+ * število zapisov, rezervirano), nato zapisi po 48 B: location id (2 x long),
+ * začetek in konec v epoch ms, booking id (2 x long).
+ *
+ * Ob zagonu se posnetek prebere iz pomnilniško preslikane datoteke, nato se dohitijo
+ * samo vrstice z updated_at po high-water marku (z varnostnim zamikom za transakcije,
+ * ki so se potrdile kasneje od svojega updated_at).
+ *
+ * Posnetek opisuje stanje baze in ne replike, zato si ga replike lahko delijo (skupni nosilec);
+ * brez trajnega nosilca pomaga samo ob ponovnem zagonu vsebnika v istem podu.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OccupancySnapshotService {
+
+    static final int MAGIC = 0x504C4E53;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int RECORD_BYTES = 48;
+
+    private static final Set<BookingStatus> ACTIVE_STATUSES = EnumSet.of(BookingStatus.PENDING_PAYMENT, BookingStatus.CONFIRMED);
+
+    private final BookingRepository bookingRepository;
+    private final LocationRepository locationRepository;
+    private final SlotOccupancyIndex slotOccupancyIndex;
+    private final MeterRegistry meterRegistry;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${booking.occupancy-snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${booking.occupancy-snapshot.path:/tmp/booking-occupancy.snapshot}")
+    private Path snapshotPath;
+
+    @Value("${booking.occupancy-snapshot.catch-up-margin:PT5M}")
+    private Duration catchUpMargin;
+
+    /**
+     * Teče pred prehodom readiness v ACCEPTING_TRAFFIC, zato je indeks ob prvem zahtevku že poln.
+     */
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long started = System.nanoTime();
+        String source = enabled && restore() ? "snapshot" : "database";
+        if ("database".equals(source)) {
+            slotOccupancyIndex.rebuildAll();
+        }
+        long elapsed = System.nanoTime() - started;
+        Timer.builder("booking.occupancy.index.warmup")
+            .description("Time to populate the slot occupancy index before the pod reports ready")
+            .tag("source", source)
+            .register(meterRegistry)
+            .record(Duration.ofNanos(elapsed));
+        log.info("Slot occupancy index warmed up from {} in {} ms", source, Duration.ofNanos(elapsed).toMillis());
+    }
+
+    @Scheduled(initialDelayString = "${booking.occupancy-snapshot.interval:PT10M}",
+               fixedDelayString = "${booking.occupancy-snapshot.interval:PT10M}")
+    @Transactional(readOnly = true)
+    public void writeSnapshot() {
+        if (!enabled) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // High-water mark preberemo pred skeniranjem - spremembe med skeniranjem se ob zagonu ponovijo
+        long highWaterMark = bookingRepository.findMaxUpdatedAt().map(OccupancySnapshotService::toEpochMillis).orElse(0L);
+        LocalDateTime from = LocalDate.now(ZoneOffset.UTC).atStartOfDay();
+        // Začasna datoteka je ločena po instanci, ker si lahko replike delijo isti nosilec
+        Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + "." + instanceId + ".tmp");
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             Stream<BookingSnapshotRow> rows = bookingRepository.streamActiveEndingAfter(from, ACTIVE_STATUSES)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_BYTES * 1024);
+            channel.position(HEADER_BYTES);
+            for (BookingSnapshotRow row : (Iterable<BookingSnapshotRow>) rows::iterator) {
+                if (buffer.remaining() < RECORD_BYTES) {
+                    flush(channel, buffer);
+                }
+                buffer.putLong(row.locationId().getMostSignificantBits())
+                    .putLong(row.locationId().getLeastSignificantBits())
+                    .putLong(toEpochMillis(row.startTime()))
+                    .putLong(toEpochMillis(row.endTime()))
+                    .putLong(row.id().getMostSignificantBits())
+                    .putLong(row.id().getLeastSignificantBits());
+                count++;
+            }
+            flush(channel, buffer);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(highWaterMark).putLong(count).putLong(0L);
+            buffer.flip();
+            channel.write(buffer, 0);
+            channel.force(true);
+        } catch (IOException e) {
+            log.warn("Could not write occupancy snapshot to {}: {}", snapshotPath, e.getMessage());
+            deleteQuietly(tmp);
+            return;
+        }
+        try {
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not replace occupancy snapshot {}: {}", snapshotPath, e.getMessage());
+            deleteQuietly(tmp);
+            return;
+        }
+        sample.stop(meterRegistry.timer("booking.occupancy.snapshot.write"));
+        log.info("Occupancy snapshot with {} bookings written to {}", count, snapshotPath);
+    }
+
+    /**
+     * Naloži posnetek in dohiti spremembe. Vrne false, če posnetka ni ali ni veljaven.
+     */
+    boolean restore() {
+        if (!Files.isRegularFile(snapshotPath)) {
+            return false;
+        }
+        MappedByteBuffer snapshot;
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                log.warn("Occupancy snapshot {} is too large to map, rebuilding from database", snapshotPath);
+                return false;
+            }
+            snapshot = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            log.warn("Could not map occupancy snapshot {}: {}", snapshotPath, e.getMessage());
+            return false;
+        }
+        if (snapshot.capacity() < HEADER_BYTES || snapshot.getInt(0) != MAGIC || snapshot.getInt(4) != VERSION) {
+            log.warn("Ignoring occupancy snapshot {} with unknown format", snapshotPath);
+            return false;
+        }
+        long highWaterMark = snapshot.getLong(8);
+        long count = snapshot.getLong(16);
+        if (snapshot.capacity() != HEADER_BYTES + count * RECORD_BYTES) {
+            log.warn("Ignoring truncated occupancy snapshot {}", snapshotPath);
+            return false;
+        }
+
+        List<Location> indexed = locationRepository.findBySlotMinutesNotNullAndSharedCapacityFalse();
+        slotOccupancyIndex.reset(indexed);
+        for (int offset = HEADER_BYTES; offset < snapshot.capacity(); offset += RECORD_BYTES) {
+            UUID locationId = new UUID(snapshot.getLong(offset), snapshot.getLong(offset + 8));
+            if (slotOccupancyIndex.isIndexed(locationId)) {
+                slotOccupancyIndex.markOccupied(locationId,
+                    toLocalDateTime(snapshot.getLong(offset + 16)), toLocalDateTime(snapshot.getLong(offset + 24)));
+            }
+        }
+
+        LocalDateTime since = toLocalDateTime(highWaterMark).minus(catchUpMargin);
+        List<BookingSnapshotRow> changed = bookingRepository.findChangedSince(since);
+        for (BookingSnapshotRow row : changed) {
+            if (ACTIVE_STATUSES.contains(row.status())) {
+                slotOccupancyIndex.markOccupied(row.locationId(), row.startTime(), row.endTime());
+            } else {
+                slotOccupancyIndex.refresh(row.locationId(), row.startTime(), row.endTime());
+            }
+        }
+        log.info("Occupancy snapshot {} loaded with {} bookings, caught up on {} changes since {}",
+            snapshotPath, count, changed.size(), since);
+        return true;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,123 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.messaging.BookingChangedEvent;
+import com.planify.booking_service.messaging.BookingResyncEvent;
+import com.planify.booking_service.repository.LocationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verzije za ETage: odtis lokacij in verzija rezervacij po lokaciji.
+ *
+ * ETag lokacij je verzija tabele v bazi (LocationRepository.fingerprint, števec iz sprožilca),
+ * zato je enak na vseh replikah, ki so prebrale isto stanje, in odjemalec dobi 304 tudi po
+ * prehodu na drugo repliko. Dokler verzija ni znana, ETag vsebuje naključno oznako instance.
+ * Števci rezervacij so lokalni za repliko, zato ETag dostopnosti vsebuje oznako instance -
+ * ETag ene replike se na drugi nikoli ne ujema in ne more vrniti napačnega 304. Vsebuje tudi
+ * normalizirano poizvedbo (okno, število oseb), ker je odgovor odvisen od nje. Verzija se
+ * poveča šele po commitu (ali ob obvestilu druge replike), kontroler pa jo prebere
+ * pred poizvedbo, zato odgovor nikoli ni označen z novejšo verzijo od podatkov.
+ *
+ * Za branje z replike se hrani tudi čas zadnje spremembe (nastavi se pred povečanjem
+ * verzije): replika se za pogojni odgovor uporabi samo, če je ta čas že predvajala.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResourceVersions {
+
+    private final LocationRepository locationRepository;
+
+    private final String instance = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong locations = new AtomicLong();
+    // Poveča se ob resyncu, ko ne vemo, katere lokacije so se spremenile
+    private final AtomicLong epoch = new AtomicLong();
+    private final Map<UUID, AtomicLong> bookings = new ConcurrentHashMap<>();
+    private volatile String locationsFingerprint;
+
+    // Spremembe pred zagonom niso sledene, zato je najzgodnejši čas spremembe zagon instance
+    private final Instant started = Instant.now();
+    private volatile Instant locationsChangedAt = started;
+    private volatile Instant epochChangedAt = started;
+    private final Map<UUID, Instant> bookingsChangedAt = new ConcurrentHashMap<>();
+
+    public String locationsEtag(String representation) {
+        String fingerprint = locationsFingerprint;
+        if (fingerprint == null) {
+            pollLocations();
+            fingerprint = locationsFingerprint;
+        }
+        return etag(fingerprint == null ? instance + "-" + locations.get() : fingerprint, representation);
+    }
+
+    public long locationsVersion() {
+        return locations.get();
+    }
+
+    /**
+     * @param query normalizirani parametri poizvedbe, npr. "začetek-konec-osebe"
+     */
+    public String availabilityEtag(UUID locationId, String query, String representation) {
+        AtomicLong version = bookings.get(locationId);
+        return etag(instance + "-" + locations.get() + "-" + epoch.get() + "-" + (version == null ? 0 : version.get())
+            + "-" + query, representation);
+    }
+
+    public Instant locationsChangedAt() {
+        return locationsChangedAt;
+    }
+
+    public Instant availabilityChangedAt(UUID locationId) {
+        Instant changedAt = locationsChangedAt.isAfter(epochChangedAt) ? locationsChangedAt : epochChangedAt;
+        Instant bookingsAt = bookingsChangedAt.get(locationId);
+        return bookingsAt != null && bookingsAt.isAfter(changedAt) ? bookingsAt : changedAt;
+    }
+
+    // Šibek ETag: Tomcat ne stisne odgovora z močnim ETagom, stisnjena in nestisnjena
+    // predstavitev pa sta enakovredni. JSON in protobuf imata različen ETag.
+    private static String etag(String version, String representation) {
+        return "W/\"" + version + "-" + representation + "\"";
+    }
+
+    public void bookingsChanged(UUID locationId) {
+        bookingsChangedAt.put(locationId, Instant.now());
+        bookings.computeIfAbsent(locationId, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    @EventListener
+    public void onRemoteChange(BookingChangedEvent event) {
+        bookingsChanged(event.locationId());
+    }
+
+    @EventListener
+    public void onResync(BookingResyncEvent event) {
+        epochChangedAt = Instant.now();
+        epoch.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${booking.http-cache.locations-poll-interval:PT30S}")
+    public void pollLocations() {
+        String fingerprint = locationRepository.fingerprint();
+        // Ob prvem preverjanju povečamo verzijo tudi brez primerjave - ETagi, izdani pred
+        // njim, niso bili vezani na znano stanje
+        if (!Objects.equals(fingerprint, locationsFingerprint)) {
+            locationsChangedAt = Instant.now();
+            long version = locations.incrementAndGet();
+            if (locationsFingerprint != null) {
+                log.info("Locations changed, ETag version is now {}", version);
+            }
+            locationsFingerprint = fingerprint;
+        }
+    }
+}
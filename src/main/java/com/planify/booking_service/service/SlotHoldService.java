@@ -0,0 +1,156 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.domain.SlotHold;
+import com.planify.booking_service.repository.LocationRepository;
+import com.planify.booking_service.repository.SlotHoldRepository;
+import com.planify.booking_service.resilience.AdaptiveLimit;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Kratkotrajne zadržitve okna (leases) pred ustvarjanjem rezervacije.
+ *
+ * Zadržitev je ena vrstica v slot_holds in bit v indeksu zasedenosti - brez cene, Kafka
+ * dogodkov in agregatov. findConflicts jo šteje, dokler ne poteče; ob ustvarjanju rezervacije
+ * z holdId se zadržitev ne šteje in se izbriše. Potekle zadržitve se brišejo v paketih
+ * (BookingDomainService.releaseExpiredHolds), veljavnost pa se preverja s časom poteka,
+ * zato zamuda brisanja ne podaljša zadržitve.
+ */
+@Slf4j
+@Service
+public class SlotHoldService {
+
+    private final SlotHoldRepository slotHoldRepository;
+    private final LocationRepository locationRepository;
+    private final AvailabilityService availabilityService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${booking.holds.ttl:PT10M}")
+    private Duration defaultTtl;
+
+    @Value("${booking.holds.max-ttl:PT30M}")
+    private Duration maxTtl;
+
+    @Value("${booking.holds.sweep-batch:1000}")
+    private int sweepBatch;
+
+    public SlotHoldService(SlotHoldRepository slotHoldRepository, LocationRepository locationRepository,
+                           AvailabilityService availabilityService, MeterRegistry meterRegistry) {
+        this.slotHoldRepository = slotHoldRepository;
+        this.locationRepository = locationRepository;
+        this.availabilityService = availabilityService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param hold ustvarjena zadržitev ali null, če okno ni prosto
+     */
+    public record HoldResult(SlotHold hold, List<UUID> conflicts) {
+    }
+
+    /**
+     * Zadrži okno za organizacijo; ttl null ali 0 pomeni privzeto trajanje, daljši od max-ttl se skrajša.
+     */
+    @Transactional
+    @AdaptiveLimit(name = "availabilityService")
+    public HoldResult hold(UUID locationId, UUID organizationId, LocalDateTime start, LocalDateTime end,
+                           int headcount, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        if (!start.isBefore(end) || !end.isAfter(now)) {
+            throw new IllegalArgumentException("Hold window must end after it starts and must not be in the past");
+        }
+        // Enak zaklep kot createBooking: isto okno ne more biti hkrati zadržano dvakrat
+        Location location = locationRepository.findByIdForUpdate(locationId)
+            .orElseThrow(() -> new NoSuchElementException("Lokacija ne obstaja"));
+        if (Boolean.TRUE.equals(location.getSharedCapacity()) && headcount > location.getCapacity()) {
+            meterRegistry.counter("booking.holds.rejected").increment();
+            return new HoldResult(null, List.of());
+        }
+        List<UUID> conflicts = availabilityService.findConflicts(locationId, start, end, headcount);
+        if (!conflicts.isEmpty()) {
+            meterRegistry.counter("booking.holds.rejected").increment();
+            return new HoldResult(null, conflicts);
+        }
+        Duration effectiveTtl = ttl == null || ttl.isZero() || ttl.isNegative() ? defaultTtl : ttl;
+        if (effectiveTtl.compareTo(maxTtl) > 0) {
+            effectiveTtl = maxTtl;
+        }
+        SlotHold hold = slotHoldRepository.save(SlotHold.builder()
+            .locationId(locationId)
+            .organizationId(organizationId)
+            .startTime(start)
+            .endTime(end)
+            .headcount(headcount)
+            .expiresAt(now.plus(effectiveTtl))
+            .createdAt(now)
+            .build());
+        availabilityService.onHoldCreated(hold);
+        meterRegistry.counter("booking.holds.created").increment();
+        return new HoldResult(hold, List.of());
+    }
+
+    /**
+     * Zaklene zadržitev za pretvorbo v rezervacijo; klic znotraj transakcije ustvarjanja rezervacije.
+     * Vrne prazno, če zadržitev ne obstaja, je potekla ali ne pokriva zahtevanega okna te organizacije.
+     */
+    public Optional<SlotHold> claim(UUID holdId, UUID locationId, UUID organizationId, LocalDateTime start,
+                                    LocalDateTime end, int headcount) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        return slotHoldRepository.findByIdForUpdate(holdId)
+            .filter(hold -> hold.getExpiresAt().isAfter(now))
+            .filter(hold -> hold.getLocationId().equals(locationId) && hold.getOrganizationId().equals(organizationId))
+            .filter(hold -> !start.isBefore(hold.getStartTime()) && !end.isAfter(hold.getEndTime()))
+            .filter(hold -> headcount <= hold.getHeadcount());
+    }
+
+    public void converted(SlotHold hold) {
+        slotHoldRepository.delete(hold);
+        availabilityService.onHoldReleased(hold);
+        meterRegistry.counter("booking.holds.converted").increment();
+    }
+
+    /**
+     * Predčasna sprostitev; samo organizacija, ki je okno zadržala.
+     */
+    public Optional<SlotHold> release(UUID holdId, UUID organizationId) {
+        Optional<SlotHold> hold = slotHoldRepository.findByIdForUpdate(holdId)
+            .filter(found -> found.getOrganizationId().equals(organizationId));
+        hold.ifPresent(found -> {
+            slotHoldRepository.delete(found);
+            availabilityService.onHoldReleased(found);
+            meterRegistry.counter("booking.holds.released", "reason", "released").increment();
+        });
+        return hold;
+    }
+
+    public int getSweepBatch() {
+        return sweepBatch;
+    }
+
+    /**
+     * Izbriše paket (največ getSweepBatch) poteklih zadržitev; klic znotraj transakcije.
+     */
+    public List<SlotHold> deleteExpired() {
+        List<SlotHold> expired = slotHoldRepository.deleteExpired(LocalDateTime.now(ZoneOffset.UTC), sweepBatch);
+        for (SlotHold hold : expired) {
+            availabilityService.onHoldReleased(hold);
+        }
+        if (!expired.isEmpty()) {
+            meterRegistry.counter("booking.holds.released", "reason", "expired").increment(expired.size());
+            log.debug("Deleted {} expired slot holds", expired.size());
+        }
+        return expired;
+    }
+}
@@ -0,0 +1,383 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.domain.BookingStatus;
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.domain.SlotHold;
+import com.planify.booking_service.messaging.BookingChangedEvent;
+import com.planify.booking_service.messaging.BookingResyncEvent;
+import com.planify.booking_service.repository.BookingOccupancy;
+import com.planify.booking_service.repository.BookingRepository;
+import com.planify.booking_service.repository.LocationRepository;
+import com.planify.booking_service.repository.SlotHoldRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bitni indeks zasedenosti za lokacije s fiksno granulacijo rezervacij (slot_minutes).
+ * Za vsako lokacijo in dan hrani long[] z enim bitom na interval; preverjanje
+ * konflikta je AND nad besedami, iskanje prostih intervalov pa skeniranje bitov.
+ *
+ * Indeks je konzervativen: rezervacija, ki ni poravnana na interval, zasede vse
+ * intervale, ki jih pokriva. "Prosto" je zato vedno pravilno, "zasedeno" pa
+ * AvailabilityService preveri še z SQL poizvedbo, ki vrne ID-je konfliktov.
+ * Veljavne zadržitve okna zasedejo intervale enako kot rezervacije; potekla zadržitev
+ * ostane označena do brisanja, kar je konzervativno.
+ *
+ * Naložen je samo razpon od dneva gradnje naprej; za okna, ki se začnejo prej, indeks
+ * ne odgovarja. Ponovna gradnja iz baze ne zamenja vnosa lokacije v celoti: če je bila
+ * lokacija med branjem baze označena (markOccupied po commitu), se sveži biti le dodajo
+ * obstoječim, sicer bi prepisali rezervacijo, ki je branje baze ni videlo.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SlotOccupancyIndex {
+
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+    private static final Set<BookingStatus> ACTIVE_STATUSES = EnumSet.of(BookingStatus.PENDING_PAYMENT, BookingStatus.CONFIRMED);
+
+    private final LocationRepository locationRepository;
+    private final BookingRepository bookingRepository;
+    private final SlotHoldRepository slotHoldRepository;
+
+    private final Map<UUID, LocationSlots> locations = new ConcurrentHashMap<>();
+
+    public record SlotRange(LocalDateTime start, LocalDateTime end) {
+    }
+
+    public void rebuildAll() {
+        long started = System.nanoTime();
+        List<Location> indexed = locationRepository.findBySlotMinutesNotNullAndSharedCapacityFalse();
+        for (Location location : indexed) {
+            rebuild(location);
+        }
+        locations.keySet().retainAll(indexed.stream().map(Location::getId).toList());
+        log.info("Slot occupancy index rebuilt for {} locations in {} ms",
+            indexed.size(), Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    public void rebuild(Location location) {
+        LocationSlots existing = locations.get(location.getId());
+        long seen = existing == null ? 0 : existing.version();
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocationSlots fresh = new LocationSlots(location.getSlotMinutes(), today);
+        for (BookingOccupancy booking : bookingRepository.findOccupancyEndingAfter(location.getId(), today.atStartOfDay(), ACTIVE_STATUSES)) {
+            fresh.mark(booking.startTime(), booking.endTime());
+        }
+        for (BookingOccupancy hold : slotHoldRepository.findActiveOccupancy(location.getId(), LocalDateTime.now(ZoneOffset.UTC))) {
+            fresh.mark(hold.startTime(), hold.endTime());
+        }
+
+        LocationSlots current = locations.compute(location.getId(),
+            (id, old) -> old != null && old.slotSeconds == fresh.slotSeconds ? old : fresh);
+        if (current != fresh) {
+            current.load(fresh, existing == current ? seen : -1);
+        } else if (existing != null && existing.version() != seen) {
+            // Granulacija se je spremenila, starih bitov ni mogoče prenesti - oznake med branjem
+            // so že potrjene v bazi, zato jih ponovno branje zajame
+            rebuild(location);
+        }
+    }
+
+    /**
+     * Pripravi prazen indeks za podane lokacije; zasedenost se nato naloži iz posnetka.
+     * Že zgrajeni vnosi (npr. po obvestilu druge replike) ostanejo, saj so iz baze.
+     */
+    public void reset(List<Location> indexed) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (Location location : indexed) {
+            LocationSlots empty = new LocationSlots(location.getSlotMinutes(), today);
+            locations.compute(location.getId(), (id, old) -> old != null && old.slotSeconds == empty.slotSeconds ? old : empty);
+        }
+        locations.keySet().retainAll(indexed.stream().map(Location::getId).toList());
+        // Zadržitve niso del posnetka - so kratkotrajne, zato jih preberemo sveže
+        for (SlotHold hold : slotHoldRepository.findByExpiresAtAfter(LocalDateTime.now(ZoneOffset.UTC))) {
+            markOccupied(hold.getLocationId(), hold.getStartTime(), hold.getEndTime());
+        }
+    }
+
+    public boolean isIndexed(UUID locationId) {
+        return locations.containsKey(locationId);
+    }
+
+    /**
+     * Vrne true samo, če je lokacija indeksirana, okno leži v naloženem razponu in v njem
+     * ni zasedenega intervala.
+     */
+    public boolean isFree(UUID locationId, LocalDateTime start, LocalDateTime end) {
+        LocationSlots slots = locations.get(locationId);
+        if (slots == null || !start.isBefore(end) || start.toLocalDate().isBefore(slots.loadedFrom)) {
+            return false;
+        }
+        return !slots.anyOccupied(start, end);
+    }
+
+    public void markOccupied(UUID locationId, LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            return;
+        }
+        // Če je rebuild vmes zamenjal vnos (sprememba granulacije), označimo še novega
+        LocationSlots slots = locations.get(locationId);
+        while (slots != null) {
+            slots.mark(start, end);
+            LocationSlots current = locations.get(locationId);
+            if (current == slots) {
+                return;
+            }
+            slots = current;
+        }
+    }
+
+    /**
+     * Ponovno zgradi dneve, ki jih pokriva okno (npr. po preklicu), saj bita ne moremo
+     * preprosto pobrisati - interval si lahko delita dve neporavnani rezervaciji.
+     */
+    public void refresh(UUID locationId, LocalDateTime start, LocalDateTime end) {
+        LocationSlots slots = locations.get(locationId);
+        if (slots == null || !start.isBefore(end)) {
+            return;
+        }
+        LocalDate from = start.toLocalDate().isBefore(slots.loadedFrom) ? slots.loadedFrom : start.toLocalDate();
+        for (LocalDate day = from; day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+            LocalDateTime dayStart = day.atStartOfDay();
+            LocalDateTime dayEnd = dayStart.plusDays(1);
+            long seen = slots.version();
+            long[] words = new long[slots.words];
+            for (BookingOccupancy booking : bookingRepository.findOverlappingOccupancy(locationId, dayStart, dayEnd, ACTIVE_STATUSES)) {
+                slots.set(words, day, max(booking.startTime(), dayStart), min(booking.endTime(), dayEnd));
+            }
+            for (BookingOccupancy hold : slotHoldRepository.findOverlappingOccupancy(locationId, dayStart, dayEnd,
+                    LocalDateTime.now(ZoneOffset.UTC), SlotHoldRepository.NO_HOLD)) {
+                slots.set(words, day, max(hold.startTime(), dayStart), min(hold.endTime(), dayEnd));
+            }
+            slots.replace(day.toEpochDay(), words, seen);
+        }
+    }
+
+    @EventListener
+    public void onRemoteChange(BookingChangedEvent event) {
+        refresh(event.locationId(), event.start(), event.end());
+    }
+
+    @EventListener
+    public void onResync(BookingResyncEvent event) {
+        rebuildAll();
+    }
+
+    public Optional<List<SlotRange>> findFreeSlots(UUID locationId, LocalDate day) {
+        LocationSlots slots = locations.get(locationId);
+        if (slots == null || day.isBefore(slots.loadedFrom)) {
+            return Optional.empty();
+        }
+        return Optional.of(slots.freeRanges(day));
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    /**
+     * Branja so brez zaklepanja; pisanja (mark, replace, load) se izvajajo pod monitorjem
+     * vnosa in povečajo version, da rebuild in refresh zaznata sočasno označitev.
+     */
+    private static final class LocationSlots {
+        private final int slotSeconds;
+        private final int slotsPerDay;
+        private final int words;
+        // Dnevi brez rezervacij nimajo vnosa; polja se ne spreminjajo na mestu (copy-on-write)
+        private final Map<Long, long[]> days = new ConcurrentHashMap<>();
+        // Prvi dan, za katerega je zasedenost naložena iz baze ali posnetka
+        private volatile LocalDate loadedFrom;
+        private long version;
+
+        LocationSlots(int slotMinutes, LocalDate loadedFrom) {
+            this.slotSeconds = slotMinutes * 60;
+            this.slotsPerDay = SECONDS_PER_DAY / slotSeconds;
+            this.words = (slotsPerDay + 63) >>> 6;
+            this.loadedFrom = loadedFrom;
+        }
+
+        synchronized long version() {
+            return version;
+        }
+
+        synchronized void mark(LocalDateTime start, LocalDateTime end) {
+            version++;
+            for (LocalDate day = start.toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+                LocalDate current = day;
+                LocalDateTime dayStart = day.atStartOfDay();
+                LocalDateTime segmentStart = max(start, dayStart);
+                LocalDateTime segmentEnd = min(end, dayStart.plusDays(1));
+                days.compute(day.toEpochDay(), (key, old) -> {
+                    long[] copy = old == null ? new long[words] : old.clone();
+                    set(copy, current, segmentStart, segmentEnd);
+                    return copy;
+                });
+            }
+        }
+
+        /**
+         * Zamenja dan s svežimi biti, če vnos od branja (seen) ni bil označen, sicer jih doda.
+         */
+        synchronized void replace(long epochDay, long[] dayWords, long seen) {
+            if (version != seen) {
+                days.compute(epochDay, (key, old) -> or(old, dayWords));
+                return;
+            }
+            boolean empty = true;
+            for (long word : dayWords) {
+                if (word != 0) {
+                    empty = false;
+                    break;
+                }
+            }
+            if (empty) {
+                days.remove(epochDay);
+            } else {
+                days.put(epochDay, dayWords);
+            }
+        }
+
+        /**
+         * Prevzame zasedenost ponovno zgrajenega vnosa; seen -1 pomeni, da version ob branju ni znan.
+         */
+        synchronized void load(LocationSlots fresh, long seen) {
+            if (version == seen) {
+                days.keySet().retainAll(fresh.days.keySet());
+                days.putAll(fresh.days);
+            } else {
+                fresh.days.forEach((epochDay, dayWords) -> days.compute(epochDay, (key, old) -> or(old, dayWords)));
+            }
+            loadedFrom = fresh.loadedFrom;
+            version++;
+        }
+
+        private static long[] or(long[] old, long[] dayWords) {
+            if (old == null) {
+                return dayWords;
+            }
+            long[] merged = old.clone();
+            for (int w = 0; w < merged.length; w++) {
+                merged[w] |= dayWords[w];
+            }
+            return merged;
+        }
+
+        void set(long[] dayWords, LocalDate day, LocalDateTime segmentStart, LocalDateTime segmentEnd) {
+            int from = firstSlot(day, segmentStart);
+            int to = endSlot(day, segmentEnd);
+            for (int w = from >>> 6; from < to && w <= (to - 1) >>> 6; w++) {
+                dayWords[w] |= mask(w, from, to);
+            }
+        }
+
+        boolean anyOccupied(LocalDateTime start, LocalDateTime end) {
+            for (LocalDate day = start.toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+                long[] dayWords = days.get(day.toEpochDay());
+                if (dayWords == null) {
+                    continue;
+                }
+                LocalDateTime dayStart = day.atStartOfDay();
+                int from = firstSlot(day, max(start, dayStart));
+                int to = endSlot(day, min(end, dayStart.plusDays(1)));
+                for (int w = from >>> 6; from < to && w <= (to - 1) >>> 6; w++) {
+                    if ((dayWords[w] & mask(w, from, to)) != 0) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        List<SlotRange> freeRanges(LocalDate day) {
+            long[] dayWords = days.getOrDefault(day.toEpochDay(), new long[words]);
+            LocalDateTime dayStart = day.atStartOfDay();
+            List<SlotRange> free = new ArrayList<>();
+            int slot = nextClear(dayWords, 0);
+            while (slot < slotsPerDay) {
+                int occupied = nextSet(dayWords, slot);
+                free.add(new SlotRange(dayStart.plusSeconds((long) slot * slotSeconds),
+                    dayStart.plusSeconds((long) occupied * slotSeconds)));
+                slot = nextClear(dayWords, occupied);
+            }
+            return free;
+        }
+
+        private int nextSet(long[] dayWords, int from) {
+            if (from >= slotsPerDay) {
+                return slotsPerDay;
+            }
+            int w = from >>> 6;
+            long word = dayWords[w] & (-1L << from);
+            while (word == 0) {
+                if (++w == words) {
+                    return slotsPerDay;
+                }
+                word = dayWords[w];
+            }
+            return Math.min(slotsPerDay, (w << 6) + Long.numberOfTrailingZeros(word));
+        }
+
+        private int nextClear(long[] dayWords, int from) {
+            if (from >= slotsPerDay) {
+                return slotsPerDay;
+            }
+            int w = from >>> 6;
+            long word = ~dayWords[w] & (-1L << from);
+            while (word == 0) {
+                if (++w == words) {
+                    return slotsPerDay;
+                }
+                word = ~dayWords[w];
+            }
+            return Math.min(slotsPerDay, (w << 6) + Long.numberOfTrailingZeros(word));
+        }
+
+        private int firstSlot(LocalDate day, LocalDateTime time) {
+            return (int) (secondsIntoDay(day, time) / slotSeconds);
+        }
+
+        private int endSlot(LocalDate day, LocalDateTime time) {
+            long seconds = secondsIntoDay(day, time);
+            if (time.getNano() > 0) {
+                seconds++;
+            }
+            return (int) ((seconds + slotSeconds - 1) / slotSeconds);
+        }
+
+        private static long secondsIntoDay(LocalDate day, LocalDateTime time) {
+            return Duration.between(day.atStartOfDay(), time).getSeconds();
+        }
+
+        // Maska bitov [from, to) znotraj besede w
+        private static long mask(int w, int from, int to) {
+            long mask = -1L;
+            if (w == from >>> 6) {
+                mask &= -1L << from;
+            }
+            if (w == (to - 1) >>> 6) {
+                mask &= -1L >>> (63 - ((to - 1) & 63));
+            }
+            return mask;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.domain.Booking;
+import com.planify.booking_service.domain.WaitlistEntry;
+import com.planify.booking_service.domain.WaitlistStatus;
+import com.planify.booking_service.repository.WaitlistRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Čakalna vrsta za zasedena okna lokacij.
+ *
+ * Prijava nastane, ko ustvarjanje rezervacije zaradi konfliktov ne uspe in odjemalec to zahteva.
+ * Po commitu sprostitve okna (preklic, sprostitev ali potek zadržitve) BookingDomainService poišče
+ * čakajoče s prekrivajočim se oknom in jih v vrstnem redu prijave promovira v rezervacije, vsakega
+ * v svoji transakciji, v kateri prijavo znova zaklene in preveri, da še čaka.
+ * Okno prijave je omejeno z max-window, zato je iskanje kandidatov razpon po indeksu
+ * (location_id, start_time) ne glede na dolžino vrste.
+ */
+@Slf4j
+@Service
+public class WaitlistService {
+
+    private final WaitlistRepository waitlistRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${booking.waitlist.max-window:P7D}")
+    private Duration maxWindow;
+
+    @Value("${booking.waitlist.promotion-batch:20}")
+    private int promotionBatch;
+
+    public WaitlistService(WaitlistRepository waitlistRepository, MeterRegistry meterRegistry) {
+        this.waitlistRepository = waitlistRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Prijava na čakalno vrsto; klic znotraj transakcije ustvarjanja rezervacije.
+     * Ponovna prijava iste organizacije za isto okno vrne obstoječo prijavo.
+     * Okna, ki so se že začela ali so daljša od max-window, se ne sprejmejo.
+     */
+    public Optional<WaitlistEntry> join(UUID locationId, UUID eventId, UUID organizationId, LocalDateTime start,
+                                        LocalDateTime end, int headcount, String currency) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        if (!start.isAfter(now) || !end.isAfter(start) || Duration.between(start, end).compareTo(maxWindow) > 0) {
+            return Optional.empty();
+        }
+        Optional<WaitlistEntry> existing = waitlistRepository.findByLocationIdAndOrganizationIdAndStartTimeAndEndTimeAndStatus(
+            locationId, organizationId, start, end, WaitlistStatus.WAITING);
+        if (existing.isPresent()) {
+            return existing;
+        }
+        WaitlistEntry entry = waitlistRepository.save(WaitlistEntry.builder()
+            .locationId(locationId)
+            .eventId(eventId)
+            .organizationId(organizationId)
+            .startTime(start)
+            .endTime(end)
+            .headcount(headcount)
+            .currency(currency)
+            .status(WaitlistStatus.WAITING)
+            .createdAt(now)
+            .updatedAt(now)
+            .build());
+        meterRegistry.counter("booking.waitlist.joined").increment();
+        return Optional.of(entry);
+    }
+
+    /**
+     * Čakajoči, ki bi jih sprostitev okna lahko odblokirala, v vrstnem redu prijave.
+     * Prijave, ki jih ravno promovira druga replika, se preskočijo; zaklep se sprosti s koncem
+     * kratke transakcije branja, zato promocija vsako prijavo znova zaklene z lockWaiting.
+     */
+    public List<WaitlistEntry> candidates(UUID locationId, LocalDateTime start, LocalDateTime end) {
+        return waitlistRepository.lockOverlappingWaiting(locationId, start.minus(maxWindow), start, end,
+            Limit.of(promotionBatch));
+    }
+
+    /**
+     * Prijava, zaklenjena do konca transakcije promocije, ali prazno, če je ne čaka več ali jo
+     * hkrati promovira druga replika.
+     */
+    public Optional<WaitlistEntry> lockWaiting(UUID entryId) {
+        return waitlistRepository.lockWaiting(entryId);
+    }
+
+    public void promoted(WaitlistEntry entry, Booking booking) {
+        entry.setStatus(WaitlistStatus.PROMOTED);
+        entry.setBookingId(booking.getId());
+        entry.setUpdatedAt(LocalDateTime.now(ZoneOffset.UTC));
+        waitlistRepository.save(entry);
+        meterRegistry.counter("booking.waitlist.promoted").increment();
+    }
+
+    /**
+     * Izstop iz čakalne vrste; samo organizacija, ki se je prijavila. Tuja prijava se obravnava
+     * kot neobstoječa, da klic ne razkrije, ali prijava obstaja.
+     */
+    @Transactional
+    public WaitlistEntry leave(UUID entryId, UUID organizationId) {
+        WaitlistEntry entry = waitlistRepository.findByIdForUpdate(entryId)
+            .filter(found -> found.getOrganizationId().equals(organizationId))
+            .orElseThrow(() -> new NoSuchElementException("Prijava na čakalno vrsto ne obstaja"));
+        if (entry.getStatus() == WaitlistStatus.WAITING) {
+            entry.setStatus(WaitlistStatus.LEFT);
+            entry.setUpdatedAt(LocalDateTime.now(ZoneOffset.UTC));
+            waitlistRepository.save(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Prijave, katerih okno se je že začelo, ne morejo več postati rezervacije.
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${booking.waitlist.expiry-interval:PT1M}")
+    public void expireStarted() {
+        int expired = waitlistRepository.expireStarted(LocalDateTime.now(ZoneOffset.UTC));
+        if (expired > 0) {
+            meterRegistry.counter("booking.waitlist.expired").increment(expired);
+            log.info("Expired {} waitlist entries whose window has started", expired);
+        }
+    }
+}
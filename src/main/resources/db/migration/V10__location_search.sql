@@ -0,0 +1,21 @@
+-- Iskanje lokacij (LocationRepository.search): iskanje po delu imena ali naslova z ILIKE '%...%'
+-- uporabi trigramske GIN indekse; brez njih je vsako iskanje pregled cele tabele.
+-- pg_trgm je "trusted" razširitev - ustvari jo lahko lastnik baze brez superuserja.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_locations_name_trgm
+    ON booking.locations USING gin (name gin_trgm_ops) WHERE active;
+
+CREATE INDEX IF NOT EXISTS idx_locations_address_trgm
+    ON booking.locations USING gin (address gin_trgm_ops) WHERE active;
+
+-- Keyset paginacija: stran je nadaljevanje indeksa od (ključ, id) zadnje vrstice, brez OFFSET
+CREATE INDEX IF NOT EXISTS idx_locations_active_name
+    ON booking.locations(name, id) WHERE active;
+
+CREATE INDEX IF NOT EXISTS idx_locations_active_price
+    ON booking.locations(price_per_hour_cents, id) WHERE active;
+
+-- Razvrščanje po kapaciteti navzdol bere isti indeks v obratni smeri
+CREATE INDEX IF NOT EXISTS idx_locations_active_capacity
+    ON booking.locations(capacity, id) WHERE active;
@@ -0,0 +1,23 @@
+-- Verzija tabele lokacij za ETage (LocationRepository.fingerprint). Lokacije se urejajo mimo
+-- servisa, zato vsak stavek nad locations poveča števec v eni vrstici. Posodobitev vrstice
+-- zaklene, zato se števec poveča v vrstnem redu commitov in branje nikoli ne zgreši spremembe,
+-- potrjene za že prebrano verzijo. Branje je ena vrstica namesto zgoščene vrednosti cele tabele.
+CREATE TABLE IF NOT EXISTS booking.locations_version (
+    id BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (id),
+    version BIGINT NOT NULL
+);
+
+INSERT INTO booking.locations_version (id, version) VALUES (TRUE, 0)
+ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION booking.bump_locations_version() RETURNS trigger AS $$
+BEGIN
+    UPDATE booking.locations_version SET version = version + 1;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_locations_version ON booking.locations;
+CREATE TRIGGER trg_locations_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON booking.locations
+    FOR EACH STATEMENT EXECUTE FUNCTION booking.bump_locations_version();
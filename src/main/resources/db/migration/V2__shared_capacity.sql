@@ -0,0 +1,7 @@
+-- Lokacije z deljeno kapaciteto (co-working, razstavne dvorane) sprejmejo več
+-- sočasnih rezervacij, dokler vsota udeležencev ne preseže capacity
+ALTER TABLE booking.locations
+    ADD COLUMN IF NOT EXISTS shared_capacity BOOLEAN NOT NULL DEFAULT FALSE;
+
+ALTER TABLE booking.bookings
+    ADD COLUMN IF NOT EXISTS headcount INT NOT NULL DEFAULT 1;
@@ -0,0 +1,5 @@
+-- Lokacije, ki se rezervirajo v fiksnih intervalih (npr. 15 ali 30 minut),
+-- uporabljajo bitni indeks zasedenosti namesto intervalnih poizvedb
+ALTER TABLE booking.locations
+    ADD COLUMN IF NOT EXISTS slot_minutes INT
+        CHECK (slot_minutes IS NULL OR (slot_minutes > 0 AND 1440 % slot_minutes = 0));
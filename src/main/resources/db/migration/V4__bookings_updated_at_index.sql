@@ -0,0 +1,3 @@
+-- Dohitevanje sprememb po nalaganju posnetka indeksa zasedenosti (updated_at > high-water mark)
+CREATE INDEX IF NOT EXISTS idx_bookings_updated_at
+    ON booking.bookings(updated_at);
@@ -0,0 +1,3 @@
+-- Izvoz rezervacij po obdobju (start_time) v vrstnem redu indeksa - kurzor vrne prve vrstice brez sortiranja
+CREATE INDEX IF NOT EXISTS idx_bookings_start_time
+    ON booking.bookings(start_time, id);
@@ -0,0 +1,34 @@
+-- Sprotno vzdrževani dnevni agregati aktivnih rezervacij (PENDING_PAYMENT, CONFIRMED) po lokaciji.
+-- Rezervacija šteje in prinese prihodek na dan začetka, minute se razdelijo po dnevih (UTC).
+CREATE TABLE IF NOT EXISTS booking.location_daily_stats (
+    location_id UUID NOT NULL REFERENCES booking.locations(id),
+    booking_date DATE NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    booking_count INT NOT NULL,
+    booked_minutes BIGINT NOT NULL,
+    seat_minutes BIGINT NOT NULL,
+    revenue_cents BIGINT NOT NULL,
+    PRIMARY KEY (location_id, booking_date, currency)
+);
+
+CREATE INDEX IF NOT EXISTS idx_location_daily_stats_date
+    ON booking.location_daily_stats(booking_date);
+
+-- Začetno polnjenje iz obstoječih rezervacij
+INSERT INTO booking.location_daily_stats
+    (location_id, booking_date, currency, booking_count, booked_minutes, seat_minutes, revenue_cents)
+SELECT b.location_id,
+       d.day::date,
+       b.currency,
+       sum(CASE WHEN d.day = date_trunc('day', b.start_time) THEN 1 ELSE 0 END),
+       sum(m.minutes),
+       sum(m.minutes * b.headcount),
+       sum(CASE WHEN d.day = date_trunc('day', b.start_time) THEN b.total_amount_cents ELSE 0 END)
+FROM booking.bookings b
+CROSS JOIN LATERAL generate_series(date_trunc('day', b.start_time), b.end_time - interval '1 microsecond', interval '1 day') AS d(day)
+CROSS JOIN LATERAL (
+    SELECT floor(extract(epoch FROM least(b.end_time, d.day + interval '1 day') - greatest(b.start_time, d.day)) / 60)::bigint AS minutes
+) m
+WHERE b.status IN ('PENDING_PAYMENT', 'CONFIRMED')
+GROUP BY b.location_id, d.day, b.currency
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,30 @@
+-- Cenovna pravila: location_id NULL velja za vse lokacije.
+-- TIME_BAND: v izbranih dneh (bitna maska, bit 0 = ponedeljek) med start_minute in end_minute
+--            (minute od polnoči v pricing.zone; end <= start pomeni čez polnoč) velja rate_percent osnovne cene.
+--            Prekrivajoči se pasovi se množijo.
+-- DURATION_DISCOUNT: rezervacije z vsaj min_minutes obračunanimi minutami dobijo discount_percent popusta.
+--            Velja največji ustrezni popust.
+CREATE TABLE IF NOT EXISTS booking.pricing_rules (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    location_id UUID REFERENCES booking.locations(id),
+    rule_type TEXT NOT NULL,
+    days_of_week INT,
+    start_minute INT,
+    end_minute INT,
+    rate_percent INT,
+    min_minutes INT,
+    discount_percent INT,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    CONSTRAINT chk_pricing_rules_type CHECK (rule_type IN ('TIME_BAND', 'DURATION_DISCOUNT')),
+    CONSTRAINT chk_pricing_rules_band CHECK (rule_type <> 'TIME_BAND' OR (
+        days_of_week BETWEEN 1 AND 127
+        AND start_minute BETWEEN 0 AND 1439
+        AND end_minute BETWEEN 0 AND 1440
+        AND rate_percent > 0)),
+    CONSTRAINT chk_pricing_rules_discount CHECK (rule_type <> 'DURATION_DISCOUNT' OR (
+        min_minutes > 0
+        AND discount_percent BETWEEN 0 AND 100))
+);
+
+CREATE INDEX IF NOT EXISTS idx_pricing_rules_location
+    ON booking.pricing_rules(location_id);
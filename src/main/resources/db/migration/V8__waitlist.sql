@@ -0,0 +1,29 @@
+-- Čakalna vrsta za zasedena okna. Ob preklicu rezervacije se prvi čakajoči (po created_at),
+-- katerega okno je znova prosto, promovira v rezervacijo.
+CREATE TABLE IF NOT EXISTS booking.waitlist_entries (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    location_id UUID NOT NULL REFERENCES booking.locations(id),
+    event_id UUID,
+    organization_id UUID NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    headcount INT NOT NULL DEFAULT 1,
+    currency VARCHAR(3) NOT NULL,
+    status TEXT NOT NULL,
+    booking_id UUID REFERENCES booking.bookings(id),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT chk_waitlist_window CHECK (end_time > start_time)
+);
+
+-- Iskanje kandidatov ob preklicu: lokacija + razpon začetkov (okno je omejeno z booking.waitlist.max-window)
+CREATE INDEX IF NOT EXISTS idx_waitlist_waiting_location_start
+    ON booking.waitlist_entries(location_id, start_time) WHERE status = 'WAITING';
+
+-- Potek čakajočih, katerih okno se je že začelo
+CREATE INDEX IF NOT EXISTS idx_waitlist_waiting_start
+    ON booking.waitlist_entries(start_time) WHERE status = 'WAITING';
+
+-- Ena čakajoča prijava na organizacijo za isto okno
+CREATE UNIQUE INDEX IF NOT EXISTS uq_waitlist_waiting_window
+    ON booking.waitlist_entries(location_id, organization_id, start_time, end_time) WHERE status = 'WAITING';
@@ -0,0 +1,28 @@
+-- Kratkotrajne zadržitve okna (leases) pred ustvarjanjem rezervacije.
+-- Vrstice se samo vstavljajo in brišejo (pretvorba v rezervacijo, sprostitev, potek) - brez posodobitev.
+-- Agresiven autovacuum neodvisno od velikosti tabele sproti sprosti prostor izbrisanih vrstic,
+-- zato tabela ostane velika približno toliko kot največje število hkratnih zadržitev.
+CREATE TABLE IF NOT EXISTS booking.slot_holds (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    location_id UUID NOT NULL REFERENCES booking.locations(id),
+    organization_id UUID NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    headcount INT NOT NULL DEFAULT 1,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT chk_slot_holds_window CHECK (end_time > start_time)
+) WITH (
+    autovacuum_vacuum_scale_factor = 0,
+    autovacuum_vacuum_threshold = 5000,
+    autovacuum_vacuum_insert_scale_factor = 0,
+    autovacuum_vacuum_insert_threshold = 5000
+);
+
+-- Štetje zadržitev v findConflicts
+CREATE INDEX IF NOT EXISTS idx_slot_holds_location_time
+    ON booking.slot_holds(location_id, start_time);
+
+-- Paketno brisanje poteklih zadržitev
+CREATE INDEX IF NOT EXISTS idx_slot_holds_expires_at
+    ON booking.slot_holds(expires_at);
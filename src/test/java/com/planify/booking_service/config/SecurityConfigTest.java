@@ -0,0 +1,77 @@
+package com.planify.booking_service.config;
+
+import com.planify.booking_service.controller.BookingExportController;
+import com.planify.booking_service.service.BookingExportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = BookingExportController.class, properties = "booking.query-timeouts.enabled=false")
+@Import(SecurityConfig.class)
+@DisplayName("SecurityConfig Tests")
+class SecurityConfigTest {
+
+    private static final String EXPORT = "/api/booking/export?from=2025-01-01&to=2025-02-01&format=csv";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private BookingExportService bookingExportService;
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Test
+    @DisplayName("Should reject an export without a bearer token")
+    void testExport_Anonymous() throws Exception {
+        mockMvc.perform(get(EXPORT)).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Should forbid an export for a token without an export role")
+    void testExport_WithoutRole() throws Exception {
+        // Given
+        givenToken("user-token", List.of("organizer"));
+
+        // When / Then
+        mockMvc.perform(get(EXPORT).header("Authorization", "Bearer user-token")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Should allow an export for the finance role within the maximum range")
+    void testExport_FinanceRole() throws Exception {
+        // Given
+        givenToken("finance-token", List.of("finance"));
+
+        // When / Then
+        mockMvc.perform(get(EXPORT).header("Authorization", "Bearer finance-token")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/booking/export?from=2025-01-01&to=2026-01-01")
+                .header("Authorization", "Bearer finance-token"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private void givenToken(String token, List<String> roles) {
+        when(jwtDecoder.decode(token)).thenReturn(Jwt.withTokenValue(token)
+            .header("alg", "RS256")
+            .subject("user")
+            .issuedAt(Instant.now())
+            .expiresAt(Instant.now().plusSeconds(60))
+            .claim("realm_access", Map.of("roles", roles))
+            .build());
+    }
+}
@@ -0,0 +1,192 @@
+package com.planify.booking_service.controller;
+
+import com.planify.booking_service.config.AdaptiveLimitProperties;
+import com.planify.booking_service.config.AdmissionProperties;
+import com.planify.booking_service.config.ProtobufConfig;
+import com.planify.booking_service.exception.GlobalExceptionHandler;
+import com.planify.booking_service.exception.RateLimitExceededException;
+import com.planify.booking_service.grpc.CheckAvailabilityResponse;
+import com.planify.booking_service.repository.LocationRepository;
+import com.planify.booking_service.resilience.AdaptiveLimiterRegistry;
+import com.planify.booking_service.resilience.OrganizationAdmission;
+import com.planify.booking_service.service.AvailabilityService;
+import com.planify.booking_service.service.ResourceVersions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.protobuf.ProtobufHttpMessageConverter;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AvailabilityController Tests")
+class AvailabilityControllerTest {
+
+    @Mock
+    private AvailabilityService availabilityService;
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    private MockMvc mockMvc;
+    private UUID locationId;
+    private UUID conflictId;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = mockMvc(new AdmissionProperties());
+        locationId = UUID.randomUUID();
+        conflictId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should return a protobuf CheckAvailabilityResponse for Accept: application/x-protobuf")
+    void testCheckAvailability_Protobuf() throws Exception {
+        // Given
+        when(availabilityService.checkConflicts(eq(locationId), any(), any(), anyInt())).thenReturn(List.of(conflictId));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/booking/{id}/availability", locationId)
+                .param("start", "1735036800000")
+                .param("end", "1735040400000")
+                .accept(ProtobufConfig.PROTOBUF_VALUE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(ProtobufConfig.PROTOBUF_VALUE))
+            .andReturn();
+
+        // Then
+        CheckAvailabilityResponse response = CheckAvailabilityResponse.parseFrom(result.getResponse().getContentAsByteArray());
+        assertThat(response.getAvailable()).isFalse();
+        assertThat(response.getConflictingBookingIdsList()).containsExactly(conflictId.toString());
+        assertThat(result.getResponse().getHeader("ETag")).endsWith("-pb\"");
+        assertThat(result.getResponse().getHeader("Vary")).contains("Accept");
+    }
+
+    @Test
+    @DisplayName("Should keep JSON as the default for browsers and clients without Accept")
+    void testCheckAvailability_JsonDefault() throws Exception {
+        // Given
+        when(availabilityService.checkConflicts(eq(locationId), any(), any(), anyInt())).thenReturn(List.of());
+
+        // When / Then
+        mockMvc.perform(get("/api/booking/{id}/availability", locationId)
+                .param("start", "1735036800000")
+                .param("end", "1735040400000"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.available").value(true));
+        mockMvc.perform(get("/api/booking/{id}/availability", locationId)
+                .param("start", "1735036800000")
+                .param("end", "1735040400000")
+                .accept(MediaType.ALL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("Should keep the error status when a protobuf client is rate limited")
+    void testCheckAvailability_ProtobufRateLimited() throws Exception {
+        // Given
+        when(availabilityService.checkConflicts(eq(locationId), any(), any(), anyInt()))
+            .thenThrow(new RateLimitExceededException("availabilityService", "standard"));
+
+        // When / Then
+        mockMvc.perform(get("/api/booking/{id}/availability", locationId)
+                .param("start", "1735036800000")
+                .param("end", "1735040400000")
+                .accept(ProtobufConfig.PROTOBUF_VALUE))
+            .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    @DisplayName("Should rate limit by the organization in the token and ignore the X-Organization-Id header")
+    void testCheckAvailability_OrganizationFromToken() throws Exception {
+        // Given - ena zahteva na organizacijo, nato 429
+        AdmissionProperties properties = new AdmissionProperties();
+        AdmissionProperties.Tier tier = new AdmissionProperties.Tier();
+        tier.setRatePerSecond(0.001);
+        tier.setBurst(1);
+        properties.getTiers().put("standard", tier);
+        MockMvc limited = mockMvc(properties);
+        UUID organizationId = UUID.randomUUID();
+        when(availabilityService.checkConflicts(eq(locationId), any(), any(), anyInt())).thenReturn(List.of());
+        Jwt token = Jwt.withTokenValue("token")
+            .header("alg", "RS256")
+            .subject("user")
+            .claim("organization_id", organizationId.toString())
+            .build();
+
+        // When / Then
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(token));
+        try {
+            limited.perform(availability()).andExpect(status().isOk());
+            limited.perform(availability()).andExpect(status().isTooManyRequests());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        limited.perform(availability().header("X-Organization-Id", organizationId.toString()))
+            .andExpect(status().isOk());
+        limited.perform(availability()).andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    @DisplayName("Should not answer 304 to an ETag issued for another window or headcount")
+    void testCheckAvailability_EtagCoversQuery() throws Exception {
+        // Given
+        when(availabilityService.checkConflicts(eq(locationId), any(), any(), anyInt())).thenReturn(List.of());
+        String etag = mockMvc.perform(availability())
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("ETag");
+
+        // When / Then
+        mockMvc.perform(availability().header("If-None-Match", etag))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(availability().param("headcount", "1").header("If-None-Match", etag))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/booking/{id}/availability", locationId)
+                .param("start", "1735036800000")
+                .param("end", "1735044000000")
+                .header("If-None-Match", etag))
+            .andExpect(status().isOk());
+        mockMvc.perform(availability().param("headcount", "40").header("If-None-Match", etag))
+            .andExpect(status().isOk());
+    }
+
+    private MockHttpServletRequestBuilder availability() {
+        return get("/api/booking/{id}/availability", locationId)
+            .param("start", "1735036800000")
+            .param("end", "1735040400000");
+    }
+
+    private MockMvc mockMvc(AdmissionProperties properties) {
+        AvailabilityController controller = new AvailabilityController(availabilityService, new ResourceVersions(locationRepository),
+            new OrganizationAdmission(properties,
+                new AdaptiveLimiterRegistry(new AdaptiveLimitProperties(), new SimpleMeterRegistry()), new SimpleMeterRegistry()));
+        return MockMvcBuilders.standaloneSetup(controller)
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .setMessageConverters(new ProtobufHttpMessageConverter(), new MappingJackson2HttpMessageConverter())
+            .build();
+    }
+}
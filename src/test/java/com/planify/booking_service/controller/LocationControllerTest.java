@@ -0,0 +1,203 @@
+package com.planify.booking_service.controller;
+
+import com.planify.booking_service.datasource.ReplicaReads;
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.repository.LocationRepository;
+import com.planify.booking_service.repository.LocationSearchCriteria;
+import com.planify.booking_service.service.LocationCalendarFeed;
+import com.planify.booking_service.service.LocationSearchService;
+import com.planify.booking_service.service.ResourceVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LocationController Tests")
+class LocationControllerTest {
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    @Mock
+    private LocationCalendarFeed locationCalendarFeed;
+
+    private ResourceVersions resourceVersions;
+    private LocationController locationController;
+    private Location testLocation;
+
+    @BeforeEach
+    void setUp() {
+        resourceVersions = new ResourceVersions(locationRepository);
+        locationController = new LocationController(locationRepository, resourceVersions, locationCalendarFeed, new ReplicaReads(),
+            new LocationSearchService(locationRepository));
+        ReflectionTestUtils.setField(locationController, "locationsMaxAge", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(locationController, "calendarMaxAge", Duration.ofMinutes(5));
+
+        testLocation = Location.builder()
+            .id(UUID.randomUUID())
+            .name("Test Location")
+            .capacity(100)
+            .pricePerHourCents(5000)
+            .active(true)
+            .build();
+    }
+
+    @Test
+    @DisplayName("Should query the database once while a client polls with the returned ETag")
+    void testGetAllActive_RepeatedPollingHitsDatabaseOnce() {
+        // Given
+        when(locationRepository.findByActiveTrueOrderByNameAsc()).thenReturn(List.of(testLocation));
+        ResponseEntity<List<Location>> first = locationController.getAllActive(request(null));
+        String etag = first.getHeaders().getETag();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            ResponseEntity<List<Location>> poll = locationController.getAllActive(request(etag));
+            assertThat(poll.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+            assertThat(poll.getBody()).isNull();
+        }
+
+        // Then
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getHeaders().getCacheControl()).contains("max-age=30", "must-revalidate", "public");
+        verify(locationRepository, times(1)).findByActiveTrueOrderByNameAsc();
+    }
+
+    @Test
+    @DisplayName("Should return fresh data after the locations changed")
+    void testGetById_ChangedLocationsInvalidateEtag() {
+        // Given
+        when(locationRepository.findById(testLocation.getId())).thenReturn(Optional.of(testLocation));
+        when(locationRepository.fingerprint()).thenReturn("a", "b");
+        resourceVersions.pollLocations();
+        String etag = locationController.getById(testLocation.getId(), request(null)).getHeaders().getETag();
+
+        // When
+        resourceVersions.pollLocations();
+        ResponseEntity<Location> response = locationController.getById(testLocation.getId(), request(etag));
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(etag);
+        verify(locationRepository, times(2)).findById(testLocation.getId());
+    }
+
+    @Test
+    @DisplayName("Should keep the ETag when a poll finds no change")
+    void testPollLocations_UnchangedKeepsEtag() {
+        // Given
+        when(locationRepository.fingerprint()).thenReturn("a");
+        resourceVersions.pollLocations();
+        String etag = resourceVersions.locationsEtag("json");
+
+        // When
+        resourceVersions.pollLocations();
+
+        // Then
+        assertThat(resourceVersions.locationsEtag("json")).isEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("Should return 304 for a calendar client polling with the feed ETag")
+    void testGetCalendar_NotModified() {
+        // Given
+        byte[] body = "BEGIN:VCALENDAR\r\nEND:VCALENDAR\r\n".getBytes(StandardCharsets.UTF_8);
+        Instant lastModified = Instant.parse("2025-01-10T09:00:00Z");
+        when(locationCalendarFeed.render(testLocation.getId()))
+            .thenReturn(Optional.of(new LocationCalendarFeed.Rendered(body, "\"abc\"", lastModified)));
+
+        // When
+        ResponseEntity<byte[]> first = locationController.getCalendar(testLocation.getId(), request(null));
+        ResponseEntity<byte[]> poll = locationController.getCalendar(testLocation.getId(), request("\"abc\""));
+
+        // Then
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody()).isEqualTo(body);
+        assertThat(first.getHeaders().getLastModified()).isEqualTo(lastModified.toEpochMilli());
+        assertThat(poll.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(poll.getBody()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should continue the search after the last location of the previous page")
+    void testSearch_CursorContinuesAfterLastRow() {
+        // Given
+        Location next = Location.builder().id(UUID.randomUUID()).name("Zeta Hall").capacity(80)
+            .pricePerHourCents(7000).active(true).build();
+        ArgumentCaptor<LocationSearchCriteria> criteria = ArgumentCaptor.forClass(LocationSearchCriteria.class);
+        when(locationRepository.search(criteria.capture()))
+            .thenReturn(List.of(testLocation, next))
+            .thenReturn(List.of(next));
+
+        // When
+        ResponseEntity<LocationController.LocationSearchResponseDto> first =
+            locationController.search(50, 10000, "hall", null, null, 1, "name", null, 1);
+        ResponseEntity<LocationController.LocationSearchResponseDto> second =
+            locationController.search(50, 10000, "hall", null, null, 1, "name", first.getBody().getNextCursor(), 1);
+
+        // Then
+        assertThat(first.getBody().getLocations()).containsExactly(testLocation);
+        assertThat(first.getBody().getNextCursor()).isNotNull();
+        assertThat(second.getBody().getLocations()).containsExactly(next);
+        assertThat(second.getBody().getNextCursor()).isNull();
+        LocationSearchCriteria secondCriteria = criteria.getAllValues().get(1);
+        assertThat(secondCriteria.afterKey()).isEqualTo("Test Location");
+        assertThat(secondCriteria.afterId()).isEqualTo(testLocation.getId());
+        assertThat(secondCriteria.limit()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reject a half-open window and a cursor issued for another sort")
+    void testSearch_InvalidParameters() {
+        // Given
+        String priceCursor = new LocationSearchService.Cursor(LocationSearchCriteria.Sort.PRICE, 5000, testLocation.getId())
+            .encode();
+
+        // When
+        ResponseEntity<LocationController.LocationSearchResponseDto> halfWindow =
+            locationController.search(null, null, null, 1735036800000L, null, 1, "name", null, 20);
+        ResponseEntity<LocationController.LocationSearchResponseDto> emptyWindow =
+            locationController.search(null, null, null, 1735036800000L, 1735036800000L, 1, "name", null, 20);
+        ResponseEntity<LocationController.LocationSearchResponseDto> otherSort =
+            locationController.search(null, null, null, null, null, 1, "name", priceCursor, 20);
+        ResponseEntity<LocationController.LocationSearchResponseDto> unknownSort =
+            locationController.search(null, null, null, null, null, 1, "rating", null, 20);
+
+        // Then
+        assertThat(halfWindow.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(emptyWindow.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(otherSort.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(unknownSort.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(locationRepository, never()).search(any());
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/locations");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,170 @@
+package com.planify.booking_service.datasource;
+
+import com.planify.booking_service.config.HedgingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HedgedReads Tests")
+class HedgedReadsTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private MeterRegistry meterRegistry;
+    private HedgingProperties properties;
+    private HedgedReads hedgedReads;
+    private Session firstSession;
+    private Session hedgeSession;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new HedgingProperties();
+        properties.setEnabled(true);
+        properties.setMinDelay(Duration.ofMillis(1));
+        properties.setMaxDelay(Duration.ofMillis(20));
+        properties.setWindow(100);
+        firstSession = mock(Session.class);
+        hedgeSession = mock(Session.class);
+        lenient().when(entityManager.unwrap(Session.class)).thenReturn(firstSession, hedgeSession);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (hedgedReads != null) {
+            hedgedReads.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should run the query directly when hedging is disabled")
+    void testCall_Disabled() {
+        // Given
+        properties.setEnabled(false);
+        hedgedReads = new HedgedReads(properties, transactionManager, entityManager, meterRegistry);
+
+        // When
+        String thread = hedgedReads.call("checkAvailability", () -> Thread.currentThread().getName());
+
+        // Then
+        assertThat(thread).isEqualTo(Thread.currentThread().getName());
+        assertThat(meterRegistry.find("booking.hedging.requests").counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should return the hedge result and cancel the slow first query")
+    void testCall_HedgeWins() throws InterruptedException {
+        // Given
+        properties.setBudgetRatio(1.0);
+        hedgedReads = new HedgedReads(properties, transactionManager, entityManager, meterRegistry);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            cancelled.countDown();
+            return null;
+        }).when(firstSession).cancelQuery();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        String result = hedgedReads.call("checkAvailability", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                await(cancelled);
+                throw new IllegalStateException("canceling statement due to user request");
+            }
+            return "hedge";
+        });
+
+        // Then
+        assertThat(result).isEqualTo("hedge");
+        assertThat(cancelled.await(1, TimeUnit.SECONDS)).isTrue();
+        verify(hedgeSession, never()).cancelQuery();
+        assertThat(outcome("hedge-won")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should wait for the first query when the hedge budget is spent")
+    void testCall_BudgetExhausted() {
+        // Given
+        properties.setBudgetRatio(0.0);
+        hedgedReads = new HedgedReads(properties, transactionManager, entityManager, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        String result = hedgedReads.call("checkAvailability", () -> {
+            attempts.incrementAndGet();
+            sleep(60);
+            return "first";
+        });
+
+        // Then
+        assertThat(result).isEqualTo("first");
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(outcome("budget-exhausted")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should derive the hedge delay from the latency percentile within bounds")
+    void testHedgeDelay_FollowsPercentile() {
+        // Given
+        hedgedReads = new HedgedReads(properties, transactionManager, entityManager, meterRegistry);
+        assertThat(hedgedReads.hedgeDelay()).isEqualTo(Duration.ofMillis(20));
+
+        // When
+        for (int i = 1; i <= 100; i++) {
+            hedgedReads.recordLatency(Duration.ofMillis(i <= 95 ? 2 : 8).toNanos());
+        }
+        Duration delay = hedgedReads.hedgeDelay();
+        for (int i = 0; i < 100; i++) {
+            hedgedReads.recordLatency(Duration.ofMillis(50).toNanos());
+        }
+
+        // Then
+        assertThat(delay).isEqualTo(Duration.ofMillis(2));
+        assertThat(hedgedReads.hedgeDelay()).isEqualTo(Duration.ofMillis(20));
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.counter("booking.hedging.requests", "name", "checkAvailability", "outcome", outcome).count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
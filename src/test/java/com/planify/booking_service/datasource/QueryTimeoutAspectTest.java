@@ -0,0 +1,114 @@
+package com.planify.booking_service.datasource;
+
+import com.planify.booking_service.config.QueryTimeoutProperties;
+import com.planify.booking_service.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.jdbc.PgStatement;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QueryTimeoutAspect Tests")
+class QueryTimeoutAspectTest {
+
+    private static final String INSERT = "insert into bookings values (?)";
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private PgStatement pgStatement;
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Mock
+    private Signature signature;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private QueryTimeoutAspect aspect;
+    private TimeoutDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        QueryTimeoutProperties properties = new QueryTimeoutProperties();
+        properties.getMethods().put("BookingRepository.save", Duration.ofSeconds(3));
+        aspect = new QueryTimeoutAspect(properties);
+        dataSource = new TimeoutDataSource(target, new SimpleMeterRegistry());
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(INSERT)).thenReturn(statement);
+        lenient().when(statement.isWrapperFor(PgStatement.class)).thenReturn(true);
+        lenient().when(statement.unwrap(PgStatement.class)).thenReturn(pgStatement);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getName()).thenReturn("save");
+        when(joinPoint.getThis()).thenReturn(bookingRepository);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("Should flush a deferred INSERT at commit after the request deadline has passed")
+    void testCommitFlush_ExemptFromRequestDeadline() throws Throwable {
+        // Given - save v transakciji le zabeleži INSERT; rok odjemalca poteče pred commitom
+        Connection proxy = dataSource.getConnection();
+        QueryDeadline.Scope scope = QueryDeadline.Scope.after(Duration.ofMillis(-1));
+        AtomicReference<Duration> afterCommitTimeout = new AtomicReference<>();
+        when(joinPoint.proceed()).thenReturn(null);
+
+        try (QueryDeadline.Entered entered = QueryDeadline.enter(scope)) {
+            aspect.limit(joinPoint);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    afterCommitTimeout.set(QueryDeadline.operationTimeout());
+                }
+            });
+
+            // When - commit: beforeCommit, beforeCompletion, flush, afterCommit
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            TransactionSynchronizationUtils.triggerBeforeCompletion();
+            proxy.prepareStatement(INSERT);
+            TransactionSynchronizationUtils.triggerAfterCommit();
+
+            // Then - delo po commitu ima spet rok zahtevka
+            assertThat(QueryDeadline.current()).isSameAs(scope);
+            assertThatThrownBy(() -> proxy.prepareStatement(INSERT)).isInstanceOf(SQLTimeoutException.class);
+        }
+        verify(pgStatement).setQueryTimeoutMs(3000L);
+        assertThat(afterCommitTimeout.get()).isNull();
+        assertThat(QueryDeadline.operationTimeout()).isNull();
+    }
+}
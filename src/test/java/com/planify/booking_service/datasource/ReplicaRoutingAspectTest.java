@@ -0,0 +1,149 @@
+package com.planify.booking_service.datasource;
+
+import com.planify.booking_service.config.ReplicaProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReplicaRoutingAspect Tests")
+class ReplicaRoutingAspectTest {
+
+    @Mock
+    private ReplicationLagMonitor lagMonitor;
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    private MeterRegistry meterRegistry;
+    private ReplicaRoutingAspect aspect;
+    private Connection primaryConnection;
+    private Connection replicaConnection;
+
+    @BeforeEach
+    void setUp() throws Throwable {
+        ReplicaProperties properties = new ReplicaProperties();
+        properties.setMaxLag(Duration.ofSeconds(2));
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new ReplicaRoutingAspect(lagMonitor, properties, meterRegistry);
+
+        // Nadomestna vira: klic vrne povezavo, ki jo je izbral usmerjevalni DataSource
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaConnection = mock(Connection.class);
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        lenient().when(replica.getConnection()).thenReturn(replicaConnection);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica);
+        when(joinPoint.proceed()).thenAnswer(invocation -> routing.getConnection());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("Should read from the replica while its lag is within max-lag")
+    void testRoute_ReplicaWithinLag() throws Throwable {
+        // Given
+        givenLag(Duration.ofMillis(300));
+
+        // When
+        Object connection = aspect.route(joinPoint);
+
+        // Then
+        assertThat(connection).isSameAs(replicaConnection);
+        assertThat(routed("replica", "replica")).isEqualTo(1.0);
+        assertThat(ReplicaContext.route()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary when the replica lags or its lag is unknown")
+    void testRoute_LaggingOrUnavailable() throws Throwable {
+        // Given
+        givenLag(Duration.ofSeconds(5));
+
+        // When
+        Object lagging = aspect.route(joinPoint);
+        when(lagMonitor.lag()).thenReturn(Optional.empty());
+        Object unavailable = aspect.route(joinPoint);
+
+        // Then
+        assertThat(lagging).isSameAs(primaryConnection);
+        assertThat(unavailable).isSameAs(primaryConnection);
+        assertThat(routed("primary", "replica-lagging")).isEqualTo(1.0);
+        assertThat(routed("primary", "replica-unavailable")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should keep conflict checks inside a write transaction on the primary")
+    void testRoute_WriteTransaction() throws Throwable {
+        // Given
+        lenient().when(lagMonitor.lag()).thenReturn(Optional.of(Duration.ZERO));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+        // When
+        Object connection = aspect.route(joinPoint);
+
+        // Then
+        assertThat(connection).isSameAs(primaryConnection);
+        assertThat(routed("primary", "write-transaction")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should use the primary when the replica has not replayed the change behind the ETag")
+    void testRoute_RecentChange() throws Throwable {
+        // Given
+        Instant replayedUpTo = givenLag(Duration.ofMillis(500));
+
+        // When
+        Object fresh = ReplicaContext.freshAsOf(replayedUpTo.minusSeconds(10), () -> route(joinPoint));
+        Object recent = ReplicaContext.freshAsOf(replayedUpTo.plusMillis(100), () -> route(joinPoint));
+
+        // Then
+        assertThat(fresh).isSameAs(replicaConnection);
+        assertThat(recent).isSameAs(primaryConnection);
+        assertThat(routed("primary", "recent-change")).isEqualTo(1.0);
+    }
+
+    private Instant givenLag(Duration lag) {
+        Instant replayedUpTo = Instant.now().minus(lag);
+        when(lagMonitor.lag()).thenReturn(Optional.of(lag));
+        lenient().when(lagMonitor.replayedUpTo()).thenReturn(Optional.of(replayedUpTo));
+        return replayedUpTo;
+    }
+
+    private Object route(ProceedingJoinPoint joinPoint) {
+        try {
+            return aspect.route(joinPoint);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private double routed(String target, String reason) {
+        return meterRegistry.counter("booking.datasource.routing", "target", target, "reason", reason).count();
+    }
+}
@@ -0,0 +1,130 @@
+package com.planify.booking_service.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.jdbc.PgStatement;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TimeoutDataSource Tests")
+class TimeoutDataSourceTest {
+
+    private static final String SQL = "SELECT 1";
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private PgStatement pgStatement;
+
+    private MeterRegistry meterRegistry;
+    private TimeoutDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new TimeoutDataSource(target, meterRegistry);
+        lenient().when(target.getConnection()).thenReturn(connection);
+        lenient().when(connection.prepareStatement(SQL)).thenReturn(statement);
+        lenient().when(statement.isWrapperFor(PgStatement.class)).thenReturn(true);
+        lenient().when(statement.unwrap(PgStatement.class)).thenReturn(pgStatement);
+    }
+
+    @Test
+    @DisplayName("Should leave statements outside requests and limited methods without a timeout")
+    void testPrepare_NoDeadline() throws Exception {
+        // When
+        dataSource.getConnection().prepareStatement(SQL);
+
+        // Then
+        verify(pgStatement, never()).setQueryTimeoutMs(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should use the shorter of the method timeout and the remaining request deadline")
+    void testPrepare_MethodTimeoutBoundedByDeadline() throws Exception {
+        // Given
+        Connection proxy = dataSource.getConnection();
+        ArgumentCaptor<Long> timeout = ArgumentCaptor.forClass(Long.class);
+
+        // When
+        QueryDeadline.operationTimeout(Duration.ofSeconds(2));
+        try (QueryDeadline.Entered entered = QueryDeadline.enter(QueryDeadline.Scope.after(Duration.ofMillis(300)))) {
+            proxy.prepareStatement(SQL);
+        } finally {
+            QueryDeadline.operationTimeout(null);
+        }
+        proxy.prepareStatement(SQL);
+
+        // Then
+        verify(pgStatement).setQueryTimeoutMs(timeout.capture());
+        assertThat(timeout.getValue()).isBetween(1L, 300L);
+        assertThat(QueryDeadline.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not start a query once the request deadline has passed")
+    void testPrepare_DeadlinePassed() throws Exception {
+        // Given
+        Connection proxy = dataSource.getConnection();
+        QueryDeadline.Scope scope = QueryDeadline.Scope.after(Duration.ofMillis(-1));
+
+        // When / Then
+        try (QueryDeadline.Entered entered = QueryDeadline.enter(scope)) {
+            assertThatThrownBy(() -> proxy.prepareStatement(SQL)).isInstanceOf(SQLTimeoutException.class);
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTimeoutException.class);
+        }
+        verify(statement).close();
+        assertThat(meterRegistry.counter("booking.query.abandoned", "reason", "deadline-passed").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should cancel running statements when the client cancels the request")
+    void testCancel_CancelsRegisteredStatements() throws Exception {
+        // Given
+        Connection proxy = dataSource.getConnection();
+        QueryDeadline.Scope scope = QueryDeadline.Scope.unbounded();
+        PreparedStatement second = mock(PreparedStatement.class);
+        when(connection.prepareStatement("SELECT 2")).thenReturn(second);
+
+        // When
+        try (QueryDeadline.Entered entered = QueryDeadline.enter(scope)) {
+            proxy.prepareStatement(SQL);
+            scope.cancel();
+            assertThatThrownBy(() -> proxy.prepareStatement("SELECT 2")).isInstanceOf(SQLTimeoutException.class);
+        }
+
+        // Then
+        verify(statement).cancel();
+        verify(pgStatement, never()).setQueryTimeoutMs(anyLong());
+        verify(second).close();
+        assertThat(meterRegistry.counter("booking.query.abandoned", "reason", "cancelled").count()).isEqualTo(1.0);
+    }
+}
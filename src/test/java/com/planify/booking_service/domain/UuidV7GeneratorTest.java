@@ -0,0 +1,50 @@
+package com.planify.booking_service.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("UuidV7Generator Tests")
+class UuidV7GeneratorTest {
+
+    @Test
+    @DisplayName("Should produce RFC 9562 version 7 ids carrying the current Unix time in milliseconds")
+    void testNext_VersionVariantAndTimestamp() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        // Then
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        // Ob preteku števca (več kot ~2000 ključev v milisekundi) lahko čas prehiti uro za nekaj ms
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertThat(millis).isBetween(before, after + 10);
+    }
+
+    @Test
+    @DisplayName("Should generate strictly increasing ids, also within the same millisecond")
+    void testNext_Monotonic() {
+        // Given
+        List<UUID> ids = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 50_000; i++) {
+            ids.add(UuidV7Generator.next());
+        }
+
+        // Then - primerjava kot nepredznačena števila, tako kot jih uredi Postgres
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(Long.compareUnsigned(ids.get(i).getMostSignificantBits(), ids.get(i - 1).getMostSignificantBits()))
+                .isPositive();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.planify.booking_service.logging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RequestLogSampler Tests")
+class RequestLogSamplerTest {
+
+    @Mock
+    private Logger log;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong second;
+    private RequestLogSampler sampler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        second = new AtomicLong(1000);
+        sampler = new RequestLogSampler(3, meterRegistry, second::get);
+    }
+
+    @Test
+    @DisplayName("Should log at most the configured lines per second and count the rest")
+    void testSample_LimitsPerSecond() {
+        // Given
+        when(log.isInfoEnabled()).thenReturn(true);
+
+        // When
+        int logged = 0;
+        for (int i = 0; i < 10; i++) {
+            if (sampler.sample(log, "checkAvailability")) {
+                logged++;
+            }
+        }
+
+        // Then
+        assertThat(logged).isEqualTo(3);
+        assertThat(meterRegistry.get("booking.logging.suppressed").counter().count()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should start a new budget every second and keep operations separate")
+    void testSample_NewSecondAndSeparateOperations() {
+        // Given
+        when(log.isInfoEnabled()).thenReturn(true);
+        for (int i = 0; i < 3; i++) {
+            sampler.sample(log, "createBooking");
+        }
+
+        // When / Then
+        assertThat(sampler.sample(log, "createBooking")).isFalse();
+        assertThat(sampler.sample(log, "cancelBooking")).isTrue();
+        second.incrementAndGet();
+        assertThat(sampler.sample(log, "createBooking")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not sample or count when INFO is disabled")
+    void testSample_InfoDisabled() {
+        // Given
+        when(log.isInfoEnabled()).thenReturn(false);
+
+        // When / Then
+        assertThat(sampler.sample(log, "checkAvailability")).isFalse();
+        assertThat(meterRegistry.get("booking.logging.suppressed").counter().count()).isZero();
+    }
+}
@@ -0,0 +1,129 @@
+package com.planify.booking_service.messaging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BookingChangeListener Unit Tests")
+class BookingChangeListenerTest {
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookingChangeListener listener;
+
+    private UUID locationId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new BookingChangeListener(new DataSourceProperties(), eventPublisher, meterRegistry);
+        locationId = UUID.randomUUID();
+        start = LocalDateTime.of(2025, 1, 10, 10, 0);
+        end = start.plusHours(2);
+    }
+
+    @Test
+    @DisplayName("Should round-trip booking change payload")
+    void testPayload_RoundTrip() {
+        // Given
+        BookingChangedEvent event = new BookingChangedEvent(locationId, start, end, "pod-a", 1_735_000_000_000L);
+
+        // When
+        BookingChangedEvent parsed = BookingChangedEvent.fromPayload(event.toPayload());
+
+        // Then
+        assertThat(parsed).isEqualTo(event);
+    }
+
+    @Test
+    @DisplayName("Should publish invalidation for changes from other replicas")
+    void testHandleNotification_RemoteChange() {
+        // Given
+        String payload = new BookingChangedEvent(locationId, start, end, "other-pod", System.currentTimeMillis()).toPayload();
+
+        // When
+        listener.handleNotification(payload);
+
+        // Then
+        ArgumentCaptor<BookingChangedEvent> captor = ArgumentCaptor.forClass(BookingChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().locationId()).isEqualTo(locationId);
+        assertThat(meterRegistry.get("booking.invalidation.latency").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("booking.invalidation.notifications").tag("outcome", "applied").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should ignore own notifications")
+    void testHandleNotification_OwnChange() {
+        // Given
+        String payload = new BookingChangedEvent(locationId, start, end, listener.getInstanceId(), System.currentTimeMillis()).toPayload();
+
+        // When
+        listener.handleNotification(payload);
+
+        // Then
+        verify(eventPublisher, never()).publishEvent(any());
+        assertThat(meterRegistry.get("booking.invalidation.notifications").tag("outcome", "ignored").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should ignore malformed notifications")
+    void testHandleNotification_Malformed() {
+        // When
+        listener.handleNotification("not-a-payload");
+
+        // Then
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should resync instead of stopping when applying a notification fails")
+    void testDispatch_FailureResyncs() {
+        // Given
+        String payload = new BookingChangedEvent(locationId, start, end, "other-pod", System.currentTimeMillis()).toPayload();
+        doThrow(new IllegalStateException("index busy")).when(eventPublisher).publishEvent(any(BookingChangedEvent.class));
+
+        // When
+        listener.dispatch(payload);
+
+        // Then
+        verify(eventPublisher).publishEvent(any(BookingResyncEvent.class));
+        assertThat(meterRegistry.get("booking.invalidation.resyncs").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should resync when the first connection is established after warmup started")
+    void testOnListening_AfterWarmup() {
+        // Given - listener je onemogočen, start() samo označi začetek ogrevanja
+        listener.onListening();
+        verify(eventPublisher, never()).publishEvent(any());
+        listener.start();
+
+        // When
+        listener.onListening();
+
+        // Then
+        verify(eventPublisher).publishEvent(any(BookingResyncEvent.class));
+    }
+}
@@ -1,22 +1,25 @@
 package com.planify.booking_service.messaging;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,7 +29,7 @@ class BookingEventProducerTest {
     @Mock
     private KafkaTemplate<String, Object> kafkaTemplate;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
     private BookingEventProducer bookingEventProducer;
 
     private static final String BOOKING_CREATED_TOPIC = "booking-created-topic";
@@ -34,6 +37,9 @@ class BookingEventProducerTest {
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bookingEventProducer = new BookingEventProducer(kafkaTemplate, meterRegistry);
+        when(kafkaTemplate.send(anyString(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
         ReflectionTestUtils.setField(bookingEventProducer, "bookingCreatedTopic", BOOKING_CREATED_TOPIC);
         ReflectionTestUtils.setField(bookingEventProducer, "bookingEventsTopic", BOOKING_EVENTS_TOPIC);
     }
@@ -51,7 +57,7 @@ class BookingEventProducerTest {
         bookingEventProducer.publishBookingCreated(payload);
 
         // Then
-        verify(kafkaTemplate).send(eq(BOOKING_CREATED_TOPIC), eq(payload));
+        verify(kafkaTemplate).send(eq(BOOKING_CREATED_TOPIC), isNull(), eq(payload));
     }
 
     @Test
@@ -68,7 +74,7 @@ class BookingEventProducerTest {
         bookingEventProducer.publishBookingEvent(payload);
 
         // Then
-        verify(kafkaTemplate).send(eq(BOOKING_EVENTS_TOPIC), eq(payload));
+        verify(kafkaTemplate).send(eq(BOOKING_EVENTS_TOPIC), isNull(), eq(payload));
     }
 
     @Test
@@ -90,7 +96,7 @@ class BookingEventProducerTest {
         bookingEventProducer.publishBookingCreated(payload);
 
         // Then
-        verify(kafkaTemplate).send(eq(BOOKING_CREATED_TOPIC), payloadCaptor.capture());
+        verify(kafkaTemplate).send(eq(BOOKING_CREATED_TOPIC), eq(locationId.toString()), payloadCaptor.capture());
         
         Map<String, Object> capturedPayload = payloadCaptor.getValue();
         assertThat(capturedPayload).isEqualTo(payload);
@@ -118,7 +124,7 @@ class BookingEventProducerTest {
         bookingEventProducer.publishBookingEvent(payload);
 
         // Then
-        verify(kafkaTemplate).send(eq(BOOKING_EVENTS_TOPIC), payloadCaptor.capture());
+        verify(kafkaTemplate).send(eq(BOOKING_EVENTS_TOPIC), isNull(), payloadCaptor.capture());
         
         Map<String, Object> capturedPayload = payloadCaptor.getValue();
         assertThat(capturedPayload).isEqualTo(payload);
@@ -138,7 +144,7 @@ class BookingEventProducerTest {
         bookingEventProducer.publishBookingCreated(emptyPayload);
 
         // Then
-        verify(kafkaTemplate).send(eq(BOOKING_CREATED_TOPIC), eq(emptyPayload));
+        verify(kafkaTemplate).send(eq(BOOKING_CREATED_TOPIC), isNull(), eq(emptyPayload));
     }
 
     @Test
@@ -154,7 +160,7 @@ class BookingEventProducerTest {
         bookingEventProducer.publishBookingEvent(payload);
 
         // Then
-        verify(kafkaTemplate).send(eq(BOOKING_EVENTS_TOPIC), eq(payload));
+        verify(kafkaTemplate).send(eq(BOOKING_EVENTS_TOPIC), isNull(), eq(payload));
     }
 
     @Test
@@ -167,7 +173,7 @@ class BookingEventProducerTest {
         bookingEventProducer.publishBookingCreated(payload);
 
         // Then
-        verify(kafkaTemplate, times(1)).send(anyString(), any());
+        verify(kafkaTemplate, times(1)).send(anyString(), any(), any());
     }
 
     @Test
@@ -184,7 +190,7 @@ class BookingEventProducerTest {
         bookingEventProducer.publishBookingCreated(payload3);
 
         // Then
-        verify(kafkaTemplate, times(3)).send(eq(BOOKING_CREATED_TOPIC), any());
+        verify(kafkaTemplate, times(3)).send(eq(BOOKING_CREATED_TOPIC), any(), any());
     }
 
     @Test
@@ -206,7 +212,7 @@ class BookingEventProducerTest {
         bookingEventProducer.publishBookingEvent(payload);
 
         // Then
-        verify(kafkaTemplate).send(eq(BOOKING_EVENTS_TOPIC), payloadCaptor.capture());
+        verify(kafkaTemplate).send(eq(BOOKING_EVENTS_TOPIC), isNull(), payloadCaptor.capture());
         
         Map<String, Object> capturedPayload = payloadCaptor.getValue();
         assertThat(capturedPayload).containsKey("metadata");
@@ -230,4 +236,45 @@ class BookingEventProducerTest {
         // Then
         assertThat(originalPayload).isEqualTo(payloadCopy);
     }
+
+    @Test
+    @DisplayName("Should key messages by location id so a location's events stay ordered")
+    void testPublishBookingEvent_KeyedByLocation() {
+        // Given
+        UUID locationId = UUID.randomUUID();
+        Map<String, Object> cancelled = Map.of("bookingId", UUID.randomUUID(), "locationId", locationId, "type", "booking_cancelled");
+        Map<String, Object> promoted = Map.of("bookingId", UUID.randomUUID(), "locationId", locationId, "type", "waitlist_promoted");
+
+        // When
+        bookingEventProducer.publishBookingEvent(cancelled);
+        bookingEventProducer.publishBookingEvent(promoted);
+
+        // Then
+        verify(kafkaTemplate).send(BOOKING_EVENTS_TOPIC, locationId.toString(), cancelled);
+        verify(kafkaTemplate).send(BOOKING_EVENTS_TOPIC, locationId.toString(), promoted);
+    }
+
+    @Test
+    @DisplayName("Should record publish latency by outcome once the broker responds")
+    void testPublish_RecordsOutcome() {
+        // Given
+        CompletableFuture<SendResult<String, Object>> pending = new CompletableFuture<>();
+        when(kafkaTemplate.send(anyString(), any(), any()))
+            .thenReturn(CompletableFuture.completedFuture(null))
+            .thenReturn(pending);
+
+        // When
+        bookingEventProducer.publishBookingCreated(Map.of("bookingId", UUID.randomUUID()));
+        bookingEventProducer.publishBookingEvent(Map.of("bookingId", UUID.randomUUID()));
+        long failuresBeforeResponse = meterRegistry.timer("booking.kafka.publish",
+            "topic", BOOKING_EVENTS_TOPIC, "outcome", "failure").count();
+        pending.completeExceptionally(new IllegalStateException("broker unavailable"));
+
+        // Then
+        assertThat(meterRegistry.timer("booking.kafka.publish", "topic", BOOKING_CREATED_TOPIC, "outcome", "success").count())
+            .isEqualTo(1);
+        assertThat(failuresBeforeResponse).isZero();
+        assertThat(meterRegistry.timer("booking.kafka.publish", "topic", BOOKING_EVENTS_TOPIC, "outcome", "failure").count())
+            .isEqualTo(1);
+    }
 }
@@ -0,0 +1,141 @@
+package com.planify.booking_service.pricing;
+
+import com.planify.booking_service.domain.PricingRule;
+import com.planify.booking_service.domain.PricingRuleType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CompiledPricing Tests")
+class CompiledPricingTest {
+
+    private static final int MONDAY = 1;
+    private static final int FRIDAY = 1 << 4;
+    private static final int WEEKEND = (1 << 5) | (1 << 6);
+
+    @Test
+    @DisplayName("Should price started hours at the hourly rate without rules")
+    void testPrice_NoRulesMatchesHourlyRate() {
+        // Given
+        CompiledPricing pricing = CompiledPricing.compile(12000, List.of());
+
+        // When & Then
+        assertThat(pricing.priceCents(0, CompiledPricing.billableMinutes(0))).isEqualTo(12000);
+        assertThat(pricing.priceCents(0, CompiledPricing.billableMinutes(60))).isEqualTo(12000);
+        assertThat(pricing.priceCents(0, CompiledPricing.billableMinutes(61))).isEqualTo(24000);
+        assertThat(pricing.priceCents(0, CompiledPricing.billableMinutes(150))).isEqualTo(36000);
+        assertThat(pricing.usesTimeBands()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should apply a weekend rate only to the minutes that fall on the weekend")
+    void testPrice_WeekendBandAcrossMidnight() {
+        // Given
+        CompiledPricing pricing = CompiledPricing.compile(10000, List.of(band(WEEKEND, 0, 1440, 150)));
+        int fridayAt23 = 4 * CompiledPricing.MINUTES_PER_DAY + 23 * 60;
+
+        // When
+        int price = pricing.priceCents(fridayAt23, 120);
+
+        // Then - ura v petek po 100 %, ura v soboto po 150 %
+        assertThat(price).isEqualTo(25000);
+    }
+
+    @Test
+    @DisplayName("Should carry a band ending after midnight into the next day and wrap the week")
+    void testPrice_OvernightBandAndWeekWrap() {
+        // Given - ponedeljek in petek 22:00-02:00 po 120 %
+        CompiledPricing pricing = CompiledPricing.compile(10000, List.of(band(MONDAY | FRIDAY, 22 * 60, 2 * 60, 120)));
+        int tuesdayAt01 = CompiledPricing.MINUTES_PER_DAY + 60;
+        int sundayAt23 = 6 * CompiledPricing.MINUTES_PER_DAY + 23 * 60;
+        int saturdayAt01 = 5 * CompiledPricing.MINUTES_PER_DAY + 60;
+
+        // When & Then
+        assertThat(pricing.priceCents(tuesdayAt01, 60)).isEqualTo(12000);
+        assertThat(pricing.priceCents(saturdayAt01, 60)).isEqualTo(12000);
+        // Nedelja 23:00 - ponedeljek 01:00 ne seže do pasu ob 22:00
+        assertThat(pricing.priceCents(sundayAt23, 120)).isEqualTo(20000);
+        // Cel teden + ura: vsota tedna (8 h po 120 %) + ura po 100 %
+        assertThat(pricing.priceCents(sundayAt23, CompiledPricing.MINUTES_PER_WEEK + 60))
+            .isEqualTo((168 * 10000 + 8 * 2000) + 10000);
+    }
+
+    @Test
+    @DisplayName("Should multiply overlapping bands")
+    void testPrice_OverlappingBandsMultiply() {
+        // Given
+        CompiledPricing pricing = CompiledPricing.compile(10000, List.of(
+            band(WEEKEND, 0, 1440, 120),
+            band(WEEKEND, 18 * 60, 22 * 60, 110)));
+        int saturdayAt18 = 5 * CompiledPricing.MINUTES_PER_DAY + 18 * 60;
+
+        // When & Then
+        assertThat(pricing.priceCents(saturdayAt18, 60)).isEqualTo(13200);
+    }
+
+    @Test
+    @DisplayName("Should apply the best discount reachable at the billed duration")
+    void testDiscount_BestApplicable() {
+        // Given
+        CompiledPricing pricing = CompiledPricing.compile(10000, List.of(
+            discount(480, 5),
+            discount(240, 10),
+            discount(240, 8),
+            discount(1440, 20)));
+
+        // When & Then
+        assertThat(pricing.discountPercent(180)).isZero();
+        assertThat(pricing.discountPercent(240)).isEqualTo(10);
+        assertThat(pricing.discountPercent(600)).isEqualTo(10);
+        assertThat(pricing.discountPercent(1440)).isEqualTo(20);
+        assertThat(pricing.priceCents(0, 240)).isEqualTo(36000);
+    }
+
+    @Test
+    @DisplayName("Should not allocate while evaluating quotes")
+    void testPrice_AllocationFree() {
+        // Given
+        CompiledPricing pricing = CompiledPricing.compile(10000, List.of(
+            band(WEEKEND, 0, 1440, 150),
+            discount(240, 10)));
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long checksum = 0;
+        for (int i = 0; i < 10_000; i++) {
+            checksum += pricing.priceCents(i % CompiledPricing.MINUTES_PER_WEEK, 60 + i % 600);
+        }
+
+        // When
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 1_000_000; i++) {
+            checksum += pricing.priceCents(i % CompiledPricing.MINUTES_PER_WEEK, 60 + i % 600);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Then - dopuščamo nekaj bajtov za merjenje samo
+        assertThat(checksum).isPositive();
+        assertThat(allocated).isLessThan(1024);
+    }
+
+    private static PricingRule band(int days, int startMinute, int endMinute, int ratePercent) {
+        return PricingRule.builder()
+            .ruleType(PricingRuleType.TIME_BAND)
+            .daysOfWeek(days)
+            .startMinute(startMinute)
+            .endMinute(endMinute)
+            .ratePercent(ratePercent)
+            .build();
+    }
+
+    private static PricingRule discount(int minMinutes, int percent) {
+        return PricingRule.builder()
+            .ruleType(PricingRuleType.DURATION_DISCOUNT)
+            .minMinutes(minMinutes)
+            .discountPercent(percent)
+            .build();
+    }
+}
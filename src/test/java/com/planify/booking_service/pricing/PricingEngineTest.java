@@ -0,0 +1,145 @@
+package com.planify.booking_service.pricing;
+
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.domain.PricingRule;
+import com.planify.booking_service.domain.PricingRuleType;
+import com.planify.booking_service.repository.LocationRepository;
+import com.planify.booking_service.repository.PricingRuleRepository;
+import com.planify.booking_service.service.ResourceVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PricingEngine Tests")
+class PricingEngineTest {
+
+    @Mock
+    private PricingRuleRepository pricingRuleRepository;
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    @Mock
+    private ResourceVersions resourceVersions;
+
+    @InjectMocks
+    private PricingEngine pricingEngine;
+
+    private Location location;
+    // Ponedeljek, 13. januar 2025 (zimski čas, UTC+1 v Ljubljani)
+    private LocalDateTime mondayUtc;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(pricingEngine, "zone", ZoneId.of("Europe/Ljubljana"));
+        location = Location.builder()
+            .id(UUID.randomUUID())
+            .name("City Conference Hall")
+            .pricePerHourCents(10000)
+            .build();
+        mondayUtc = LocalDateTime.of(2025, 1, 13, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Should compile rules once and answer batch quotes from memory")
+    void testQuote_CompilesOnce() {
+        // Given
+        when(locationRepository.findById(location.getId())).thenReturn(Optional.of(location));
+        when(pricingRuleRepository.findActiveFor(location.getId())).thenReturn(List.of());
+        List<PricingEngine.Window> windows = List.of(
+            new PricingEngine.Window(mondayUtc.withHour(8), mondayUtc.withHour(9)),
+            new PricingEngine.Window(mondayUtc.withHour(8), mondayUtc.withHour(10).withMinute(30)));
+
+        // When
+        List<PricingEngine.Quote> first = pricingEngine.quote(location.getId(), windows);
+        List<PricingEngine.Quote> second = pricingEngine.quote(location.getId(), windows);
+
+        // Then
+        assertThat(first).extracting(PricingEngine.Quote::totalAmountCents).containsExactly(10000, 30000);
+        assertThat(second).isEqualTo(first);
+        verify(locationRepository, times(1)).findById(location.getId());
+        verify(pricingRuleRepository, times(1)).findActiveFor(location.getId());
+    }
+
+    @Test
+    @DisplayName("Should evaluate time bands in the venue time zone")
+    void testQuote_BandInLocalTime() {
+        // Given - ob ponedeljkih 09:00-10:00 lokalnega časa 200 %
+        when(pricingRuleRepository.findActiveFor(location.getId())).thenReturn(List.of(PricingRule.builder()
+            .ruleType(PricingRuleType.TIME_BAND)
+            .daysOfWeek(1)
+            .startMinute(9 * 60)
+            .endMinute(10 * 60)
+            .ratePercent(200)
+            .build()));
+
+        // When
+        PricingEngine.Quote local9 = pricingEngine.quote(location, mondayUtc.withHour(8), mondayUtc.withHour(9));
+        PricingEngine.Quote local10 = pricingEngine.quote(location, mondayUtc.withHour(9), mondayUtc.withHour(10));
+
+        // Then
+        assertThat(local9.totalAmountCents()).isEqualTo(20000);
+        assertThat(local10.totalAmountCents()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("Should recompile after the pricing rules changed")
+    void testQuote_RecompilesAfterRulesChange() {
+        // Given
+        when(pricingRuleRepository.fingerprint()).thenReturn("a", "b");
+        when(pricingRuleRepository.findActiveFor(location.getId())).thenReturn(List.of(), List.of(PricingRule.builder()
+            .ruleType(PricingRuleType.DURATION_DISCOUNT)
+            .minMinutes(60)
+            .discountPercent(50)
+            .build()));
+        pricingEngine.pollRules();
+        LocalDateTime end = mondayUtc.plusHours(1);
+
+        // When
+        int before = pricingEngine.quote(location, mondayUtc, end).totalAmountCents();
+        pricingEngine.pollRules();
+        int after = pricingEngine.quote(location, mondayUtc, end).totalAmountCents();
+
+        // Then
+        assertThat(before).isEqualTo(10000);
+        assertThat(after).isEqualTo(5000);
+        verify(pricingRuleRepository, times(2)).findActiveFor(location.getId());
+    }
+
+    @Test
+    @DisplayName("Should reject empty windows, oversized batches and unknown locations")
+    void testQuote_Validation() {
+        // Given
+        UUID unknown = UUID.randomUUID();
+        when(locationRepository.findById(unknown)).thenReturn(Optional.empty());
+        PricingEngine.Window valid = new PricingEngine.Window(mondayUtc, mondayUtc.plusHours(1));
+
+        // When & Then
+        assertThatThrownBy(() -> pricingEngine.quote(location.getId(),
+                List.of(new PricingEngine.Window(mondayUtc, mondayUtc))))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pricingEngine.quote(location.getId(),
+                Collections.nCopies(PricingEngine.MAX_BATCH + 1, valid)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pricingEngine.quote(unknown, List.of(valid)))
+            .isInstanceOf(NoSuchElementException.class);
+    }
+}
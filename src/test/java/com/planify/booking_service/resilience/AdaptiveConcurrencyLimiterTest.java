@@ -0,0 +1,125 @@
+package com.planify.booking_service.resilience;
+
+import com.planify.booking_service.config.AdaptiveLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AdaptiveConcurrencyLimiter Tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST_DB = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW_DB = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private AdaptiveLimitProperties.Instance config;
+
+    @BeforeEach
+    void setUp() {
+        config = new AdaptiveLimitProperties.Instance();
+        config.setInitialLimit(10);
+        config.setMinLimit(2);
+        config.setMaxLimit(50);
+        config.setTolerance(2.0);
+        config.setBackoffRatio(0.9);
+    }
+
+    @Test
+    @DisplayName("Should reject immediately once the limit is reached")
+    void testTryAcquire_RejectsAboveLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", config);
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire()).isPositive();
+        }
+
+        // When / Then
+        assertThat(limiter.tryAcquire()).isEqualTo(-1);
+        assertThat(limiter.getInFlight()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should grow the limit while a fully used database stays fast")
+    void testOnSuccess_GrowsWhenFast() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", config);
+
+        // When
+        simulate(limiter, 500, FAST_DB);
+
+        // Then
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should shrink the limit when the database slows down")
+    void testOnSuccess_ShrinksWhenSlow() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", config);
+        simulate(limiter, 200, FAST_DB);
+        int limitBeforeSlowdown = limiter.getLimit();
+
+        // When
+        simulate(limiter, 20, SLOW_DB);
+
+        // Then
+        assertThat(limiter.getLimit()).isLessThan(limitBeforeSlowdown);
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(config.getMinLimit());
+    }
+
+    @Test
+    @DisplayName("Should never drop below the minimum limit")
+    void testOnDropped_RespectsMinimum() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", config);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.onDropped();
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(config.getMinLimit());
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not grow the limit when it is not being used")
+    void testOnSuccess_NoGrowthWhenUnderused() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", config);
+
+        // When
+        for (int i = 0; i < 500; i++) {
+            int inFlight = limiter.tryAcquire();
+            limiter.onSuccess(FAST_DB, inFlight);
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    // Simulira valove klicev, ki zapolnijo trenutno omejitev in se končajo s podano latenco
+    private static void simulate(AdaptiveConcurrencyLimiter limiter, int waves, long latencyNanos) {
+        for (int wave = 0; wave < waves; wave++) {
+            int permits = limiter.getLimit();
+            int[] inFlightAtStart = new int[permits];
+            int acquired = 0;
+            for (int i = 0; i < permits; i++) {
+                int inFlight = limiter.tryAcquire();
+                if (inFlight < 0) {
+                    break;
+                }
+                inFlightAtStart[acquired++] = inFlight;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.onSuccess(latencyNanos, inFlightAtStart[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.planify.booking_service.resilience;
+
+import com.planify.booking_service.config.AdaptiveLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AdaptiveLimitAspect Tests")
+class AdaptiveLimitAspectTest {
+
+    @Mock
+    private OrganizationAdmission admission;
+
+    @Mock
+    private ProceedingJoinPoint outer;
+
+    @Mock
+    private ProceedingJoinPoint inner;
+
+    private AdaptiveLimitAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        aspect = new AdaptiveLimitAspect(new AdaptiveLimiterRegistry(new AdaptiveLimitProperties(), new SimpleMeterRegistry()),
+            admission);
+    }
+
+    @Test
+    @DisplayName("Should admit a nested limited call only once")
+    void testLimit_NestedCallNotAdmittedAgain() throws Throwable {
+        // Given - createBooking kliče omejeno metodo drugega limiterja
+        when(admission.admit("bookingCreation")).thenReturn(1);
+        when(inner.proceed()).thenReturn("inner");
+        when(outer.proceed()).thenAnswer(invocation -> aspect.limit(inner, limit("availabilityService")));
+
+        // When
+        Object result = aspect.limit(outer, limit("bookingCreation"));
+
+        // Then
+        assertThat(result).isEqualTo("inner");
+        verify(admission).admit("bookingCreation");
+        verify(admission, never()).admit("availabilityService");
+        verify(admission).release("bookingCreation");
+    }
+
+    @Test
+    @DisplayName("Should admit the next call after the previous one released its permit")
+    void testLimit_SequentialCallsAdmitted() throws Throwable {
+        // Given
+        when(admission.admit("availabilityService")).thenReturn(1);
+        when(outer.proceed()).thenReturn("first");
+        when(inner.proceed()).thenReturn("second");
+
+        // When
+        aspect.limit(outer, limit("availabilityService"));
+        aspect.limit(inner, limit("availabilityService"));
+
+        // Then
+        verify(admission, times(2)).admit("availabilityService");
+        verify(admission, times(2)).release("availabilityService");
+    }
+
+    private static AdaptiveLimit limit(String name) {
+        return new AdaptiveLimit() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public Class<AdaptiveLimit> annotationType() {
+                return AdaptiveLimit.class;
+            }
+        };
+    }
+}
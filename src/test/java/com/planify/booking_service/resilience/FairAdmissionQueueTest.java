@@ -0,0 +1,140 @@
+package com.planify.booking_service.resilience;
+
+import com.planify.booking_service.config.AdaptiveLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FairAdmissionQueue Tests")
+class FairAdmissionQueueTest {
+
+    private static final int NOISY = 1;
+    private static final int SMALL = 2;
+
+    private AdaptiveConcurrencyLimiter limiter;
+    private FairAdmissionQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        AdaptiveLimitProperties.Instance config = new AdaptiveLimitProperties.Instance();
+        config.setInitialLimit(2);
+        config.setMinLimit(2);
+        config.setMaxLimit(2);
+        limiter = new AdaptiveConcurrencyLimiter("test", config);
+        queue = new FairAdmissionQueue(16, 1000);
+    }
+
+    @Test
+    @DisplayName("Should admit a small organization within two releases during a noisy-neighbor burst")
+    void testDispatch_SmallOrganizationNotStarvedByBurst() {
+        // Given - omejitev je polna, velika organizacija ima v vrsti 100 zahtevkov
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        List<FairAdmissionQueue.Waiter> burst = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            burst.add(queue.enqueue(NOISY, 1.0));
+        }
+        FairAdmissionQueue.Waiter small = queue.enqueue(SMALL, 1.0);
+
+        // When - sproščamo permit za permitom, kot bi se klici zaključevali
+        int releases = 0;
+        while (!small.permit.isDone()) {
+            limiter.onIgnored();
+            queue.dispatch(limiter);
+            releases++;
+        }
+
+        // Then - brez pravičnega vrstenja bi čakal na vseh 100 zahtevkov
+        assertThat(releases).isLessThanOrEqualTo(2);
+        assertThat(burst.stream().filter(w -> w.permit.isDone()).count()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should share permits in proportion to tier weights")
+    void testDispatch_WeightedShare() {
+        // Given
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        List<FairAdmissionQueue.Waiter> premium = new ArrayList<>();
+        List<FairAdmissionQueue.Waiter> standard = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            premium.add(queue.enqueue(SMALL, 4.0));
+            standard.add(queue.enqueue(NOISY, 1.0));
+        }
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            limiter.onIgnored();
+            queue.dispatch(limiter);
+        }
+
+        // Then
+        assertThat(premium.stream().filter(w -> w.permit.isDone()).count()).isEqualTo(8);
+        assertThat(standard.stream().filter(w -> w.permit.isDone()).count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should give up after the maximum wait and leave the queue empty")
+    void testAcquire_TimesOut() {
+        // Given
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        // When
+        int inFlight = queue.acquire(limiter, SMALL, 1.0, Duration.ofMillis(5));
+
+        // Then
+        assertThat(inFlight).isEqualTo(-1);
+        assertThat(queue.size()).isZero();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should never exceed the limit while handing permits over between threads")
+    void testAcquire_ConcurrentHandOver() throws Exception {
+        // Given
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(12);
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 12; t++) {
+            int stripe = t == 0 ? SMALL : NOISY;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 50; i++) {
+                    if (queue.acquire(limiter, stripe, 1.0, Duration.ofSeconds(5)) < 0) {
+                        continue;
+                    }
+                    maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                    admitted.incrementAndGet();
+                    concurrent.decrementAndGet();
+                    limiter.onIgnored();
+                    queue.dispatch(limiter);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(admitted.get()).isEqualTo(600);
+        assertThat(maxConcurrent.get()).isLessThanOrEqualTo(2);
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(queue.size()).isZero();
+    }
+}
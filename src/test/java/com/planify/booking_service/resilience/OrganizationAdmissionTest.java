@@ -0,0 +1,103 @@
+package com.planify.booking_service.resilience;
+
+import com.planify.booking_service.config.AdaptiveLimitProperties;
+import com.planify.booking_service.config.AdmissionProperties;
+import com.planify.booking_service.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("OrganizationAdmission Tests")
+class OrganizationAdmissionTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrganizationAdmission admission;
+    private UUID organizationId;
+
+    @BeforeEach
+    void setUp() {
+        AdmissionProperties properties = new AdmissionProperties();
+        AdmissionProperties.Tier tier = new AdmissionProperties.Tier();
+        tier.setRatePerSecond(0.001);
+        tier.setBurst(1);
+        properties.getTiers().put("standard", tier);
+        properties.setStripes(4);
+        meterRegistry = new SimpleMeterRegistry();
+        admission = new OrganizationAdmission(properties,
+            new AdaptiveLimiterRegistry(new AdaptiveLimitProperties(), meterRegistry), meterRegistry);
+        organizationId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should charge one token per external request regardless of nested limited calls")
+    void testCallAs_ChargesOncePerRequest() {
+        // When - createBooking in gnezdeni klici gredo skozi admit večkrat
+        int admitted = admission.callAs("bookingCreation", organizationId, () -> {
+            int count = 0;
+            for (String name : new String[]{"bookingCreation", "availabilityService", "availabilityService"}) {
+                admission.admit(name);
+                admission.release(name);
+                count++;
+            }
+            return count;
+        });
+
+        // Then
+        assertThat(admitted).isEqualTo(3);
+        assertThat(meterRegistry.find("booking.admission.throttled").counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject the next external request once the burst is used up")
+    void testCallAs_ThrottledAfterBurst() {
+        // Given
+        admission.callAs("availabilityService", organizationId, () -> null);
+
+        // When / Then
+        assertThatThrownBy(() -> admission.callAs("availabilityService", organizationId, () -> null))
+            .isInstanceOf(RateLimitExceededException.class);
+        assertThat(admission.callAs("availabilityService", null, () -> "anonymous")).isEqualTo("anonymous");
+    }
+
+    @Test
+    @DisplayName("Should charge anonymous callers against one shared default-tier bucket")
+    void testCallAs_AnonymousCharged() {
+        // Given
+        admission.callAs("availabilityService", null, () -> null);
+
+        // When / Then
+        assertThatThrownBy(() -> admission.callAs("availabilityService", null, () -> null))
+            .isInstanceOf(RateLimitExceededException.class);
+        assertThat(admission.callAs("availabilityService", organizationId, () -> "organization")).isEqualTo("organization");
+    }
+
+    @Test
+    @DisplayName("Should take the organization from the token claim and ignore malformed values")
+    void testOrganizationOf_TokenClaim() {
+        // Given
+        Jwt token = jwt(organizationId.toString());
+
+        // When / Then
+        assertThat(admission.organizationOf(token)).isEqualTo(organizationId);
+        assertThat(admission.organizationOf(jwt("not-a-uuid"))).isNull();
+        assertThat(admission.organizationOf(null)).isNull();
+    }
+
+    private static Jwt jwt(String organizationId) {
+        return Jwt.withTokenValue("token")
+            .header("alg", "RS256")
+            .subject("user")
+            .issuedAt(Instant.now())
+            .expiresAt(Instant.now().plusSeconds(60))
+            .claim("organization_id", organizationId)
+            .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.planify.booking_service.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("StripedTokenBuckets Tests")
+class StripedTokenBucketsTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Should allow the burst and then throttle the organization")
+    void testTryAcquire_BurstThenThrottle() {
+        // Given - 10 zahtevkov na sekundo, burst 5
+        StripedTokenBuckets buckets = new StripedTokenBuckets(16, 10, 5);
+        long now = 10 * SECOND;
+
+        // When
+        int allowed = 0;
+        for (int i = 0; i < 20; i++) {
+            if (buckets.tryAcquire(3, now)) {
+                allowed++;
+            }
+        }
+
+        // Then
+        assertThat(allowed).isEqualTo(5);
+        assertThat(buckets.tryAcquire(3, now + SECOND / 10)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not let a noisy organization consume another organization's tokens")
+    void testTryAcquire_IsolatedStripes() {
+        // Given
+        StripedTokenBuckets buckets = new StripedTokenBuckets(16, 10, 5);
+        long now = 10 * SECOND;
+        for (int i = 0; i < 100; i++) {
+            buckets.tryAcquire(1, now);
+        }
+
+        // When / Then
+        assertThat(buckets.tryAcquire(1, now)).isFalse();
+        assertThat(buckets.tryAcquire(2, now)).isTrue();
+    }
+}
@@ -1,13 +1,21 @@
 package com.planify.booking_service.service;
 
+import com.planify.booking_service.config.HedgingProperties;
+import com.planify.booking_service.datasource.HedgedReads;
 import com.planify.booking_service.domain.BookingStatus;
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.repository.BookingOccupancy;
 import com.planify.booking_service.repository.BookingRepository;
+import com.planify.booking_service.repository.LocationRepository;
+import com.planify.booking_service.repository.SlotHoldRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
@@ -26,6 +34,19 @@ class AvailabilityServiceTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private LocationRepository locationRepository;
+
+    @Mock
+    private SlotOccupancyIndex slotOccupancyIndex;
+
+    @Mock
+    private SlotHoldRepository slotHoldRepository;
+
+    // Podvajanje je privzeto izklopljeno, poizvedba teče neposredno
+    @Spy
+    private HedgedReads hedgedReads = new HedgedReads(new HedgingProperties(), null, null, new SimpleMeterRegistry());
+
     @InjectMocks
     private AvailabilityService availabilityService;
 
@@ -284,4 +305,158 @@ class AvailabilityServiceTest {
         .isInstanceOf(RuntimeException.class)
         .isSameAs(dbException);
     }
+
+    @Test
+    @DisplayName("Should treat any overlap as conflict for exclusive locations")
+    void testFindConflictsWithHeadcount_ExclusiveLocation() {
+        // Given
+        UUID conflictId = UUID.randomUUID();
+        when(locationRepository.findById(testLocationId))
+            .thenReturn(Optional.of(location(100, false)));
+        when(bookingRepository.findConflictingBookings(eq(testLocationId), eq(startTime), eq(endTime), any()))
+            .thenReturn(Collections.singletonList(conflictId));
+
+        // When
+        List<UUID> conflicts = availabilityService.findConflicts(testLocationId, startTime, endTime, 1);
+
+        // Then
+        assertThat(conflicts).containsExactly(conflictId);
+        verify(bookingRepository, never()).findOverlappingOccupancy(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should allow overlapping bookings while shared capacity is not exceeded")
+    void testFindConflictsWithHeadcount_SharedCapacityAvailable() {
+        // Given
+        when(locationRepository.findById(testLocationId))
+            .thenReturn(Optional.of(location(100, true)));
+        when(bookingRepository.findOverlappingOccupancy(eq(testLocationId), eq(startTime), eq(endTime), any()))
+            .thenReturn(List.of(
+                new BookingOccupancy(UUID.randomUUID(), startTime, startTime.plusHours(1), 40),
+                new BookingOccupancy(UUID.randomUUID(), startTime.plusMinutes(30), endTime, 30)
+            ));
+
+        // When
+        List<UUID> conflicts = availabilityService.findConflicts(testLocationId, startTime, endTime, 30);
+
+        // Then
+        assertThat(conflicts).isEmpty();
+        verify(bookingRepository, never()).findConflictingBookings(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should report overlapping bookings when shared capacity would be exceeded")
+    void testFindConflictsWithHeadcount_SharedCapacityExceeded() {
+        // Given
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(locationRepository.findById(testLocationId))
+            .thenReturn(Optional.of(location(100, true)));
+        when(bookingRepository.findOverlappingOccupancy(eq(testLocationId), eq(startTime), eq(endTime), any()))
+            .thenReturn(List.of(
+                new BookingOccupancy(first, startTime, startTime.plusHours(1), 40),
+                new BookingOccupancy(second, startTime.plusMinutes(30), endTime, 30)
+            ));
+
+        // When
+        List<UUID> conflicts = availabilityService.findConflicts(testLocationId, startTime, endTime, 31);
+
+        // Then
+        assertThat(conflicts).containsExactlyInAnyOrder(first, second);
+    }
+
+    @Test
+    @DisplayName("Should never report a headcount above shared capacity as available, even in an empty window")
+    void testFindConflictsWithHeadcount_HeadcountAboveCapacity() {
+        // Given
+        when(locationRepository.findById(testLocationId))
+            .thenReturn(Optional.of(location(100, true)));
+
+        // When
+        List<UUID> conflicts = availabilityService.findConflicts(testLocationId, startTime, endTime, 101);
+
+        // Then
+        assertThat(conflicts).containsExactly(testLocationId);
+        verify(bookingRepository, never()).findOverlappingOccupancy(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should answer from slot index without querying when window is free")
+    void testCheckConflicts_SlotIndexFree() {
+        // Given
+        when(slotOccupancyIndex.isFree(testLocationId, startTime, endTime)).thenReturn(true);
+
+        // When
+        List<UUID> conflicts = availabilityService.checkConflicts(testLocationId, startTime, endTime, 1);
+
+        // Then
+        assertThat(conflicts).isEmpty();
+        verifyNoInteractions(bookingRepository, locationRepository);
+    }
+
+    @Test
+    @DisplayName("Should fall back to SQL when slot index reports occupancy")
+    void testCheckConflicts_SlotIndexOccupied() {
+        // Given
+        UUID conflictId = UUID.randomUUID();
+        when(slotOccupancyIndex.isFree(testLocationId, startTime, endTime)).thenReturn(false);
+        when(bookingRepository.findConflictingBookings(eq(testLocationId), eq(startTime), eq(endTime), any()))
+            .thenReturn(Collections.singletonList(conflictId));
+
+        // When
+        List<UUID> conflicts = availabilityService.checkConflicts(testLocationId, startTime, endTime, 1);
+
+        // Then
+        assertThat(conflicts).containsExactly(conflictId);
+    }
+
+    @Test
+    @DisplayName("Should report active holds as conflicts")
+    void testFindConflicts_CountsHolds() {
+        // Given
+        UUID bookingId = UUID.randomUUID();
+        UUID holdId = UUID.randomUUID();
+        when(bookingRepository.findConflictingBookings(eq(testLocationId), eq(startTime), eq(endTime), any()))
+            .thenReturn(Collections.singletonList(bookingId));
+        when(slotHoldRepository.findConflictingHolds(eq(testLocationId), eq(startTime), eq(endTime), any(),
+            eq(SlotHoldRepository.NO_HOLD))).thenReturn(List.of(holdId));
+
+        // When
+        List<UUID> conflicts = availabilityService.findConflicts(testLocationId, startTime, endTime);
+
+        // Then
+        assertThat(conflicts).containsExactly(bookingId, holdId);
+    }
+
+    @Test
+    @DisplayName("Should add held headcount to shared capacity and ignore the hold being converted")
+    void testFindConflictsWithHeadcount_SharedCapacityHolds() {
+        // Given
+        UUID converting = UUID.randomUUID();
+        UUID otherHold = UUID.randomUUID();
+        when(locationRepository.findById(testLocationId))
+            .thenReturn(Optional.of(location(100, true)));
+        when(bookingRepository.findOverlappingOccupancy(eq(testLocationId), eq(startTime), eq(endTime), any()))
+            .thenReturn(List.of(new BookingOccupancy(UUID.randomUUID(), startTime, endTime, 40)));
+        when(slotHoldRepository.findOverlappingOccupancy(eq(testLocationId), eq(startTime), eq(endTime), any(), eq(converting)))
+            .thenReturn(List.of(new BookingOccupancy(otherHold, startTime, endTime, 50)));
+
+        // When
+        List<UUID> conflicts = availabilityService.findConflicts(testLocationId, startTime, endTime, 11, converting);
+
+        // Then
+        assertThat(conflicts).contains(otherHold);
+    }
+
+    private Location location(int capacity, boolean sharedCapacity) {
+        return Location.builder()
+            .id(testLocationId)
+            .name("Test Location")
+            .address("123 Test Street")
+            .capacity(capacity)
+            .pricePerHourCents(5000)
+            .active(true)
+            .sharedCapacity(sharedCapacity)
+            .build();
+    }
 }
@@ -0,0 +1,108 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.domain.BookingStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("BookingColumnStore Tests")
+class BookingColumnStoreTest {
+
+    private static final Set<BookingStatus> ACTIVE = EnumSet.of(BookingStatus.PENDING_PAYMENT, BookingStatus.CONFIRMED);
+
+    private BookingColumnStore store;
+    private UUID testLocationId;
+    private LocalDateTime dayStart;
+
+    @BeforeEach
+    void setUp() {
+        store = new BookingColumnStore();
+        testLocationId = UUID.randomUUID();
+        dayStart = LocalDate.now(ZoneOffset.UTC).plusDays(1).atStartOfDay();
+    }
+
+    @Test
+    @DisplayName("Should keep bookings sorted by start when added out of order")
+    void testAdd_OutOfOrder() {
+        // Given
+        UUID late = UUID.randomUUID();
+        UUID early = UUID.randomUUID();
+        UUID middle = UUID.randomUUID();
+
+        // When
+        store.add(testLocationId, late, dayStart.plusHours(15), dayStart.plusHours(16), BookingStatus.CONFIRMED);
+        store.add(testLocationId, early, dayStart.plusHours(8), dayStart.plusHours(9), BookingStatus.CONFIRMED);
+        store.add(testLocationId, middle, dayStart.plusHours(12), dayStart.plusHours(13), BookingStatus.PENDING_PAYMENT);
+
+        // Then
+        List<UUID> visited = new ArrayList<>();
+        store.forEachOverlapping(testLocationId, dayStart, dayStart.plusDays(1), ACTIVE,
+            (high, low, start, end, status) -> visited.add(new UUID(high, low)));
+        assertThat(visited).containsExactly(early, middle, late);
+        assertThat(store.size(testLocationId)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should treat touching bookings as free and find long bookings that started before the window")
+    void testAnyOverlapping_Boundaries() {
+        // Given
+        store.add(testLocationId, UUID.randomUUID(), dayStart.plusHours(10), dayStart.plusHours(11), BookingStatus.CONFIRMED);
+        store.add(testLocationId, UUID.randomUUID(), dayStart.minusDays(2), dayStart.plusHours(2), BookingStatus.CONFIRMED);
+
+        // When / Then
+        assertThat(store.anyOverlapping(testLocationId, dayStart.plusHours(11), dayStart.plusHours(12), ACTIVE)).isFalse();
+        assertThat(store.anyOverlapping(testLocationId, dayStart.plusHours(9), dayStart.plusHours(10), ACTIVE)).isFalse();
+        assertThat(store.anyOverlapping(testLocationId, dayStart.plusHours(10).plusMinutes(59), dayStart.plusHours(12), ACTIVE)).isTrue();
+        assertThat(store.anyOverlapping(testLocationId, dayStart.plusHours(1), dayStart.plusHours(3), ACTIVE)).isTrue();
+        assertThat(store.anyOverlapping(UUID.randomUUID(), dayStart, dayStart.plusDays(1), ACTIVE)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should filter by status and reflect status updates and removals")
+    void testCountOverlapping_StatusChanges() {
+        // Given
+        UUID cancelled = UUID.randomUUID();
+        UUID removed = UUID.randomUUID();
+        store.add(testLocationId, cancelled, dayStart.plusHours(10), dayStart.plusHours(12), BookingStatus.CONFIRMED);
+        store.add(testLocationId, removed, dayStart.plusHours(11), dayStart.plusHours(13), BookingStatus.PENDING_PAYMENT);
+        store.add(testLocationId, UUID.randomUUID(), dayStart.plusHours(11), dayStart.plusHours(12), BookingStatus.FAILED);
+
+        // When
+        boolean updated = store.updateStatus(testLocationId, cancelled, BookingStatus.CANCELLED);
+        boolean wasRemoved = store.remove(testLocationId, removed);
+
+        // Then
+        assertThat(updated).isTrue();
+        assertThat(wasRemoved).isTrue();
+        assertThat(store.remove(testLocationId, removed)).isFalse();
+        assertThat(store.countOverlapping(testLocationId, dayStart, dayStart.plusDays(1), ACTIVE)).isZero();
+        assertThat(store.countOverlapping(testLocationId, dayStart, dayStart.plusDays(1), EnumSet.allOf(BookingStatus.class)))
+            .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should sum booked seconds clipped to the window")
+    void testBookedSeconds_Clipped() {
+        // Given
+        store.add(testLocationId, UUID.randomUUID(), dayStart.minusHours(1), dayStart.plusHours(2), BookingStatus.CONFIRMED);
+        store.add(testLocationId, UUID.randomUUID(), dayStart.plusHours(23), dayStart.plusHours(25), BookingStatus.CONFIRMED);
+        store.add(testLocationId, UUID.randomUUID(), dayStart.plusHours(12), dayStart.plusHours(13), BookingStatus.CANCELLED);
+
+        // When
+        long seconds = store.bookedSeconds(testLocationId, dayStart, dayStart.plusDays(1), ACTIVE);
+
+        // Then
+        assertThat(seconds).isEqualTo(3 * 3600);
+    }
+}
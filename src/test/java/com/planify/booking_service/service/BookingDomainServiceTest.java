@@ -3,9 +3,15 @@ package com.planify.booking_service.service;
 import com.planify.booking_service.domain.Booking;
 import com.planify.booking_service.domain.BookingStatus;
 import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.domain.SlotHold;
+import com.planify.booking_service.domain.WaitlistEntry;
+import com.planify.booking_service.domain.WaitlistStatus;
+import com.planify.booking_service.logging.RequestLogSampler;
 import com.planify.booking_service.messaging.BookingEventProducer;
+import com.planify.booking_service.pricing.PricingEngine;
 import com.planify.booking_service.repository.BookingRepository;
 import com.planify.booking_service.repository.LocationRepository;
+import com.planify.booking_service.repository.PricingRuleRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,7 +19,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -39,6 +50,26 @@ class BookingDomainServiceTest {
     @Mock
     private BookingEventProducer eventProducer;
 
+    @Mock
+    private RequestLogSampler requestLogs;
+
+    @Mock
+    private LocationStatsService locationStats;
+
+    @Mock
+    private WaitlistService waitlistService;
+
+    @Mock
+    private SlotHoldService slotHoldService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // Pravi izračun cene brez pravil - cena na uro * začete ure
+    @Spy
+    private PricingEngine pricingEngine = new PricingEngine(mock(PricingRuleRepository.class),
+        mock(LocationRepository.class), mock(ResourceVersions.class));
+
     @InjectMocks
     private BookingDomainService bookingDomainService;
 
@@ -110,9 +141,9 @@ class BookingDomainServiceTest {
             .currency("EUR")
             .build();
 
-        when(availabilityService.findConflicts(testLocationId, startTime, endTime))
+        when(availabilityService.findConflicts(testLocationId, startTime, endTime, 1))
             .thenReturn(Collections.emptyList());
-        when(locationRepository.findById(testLocationId))
+        when(locationRepository.findByIdForUpdate(testLocationId))
             .thenReturn(Optional.of(testLocation));
 
         UUID bookingId = UUID.randomUUID();
@@ -143,6 +174,10 @@ class BookingDomainServiceTest {
         assertThat(result.isAvailable()).isTrue();
         assertThat(result.getConflicts()).isEmpty();
         assertThat(result.getTotalAmountCents()).isEqualTo(10000);
+        var order = inOrder(locationRepository, availabilityService, bookingRepository);
+        order.verify(locationRepository).findByIdForUpdate(testLocationId);
+        order.verify(availabilityService).findConflicts(testLocationId, startTime, endTime, 1);
+        order.verify(bookingRepository).save(any(Booking.class));
 
         ArgumentCaptor<Booking> bookingCaptor = ArgumentCaptor.forClass(Booking.class);
         verify(bookingRepository).save(bookingCaptor.capture());
@@ -159,6 +194,39 @@ class BookingDomainServiceTest {
         verify(eventProducer).publishBookingCreated(anyMap());
     }
 
+    @Test
+    @DisplayName("Should publish the booking-created event only after the transaction commits")
+    void testCreateBooking_PublishesAfterCommit() {
+        // Given
+        BookingDomainService.CreateBookingCommand command = BookingDomainService.CreateBookingCommand.builder()
+            .locationId(testLocationId)
+            .eventId(testEventId)
+            .organizationId(testOrganizationId)
+            .start(startTime)
+            .end(endTime)
+            .currency("EUR")
+            .build();
+        when(availabilityService.findConflicts(testLocationId, startTime, endTime, 1)).thenReturn(Collections.emptyList());
+        when(locationRepository.findByIdForUpdate(testLocationId)).thenReturn(Optional.of(testLocation));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            booking.setId(UUID.randomUUID());
+            return booking;
+        });
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            bookingDomainService.createBooking(command);
+
+            // Then - INSERT se ob paketnem pisanju izvede šele ob commitu
+            verify(eventProducer, never()).publishBookingCreated(anyMap());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(eventProducer).publishBookingCreated(anyMap());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @Test
     @DisplayName("Should fail to create booking when conflicts exist")
     void testCreateBooking_WithConflicts() {
@@ -176,7 +244,8 @@ class BookingDomainServiceTest {
         UUID conflictId2 = UUID.randomUUID();
         List<UUID> conflicts = Arrays.asList(conflictId1, conflictId2);
 
-        when(availabilityService.findConflicts(testLocationId, startTime, endTime))
+        when(locationRepository.findByIdForUpdate(testLocationId)).thenReturn(Optional.of(testLocation));
+        when(availabilityService.findConflicts(testLocationId, startTime, endTime, 1))
             .thenReturn(conflicts);
 
         // When
@@ -207,9 +276,7 @@ class BookingDomainServiceTest {
             .currency("EUR")
             .build();
 
-        when(availabilityService.findConflicts(testLocationId, startTime, endTime))
-            .thenReturn(Collections.emptyList());
-        when(locationRepository.findById(testLocationId))
+        when(locationRepository.findByIdForUpdate(testLocationId))
             .thenReturn(Optional.empty());
 
         // When / Then
@@ -234,9 +301,9 @@ class BookingDomainServiceTest {
             .currency("EUR")
             .build();
 
-        when(availabilityService.findConflicts(testLocationId, startTime, end90Min))
+        when(availabilityService.findConflicts(testLocationId, startTime, end90Min, 1))
             .thenReturn(Collections.emptyList());
-        when(locationRepository.findById(testLocationId))
+        when(locationRepository.findByIdForUpdate(testLocationId))
             .thenReturn(Optional.of(testLocation));
 
         UUID bookingId = UUID.randomUUID();
@@ -288,6 +355,7 @@ class BookingDomainServiceTest {
         assertThat(result.getUpdatedAt()).isAfterOrEqualTo(originalUpdatedAt);
 
         verify(bookingRepository).save(existingBooking);
+        verify(locationStats).bookingCancelled(existingBooking, BookingStatus.CONFIRMED);
         verify(eventProducer).publishBookingEvent(anyMap());
     }
 
@@ -336,9 +404,9 @@ class BookingDomainServiceTest {
             .currency("USD")
             .build();
 
-        when(availabilityService.findConflicts(testLocationId, startTime, endTime))
+        when(availabilityService.findConflicts(testLocationId, startTime, endTime, 1))
             .thenReturn(Collections.emptyList());
-        when(locationRepository.findById(testLocationId))
+        when(locationRepository.findByIdForUpdate(testLocationId))
             .thenReturn(Optional.of(testLocation));
 
         UUID bookingId = UUID.randomUUID();
@@ -360,6 +428,7 @@ class BookingDomainServiceTest {
         assertThat(payload).containsKey("bookingId");
         assertThat(payload).containsEntry("status", BookingStatus.PENDING_PAYMENT.name());
         assertThat(payload).containsEntry("currency", "USD");
+        assertThat(payload).containsEntry("locationId", testLocationId);
         assertThat(payload).containsKey("start");
         assertThat(payload).containsKey("end");
     }
@@ -391,5 +460,271 @@ class BookingDomainServiceTest {
         assertThat(payload).containsEntry("bookingId", bookingId);
         assertThat(payload).containsEntry("status", BookingStatus.CANCELLED.name());
         assertThat(payload).containsEntry("type", "booking_cancelled");
+        assertThat(payload).containsEntry("locationId", testLocationId);
+    }
+
+    @Test
+    @DisplayName("Should join the waitlist when requested and the window is taken")
+    void testCreateBooking_JoinsWaitlistOnConflict() {
+        // Given
+        BookingDomainService.CreateBookingCommand command = BookingDomainService.CreateBookingCommand.builder()
+            .locationId(testLocationId)
+            .eventId(testEventId)
+            .organizationId(testOrganizationId)
+            .start(startTime)
+            .end(endTime)
+            .currency("EUR")
+            .joinWaitlist(true)
+            .build();
+        UUID entryId = UUID.randomUUID();
+        when(locationRepository.findByIdForUpdate(testLocationId)).thenReturn(Optional.of(testLocation));
+        when(availabilityService.findConflicts(testLocationId, startTime, endTime, 1))
+            .thenReturn(List.of(UUID.randomUUID()));
+        when(waitlistService.join(testLocationId, testEventId, testOrganizationId, startTime, endTime, 1, "EUR"))
+            .thenReturn(Optional.of(WaitlistEntry.builder().id(entryId).build()));
+
+        // When
+        BookingDomainService.CreateBookingResult result = bookingDomainService.createBooking(command);
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo(BookingStatus.FAILED);
+        assertThat(result.getWaitlistEntryId()).isEqualTo(entryId);
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should promote the first waiter whose window became free on cancel")
+    void testCancelBooking_PromotesWaitlist() {
+        // Given
+        UUID bookingId = UUID.randomUUID();
+        Booking existingBooking = Booking.builder()
+            .id(bookingId)
+            .location(testLocation)
+            .startTime(startTime)
+            .endTime(endTime)
+            .status(BookingStatus.CONFIRMED)
+            .build();
+        WaitlistEntry stillBlocked = waiter(startTime.minusHours(1), startTime.plusHours(1));
+        WaitlistEntry fits = waiter(startTime, startTime.plusHours(1));
+        UUID promotedId = UUID.randomUUID();
+
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(existingBooking));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            if (booking.getId() == null) {
+                booking.setId(promotedId);
+            }
+            return booking;
+        });
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        when(waitlistService.candidates(testLocationId, startTime, endTime)).thenReturn(List.of(stillBlocked, fits));
+        when(waitlistService.lockWaiting(stillBlocked.getId())).thenReturn(Optional.of(stillBlocked));
+        when(waitlistService.lockWaiting(fits.getId())).thenReturn(Optional.of(fits));
+        when(locationRepository.findByIdForUpdate(testLocationId)).thenReturn(Optional.of(testLocation));
+        when(availabilityService.findConflicts(testLocationId, stillBlocked.getStartTime(), stillBlocked.getEndTime(), 1))
+            .thenReturn(List.of(UUID.randomUUID()));
+        when(availabilityService.findConflicts(testLocationId, fits.getStartTime(), fits.getEndTime(), 1))
+            .thenReturn(Collections.emptyList());
+
+        // When
+        bookingDomainService.cancelBooking(bookingId);
+
+        // Then
+        ArgumentCaptor<Booking> bookingCaptor = ArgumentCaptor.forClass(Booking.class);
+        verify(waitlistService).promoted(eq(fits), bookingCaptor.capture());
+        verify(waitlistService, never()).promoted(eq(stillBlocked), any());
+        Booking promoted = bookingCaptor.getValue();
+        assertThat(promoted.getId()).isEqualTo(promotedId);
+        assertThat(promoted.getOrganizationId()).isEqualTo(fits.getOrganizationId());
+        assertThat(promoted.getStatus()).isEqualTo(BookingStatus.PENDING_PAYMENT);
+        assertThat(promoted.getTotalAmountCents()).isEqualTo(5000);
+
+        ArgumentCaptor<Map<String, Object>> payloadCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(eventProducer, times(2)).publishBookingEvent(payloadCaptor.capture());
+        assertThat(payloadCaptor.getAllValues().get(1))
+            .containsEntry("type", "waitlist_promoted")
+            .containsEntry("waitlistEntryId", fits.getId())
+            .containsEntry("bookingId", promotedId);
+        verify(eventProducer).publishBookingCreated(anyMap());
+    }
+
+    @Test
+    @DisplayName("Should keep the cancellation when promoting a waiter fails")
+    void testCancelBooking_PromotionFailureKeepsCancellation() {
+        // Given
+        UUID bookingId = UUID.randomUUID();
+        Booking existingBooking = Booking.builder()
+            .id(bookingId)
+            .location(testLocation)
+            .startTime(startTime)
+            .endTime(endTime)
+            .status(BookingStatus.CONFIRMED)
+            .build();
+        WaitlistEntry waiter = waiter(startTime, endTime);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(existingBooking));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        when(waitlistService.candidates(testLocationId, startTime, endTime)).thenReturn(List.of(waiter));
+        when(waitlistService.lockWaiting(waiter.getId())).thenReturn(Optional.of(waiter));
+        when(locationRepository.findByIdForUpdate(testLocationId)).thenReturn(Optional.of(testLocation));
+        when(availabilityService.findConflicts(testLocationId, startTime, endTime, 1))
+            .thenThrow(new RuntimeException("Booking system temporarily unavailable. Please try again later."));
+
+        // When
+        Booking result = bookingDomainService.cancelBooking(bookingId);
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo(BookingStatus.CANCELLED);
+        verify(transactionManager).rollback(any());
+        verify(waitlistService, never()).promoted(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should skip a waiter that left or was promoted by another replica after it was read")
+    void testCancelBooking_SkipsWaiterNoLongerWaiting() {
+        // Given
+        UUID bookingId = UUID.randomUUID();
+        Booking existingBooking = Booking.builder()
+            .id(bookingId)
+            .location(testLocation)
+            .startTime(startTime)
+            .endTime(endTime)
+            .status(BookingStatus.CONFIRMED)
+            .build();
+        WaitlistEntry left = waiter(startTime, endTime);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(existingBooking));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        when(waitlistService.candidates(testLocationId, startTime, endTime)).thenReturn(List.of(left));
+        when(waitlistService.lockWaiting(left.getId())).thenReturn(Optional.empty());
+
+        // When
+        bookingDomainService.cancelBooking(bookingId);
+
+        // Then
+        verify(availabilityService, never()).findConflicts(testLocationId, startTime, endTime, 1);
+        verify(waitlistService, never()).promoted(any(), any());
+        verify(bookingRepository, times(1)).save(any(Booking.class));
+    }
+
+    @Test
+    @DisplayName("Should not look for waiters when the cancelled booking was not active")
+    void testCancelBooking_InactiveDoesNotPromote() {
+        // Given
+        UUID bookingId = UUID.randomUUID();
+        Booking existingBooking = Booking.builder()
+            .id(bookingId)
+            .location(testLocation)
+            .status(BookingStatus.CANCELLED)
+            .build();
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(existingBooking));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        bookingDomainService.cancelBooking(bookingId);
+
+        // Then
+        verify(waitlistService, never()).candidates(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should convert a claimed hold without counting it as a conflict")
+    void testCreateBooking_ConvertsHold() {
+        // Given
+        UUID holdId = UUID.randomUUID();
+        SlotHold hold = SlotHold.builder().id(holdId).locationId(testLocationId).build();
+        BookingDomainService.CreateBookingCommand command = BookingDomainService.CreateBookingCommand.builder()
+            .locationId(testLocationId)
+            .eventId(testEventId)
+            .organizationId(testOrganizationId)
+            .start(startTime)
+            .end(endTime)
+            .currency("EUR")
+            .holdId(holdId)
+            .build();
+        when(slotHoldService.claim(holdId, testLocationId, testOrganizationId, startTime, endTime, 1))
+            .thenReturn(Optional.of(hold));
+        when(availabilityService.findConflicts(testLocationId, startTime, endTime, 1, holdId))
+            .thenReturn(Collections.emptyList());
+        when(locationRepository.findByIdForUpdate(testLocationId)).thenReturn(Optional.of(testLocation));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            booking.setId(UUID.randomUUID());
+            return booking;
+        });
+
+        // When
+        BookingDomainService.CreateBookingResult result = bookingDomainService.createBooking(command);
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo(BookingStatus.PENDING_PAYMENT);
+        verify(slotHoldService).converted(hold);
+        verify(availabilityService, never()).findConflicts(testLocationId, startTime, endTime, 1);
+    }
+
+    @Test
+    @DisplayName("Should offer windows of expired holds to the waitlist")
+    void testReleaseExpiredHolds_PromotesWaitlist() {
+        // Given
+        SlotHold expired = SlotHold.builder()
+            .id(UUID.randomUUID())
+            .locationId(testLocationId)
+            .startTime(startTime)
+            .endTime(endTime)
+            .build();
+        when(slotHoldService.getSweepBatch()).thenReturn(1000);
+        when(slotHoldService.deleteExpired()).thenReturn(List.of(expired));
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        when(waitlistService.candidates(testLocationId, startTime, endTime)).thenReturn(List.of());
+
+        // When
+        bookingDomainService.releaseExpiredHolds();
+
+        // Then
+        verify(waitlistService).candidates(testLocationId, startTime, endTime);
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should keep deleting expired holds in batches until a batch is not full")
+    void testReleaseExpiredHolds_DrainsBacklog() {
+        // Given
+        SlotHold first = expiredHold();
+        SlotHold second = expiredHold();
+        SlotHold third = expiredHold();
+        when(slotHoldService.getSweepBatch()).thenReturn(2);
+        when(slotHoldService.deleteExpired()).thenReturn(List.of(first, second), List.of(third));
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        when(waitlistService.candidates(testLocationId, startTime, endTime)).thenReturn(List.of());
+
+        // When
+        bookingDomainService.releaseExpiredHolds();
+
+        // Then
+        verify(slotHoldService, times(2)).deleteExpired();
+        verify(waitlistService, times(3)).candidates(testLocationId, startTime, endTime);
+    }
+
+    private SlotHold expiredHold() {
+        return SlotHold.builder()
+            .id(UUID.randomUUID())
+            .locationId(testLocationId)
+            .startTime(startTime)
+            .endTime(endTime)
+            .build();
+    }
+
+    private WaitlistEntry waiter(LocalDateTime start, LocalDateTime end) {
+        return WaitlistEntry.builder()
+            .id(UUID.randomUUID())
+            .locationId(testLocationId)
+            .eventId(UUID.randomUUID())
+            .organizationId(UUID.randomUUID())
+            .startTime(start)
+            .endTime(end)
+            .headcount(1)
+            .currency("EUR")
+            .status(WaitlistStatus.WAITING)
+            .build();
     }
 }
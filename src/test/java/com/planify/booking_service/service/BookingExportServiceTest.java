@@ -0,0 +1,143 @@
+package com.planify.booking_service.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.planify.booking_service.domain.BookingStatus;
+import com.planify.booking_service.repository.BookingExportRow;
+import com.planify.booking_service.repository.BookingRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BookingExportService Tests")
+class BookingExportServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private BookingExportService exportService;
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private BookingExportRow row;
+
+    @BeforeEach
+    void setUp() {
+        from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        to = LocalDateTime.of(2025, 2, 1, 0, 0);
+        row = new BookingExportRow(UUID.randomUUID(), UUID.randomUUID(), null, UUID.randomUUID(),
+                LocalDateTime.of(2025, 1, 10, 9, 0), LocalDateTime.of(2025, 1, 10, 11, 0),
+                BookingStatus.CONFIRMED, 4, 12000, "EUR", "pi_1,\"x\"", LocalDateTime.of(2025, 1, 2, 8, 30));
+    }
+
+    @Test
+    @DisplayName("Should write CSV header and rows with quoted fields and close the cursor")
+    void testExport_Csv() throws Exception {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        when(bookingRepository.streamForExport(from, to)).thenReturn(Stream.of(row).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long rows = exportService.export(from, to, BookingExportService.Format.CSV, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(1);
+        assertThat(closed).isTrue();
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("id,location_id,event_id,");
+        assertThat(lines[1]).isEqualTo(row.id() + "," + row.locationId() + ",," + row.organizationId()
+                + ",2025-01-10T09:00:00Z,2025-01-10T11:00:00Z,CONFIRMED,4,12000,EUR,\"pi_1,\"\"x\"\"\",2025-01-02T08:30:00Z");
+        assertThat(meterRegistry.counter("booking.export.rows", "format", "csv").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line")
+    void testExport_Ndjson() throws Exception {
+        // Given
+        when(bookingRepository.streamForExport(from, to)).thenReturn(Stream.of(row, row));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long rows = exportService.export(from, to, BookingExportService.Format.NDJSON, out);
+
+        // Then
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(rows).isEqualTo(2);
+        assertThat(body).endsWith("}\n");
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertThat(first.get("id").asText()).isEqualTo(row.id().toString());
+        assertThat(first.get("eventId").isNull()).isTrue();
+        assertThat(first.get("totalAmountCents").asInt()).isEqualTo(12000);
+        assertThat(first.get("startTime").asText()).isEqualTo("2025-01-10T09:00:00Z");
+    }
+
+    @Test
+    @DisplayName("Should stream rows lazily without buffering the export")
+    void testExport_StreamsLargeExport() throws Exception {
+        // Given - vrstice se ustvarjajo sproti, izhod samo šteje bajte
+        long total = 200_000;
+        when(bookingRepository.streamForExport(from, to)).thenReturn(LongStream.range(0, total).mapToObj(i -> row));
+        AtomicLong bytes = new AtomicLong();
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                bytes.incrementAndGet();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                bytes.addAndGet(len);
+            }
+        };
+
+        // When
+        long rows = exportService.export(from, to, BookingExportService.Format.NDJSON, out);
+
+        // Then
+        assertThat(rows).isEqualTo(total);
+        assertThat(bytes.get()).isGreaterThan(total * 100);
+    }
+
+    @Test
+    @DisplayName("Should reject an empty range without querying")
+    void testExport_InvalidRange() {
+        // When & Then
+        assertThatThrownBy(() -> exportService.export(to, from, BookingExportService.Format.CSV, new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(bookingRepository, never()).streamForExport(any(), any());
+    }
+}
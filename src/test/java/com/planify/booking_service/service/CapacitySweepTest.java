@@ -0,0 +1,136 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.repository.BookingOccupancy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CapacitySweep Tests")
+class CapacitySweepTest {
+
+    private static final LocalDateTime WINDOW_START = LocalDateTime.of(2025, 1, 10, 8, 0);
+    private static final LocalDateTime WINDOW_END = WINDOW_START.plusHours(10);
+
+    @Test
+    @DisplayName("Should return zero for no bookings")
+    void testPeakOccupancy_Empty() {
+        assertThat(CapacitySweep.peakOccupancy(List.of(), WINDOW_START, WINDOW_END)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should sum headcounts of overlapping bookings")
+    void testPeakOccupancy_Overlapping() {
+        // Given
+        List<BookingOccupancy> bookings = List.of(
+            occupancy(WINDOW_START, WINDOW_START.plusHours(4), 30),
+            occupancy(WINDOW_START.plusHours(2), WINDOW_START.plusHours(6), 50),
+            occupancy(WINDOW_START.plusHours(3), WINDOW_START.plusHours(5), 20)
+        );
+
+        // When / Then
+        assertThat(CapacitySweep.peakOccupancy(bookings, WINDOW_START, WINDOW_END)).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Should not count back-to-back bookings as concurrent")
+    void testPeakOccupancy_BackToBack() {
+        // Given
+        List<BookingOccupancy> bookings = List.of(
+            occupancy(WINDOW_START, WINDOW_START.plusHours(2), 40),
+            occupancy(WINDOW_START.plusHours(2), WINDOW_START.plusHours(4), 40)
+        );
+
+        // When / Then
+        assertThat(CapacitySweep.peakOccupancy(bookings, WINDOW_START, WINDOW_END)).isEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("Should ignore occupancy outside of the requested window")
+    void testPeakOccupancy_ClipsToWindow() {
+        // Given
+        LocalDateTime from = WINDOW_START.plusHours(5);
+        LocalDateTime to = WINDOW_START.plusHours(7);
+        List<BookingOccupancy> bookings = List.of(
+            occupancy(WINDOW_START, WINDOW_START.plusHours(5), 80),
+            occupancy(WINDOW_START.plusHours(4), WINDOW_START.plusHours(6), 10),
+            occupancy(WINDOW_START.plusHours(6), WINDOW_START.plusHours(9), 15)
+        );
+
+        // When / Then
+        assertThat(CapacitySweep.peakOccupancy(bookings, from, to)).isEqualTo(15);
+    }
+
+    @RepeatedTest(50)
+    @DisplayName("Should match brute-force occupancy for random bookings")
+    void testPeakOccupancy_MatchesBruteForce(RepetitionInfo repetitionInfo) {
+        // Given
+        Random random = new Random(repetitionInfo.getCurrentRepetition());
+        int n = random.nextInt(200);
+        long from = 1_000;
+        long to = from + 1 + random.nextInt(10_000);
+        long[] starts = new long[n];
+        long[] ends = new long[n];
+        int[] headcounts = new int[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = random.nextInt(12_000);
+            ends[i] = starts[i] + random.nextInt(3_000);
+            headcounts[i] = random.nextInt(100);
+        }
+
+        // When
+        int peak = CapacitySweep.peakOccupancy(starts, ends, headcounts, n, from, to);
+
+        // Then
+        assertThat(peak).isEqualTo(bruteForcePeak(starts, ends, headcounts, n, from, to));
+    }
+
+    @Test
+    @DisplayName("Should handle thousands of overlapping bookings")
+    void testPeakOccupancy_ManyOverlapping() {
+        // Given
+        int n = 50_000;
+        List<BookingOccupancy> bookings = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            bookings.add(occupancy(WINDOW_START.plusSeconds(i % 60), WINDOW_END.minusSeconds(i % 60), 1));
+        }
+
+        // When / Then
+        assertThat(CapacitySweep.peakOccupancy(bookings, WINDOW_START, WINDOW_END)).isEqualTo(n);
+    }
+
+    @Test
+    @DisplayName("Should reject headcount that does not fit the packed key")
+    void testPeakOccupancy_HeadcountTooLarge() {
+        assertThatThrownBy(() -> CapacitySweep.peakOccupancy(
+            List.of(occupancy(WINDOW_START, WINDOW_END, CapacitySweep.MAX_HEADCOUNT + 1)), WINDOW_START, WINDOW_END))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static int bruteForcePeak(long[] starts, long[] ends, int[] headcounts, int n, long from, long to) {
+        int peak = 0;
+        for (long t = from; t < to; t++) {
+            int sum = 0;
+            for (int i = 0; i < n; i++) {
+                if (starts[i] <= t && t < ends[i]) {
+                    sum += headcounts[i];
+                }
+            }
+            peak = Math.max(peak, sum);
+        }
+        return peak;
+    }
+
+    private static BookingOccupancy occupancy(LocalDateTime start, LocalDateTime end, int headcount) {
+        return new BookingOccupancy(UUID.randomUUID(), start, end, headcount);
+    }
+}
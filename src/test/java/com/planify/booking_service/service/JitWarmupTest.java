@@ -0,0 +1,155 @@
+package com.planify.booking_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.planify.booking_service.domain.Booking;
+import com.planify.booking_service.domain.BookingStatus;
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.repository.BookingRepository;
+import com.planify.booking_service.repository.LocationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JitWarmup Tests")
+class JitWarmupTest {
+
+    @Mock
+    private AvailabilityService availabilityService;
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private JitWarmup jitWarmup;
+
+    private Location testLocation;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jitWarmup, "enabled", true);
+        ReflectionTestUtils.setField(jitWarmup, "iterations", 20);
+        ReflectionTestUtils.setField(jitWarmup, "maxDuration", Duration.ofSeconds(30));
+
+        testLocation = Location.builder()
+            .id(UUID.randomUUID())
+            .name("Test Location")
+            .capacity(100)
+            .pricePerHourCents(5000)
+            .build();
+    }
+
+    @Test
+    @DisplayName("Should drive the configured iterations and roll back every transaction")
+    void testWarmUp_RollsBackAllIterations() {
+        // Given
+        List<SimpleTransactionStatus> transactions = new ArrayList<>();
+        when(locationRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(testLocation)));
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> {
+            SimpleTransactionStatus status = new SimpleTransactionStatus();
+            transactions.add(status);
+            return status;
+        });
+        when(availabilityService.checkConflicts(any(), any(), any(), anyInt())).thenReturn(List.of());
+        when(availabilityService.findConflicts(any(), any(), any(), anyInt())).thenReturn(List.of());
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenAnswer(inv -> {
+            Booking booking = inv.getArgument(0);
+            booking.setId(UUID.randomUUID());
+            return booking;
+        });
+
+        // When
+        jitWarmup.warmUp();
+
+        // Then
+        verify(availabilityService, times(20)).checkConflicts(eq(testLocation.getId()), any(), any(), eq(1));
+        verify(bookingRepository, times(20)).saveAndFlush(argThat(b -> b.getStatus() == BookingStatus.CANCELLED));
+        // Transaction manager ob commit statusa z rollbackOnly izvede rollback
+        assertThat(transactions).hasSize(40).allMatch(SimpleTransactionStatus::isRollbackOnly);
+        assertThat(meterRegistry.get("booking.warmup.duration").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("booking.warmup.latency")
+            .tags("operation", "checkAvailability", "phase", "warm").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should skip inserts but still warm queries when there are no locations")
+    void testWarmUp_NoLocations() {
+        // Given
+        when(locationRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        when(availabilityService.checkConflicts(any(), any(), any(), anyInt())).thenReturn(List.of());
+        when(availabilityService.findConflicts(any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        // When
+        jitWarmup.warmUp();
+
+        // Then
+        verify(availabilityService, times(20)).findConflicts(any(), any(), any(), eq(1));
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Should not fail startup when warmup traffic fails")
+    void testWarmUp_FailureDoesNotPropagate() {
+        // Given
+        when(locationRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(testLocation)));
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        when(availabilityService.checkConflicts(any(), any(), any(), anyInt()))
+            .thenThrow(new IllegalStateException("Database unavailable"));
+
+        // When
+        jitWarmup.warmUp();
+
+        // Then
+        verify(availabilityService, times(1)).checkConflicts(any(), any(), any(), anyInt());
+        verify(transactionManager).rollback(any());
+        assertThat(meterRegistry.get("booking.warmup.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when warmup is disabled")
+    void testWarmUp_Disabled() {
+        // Given
+        ReflectionTestUtils.setField(jitWarmup, "enabled", false);
+
+        // When
+        jitWarmup.warmUp();
+
+        // Then
+        verifyNoInteractions(availabilityService, locationRepository, bookingRepository, transactionManager);
+    }
+}
@@ -0,0 +1,166 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.domain.BookingStatus;
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.messaging.BookingResyncEvent;
+import com.planify.booking_service.repository.BookingCalendarRow;
+import com.planify.booking_service.repository.BookingRepository;
+import com.planify.booking_service.repository.LocationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LocationCalendarFeed Tests")
+class LocationCalendarFeedTest {
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ResourceVersions resourceVersions;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private LocationCalendarFeed calendarFeed;
+
+    private Location location;
+    private LocalDateTime start;
+    private BookingCalendarRow confirmed;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(calendarFeed, "pastDays", 30);
+        ReflectionTestUtils.setField(calendarFeed, "refreshInterval", Duration.ofMinutes(15));
+        location = Location.builder()
+            .id(UUID.randomUUID())
+            .name("Dvorana A, 1. nadstropje")
+            .build();
+        start = LocalDate.now(ZoneOffset.UTC).plusDays(1).atTime(9, 0);
+        confirmed = new BookingCalendarRow(UUID.randomUUID(), start, start.plusHours(2), BookingStatus.CONFIRMED, 3,
+            start.minusDays(5));
+    }
+
+    @Test
+    @DisplayName("Should render the feed once and serve it from memory while nothing changes")
+    void testRender_CachedWithoutChanges() {
+        // Given
+        when(locationRepository.findById(location.getId())).thenReturn(Optional.of(location));
+        when(bookingRepository.findCalendarRows(eq(location.getId()), any(), any(), any())).thenReturn(List.of(confirmed));
+
+        // When
+        LocationCalendarFeed.Rendered first = calendarFeed.render(location.getId()).orElseThrow();
+        for (int i = 0; i < 100; i++) {
+            assertThat(calendarFeed.render(location.getId()).orElseThrow()).isSameAs(first);
+        }
+
+        // Then
+        String body = new String(first.body(), StandardCharsets.UTF_8);
+        assertThat(body).startsWith("BEGIN:VCALENDAR\r\n").endsWith("END:VCALENDAR\r\n");
+        assertThat(body).contains("X-WR-CALNAME:Dvorana A\\, 1. nadstropje\r\n");
+        assertThat(body).contains("UID:" + confirmed.id() + "@booking.planify\r\n", "STATUS:CONFIRMED\r\n");
+        assertThat(first.lastModified()).isEqualTo(confirmed.updatedAt().toInstant(ZoneOffset.UTC));
+        verify(locationRepository, times(1)).findById(location.getId());
+        verify(bookingRepository, times(1)).findCalendarRows(eq(location.getId()), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reload only the changed window after a booking change")
+    void testRender_IncrementalUpdate() {
+        // Given
+        when(locationRepository.findById(location.getId())).thenReturn(Optional.of(location));
+        BookingCalendarRow later = new BookingCalendarRow(UUID.randomUUID(), start.plusDays(7), start.plusDays(7).plusHours(1),
+            BookingStatus.PENDING_PAYMENT, 1, start.minusDays(1));
+        when(bookingRepository.findCalendarRows(eq(location.getId()), any(), any(), any())).thenReturn(List.of(confirmed, later));
+        LocationCalendarFeed.Rendered before = calendarFeed.render(location.getId()).orElseThrow();
+
+        // When - prva rezervacija je preklicana, okno ne vrne ničesar več
+        when(bookingRepository.findCalendarRows(location.getId(), confirmed.startTime(), confirmed.endTime(),
+            EnumSet.of(BookingStatus.PENDING_PAYMENT, BookingStatus.CONFIRMED))).thenReturn(List.of());
+        calendarFeed.bookingsChanged(location.getId(), confirmed.startTime(), confirmed.endTime());
+        LocationCalendarFeed.Rendered after = calendarFeed.render(location.getId()).orElseThrow();
+
+        // Then
+        String body = new String(after.body(), StandardCharsets.UTF_8);
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+        assertThat(body).doesNotContain(confirmed.id().toString());
+        assertThat(body).contains(later.id().toString(), "STATUS:TENTATIVE\r\n");
+        verify(bookingRepository).findCalendarRows(eq(location.getId()), eq(confirmed.startTime()), eq(confirmed.endTime()), any());
+        verify(bookingRepository, times(2)).findCalendarRows(eq(location.getId()), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reload the whole feed after a resync")
+    void testRender_ResyncReloads() {
+        // Given
+        when(locationRepository.findById(location.getId())).thenReturn(Optional.of(location));
+        when(bookingRepository.findCalendarRows(eq(location.getId()), any(), any(), any())).thenReturn(List.of(confirmed));
+        LocationCalendarFeed.Rendered before = calendarFeed.render(location.getId()).orElseThrow();
+
+        // When
+        calendarFeed.onResync(new BookingResyncEvent());
+        LocationCalendarFeed.Rendered after = calendarFeed.render(location.getId()).orElseThrow();
+
+        // Then - vsebina je enaka, zato ETag in Last-Modified ostaneta
+        assertThat(after.etag()).isEqualTo(before.etag());
+        assertThat(after.lastModified()).isEqualTo(before.lastModified());
+        verify(bookingRepository, times(2)).findCalendarRows(eq(location.getId()), any(), any(), any());
+        assertThat(meterRegistry.counter("booking.calendar.refreshes", "type", "full").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should return empty for an unknown location")
+    void testRender_UnknownLocation() {
+        // Given
+        UUID unknown = UUID.randomUUID();
+        when(locationRepository.findById(unknown)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThat(calendarFeed.render(unknown)).isEmpty();
+        verify(bookingRepository, never()).findCalendarRows(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should fold content lines longer than 75 octets")
+    void testLine_Folding() {
+        // Given
+        StringBuilder out = new StringBuilder();
+
+        // When
+        LocationCalendarFeed.line(out, "SUMMARY:" + "č".repeat(60));
+
+        // Then
+        for (String physical : out.toString().split("\r\n")) {
+            assertThat(physical.getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(75);
+        }
+        assertThat(out.toString().replace("\r\n ", "")).isEqualTo("SUMMARY:" + "č".repeat(60) + "\r\n");
+    }
+}
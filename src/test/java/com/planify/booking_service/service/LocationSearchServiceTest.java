@@ -0,0 +1,100 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.repository.LocationRepository;
+import com.planify.booking_service.repository.LocationSearchCriteria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LocationSearchService Tests")
+class LocationSearchServiceTest {
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    private LocationSearchService locationSearchService;
+
+    @BeforeEach
+    void setUp() {
+        locationSearchService = new LocationSearchService(locationRepository);
+    }
+
+    @Test
+    @DisplayName("Should cap the page size and return no cursor on the last page")
+    void testSearch_LimitCappedAndLastPage() {
+        // Given
+        Location location = location("Riverside Venue", 9000, 120);
+        ArgumentCaptor<LocationSearchCriteria> criteria = ArgumentCaptor.forClass(LocationSearchCriteria.class);
+        when(locationRepository.search(criteria.capture())).thenReturn(List.of(location));
+
+        // When
+        LocationSearchService.Page page = locationSearchService.search(new LocationSearchCriteria(
+            null, null, null, null, null, 1, LocationSearchCriteria.Sort.NAME, null, null, 10_000));
+
+        // Then
+        assertThat(page.locations()).containsExactly(location);
+        assertThat(page.nextCursor()).isNull();
+        assertThat(criteria.getValue().limit()).isEqualTo(LocationSearchService.MAX_LIMIT + 1);
+    }
+
+    @Test
+    @DisplayName("Should continue a price-sorted search from the price and id of the last location")
+    void testSearch_PriceCursorRoundTrip() {
+        // Given
+        Location cheap = location("City Conference Hall", 5000, 200);
+        Location expensive = location("Tech Hub Auditorium", 15000, 300);
+        when(locationRepository.search(any())).thenReturn(List.of(cheap, expensive));
+
+        // When
+        LocationSearchService.Page page = locationSearchService.search(new LocationSearchCriteria(
+            null, null, null, null, null, 1, LocationSearchCriteria.Sort.PRICE, null, null, 1));
+        LocationSearchService.Cursor cursor = LocationSearchService.Cursor.decode(page.nextCursor(), LocationSearchCriteria.Sort.PRICE);
+
+        // Then
+        assertThat(page.locations()).containsExactly(cheap);
+        assertThat(cursor.key()).isEqualTo(5000);
+        assertThat(cursor.id()).isEqualTo(cheap.getId());
+        assertThat(LocationSearchService.Cursor.decode(page.nextCursor(), LocationSearchCriteria.Sort.CAPACITY)).isNull();
+        assertThat(LocationSearchService.Cursor.decode("not a cursor", LocationSearchCriteria.Sort.PRICE)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep names containing the cursor separator intact")
+    void testCursor_NameWithSeparator() {
+        // Given
+        UUID id = UUID.randomUUID();
+        String name = "Hall\nwith a line break";
+
+        // When
+        String token = new LocationSearchService.Cursor(LocationSearchCriteria.Sort.NAME, name, id).encode();
+        LocationSearchService.Cursor cursor = LocationSearchService.Cursor.decode(token, LocationSearchCriteria.Sort.NAME);
+
+        // Then
+        assertThat(cursor.key()).isEqualTo(name);
+        assertThat(cursor.id()).isEqualTo(id);
+    }
+
+    private static Location location(String name, int price, int capacity) {
+        return Location.builder()
+            .id(UUID.randomUUID())
+            .name(name)
+            .address("Cankarjeva 1, Ljubljana")
+            .capacity(capacity)
+            .pricePerHourCents(price)
+            .active(true)
+            .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.domain.Booking;
+import com.planify.booking_service.domain.BookingStatus;
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.domain.LocationDailyStats;
+import com.planify.booking_service.repository.LocationDailyStatsRepository;
+import com.planify.booking_service.repository.LocationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LocationStatsService Tests")
+class LocationStatsServiceTest {
+
+    @Mock
+    private LocationDailyStatsRepository statsRepository;
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    private LocationStatsService statsService;
+    private Location location;
+
+    @BeforeEach
+    void setUp() {
+        statsService = new LocationStatsService(statsRepository, locationRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(statsService, "autoRepair", true);
+        location = Location.builder()
+            .id(UUID.randomUUID())
+            .name("Tech Hub Auditorium")
+            .capacity(10)
+            .sharedCapacity(false)
+            .build();
+    }
+
+    @Test
+    @DisplayName("Should split minutes across days and count revenue on the start day")
+    void testBookingCreated_SpansMidnight() {
+        // Given
+        LocalDate day = LocalDate.of(2025, 1, 10);
+        Booking booking = booking(day.atTime(22, 0), day.plusDays(1).atTime(2, 0), 3, 48000);
+
+        // When
+        statsService.bookingCreated(booking);
+
+        // Then
+        verify(statsRepository).increment(location.getId(), day, "EUR", 1, 120L, 360L, 48000L);
+        verify(statsRepository).increment(location.getId(), day.plusDays(1), "EUR", 0, 120L, 360L, 0L);
+        verifyNoMoreInteractions(statsRepository);
+    }
+
+    @Test
+    @DisplayName("Should subtract a cancelled booking only when it was active")
+    void testBookingCancelled_OnlyActive() {
+        // Given
+        LocalDate day = LocalDate.of(2025, 1, 10);
+        Booking booking = booking(day.atTime(9, 0), day.atTime(11, 0), 1, 24000);
+
+        // When
+        statsService.bookingCancelled(booking, BookingStatus.CONFIRMED);
+        statsService.bookingCancelled(booking, BookingStatus.CANCELLED);
+
+        // Then
+        verify(statsRepository, times(1)).increment(location.getId(), day, "EUR", -1, -120L, -120L, -24000L);
+        verifyNoMoreInteractions(statsRepository);
+    }
+
+    @Test
+    @DisplayName("Should compute utilization from aggregates")
+    void testDailyReport_Utilization() {
+        // Given
+        LocalDate day = LocalDate.of(2025, 1, 10);
+        Location shared = Location.builder().id(UUID.randomUUID()).name("Co-working").capacity(10).sharedCapacity(true).build();
+        when(statsRepository.findBetween(day, day.plusDays(1))).thenReturn(List.of(
+            new LocationDailyStats(location.getId(), day, "EUR", 2, 360L, 360L, 48000L),
+            new LocationDailyStats(shared.getId(), day, "EUR", 5, 1440L, 7200L, 10000L)));
+        when(locationRepository.findAllById(anyList())).thenReturn(List.of(location, shared));
+
+        // When
+        List<LocationStatsService.DailyReport> report = statsService.dailyReport(null, day, day.plusDays(1));
+
+        // Then
+        assertThat(report).extracting(LocationStatsService.DailyReport::utilizationPercent).containsExactly(25.0, 50.0);
+        assertThat(report.get(0).locationName()).isEqualTo("Tech Hub Auditorium");
+        assertThat(report.get(0).revenueCents()).isEqualTo(48000L);
+    }
+
+    @Test
+    @DisplayName("Should rebuild aggregates under a table lock when the check finds mismatches")
+    void testCheckConsistency_RebuildsOnMismatch() {
+        // Given
+        when(statsRepository.countMismatches()).thenReturn(3L);
+
+        // When
+        statsService.checkConsistency();
+
+        // Then
+        InOrder inOrder = inOrder(statsRepository);
+        inOrder.verify(statsRepository).lockForRebuild();
+        inOrder.verify(statsRepository).deleteAllRows();
+        inOrder.verify(statsRepository).insertExpected();
+    }
+
+    @Test
+    @DisplayName("Should not rebuild consistent aggregates")
+    void testCheckConsistency_Consistent() {
+        // Given
+        when(statsRepository.countMismatches()).thenReturn(0L);
+
+        // When
+        statsService.checkConsistency();
+
+        // Then
+        verify(statsRepository, never()).deleteAllRows();
+    }
+
+    private Booking booking(LocalDateTime start, LocalDateTime end, int headcount, int amount) {
+        return Booking.builder()
+            .id(UUID.randomUUID())
+            .location(location)
+            .startTime(start)
+            .endTime(end)
+            .headcount(headcount)
+            .status(BookingStatus.CONFIRMED)
+            .totalAmountCents(amount)
+            .currency("EUR")
+            .build();
+    }
+}
@@ -0,0 +1,166 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.domain.BookingStatus;
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.repository.BookingRepository;
+import com.planify.booking_service.repository.BookingSnapshotRow;
+import com.planify.booking_service.repository.LocationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OccupancySnapshotService Tests")
+class OccupancySnapshotServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    @Mock
+    private SlotOccupancyIndex slotOccupancyIndex;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private OccupancySnapshotService snapshotService;
+
+    @TempDir
+    Path tempDir;
+
+    private Path snapshotPath;
+    private UUID testLocationId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private LocalDateTime highWaterMark;
+
+    @BeforeEach
+    void setUp() {
+        snapshotPath = tempDir.resolve("occupancy.snapshot");
+        ReflectionTestUtils.setField(snapshotService, "enabled", true);
+        ReflectionTestUtils.setField(snapshotService, "snapshotPath", snapshotPath);
+        ReflectionTestUtils.setField(snapshotService, "catchUpMargin", Duration.ofMinutes(5));
+
+        testLocationId = UUID.randomUUID();
+        start = LocalDate.now(ZoneOffset.UTC).plusDays(1).atTime(10, 0);
+        end = start.plusHours(2);
+        highWaterMark = LocalDateTime.of(2025, 1, 10, 12, 0);
+    }
+
+    @Test
+    @DisplayName("Should write a snapshot file with header and fixed-size records")
+    void testWriteSnapshot_WritesRecords() throws Exception {
+        // Given
+        givenSnapshotRows();
+
+        // When
+        snapshotService.writeSnapshot();
+
+        // Then
+        assertThat(snapshotPath).exists();
+        assertThat(Files.size(snapshotPath))
+            .isEqualTo(OccupancySnapshotService.HEADER_BYTES + 2L * OccupancySnapshotService.RECORD_BYTES);
+        try (var files = Files.list(snapshotPath.getParent())) {
+            assertThat(files).containsExactly(snapshotPath);
+        }
+    }
+
+    @Test
+    @DisplayName("Should restore index from snapshot and catch up on changed rows only")
+    void testWarmUp_RestoresFromSnapshot() {
+        // Given
+        givenSnapshotRows();
+        snapshotService.writeSnapshot();
+
+        UUID cancelledId = UUID.randomUUID();
+        when(locationRepository.findBySlotMinutesNotNullAndSharedCapacityFalse()).thenReturn(List.of(indexedLocation()));
+        when(slotOccupancyIndex.isIndexed(testLocationId)).thenReturn(true);
+        when(bookingRepository.findChangedSince(highWaterMark.minusMinutes(5))).thenReturn(List.of(
+            new BookingSnapshotRow(cancelledId, testLocationId, start, end, BookingStatus.CANCELLED)
+        ));
+
+        // When
+        snapshotService.warmUp();
+
+        // Then
+        verify(slotOccupancyIndex).reset(any());
+        verify(slotOccupancyIndex).markOccupied(testLocationId, start, end);
+        verify(slotOccupancyIndex).markOccupied(testLocationId, start.plusHours(3), end.plusHours(3));
+        verify(slotOccupancyIndex).refresh(testLocationId, start, end);
+        verify(slotOccupancyIndex, never()).rebuildAll();
+        assertThat(meterRegistry.get("booking.occupancy.index.warmup").tag("source", "snapshot").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should rebuild from database when no snapshot exists")
+    void testWarmUp_NoSnapshot() {
+        // When
+        snapshotService.warmUp();
+
+        // Then
+        verify(slotOccupancyIndex).rebuildAll();
+        verify(bookingRepository, never()).findChangedSince(any());
+    }
+
+    @Test
+    @DisplayName("Should rebuild from database when snapshot is corrupt")
+    void testWarmUp_CorruptSnapshot() throws Exception {
+        // Given
+        Files.write(snapshotPath, new byte[]{1, 2, 3});
+
+        // When
+        snapshotService.warmUp();
+
+        // Then
+        verify(slotOccupancyIndex).rebuildAll();
+        verify(slotOccupancyIndex, never()).reset(any());
+    }
+
+    private void givenSnapshotRows() {
+        when(bookingRepository.findMaxUpdatedAt()).thenReturn(Optional.of(highWaterMark));
+        when(bookingRepository.streamActiveEndingAfter(any(), any())).thenReturn(Stream.of(
+            new BookingSnapshotRow(UUID.randomUUID(), testLocationId, start, end, BookingStatus.CONFIRMED),
+            new BookingSnapshotRow(UUID.randomUUID(), testLocationId, start.plusHours(3), end.plusHours(3), BookingStatus.PENDING_PAYMENT)
+        ));
+    }
+
+    private Location indexedLocation() {
+        return Location.builder()
+            .id(testLocationId)
+            .name("Test Location")
+            .address("123 Test Street")
+            .capacity(100)
+            .pricePerHourCents(5000)
+            .active(true)
+            .slotMinutes(30)
+            .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.messaging.BookingChangedEvent;
+import com.planify.booking_service.messaging.BookingResyncEvent;
+import com.planify.booking_service.repository.LocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ResourceVersions Tests")
+class ResourceVersionsTest {
+
+    private static final String QUERY = "1736503200-1736506800-1";
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    private ResourceVersions resourceVersions;
+    private UUID locationA;
+    private UUID locationB;
+
+    @BeforeEach
+    void setUp() {
+        resourceVersions = new ResourceVersions(locationRepository);
+        locationA = UUID.randomUUID();
+        locationB = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should change only the availability ETag of the location another replica wrote to")
+    void testOnRemoteChange_BumpsOnlyThatLocation() {
+        // Given
+        String etagA = resourceVersions.availabilityEtag(locationA, QUERY, "json");
+        String etagB = resourceVersions.availabilityEtag(locationB, QUERY, "json");
+        LocalDateTime start = LocalDateTime.of(2025, 1, 10, 10, 0);
+
+        // When
+        resourceVersions.onRemoteChange(new BookingChangedEvent(locationA, start, start.plusHours(1), "other", 0L));
+
+        // Then
+        assertThat(resourceVersions.availabilityEtag(locationA, QUERY, "json")).isNotEqualTo(etagA);
+        assertThat(resourceVersions.availabilityEtag(locationB, QUERY, "json")).isEqualTo(etagB);
+    }
+
+    @Test
+    @DisplayName("Should change every availability ETag after a resync")
+    void testOnResync_BumpsAllLocations() {
+        // Given
+        String etagA = resourceVersions.availabilityEtag(locationA, QUERY, "json");
+        String etagB = resourceVersions.availabilityEtag(locationB, QUERY, "json");
+
+        // When
+        resourceVersions.onResync(new BookingResyncEvent());
+
+        // Then
+        assertThat(resourceVersions.availabilityEtag(locationA, QUERY, "json")).isNotEqualTo(etagA);
+        assertThat(resourceVersions.availabilityEtag(locationB, QUERY, "json")).isNotEqualTo(etagB);
+    }
+
+    @Test
+    @DisplayName("Should never match an ETag issued by another instance")
+    void testAvailabilityEtag_InstanceScoped() {
+        // Given
+        ResourceVersions otherReplica = new ResourceVersions(locationRepository);
+
+        // When / Then
+        assertThat(otherReplica.availabilityEtag(locationA, QUERY, "json")).isNotEqualTo(resourceVersions.availabilityEtag(locationA, QUERY, "json"));
+    }
+
+    @Test
+    @DisplayName("Should issue the same locations ETag on replicas that read the same locations")
+    void testLocationsEtag_SharedAcrossReplicas() {
+        // Given
+        when(locationRepository.fingerprint()).thenReturn("3f2a", "3f2a", "9c1b");
+        ResourceVersions otherReplica = new ResourceVersions(locationRepository);
+        resourceVersions.pollLocations();
+        otherReplica.pollLocations();
+
+        // When
+        String etag = resourceVersions.locationsEtag("json");
+        String otherEtag = otherReplica.locationsEtag("json");
+        otherReplica.pollLocations();
+
+        // Then
+        assertThat(otherEtag).isEqualTo(etag);
+        assertThat(otherReplica.locationsEtag("pb")).isNotEqualTo(resourceVersions.locationsEtag("pb"));
+    }
+}
@@ -0,0 +1,161 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.domain.SlotHold;
+import com.planify.booking_service.repository.LocationRepository;
+import com.planify.booking_service.repository.SlotHoldRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SlotHoldService Tests")
+class SlotHoldServiceTest {
+
+    @Mock
+    private SlotHoldRepository slotHoldRepository;
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    @Mock
+    private AvailabilityService availabilityService;
+
+    private SlotHoldService slotHoldService;
+    private UUID locationId;
+    private UUID organizationId;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        slotHoldService = new SlotHoldService(slotHoldRepository, locationRepository, availabilityService,
+            new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(slotHoldService, "defaultTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(slotHoldService, "maxTtl", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(slotHoldService, "sweepBatch", 1000);
+        locationId = UUID.randomUUID();
+        organizationId = UUID.randomUUID();
+        start = LocalDateTime.now(ZoneOffset.UTC).plusDays(1).withNano(0);
+    }
+
+    @Test
+    @DisplayName("Should hold a free window with the TTL capped at the maximum")
+    void testHold_FreeWindow() {
+        // Given
+        when(locationRepository.findByIdForUpdate(locationId)).thenReturn(Optional.of(location()));
+        when(availabilityService.findConflicts(locationId, start, start.plusHours(2), 1)).thenReturn(List.of());
+        when(slotHoldRepository.save(any(SlotHold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        LocalDateTime before = LocalDateTime.now(ZoneOffset.UTC);
+
+        // When
+        SlotHoldService.HoldResult result = slotHoldService.hold(locationId, organizationId, start, start.plusHours(2),
+            1, Duration.ofHours(2));
+
+        // Then
+        assertThat(result.hold()).isNotNull();
+        assertThat(result.hold().getExpiresAt()).isBetween(before.plusMinutes(30), LocalDateTime.now(ZoneOffset.UTC).plusMinutes(30));
+        verify(availabilityService).onHoldCreated(result.hold());
+        var order = inOrder(locationRepository, availabilityService, slotHoldRepository);
+        order.verify(locationRepository).findByIdForUpdate(locationId);
+        order.verify(availabilityService).findConflicts(locationId, start, start.plusHours(2), 1);
+        order.verify(slotHoldRepository).save(any(SlotHold.class));
+    }
+
+    @Test
+    @DisplayName("Should not hold a window that conflicts with bookings or other holds")
+    void testHold_Conflict() {
+        // Given
+        UUID conflict = UUID.randomUUID();
+        when(locationRepository.findByIdForUpdate(locationId)).thenReturn(Optional.of(location()));
+        when(availabilityService.findConflicts(locationId, start, start.plusHours(2), 1)).thenReturn(List.of(conflict));
+
+        // When
+        SlotHoldService.HoldResult result = slotHoldService.hold(locationId, organizationId, start, start.plusHours(2), 1, null);
+
+        // Then
+        assertThat(result.hold()).isNull();
+        assertThat(result.conflicts()).containsExactly(conflict);
+        verify(slotHoldRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should reject windows in the past")
+    void testHold_PastWindow() {
+        // Given
+        LocalDateTime past = LocalDateTime.now(ZoneOffset.UTC).minusHours(3);
+
+        // When & Then
+        assertThatThrownBy(() -> slotHoldService.hold(locationId, organizationId, past, past.plusHours(1), 1, null))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(slotHoldRepository, availabilityService);
+    }
+
+    @Test
+    @DisplayName("Should claim only a live hold of the same organization covering the requested window")
+    void testClaim_Validation() {
+        // Given
+        UUID holdId = UUID.randomUUID();
+        SlotHold hold = SlotHold.builder()
+            .id(holdId)
+            .locationId(locationId)
+            .organizationId(organizationId)
+            .startTime(start)
+            .endTime(start.plusHours(2))
+            .headcount(1)
+            .expiresAt(LocalDateTime.now(ZoneOffset.UTC).plusMinutes(5))
+            .build();
+        when(slotHoldRepository.findByIdForUpdate(holdId)).thenReturn(Optional.of(hold));
+
+        // When & Then
+        assertThat(slotHoldService.claim(holdId, locationId, organizationId, start, start.plusHours(1), 1)).contains(hold);
+        assertThat(slotHoldService.claim(holdId, locationId, UUID.randomUUID(), start, start.plusHours(1), 1)).isEmpty();
+        assertThat(slotHoldService.claim(holdId, locationId, organizationId, start, start.plusHours(3), 1)).isEmpty();
+        hold.setExpiresAt(LocalDateTime.now(ZoneOffset.UTC).minusSeconds(1));
+        assertThat(slotHoldService.claim(holdId, locationId, organizationId, start, start.plusHours(1), 1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should refresh occupancy for every expired hold deleted in the batch")
+    void testDeleteExpired() {
+        // Given
+        SlotHold first = SlotHold.builder().id(UUID.randomUUID()).locationId(locationId).build();
+        SlotHold second = SlotHold.builder().id(UUID.randomUUID()).locationId(locationId).build();
+        when(slotHoldRepository.deleteExpired(any(), eq(1000))).thenReturn(List.of(first, second));
+
+        // When
+        List<SlotHold> expired = slotHoldService.deleteExpired();
+
+        // Then
+        assertThat(expired).containsExactly(first, second);
+        ArgumentCaptor<SlotHold> captor = ArgumentCaptor.forClass(SlotHold.class);
+        verify(availabilityService, times(2)).onHoldReleased(captor.capture());
+        assertThat(captor.getAllValues()).containsExactly(first, second);
+    }
+
+    private Location location() {
+        return Location.builder()
+            .id(locationId)
+            .name("Riverside Venue")
+            .capacity(120)
+            .sharedCapacity(false)
+            .build();
+    }
+}
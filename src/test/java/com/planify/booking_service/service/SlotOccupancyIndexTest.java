@@ -0,0 +1,223 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.domain.Location;
+import com.planify.booking_service.repository.BookingOccupancy;
+import com.planify.booking_service.repository.BookingRepository;
+import com.planify.booking_service.repository.LocationRepository;
+import com.planify.booking_service.repository.SlotHoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SlotOccupancyIndex Tests")
+class SlotOccupancyIndexTest {
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private SlotHoldRepository slotHoldRepository;
+
+    @InjectMocks
+    private SlotOccupancyIndex index;
+
+    private UUID testLocationId;
+    private LocalDate day;
+    private LocalDateTime dayStart;
+
+    @BeforeEach
+    void setUp() {
+        testLocationId = UUID.randomUUID();
+        day = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+        dayStart = day.atStartOfDay();
+    }
+
+    @Test
+    @DisplayName("Should not answer for locations that are not indexed")
+    void testIsFree_NotIndexed() {
+        assertThat(index.isIndexed(testLocationId)).isFalse();
+        assertThat(index.isFree(testLocationId, dayStart, dayStart.plusHours(1))).isFalse();
+        assertThat(index.findFreeSlots(testLocationId, day)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rebuild occupancy from repository on startup")
+    void testRebuildAll_LoadsBookings() {
+        // Given
+        givenIndexedLocation(List.of(
+            occupancy(dayStart.plusHours(10), dayStart.plusHours(11))
+        ));
+
+        // When
+        index.rebuildAll();
+
+        // Then
+        assertThat(index.isIndexed(testLocationId)).isTrue();
+        assertThat(index.isFree(testLocationId, dayStart.plusHours(9), dayStart.plusHours(10))).isTrue();
+        assertThat(index.isFree(testLocationId, dayStart.plusHours(10).plusMinutes(45), dayStart.plusHours(12))).isFalse();
+        assertThat(index.isFree(testLocationId, dayStart.plusHours(11), dayStart.plusHours(12))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should treat misaligned bookings as occupying the whole slot")
+    void testMarkOccupied_Misaligned() {
+        // Given
+        givenIndexedLocation(List.of());
+        index.rebuildAll();
+
+        // When
+        index.markOccupied(testLocationId, dayStart.plusHours(10).plusMinutes(5), dayStart.plusHours(10).plusMinutes(20));
+
+        // Then
+        assertThat(index.isFree(testLocationId, dayStart.plusHours(10), dayStart.plusHours(10).plusMinutes(5))).isFalse();
+        assertThat(index.isFree(testLocationId, dayStart.plusHours(10).plusMinutes(30), dayStart.plusHours(11))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should detect occupancy in bookings spanning midnight")
+    void testIsFree_MultiDay() {
+        // Given
+        givenIndexedLocation(List.of());
+        index.rebuildAll();
+        index.markOccupied(testLocationId, dayStart.plusHours(22), dayStart.plusHours(26));
+
+        // Then
+        assertThat(index.isFree(testLocationId, dayStart.plusHours(25), dayStart.plusHours(27))).isFalse();
+        assertThat(index.isFree(testLocationId, dayStart.plusHours(26), dayStart.plusHours(30))).isTrue();
+        assertThat(index.isFree(testLocationId, dayStart.plusHours(8), dayStart.plusHours(22))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should clear slots after refresh when booking was cancelled")
+    void testRefresh_AfterCancellation() {
+        // Given
+        LocalDateTime start = dayStart.plusHours(10);
+        LocalDateTime end = dayStart.plusHours(12);
+        givenIndexedLocation(List.of(occupancy(start, end)));
+        index.rebuildAll();
+        when(bookingRepository.findOverlappingOccupancy(eq(testLocationId), eq(dayStart), eq(dayStart.plusDays(1)), any()))
+            .thenReturn(List.of());
+
+        // When
+        index.refresh(testLocationId, start, end);
+
+        // Then
+        assertThat(index.isFree(testLocationId, start, end)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not answer for windows that start before the loaded range")
+    void testIsFree_BeforeToday() {
+        // Given
+        givenIndexedLocation(List.of());
+        index.rebuildAll();
+        LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        LocalDateTime yesterdayStart = yesterday.atStartOfDay();
+
+        // Then
+        assertThat(index.isFree(testLocationId, yesterdayStart.plusHours(10), yesterdayStart.plusHours(11))).isFalse();
+        assertThat(index.isFree(testLocationId, yesterdayStart.plusHours(23), dayStart.plusHours(1))).isFalse();
+        assertThat(index.findFreeSlots(testLocationId, yesterday)).isEmpty();
+        assertThat(index.isFree(testLocationId, dayStart.plusHours(10), dayStart.plusHours(11))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep a booking marked while refresh was reading the database")
+    void testRefresh_ConcurrentMarkKept() {
+        // Given
+        givenIndexedLocation(List.of());
+        index.rebuildAll();
+        LocalDateTime start = dayStart.plusHours(10);
+        LocalDateTime end = dayStart.plusHours(11);
+        when(bookingRepository.findOverlappingOccupancy(eq(testLocationId), eq(dayStart), eq(dayStart.plusDays(1)), any()))
+            .thenAnswer(invocation -> {
+                // Rezervacija, potrjena po branju, se označi, preden refresh zapiše dan
+                index.markOccupied(testLocationId, start, end);
+                return List.of();
+            });
+
+        // When
+        index.refresh(testLocationId, dayStart.plusHours(14), dayStart.plusHours(15));
+
+        // Then
+        assertThat(index.isFree(testLocationId, start, end)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep a booking marked while rebuild was reading the database")
+    void testRebuild_ConcurrentMarkKept() {
+        // Given
+        givenIndexedLocation(List.of());
+        index.rebuildAll();
+        LocalDateTime start = dayStart.plusHours(10);
+        LocalDateTime end = dayStart.plusHours(11);
+        when(bookingRepository.findOccupancyEndingAfter(eq(testLocationId), any(), any()))
+            .thenAnswer(invocation -> {
+                index.markOccupied(testLocationId, start, end);
+                return List.of();
+            });
+
+        // When
+        index.rebuildAll();
+
+        // Then
+        assertThat(index.isFree(testLocationId, start, end)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should list free ranges between occupied slots")
+    void testFindFreeSlots() {
+        // Given
+        givenIndexedLocation(List.of(
+            occupancy(dayStart.plusHours(8), dayStart.plusHours(9)),
+            occupancy(dayStart.plusHours(20), dayStart.plusHours(24))
+        ));
+        index.rebuildAll();
+
+        // When
+        List<SlotOccupancyIndex.SlotRange> free = index.findFreeSlots(testLocationId, day).orElseThrow();
+
+        // Then
+        assertThat(free).containsExactly(
+            new SlotOccupancyIndex.SlotRange(dayStart, dayStart.plusHours(8)),
+            new SlotOccupancyIndex.SlotRange(dayStart.plusHours(9), dayStart.plusHours(20))
+        );
+    }
+
+    private void givenIndexedLocation(List<BookingOccupancy> bookings) {
+        Location location = Location.builder()
+            .id(testLocationId)
+            .name("Test Location")
+            .address("123 Test Street")
+            .capacity(100)
+            .pricePerHourCents(5000)
+            .active(true)
+            .slotMinutes(15)
+            .build();
+        when(locationRepository.findBySlotMinutesNotNullAndSharedCapacityFalse()).thenReturn(List.of(location));
+        when(bookingRepository.findOccupancyEndingAfter(eq(testLocationId), any(), any())).thenReturn(bookings);
+    }
+
+    private static BookingOccupancy occupancy(LocalDateTime start, LocalDateTime end) {
+        return new BookingOccupancy(UUID.randomUUID(), start, end, 1);
+    }
+}
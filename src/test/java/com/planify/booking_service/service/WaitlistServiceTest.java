@@ -0,0 +1,123 @@
+package com.planify.booking_service.service;
+
+import com.planify.booking_service.domain.WaitlistEntry;
+import com.planify.booking_service.domain.WaitlistStatus;
+import com.planify.booking_service.repository.WaitlistRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WaitlistService Tests")
+class WaitlistServiceTest {
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    private WaitlistService waitlistService;
+    private UUID locationId;
+    private UUID organizationId;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        waitlistService = new WaitlistService(waitlistRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(waitlistService, "maxWindow", Duration.ofDays(1));
+        ReflectionTestUtils.setField(waitlistService, "promotionBatch", 20);
+        locationId = UUID.randomUUID();
+        organizationId = UUID.randomUUID();
+        start = LocalDateTime.now(ZoneOffset.UTC).plusDays(2).withNano(0);
+    }
+
+    @Test
+    @DisplayName("Should return the existing entry when the same organization joins twice")
+    void testJoin_Idempotent() {
+        // Given
+        WaitlistEntry existing = WaitlistEntry.builder().id(UUID.randomUUID()).status(WaitlistStatus.WAITING).build();
+        when(waitlistRepository.findByLocationIdAndOrganizationIdAndStartTimeAndEndTimeAndStatus(
+            locationId, organizationId, start, start.plusHours(2), WaitlistStatus.WAITING)).thenReturn(Optional.of(existing));
+
+        // When
+        Optional<WaitlistEntry> entry = waitlistService.join(locationId, null, organizationId, start, start.plusHours(2), 1, "EUR");
+
+        // Then
+        assertThat(entry).contains(existing);
+        verify(waitlistRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should not accept windows that already started or exceed the maximum window")
+    void testJoin_RejectsUnpromotableWindows() {
+        // Given
+        LocalDateTime past = LocalDateTime.now(ZoneOffset.UTC).minusMinutes(5);
+
+        // When & Then
+        assertThat(waitlistService.join(locationId, null, organizationId, past, past.plusHours(1), 1, "EUR")).isEmpty();
+        assertThat(waitlistService.join(locationId, null, organizationId, start, start.plusDays(2), 1, "EUR")).isEmpty();
+        verifyNoInteractions(waitlistRepository);
+    }
+
+    @Test
+    @DisplayName("Should bound the candidate lookup by the maximum window")
+    void testCandidates_BoundedRange() {
+        // Given
+        when(waitlistRepository.lockOverlappingWaiting(locationId, start.minusDays(1), start, start.plusHours(3), Limit.of(20)))
+            .thenReturn(List.of());
+
+        // When
+        List<WaitlistEntry> candidates = waitlistService.candidates(locationId, start, start.plusHours(3));
+
+        // Then
+        assertThat(candidates).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should let the organization that joined leave the waitlist")
+    void testLeave_Owner() {
+        // Given
+        WaitlistEntry entry = WaitlistEntry.builder().id(UUID.randomUUID()).organizationId(organizationId)
+            .status(WaitlistStatus.WAITING).build();
+        when(waitlistRepository.findByIdForUpdate(entry.getId())).thenReturn(Optional.of(entry));
+
+        // When
+        WaitlistEntry left = waitlistService.leave(entry.getId(), organizationId);
+
+        // Then
+        assertThat(left.getStatus()).isEqualTo(WaitlistStatus.LEFT);
+        verify(waitlistRepository).save(entry);
+    }
+
+    @Test
+    @DisplayName("Should treat another organization's entry as missing when leaving")
+    void testLeave_OtherOrganization() {
+        // Given
+        WaitlistEntry entry = WaitlistEntry.builder().id(UUID.randomUUID()).organizationId(organizationId)
+            .status(WaitlistStatus.WAITING).build();
+        when(waitlistRepository.findByIdForUpdate(entry.getId())).thenReturn(Optional.of(entry));
+
+        // When & Then
+        assertThatThrownBy(() -> waitlistService.leave(entry.getId(), UUID.randomUUID()))
+            .isInstanceOf(NoSuchElementException.class);
+        assertThat(entry.getStatus()).isEqualTo(WaitlistStatus.WAITING);
+        verify(waitlistRepository, never()).save(any());
+    }
+}